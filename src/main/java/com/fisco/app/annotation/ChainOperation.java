@@ -0,0 +1,36 @@
+package com.fisco.app.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 上链准入注解
+ * 标注在会发起上链交易的业务方法上，列出该操作需要的全部上链交易类别（同一类别出现多次表示需要多个令牌），
+ * 准入控制在方法入口、任何数据库和链上操作之前按 企业 + 类别 一次性申请全部令牌，任一类别不足时整体拒绝
+ *
+ * 例如仓单审核通过需要创建并验证上链：@ChainOperation({ISSUE, OTHER})
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChainOperation {
+
+    /**
+     * 该操作包含的上链交易类别
+     */
+    OperationClass[] value();
+
+    enum OperationClass {
+        /** 开立/创建（票据开立、应收账款创建、仓单创建） */
+        ISSUE,
+        /** 背书/转让 */
+        ENDORSE,
+        /** 拆分/合并 */
+        SPLIT_MERGE,
+        /** 质押/释放 */
+        PLEDGE,
+        /** 其他上链操作 */
+        OTHER
+    }
+}
@@ -0,0 +1,21 @@
+package com.fisco.app.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等操作注解
+ * 用于标记会上链或修改业务数据的方法；请求携带 Idempotency-Key 请求头时，
+ * 同一调用方使用同一键的重试直接返回首次执行结果，不再重复执行（不会再次调用合约上链）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+
+    /**
+     * 操作名称，默认取 类名.方法名
+     */
+    String value() default "";
+}
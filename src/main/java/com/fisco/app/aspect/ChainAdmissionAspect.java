@@ -0,0 +1,76 @@
+package com.fisco.app.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.security.UserAuthentication;
+import com.fisco.app.service.blockchain.ChainAdmissionControl;
+import com.fisco.app.service.blockchain.ChainRpcMetrics;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 上链准入切面
+ * 拦截标记了 @ChainOperation 注解的业务方法，在方法入口按当前登录用户所属企业一次性申请该操作需要的全部令牌，
+ * 超限时在任何数据库写入和链上交易之前快速拒绝，不会出现业务数据已落库、上链却被限速的半完成状态
+ *
+ * 业务方法内部再调用其他 @ChainOperation 方法时只由最外层申请；
+ * 没有登录用户的调用（定时任务、到期事件、批量导入线程）不在此限速，批量任务自行调用 ChainAdmissionControl.await
+ *
+ * 最外层业务方法同时作为链上 RPC 计数范围（ChainRpcMetrics），不论是否限速
+ */
+@Aspect
+@Component
+@Order(0) // 位于上链状态检查、审计和事务切面之外；幂等重试请求在更外层直接返回，不消耗令牌
+@RequiredArgsConstructor
+public class ChainAdmissionAspect {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final ChainAdmissionControl admissionControl;
+    private final ChainRpcMetrics rpcMetrics;
+
+    @Around("@annotation(chainOperation)")
+    public Object around(ProceedingJoinPoint joinPoint, ChainOperation chainOperation) throws Throwable {
+        if (ACTIVE.get() != null) {
+            return joinPoint.proceed();
+        }
+        String enterprise = currentEnterprise();
+        if (enterprise != null) {
+            admissionControl.admit(enterprise, chainOperation.value());
+        }
+        ACTIVE.set(Boolean.TRUE);
+        rpcMetrics.begin(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            rpcMetrics.end();
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * 当前登录用户所属企业，优先取企业链上地址；不属于企业的用户按用户名单独限速
+     */
+    private static String currentEnterprise() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof UserAuthentication)) {
+            return null;
+        }
+        UserAuthentication user = (UserAuthentication) authentication;
+        if (user.getEnterpriseAddress() != null && !user.getEnterpriseAddress().isEmpty()) {
+            return user.getEnterpriseAddress();
+        }
+        if (user.getEnterpriseId() != null && !user.getEnterpriseId().isEmpty()) {
+            return user.getEnterpriseId();
+        }
+        return "user:" + user.getUsername();
+    }
+}
@@ -0,0 +1,257 @@
+package com.fisco.app.aspect;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fisco.app.annotation.Idempotent;
+import com.fisco.app.exception.BlockchainIntegrationException;
+import com.fisco.app.exception.BusinessException;
+import com.fisco.app.service.blockchain.ChainTxResult;
+import com.fisco.app.service.system.IdempotencyStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 幂等切面
+ * 拦截标记了 @Idempotent 注解的方法：请求携带 Idempotency-Key 请求头时按 调用方 + 幂等键 占用记录，
+ * 重试请求直接返回首次执行结果，不再执行业务方法和合约调用；未携带请求头时按原逻辑执行
+ *
+ * 同一键携带不同参数或用于其他操作时拒绝；首次请求仍在执行时返回 409，由客户端稍后重试，
+ * 超过 app.idempotency.lease-minutes 仍未完成的占用由重试请求重新占用
+ *
+ * 幂等方法内调用 ContractService 上链方法前先标记记录已提交上链，返回后记录交易哈希；
+ * 一旦可能已有交易上链，执行失败也不释放幂等键、占用过期也不允许重新占用，重试请求返回 409 和交易哈希，
+ * 只有交易被合约回滚（链上状态未变化）或在发送前失败时才视为未提交
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(-1) // 位于上链准入、上链状态检查、审计和事务切面之外，重试请求不进入业务事务，也不消耗上链令牌
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    /**
+     * 当前线程正在执行的幂等请求；幂等方法内部再调用其他幂等方法时，只由最外层占用幂等键
+     */
+    private static final ThreadLocal<Execution> ACTIVE = new ThreadLocal<>();
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(com.fisco.app.annotation.Idempotent)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        String key = currentKey();
+        if (key == null || ACTIVE.get() != null) {
+            return joinPoint.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(400, HEADER + " 长度不能超过" + MAX_KEY_LENGTH);
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        Idempotent annotation = method.getAnnotation(Idempotent.class);
+        String operation = annotation.value().isEmpty()
+                ? signature.getDeclaringType().getSimpleName() + "." + method.getName()
+                : annotation.value();
+        String scope = currentScope();
+        String requestHash = hash(joinPoint.getArgs());
+
+        Optional<IdempotencyStore.IdempotencyRecord> existing =
+                idempotencyStore.begin(scope, key, operation, requestHash);
+        if (existing.isPresent()) {
+            return replay(existing.get(), key, operation, requestHash, method);
+        }
+
+        Object result;
+        Execution execution = new Execution(scope, key);
+        ACTIVE.set(execution);
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            if (execution.submissions > 0) {
+                // 交易可能已上链，保留 IN_PROGRESS 记录，重试返回 409 而不是再次上链
+                log.warn("幂等请求在提交上链后失败，保留幂等键待核对: operation={}, key={}, error={}",
+                        operation, key, e.getMessage());
+                throw e;
+            }
+            try {
+                idempotencyStore.release(scope, key);
+            } catch (RuntimeException releaseError) {
+                // 保留业务异常；记录保持 IN_PROGRESS，占用期满后允许重试
+                log.error("幂等键释放失败: operation={}, key={}, error={}", operation, key, releaseError.getMessage());
+            }
+            throw e;
+        } finally {
+            ACTIVE.remove();
+        }
+        complete(scope, key, operation, result);
+        return result;
+    }
+
+    /**
+     * 幂等请求内的上链调用：发送前标记记录已提交上链，标记失败时不发送交易
+     */
+    @Around("execution(public com.fisco.app.service.blockchain.ChainTxResult "
+            + "com.fisco.app.service.blockchain.ContractService.*(..))")
+    public Object aroundChainSubmit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Execution execution = ACTIVE.get();
+        if (execution == null) {
+            return joinPoint.proceed();
+        }
+        if (execution.submissions == 0) {
+            idempotencyStore.markSubmitted(execution.scope, execution.key);
+        }
+        ChainTxResult result;
+        try {
+            result = (ChainTxResult) joinPoint.proceed();
+        } catch (BlockchainIntegrationException.TransactionRevertException
+                 | BlockchainIntegrationException.ContractNotFoundException e) {
+            // 交易被回滚或未发送，链上状态未变化
+            if (execution.submissions == 0) {
+                clearSubmitted(execution);
+            }
+            throw e;
+        } catch (Throwable e) {
+            // 超时、连接中断等无法确定交易是否已上链，按已提交处理
+            execution.submissions++;
+            throw e;
+        }
+        execution.submissions++;
+        String txHash = ChainTxResult.txHashOf(result);
+        if (txHash != null) {
+            try {
+                idempotencyStore.recordTxHash(execution.scope, execution.key, txHash);
+            } catch (RuntimeException e) {
+                // 已标记提交，交易哈希仅用于核对
+                log.warn("幂等记录交易哈希写入失败: key={}, txHash={}, error={}", execution.key, txHash, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void clearSubmitted(Execution execution) {
+        try {
+            idempotencyStore.clearSubmitted(execution.scope, execution.key);
+        } catch (RuntimeException e) {
+            // 标记保留时重试返回 409，不会重复上链
+            log.warn("幂等记录上链标记撤销失败: key={}, error={}", execution.key, e.getMessage());
+        }
+    }
+
+    /**
+     * 记录执行结果；业务已执行成功，记录失败只告警，不影响本次响应
+     * 结果无法序列化时记录空结果（重试返回空），写入失败时记录保持 IN_PROGRESS，占用期满后可重新执行
+     */
+    private void complete(String scope, String key, String operation, Object result) {
+        String responseBody = null;
+        try {
+            responseBody = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("幂等结果序列化失败，重试将返回空结果: operation={}, key={}, error={}",
+                    operation, key, e.getMessage());
+        }
+        try {
+            idempotencyStore.complete(scope, key, responseBody);
+        } catch (RuntimeException e) {
+            log.error("幂等结果记录失败，占用期满后允许重试: operation={}, key={}, error={}",
+                    operation, key, e.getMessage());
+        }
+    }
+
+    private Object replay(IdempotencyStore.IdempotencyRecord record, String key, String operation,
+                          String requestHash, Method method) throws JsonProcessingException {
+        if (!record.getOperation().equals(operation) || !record.getRequestHash().equals(requestHash)) {
+            throw new BusinessException(400, HEADER + " 已用于其他请求: " + key);
+        }
+        if (!record.isCompleted() && record.isSubmitted()) {
+            throw new BusinessException(409, "相同 " + HEADER + " 的请求已提交上链，结果待核对，请查询业务状态"
+                    + (record.getTxHash() != null ? "，交易哈希: " + record.getTxHash() : ""));
+        }
+        if (!record.isCompleted()) {
+            throw new BusinessException(409, "相同 " + HEADER + " 的请求正在处理中，请稍后重试");
+        }
+        log.info("幂等重试，返回首次执行结果: operation={}, key={}", operation, key);
+        if (method.getReturnType() == void.class || record.getResponseBody() == null) {
+            return null;
+        }
+        return objectMapper.readValue(record.getResponseBody(),
+                objectMapper.getTypeFactory().constructType(method.getGenericReturnType()));
+    }
+
+    private static String currentKey() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String key = request.getHeader(HEADER);
+        return key != null && !key.trim().isEmpty() ? key.trim() : null;
+    }
+
+    private static String currentScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+
+    /**
+     * 请求参数摘要
+     */
+    private String hash(Object[] args) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(args);
+        } catch (JsonProcessingException e) {
+            payload = Arrays.deepToString(args);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static final class Execution {
+        private final String scope;
+        private final String key;
+
+        /**
+         * 可能已上链的交易数
+         */
+        private int submissions;
+
+        private Execution(String scope, String key) {
+            this.scope = scope;
+            this.key = key;
+        }
+    }
+}
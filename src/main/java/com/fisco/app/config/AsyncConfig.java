@@ -1,31 +1,130 @@
 package com.fisco.app.config;
 
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 异步配置
  * 启用异步方法执行，用于审计日志记录和缓存更新
+ *
+ * app.threads.mode=virtual 且运行在 JDK 21+ 时，Tomcat 请求处理、异步任务和链上并发读取改为每个任务一个虚拟线程，
+ * 并发度不再受线程数限制，实际上限由数据库连接池（druid max-active）和链客户端决定；
+ * 默认 platform 模式及 Java 11 下保持原有的平台线程池
+ *
+ * 虚拟线程执行器不由 Tomcat 或 Spring 管理生命周期，在本配置销毁时（Web 服务器已停止之后）统一关闭
  */
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    @Value("${app.threads.mode:platform}")
+    private String mode;
+
+    @Value("${app.threads.async.core-size:5}")
+    private int asyncCoreSize;
+
+    @Value("${app.threads.async.max-size:10}")
+    private int asyncMaxSize;
+
+    @Value("${app.threads.async.queue-capacity:100}")
+    private int asyncQueueCapacity;
+
+    @Value("${app.threads.chain-io-size:8}")
+    private int chainIoSize;
+
+    /**
+     * 已创建的虚拟线程执行器
+     */
+    private final List<ExecutorService> virtualExecutors = new CopyOnWriteArrayList<>();
+
     /**
      * 配置异步任务执行器
      */
     @Bean(name = "asyncTaskExecutor")
     public Executor asyncTaskExecutor() {
+        Optional<ExecutorService> virtual = virtualExecutor("async-");
+        if (virtual.isPresent()) {
+            return new TaskExecutorAdapter(virtual.get());
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(asyncCoreSize);
+        executor.setMaxPoolSize(asyncMaxSize);
+        executor.setQueueCapacity(asyncQueueCapacity);
         executor.setThreadNamePrefix("async-");
         executor.initialize();
         return executor;
     }
+
+    /**
+     * 链上并发读取执行器（如区块统计并发拉取采样区块）
+     * 平台线程模式下为固定大小线程池，队列满时由调用线程执行
+     */
+    @Bean(name = "chainIoExecutor", destroyMethod = "shutdown")
+    public ExecutorService chainIoExecutor() {
+        return virtualExecutor("chain-io-").orElseGet(() -> new ThreadPoolExecutor(chainIoSize, chainIoSize,
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+                new CustomizableThreadFactory("chain-io-"), new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    /**
+     * 虚拟线程模式下 Tomcat 每个请求一个虚拟线程，平台线程模式下不修改 Tomcat 线程池
+     * 线程模式只在 virtualExecutor 中判断（忽略大小写），与异步任务、链上读取执行器一致
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadTomcatCustomizer() {
+        return protocolHandler -> virtualExecutor("http-").ifPresent(protocolHandler::setExecutor);
+    }
+
+    /**
+     * 关闭虚拟线程执行器，已提交的任务继续执行完
+     */
+    @PreDestroy
+    public void shutdownVirtualExecutors() {
+        for (ExecutorService executor : virtualExecutors) {
+            executor.shutdown();
+        }
+        for (ExecutorService executor : virtualExecutors) {
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Optional<ExecutorService> virtualExecutor(String prefix) {
+        if (!"virtual".equalsIgnoreCase(mode)) {
+            return Optional.empty();
+        }
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor(prefix);
+        executor.ifPresent(e -> {
+            virtualExecutors.add(e);
+            log.info("使用虚拟线程执行器: prefix={}", prefix);
+        });
+        return executor;
+    }
 }
@@ -1,9 +1,16 @@
 package com.fisco.app.config;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import javax.annotation.PreDestroy;
 
 import org.fisco.bcos.sdk.v3.BcosSDK;
 import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.config.Config;
+import org.fisco.bcos.sdk.v3.config.ConfigOption;
+import org.fisco.bcos.sdk.v3.config.model.ConfigProperty;
 import org.fisco.bcos.sdk.v3.crypto.keypair.CryptoKeyPair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,12 +19,16 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.fisco.app.service.blockchain.ChainClientPool;
 
 /**
  * FISCO BCOS SDK 配置类
  * 负责初始化 SDK 客户端和管理连接
  *
  * 当 fisco.enabled=false 时，区块链相关功能将被禁用，但应用仍可正常启动
+ *
+ * fisco.read-peers 配置的每个节点单独建立一个只读客户端，与主客户端一起组成 ChainClientPool，
+ * 只读调用按节点延迟和负载在池中路由，交易仍经主客户端发送
  */
 @Configuration
 public class BcosConfig {
@@ -33,21 +44,28 @@ public class BcosConfig {
     @Value("${fisco.enabled:true}")
     private boolean fiscoEnabled;
 
+    @Value("${fisco.read-peers:}")
+    private List<String> readPeers;
+
+    @Value("${app.chain-pool.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${app.chain-pool.slow-threshold-ms:2000}")
+    private long slowThresholdMs;
+
+    @Value("${app.chain-pool.eject-ms:30000}")
+    private long ejectMs;
+
+    @Value("${app.chain-pool.max-block-lag:10}")
+    private long maxBlockLag;
+
     private BcosSDK sdk;
 
     @Bean
     @ConditionalOnProperty(name = "fisco.enabled", havingValue = "true", matchIfMissing = true)
     public BcosSDK bcosSDK() {
         try {
-            String configPath;
-            // Support both classpath resources and absolute file paths
-            if (configFile.startsWith("/")) {
-                // Absolute path - use directly
-                configPath = configFile;
-            } else {
-                // Classpath resource - load from classpath
-                configPath = getClass().getClassLoader().getResource(configFile).getPath();
-            }
+            String configPath = resolveConfigPath();
             logger.info("Initializing FISCO BCOS SDK with config: {}", configPath);
             sdk = BcosSDK.build(configPath);
             logger.info("FISCO BCOS SDK initialized successfully");
@@ -72,12 +90,49 @@ public class BcosConfig {
         }
     }
 
+    /**
+     * 链客户端池：主客户端加上 fisco.read-peers 中每个节点的只读客户端，
+     * 只读客户端沿用 config.toml 的证书、账户等配置，仅把连接的节点替换为单个 peer
+     */
+    @Bean
+    @ConditionalOnProperty(name = "fisco.enabled", havingValue = "true", matchIfMissing = true)
+    public ChainClientPool chainClientPool(Client bcosClient) {
+        List<ChainClientPool.Node> readNodes = new ArrayList<>();
+        for (String peer : readPeers) {
+            if (peer == null || peer.trim().isEmpty()) {
+                continue;
+            }
+            String address = peer.trim();
+            try {
+                ConfigProperty property = Config.load(resolveConfigPath());
+                property.getNetwork().put("peers", Collections.singletonList(address));
+                Client client = Client.build(group, new ConfigOption(property));
+                readNodes.add(ChainClientPool.readNode(address, client));
+                logger.info("Connected read-only client: peer={}, group={}", address, group);
+            } catch (Exception e) {
+                // 只读节点不可用不影响启动，读请求仍由主客户端承担
+                logger.warn("Failed to connect read-only client: peer={}", address, e);
+            }
+        }
+        return new ChainClientPool(bcosClient, readNodes, failureThreshold, slowThresholdMs, ejectMs, maxBlockLag);
+    }
+
     @Bean
     @ConditionalOnProperty(name = "fisco.enabled", havingValue = "true", matchIfMissing = true)
     public CryptoKeyPair cryptoKeyPair(Client client) {
         return client.getCryptoSuite().getCryptoKeyPair();
     }
 
+    private String resolveConfigPath() {
+        // Support both classpath resources and absolute file paths
+        if (configFile.startsWith("/")) {
+            // Absolute path - use directly
+            return configFile;
+        }
+        // Classpath resource - load from classpath
+        return getClass().getClassLoader().getResource(configFile).getPath();
+    }
+
     @PreDestroy
     public void destroy() {
         if (sdk != null) {
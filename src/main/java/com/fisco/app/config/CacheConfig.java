@@ -1,53 +1,133 @@
 package com.fisco.app.config;
 
 import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * 缓存配置
  * 使用 Caffeine 作为高性能本地缓存实现
  * 生产环境建议使用 Redis 等分布式缓存
  *
+ * 每个缓存的容量、过期和刷新策略通过 app.cache.specs 单独配置（见 CacheSpecProperties），
+ * 缓存键登记到 CacheKeyIndex，支持按用户名、企业ID等标签精确失效；
+ * 昂贵的统计类缓存使用 @Cacheable(sync = true) 合并并发加载，并配置 refreshAfterWrite 在过期前后台刷新
+ *
  * @author FISCO BCOS
  * @since 2025-02-09
  */
+@Slf4j
 @SuppressWarnings("nullness")
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * 预定义缓存名称
+     */
+    private static final String[] CACHE_NAMES = {
+            "enterpriseAccess",
+            "userRole",
+            "userRoles",
+            "blockchainStats",  // 区块链统计数据缓存
+            "userPermissionSnapshot"  // 用户权限快照缓存
+    };
+
+    /**
+     * 缓存键二级索引
+     */
+    @Bean
+    public CacheKeyIndex cacheKeyIndex() {
+        return new CacheKeyIndex();
+    }
+
+    /**
+     * 单飞加载缓存，用于未接入 Spring Cache 的昂贵查询
+     */
+    @Bean
+    public SingleFlightCache singleFlightCache(CacheSpecProperties properties) {
+        return new SingleFlightCache(properties);
+    }
+
     /**
      * 配置 Caffeine 缓存管理器
      */
     @SuppressWarnings("null")
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CacheManager cacheManager(CacheSpecProperties properties, CacheKeyIndex cacheKeyIndex,
+                                     ListableBeanFactory beanFactory) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new TaggedCaffeineCache(name, cache, cacheKeyIndex);
+            }
+        };
 
         // 配置默认缓存策略
-        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(500)
-                .expireAfterWrite(30, TimeUnit.SECONDS)
-                .recordStats();
-        cacheManager.setCaffeine(caffeine);
-
-        // 预定义缓存名称
-        cacheManager.setCacheNames(Arrays.asList(
-                "enterpriseAccess",
-                "userRole",
-                "userRoles",
-                "blockchainStats"  // 区块链统计数据缓存
-        ));
+        cacheManager.setCaffeine(withStats(Caffeine.from(properties.getDefaultSpec()), properties.getDefaultSpec()));
+
+        Set<String> cacheNames = new LinkedHashSet<>(Arrays.asList(CACHE_NAMES));
+        cacheNames.addAll(properties.getSpecs().keySet());
+        cacheManager.setCacheNames(cacheNames);
+
+        // 按缓存名称注册独立策略
+        @SuppressWarnings("rawtypes")
+        Map<String, CacheLoader> loaders = beanFactory.getBeansOfType(CacheLoader.class);
+        for (String name : cacheNames) {
+            String spec = properties.getSpecs().getOrDefault(name, properties.getDefaultSpec());
+            cacheManager.registerCustomCache(name, buildCache(name, spec, cacheKeyIndex, loaders));
+            log.info("缓存策略已加载: cache={}, spec={}", name, spec);
+        }
 
         return cacheManager;
     }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Cache<Object, Object> buildCache(String name, String spec, CacheKeyIndex cacheKeyIndex,
+                                             Map<String, CacheLoader> loaders) {
+        AtomicReference<Cache<Object, Object>> self = new AtomicReference<>();
+        Caffeine<Object, Object> caffeine = withStats(Caffeine.from(spec), spec)
+                .removalListener((key, value, cause) -> {
+                    if (key != null) {
+                        cacheKeyIndex.unregisterIfAbsent(name, key,
+                                k -> self.get() != null && self.get().asMap().containsKey(k));
+                    }
+                });
+
+        Cache<Object, Object> cache;
+        if (spec.contains("refreshAfterWrite")) {
+            CacheLoader<Object, Object> loader = loaders.get(name + "CacheLoader");
+            if (loader == null) {
+                throw new IllegalStateException(
+                        "缓存 " + name + " 配置了 refreshAfterWrite，但未提供名为 " + name + "CacheLoader 的 CacheLoader Bean");
+            }
+            cache = caffeine.build(loader);
+        } else {
+            cache = caffeine.build();
+        }
+        self.set(cache);
+        return cache;
+    }
+
+    /**
+     * 统一开启命中率统计（spec 中已声明 recordStats 时不重复设置）
+     */
+    private static Caffeine<Object, Object> withStats(Caffeine<Object, Object> caffeine, String spec) {
+        return spec.contains("recordStats") ? caffeine : caffeine.recordStats();
+    }
 }
@@ -0,0 +1,146 @@
+package com.fisco.app.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 缓存键二级索引
+ * Spring Cache 的键不支持通配符，按用户名、企业ID等标签批量失效时，
+ * 通过本索引找到标签下实际缓存的键再逐个失效
+ *
+ * 键在写入缓存时按标签登记，在缓存条目被移除（过期、容量淘汰、显式失效）时
+ * 由 Caffeine 移除监听器清理
+ */
+@Slf4j
+public class CacheKeyIndex {
+
+    private final Map<String, Set<Entry>> entriesByTag = new ConcurrentHashMap<>();
+    private final Map<Entry, Set<String>> tagsByEntry = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, Collection<String>>> taggers = new ConcurrentHashMap<>();
+
+    /**
+     * 注册缓存的标签提取函数，缓存写入时据此为键打标签
+     */
+    public void registerTagger(String cacheName, Function<Object, Collection<String>> tagger) {
+        taggers.put(cacheName, tagger);
+    }
+
+    /**
+     * 缓存写入后按已注册的标签提取函数登记键；未注册提取函数的缓存不建索引
+     */
+    public void onPut(String cacheName, Object key) {
+        Function<Object, Collection<String>> tagger = taggers.get(cacheName);
+        if (tagger != null) {
+            register(cacheName, key, tagger.apply(key));
+        }
+    }
+
+    /**
+     * 登记缓存键及其标签
+     */
+    public synchronized void register(String cacheName, Object key, Collection<String> tags) {
+        Entry entry = new Entry(cacheName, key);
+        Set<String> entryTags = tagsByEntry.computeIfAbsent(entry, e -> new HashSet<>());
+        for (String tag : tags) {
+            if (tag == null) {
+                continue;
+            }
+            entryTags.add(tag);
+            entriesByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(entry);
+        }
+    }
+
+    /**
+     * 缓存条目被移除时清理索引
+     * 若该键已被重新写入缓存（stillCached 返回 true），则保留索引
+     */
+    public synchronized void unregisterIfAbsent(String cacheName, Object key, Predicate<Object> stillCached) {
+        if (stillCached.test(key)) {
+            return;
+        }
+        Entry entry = new Entry(cacheName, key);
+        Set<String> entryTags = tagsByEntry.remove(entry);
+        if (entryTags == null) {
+            return;
+        }
+        for (String tag : entryTags) {
+            Set<Entry> entries = entriesByTag.get(tag);
+            if (entries != null) {
+                entries.remove(entry);
+                if (entries.isEmpty()) {
+                    entriesByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取指定缓存中带有该标签的全部键
+     */
+    public synchronized Set<Object> keysFor(String cacheName, String tag) {
+        Set<Entry> entries = entriesByTag.get(tag);
+        if (entries == null) {
+            return Collections.emptySet();
+        }
+        Set<Object> keys = new HashSet<>();
+        for (Entry entry : entries) {
+            if (entry.cacheName.equals(cacheName)) {
+                keys.add(entry.key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 清空指定缓存的全部索引
+     */
+    public synchronized void clear(String cacheName) {
+        tagsByEntry.keySet().removeIf(entry -> entry.cacheName.equals(cacheName));
+        entriesByTag.values().forEach(entries -> entries.removeIf(entry -> entry.cacheName.equals(cacheName)));
+        entriesByTag.values().removeIf(Set::isEmpty);
+        log.debug("缓存键索引已清空: cacheName={}", cacheName);
+    }
+
+    /**
+     * 已登记的缓存键数量
+     */
+    public int size() {
+        return tagsByEntry.size();
+    }
+
+    private static final class Entry {
+        private final String cacheName;
+        private final Object key;
+
+        private Entry(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return cacheName.equals(other.cacheName) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cacheName, key);
+        }
+    }
+}
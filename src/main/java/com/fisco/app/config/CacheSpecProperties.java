@@ -0,0 +1,69 @@
+package com.fisco.app.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 缓存策略配置
+ * 使用 Caffeine spec 语法按缓存名称分别配置容量、过期时间和刷新时间，例如：
+ * <pre>
+ * app:
+ *   cache:
+ *     default-spec: initialCapacity=100,maximumSize=500,expireAfterWrite=30s
+ *     specs:
+ *       userRoles: maximumSize=5000,expireAfterWrite=2h
+ * </pre>
+ * 配置了 refreshAfterWrite 的缓存需要提供名为 {@code <缓存名>CacheLoader} 的 CacheLoader Bean
+ *
+ * 不经 Spring Cache 的昂贵查询通过 SingleFlightCache 合并并发加载，refresh-ahead 按区域配置软过期
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheSpecProperties {
+
+    /**
+     * 未单独配置的缓存使用的默认策略
+     */
+    private String defaultSpec = "initialCapacity=100,maximumSize=500,expireAfterWrite=30s";
+
+    /**
+     * 按缓存名称配置的策略
+     */
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+    /**
+     * 单飞加载区域的软过期策略，未配置的区域只合并并发加载、不保留结果
+     */
+    private Map<String, RefreshAhead> refreshAhead = new LinkedHashMap<>();
+
+    /**
+     * 软过期后台刷新线程数
+     */
+    private int refreshThreads = 2;
+
+    @Data
+    public static class RefreshAhead {
+
+        /**
+         * 软过期时间：超过后先返回旧值，同时在后台刷新一次
+         */
+        private Duration softTtl = Duration.ofSeconds(30);
+
+        /**
+         * 硬过期时间：超过后丢弃旧值，同步加载
+         */
+        private Duration hardTtl = Duration.ofMinutes(5);
+
+        /**
+         * 最大条目数
+         */
+        private long maximumSize = 200;
+    }
+}
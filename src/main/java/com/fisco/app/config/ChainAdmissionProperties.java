@@ -0,0 +1,71 @@
+package com.fisco.app.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.fisco.app.annotation.ChainOperation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 上链准入控制配置
+ * 每个企业、每类上链操作各有一个令牌桶，按 permits-per-second 补充、最多积累 burst 个，例如：
+ * <pre>
+ * app:
+ *   chain-admission:
+ *     enabled: true
+ *     limits:
+ *       issue:
+ *         permits-per-second: 5
+ *         burst: 10
+ * </pre>
+ * 未配置的类别使用 OTHER 的限速
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.chain-admission")
+public class ChainAdmissionProperties {
+
+    /**
+     * 是否开启上链准入控制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 按操作类别配置的限速
+     */
+    private Map<ChainOperation.OperationClass, Limit> limits = new EnumMap<>(ChainOperation.OperationClass.class);
+
+    public ChainAdmissionProperties() {
+        limits.put(ChainOperation.OperationClass.OTHER, new Limit(10, 20));
+    }
+
+    /**
+     * 取操作类别的限速，未配置时使用 OTHER
+     */
+    public Limit limitOf(ChainOperation.OperationClass operationClass) {
+        Limit limit = limits.get(operationClass);
+        return limit != null ? limit : limits.getOrDefault(ChainOperation.OperationClass.OTHER, new Limit(10, 20));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * 每秒补充的令牌数
+         */
+        private double permitsPerSecond = 10;
+
+        /**
+         * 令牌桶容量（允许的突发请求数）
+         */
+        private int burst = 20;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fisco.app.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 读写分离配置
+ * 开启后只读事务（@Transactional(readOnly = true)）路由到复制延迟在阈值内的只读副本，其余仍走主库，例如：
+ * <pre>
+ * app:
+ *   datasource:
+ *     read-split:
+ *       enabled: true
+ *       max-lag-seconds: 5
+ *       replicas:
+ *         - url: jdbc:mysql://replica1:3306/fisco_data
+ *         - url: jdbc:mysql://replica2:3306/fisco_data
+ *           username: reader
+ *           password: secret
+ * </pre>
+ * 副本未配置用户名、密码时沿用 spring.datasource 的主库账号，连接池参数沿用 spring.datasource.druid
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.read-split")
+public class ReadReplicaProperties {
+
+    /**
+     * 是否开启读写分离
+     */
+    private boolean enabled = false;
+
+    /**
+     * 允许的最大复制延迟（秒），超过后该副本暂停承接只读事务
+     */
+    private long maxLagSeconds = 5;
+
+    /**
+     * 复制延迟检查间隔（毫秒）
+     */
+    private long lagCheckIntervalMs = 5000;
+
+    /**
+     * 只读副本列表
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
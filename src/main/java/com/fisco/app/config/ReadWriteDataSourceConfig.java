@@ -0,0 +1,83 @@
+package com.fisco.app.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 读写分离数据源配置
+ * app.datasource.read-split.enabled=true 时替代 Druid 自动配置的单一数据源：
+ * 主库和每个只读副本各建一个 Druid 连接池，由 ReadWriteRoutingDataSource 按事务只读标记路由
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.read-split.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    private static final String DRUID_PREFIX = "spring.datasource.druid";
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties,
+                                                                 ReadReplicaProperties replicaProperties,
+                                                                 Environment environment) throws Exception {
+        String username = properties.determineUsername();
+        String password = properties.determinePassword();
+        DruidDataSource primary = createPool(environment, "primary", properties.determineUrl(),
+                username, password, properties.determineDriverClassName());
+
+        Map<String, DruidDataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReadReplicaProperties.Replica replica = configured.get(i);
+            String name = "replica-" + i;
+            replicas.put(name, createPool(environment, name, replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : username,
+                    replica.getPassword() != null ? replica.getPassword() : password,
+                    properties.determineDriverClassName()));
+        }
+        log.info("Read/write split enabled: replicas={}, maxLagSeconds={}",
+                replicas.size(), replicaProperties.getMaxLagSeconds());
+        return new ReadWriteRoutingDataSource(primary, replicas, replicaProperties.getMaxLagSeconds());
+    }
+
+    /**
+     * 应用使用的数据源：延迟到首条 SQL 才取连接，使路由能看到事务的只读标记
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * 按 spring.datasource.druid 的连接池参数创建一个 Druid 连接池
+     */
+    private DruidDataSource createPool(Environment environment, String name, String url, String username,
+                                       String password, String driverClassName) throws Exception {
+        DruidDataSource pool = new DruidDataSource();
+        Binder.get(environment).bind(DRUID_PREFIX, Bindable.ofInstance(pool));
+        pool.setName(name);
+        pool.setUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.init();
+        return pool;
+    }
+}
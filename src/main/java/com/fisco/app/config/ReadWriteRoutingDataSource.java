@@ -0,0 +1,162 @@
+package com.fisco.app.config;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务轮询分配到复制延迟在阈值内的副本，写事务、非事务访问以及没有可用副本时走主库；
+ * 每个副本各自一个 Druid 连接池
+ *
+ * 副本账号没有 REPLICATION CLIENT 权限、无法执行 SHOW SLAVE STATUS 时延迟未知，按不可用处理：
+ * 只记录一次告警，只读事务走主库，授权后自动恢复
+ *
+ * 需配合 LazyConnectionDataSourceProxy 使用：事务开始时只读标记尚未登记到
+ * TransactionSynchronizationManager，延迟到首条 SQL 再取连接才能按只读标记路由
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final String REPLICA_STATUS_SQL = "SHOW SLAVE STATUS";
+
+    /**
+     * MySQL ER_SPECIFIC_ACCESS_DENIED_ERROR：缺少执行该语句所需的权限（SUPER / REPLICATION CLIENT）
+     */
+    private static final int ACCESS_DENIED_ERROR = 1227;
+
+    private final DruidDataSource primary;
+    private final Map<String, DruidDataSource> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /**
+     * 无权查询复制状态的副本，只在首次发现时告警
+     */
+    private final Set<String> lagUnknownReplicas = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前可承接只读事务的副本
+     */
+    private volatile List<String> availableReplicas = Collections.emptyList();
+
+    public ReadWriteRoutingDataSource(DruidDataSource primary, Map<String, DruidDataSource> replicas,
+                                      long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicaLag();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> available = availableReplicas;
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+        return available.get(Math.floorMod(cursor.getAndIncrement(), available.size()));
+    }
+
+    /**
+     * 检查各副本复制延迟：延迟超过阈值、复制中断或无法连接的副本暂停承接只读事务，恢复后自动加回
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.read-split.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        List<String> available = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DruidDataSource> entry : replicas.entrySet()) {
+            String key = entry.getKey();
+            Long lag = readLagSeconds(key, entry.getValue());
+            if (lag != null && lag <= maxLagSeconds) {
+                available.add(key);
+            } else if (availableReplicas.contains(key)) {
+                log.warn("Read replica suspended: replica={}, lagSeconds={}, maxLagSeconds={}", key, lag, maxLagSeconds);
+            }
+        }
+        for (String key : available) {
+            if (!availableReplicas.contains(key)) {
+                log.info("Read replica available: replica={}", key);
+            }
+        }
+        availableReplicas = Collections.unmodifiableList(available);
+    }
+
+    /**
+     * 读取副本复制延迟（秒），复制中断、无法连接或无权查询复制状态时返回 null；
+     * 未配置为 MySQL 复制从库（如云数据库只读地址）时视为无延迟
+     */
+    private Long readLagSeconds(String key, DruidDataSource replica) {
+        List<Map<String, Object>> rows;
+        try {
+            rows = queryReplicaStatus(new JdbcTemplate(replica));
+        } catch (Exception e) {
+            if (isAccessDenied(e)) {
+                if (lagUnknownReplicas.add(key)) {
+                    log.warn("Read replica suspended, REPLICATION CLIENT privilege required to check lag: "
+                            + "replica={}, error={}", key, e.getMessage());
+                }
+                return null;
+            }
+            log.warn("Failed to check read replica lag: replica={}, error={}", key, e.getMessage());
+            return null;
+        }
+        if (lagUnknownReplicas.remove(key)) {
+            log.info("Read replica lag check restored: replica={}", key);
+        }
+        if (rows.isEmpty()) {
+            return 0L;
+        }
+        Object lag = rows.get(0).get("Seconds_Behind_Master");
+        return lag != null ? Long.valueOf(lag.toString()) : null;
+    }
+
+    /**
+     * 查询副本复制状态
+     */
+    protected List<Map<String, Object>> queryReplicaStatus(JdbcTemplate replica) {
+        return replica.queryForList(REPLICA_STATUS_SQL);
+    }
+
+    private static boolean isAccessDenied(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && ((SQLException) cause).getErrorCode() == ACCESS_DENIED_ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(DruidDataSource::close);
+        primary.close();
+    }
+}
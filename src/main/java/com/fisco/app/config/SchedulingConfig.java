@@ -0,0 +1,16 @@
+package com.fisco.app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 启用 @Scheduled 定时任务，用于缓存失效总线轮询等后台任务
+ *
+ * 线程池大小由 spring.task.scheduling.pool.size 配置（默认 1 个线程，按任务数调大）；
+ * 发起链上 RPC 的长耗时扫描任务由 ChainScanScheduler 在独立线程上调度
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,226 @@
+package com.fisco.app.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单飞加载缓存
+ * 用于未接入 Spring Cache 的昂贵查询（统计报表、风险报告等）：同一区域同一键的并发请求共享一次在途加载，
+ * 避免缓存过期瞬间每个请求各自全表重算
+ *
+ * 在 app.cache.refresh-ahead 中配置了软过期的区域会保留加载结果：软过期内直接返回；
+ * 软过期后、硬过期前先返回旧值，同时在后台刷新一次；硬过期后同步加载。未配置的区域只合并并发加载
+ *
+ * 保留的结果不随业务数据变更失效（统计、风险区域汇总全部业务表，且各节点各自保留），
+ * 返回的结果最多比数据库旧 hard-ttl，持续有请求时约为 soft-ttl 加一次加载耗时
+ *
+ * 加载方法应通过 Spring 代理调用，后台刷新线程上同样按 @Transactional 开启事务
+ */
+@Slf4j
+public class SingleFlightCache implements AutoCloseable {
+
+    private final Map<String, CacheSpecProperties.RefreshAhead> specs;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public SingleFlightCache(CacheSpecProperties properties) {
+        this.specs = properties.getRefreshAhead();
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, properties.getRefreshThreads());
+        this.refreshExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 读取或加载
+     *
+     * @param region 区域名称，对应 app.cache.refresh-ahead 下的配置
+     * @param key 区域内的键，需实现 equals/hashCode
+     * @param loader 加载方法
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String region, Object key, Supplier<T> loader) {
+        Region r = regions.computeIfAbsent(region, this::createRegion);
+        if (r.entries != null) {
+            Entry entry = r.entries.getIfPresent(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.loadedAt < r.softTtlMs) {
+                    r.hits.increment();
+                } else {
+                    r.staleHits.increment();
+                    refreshAsync(r, key, loader);
+                }
+                return (T) entry.value;
+            }
+        }
+        r.misses.increment();
+        return (T) join(load(r, key, loader));
+    }
+
+    /**
+     * 各区域的命中、合并、加载计数
+     */
+    public Map<String, RegionStats> stats() {
+        Map<String, RegionStats> result = new LinkedHashMap<>();
+        regions.forEach((name, r) -> result.put(name, new RegionStats(r)));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private Region createRegion(String name) {
+        CacheSpecProperties.RefreshAhead spec = specs.get(name);
+        return spec != null ? new Region(spec) : new Region(null);
+    }
+
+    /**
+     * 发起加载或加入同一键的在途加载；发起方在当前线程执行加载方法
+     */
+    private CompletableFuture<Object> load(Region r, Object key, Supplier<?> loader) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = r.inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            r.coalesced.increment();
+            return existing;
+        }
+        try {
+            Object value = loader.get();
+            if (r.entries != null && value != null) {
+                r.entries.put(key, new Entry(value));
+            }
+            r.loads.increment();
+            created.complete(value);
+        } catch (RuntimeException | Error e) {
+            r.failures.increment();
+            created.completeExceptionally(e);
+        } finally {
+            // 先写入结果再移除在途标记，之后到达的请求直接命中
+            r.inFlight.remove(key, created);
+        }
+        return created;
+    }
+
+    private void refreshAsync(Region r, Object key, Supplier<?> loader) {
+        if (r.inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                r.refreshes.increment();
+                try {
+                    load(r, key, loader).join();
+                } catch (CompletionException e) {
+                    log.warn("Refresh-ahead failed, serving stale value: key={}, error={}", key, e.getCause().getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 刷新队列已满时继续返回旧值，由后续请求再次触发
+            log.debug("Refresh-ahead rejected: key={}", key);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Region {
+
+        private final Cache<Object, Entry> entries;
+        private final long softTtlMs;
+        private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder refreshes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Region(CacheSpecProperties.RefreshAhead spec) {
+            if (spec != null) {
+                this.entries = Caffeine.newBuilder()
+                        .maximumSize(spec.getMaximumSize())
+                        .expireAfterWrite(spec.getHardTtl())
+                        .build();
+                this.softTtlMs = spec.getSoftTtl().toMillis();
+            } else {
+                this.entries = null;
+                this.softTtlMs = 0L;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 区域计数快照
+     */
+    @Getter
+    public static final class RegionStats {
+
+        private final long hits;
+        private final long staleHits;
+        private final long misses;
+        private final long coalesced;
+        private final long loads;
+        private final long refreshes;
+        private final long failures;
+        private final long size;
+        private final int inFlight;
+
+        private RegionStats(Region r) {
+            this.hits = r.hits.sum();
+            this.staleHits = r.staleHits.sum();
+            this.misses = r.misses.sum();
+            this.coalesced = r.coalesced.sum();
+            this.loads = r.loads.sum();
+            this.refreshes = r.refreshes.sum();
+            this.failures = r.failures.sum();
+            this.size = r.entries != null ? r.entries.estimatedSize() : 0L;
+            this.inFlight = r.inFlight.size();
+        }
+    }
+}
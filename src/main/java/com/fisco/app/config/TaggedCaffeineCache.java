@@ -0,0 +1,83 @@
+package com.fisco.app.config;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * 带键索引的 Caffeine 缓存
+ * 在写入后把键登记到 CacheKeyIndex，使按标签失效能够命中实际缓存的键
+ *
+ * get(key, valueLoader)（即 @Cacheable(sync = true)）由 Caffeine 保证同一键只加载一次，
+ * 这里额外统计等待其他线程在途加载的次数，与 recordStats 的命中率一起观察缓存过期时的并发情况
+ */
+public class TaggedCaffeineCache extends CaffeineCache {
+
+    private final CacheKeyIndex cacheKeyIndex;
+    private final Map<Object, Boolean> loading = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public TaggedCaffeineCache(String name, Cache<Object, Object> cache, CacheKeyIndex cacheKeyIndex) {
+        super(name, cache);
+        this.cacheKeyIndex = cacheKeyIndex;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        super.put(key, value);
+        cacheKeyIndex.onPut(getName(), key);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        cacheKeyIndex.onPut(getName(), key);
+        return existing;
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        if (loading.containsKey(key)) {
+            coalesced.increment();
+        }
+        T value = super.get(key, () -> {
+            loading.put(key, Boolean.TRUE);
+            try {
+                return valueLoader.call();
+            } finally {
+                loading.remove(key);
+            }
+        });
+        cacheKeyIndex.onPut(getName(), key);
+        return value;
+    }
+
+    /**
+     * 等待其他线程在途加载后直接取得结果的次数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        cacheKeyIndex.clear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        cacheKeyIndex.clear(getName());
+        return invalidated;
+    }
+}
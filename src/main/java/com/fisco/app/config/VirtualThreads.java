@@ -0,0 +1,52 @@
+package com.fisco.app.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 虚拟线程支持
+ * 项目按 Java 11 编译，虚拟线程（JDK 21+）的 API 通过反射调用；运行在不支持的 JDK 上时返回空，由调用方沿用平台线程
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前 JDK 是否支持虚拟线程
+     */
+    public static boolean isAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，线程名为 prefix + 序号
+     *
+     * @param prefix 线程名前缀
+     * @return 执行器；JDK 不支持虚拟线程时为空
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            return Optional.of(executor);
+        } catch (ReflectiveOperationException e) {
+            log.warn("当前 JDK 不支持虚拟线程，沿用平台线程: java.version={}", System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+}
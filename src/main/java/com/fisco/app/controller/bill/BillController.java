@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.fisco.app.dto.bill.AcceptBillRequest;
 import com.fisco.app.dto.bill.ApproveFinanceRequest;
@@ -42,8 +43,11 @@ import com.fisco.app.entity.bill.Bill;
 import com.fisco.app.entity.bill.DiscountRecord;
 import com.fisco.app.entity.bill.Endorsement;
 import com.fisco.app.entity.bill.RepaymentRecord;
+import com.fisco.app.entity.system.ImportJob;
 import com.fisco.app.security.RequireEnterprise;
 import com.fisco.app.service.bill.BillService;
+import com.fisco.app.service.system.BulkImportService;
+import com.fisco.app.service.system.ExportFormat;
 import com.fisco.app.vo.Result;
 
 import io.swagger.annotations.Api;
@@ -63,6 +67,7 @@ import lombok.extern.slf4j.Slf4j;
 public class BillController {
 
     private final BillService billService;
+    private final BulkImportService bulkImportService;
 
     /**
      * 开票
@@ -106,6 +111,22 @@ public class BillController {
         }
     }
 
+    /**
+     * 批量开票
+     * POST /api/bill/import
+     */
+    @PostMapping("/import")
+    @ApiOperation(value = "批量开票", notes = "上传CSV/NDJSON文件批量开立票据，后台分块入库并上链，立即返回导入任务")
+    public Result<ImportJob> importBills(
+            @ApiParam(value = "导入文件，字段与开票请求一致", required = true) @RequestParam("file") MultipartFile file,
+            @ApiParam(value = "文件格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            Authentication authentication) {
+        String issuerAddress = authentication.getName();
+        log.info("接收到批量开票请求: issuer={}, file={}, format={}", issuerAddress, file.getOriginalFilename(), format);
+        ImportJob job = bulkImportService.submitBillImport(file, format, issuerAddress);
+        return Result.success("批量开票任务已提交", job);
+    }
+
     /**
      * 获取票据信息
      * GET /api/bill/{billId}
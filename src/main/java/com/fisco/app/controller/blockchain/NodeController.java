@@ -1,6 +1,7 @@
 package com.fisco.app.controller.blockchain;
 
 import com.fisco.app.dto.blockchain.*;
+import com.fisco.app.service.blockchain.ChainClientPool;
 import com.fisco.app.service.blockchain.NodeService;
 import com.fisco.app.vo.Result;
 import io.swagger.annotations.Api;
@@ -242,4 +243,19 @@ public class NodeController {
             return Result.error("获取群组信息失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 查询只读路由池状态
+     * GET /api/blockchain/node/read-pool
+     */
+    @GetMapping("/read-pool")
+    @ApiOperation(value = "查询只读路由池状态",
+        notes = "获取应用连接的各链节点在只读路由池中的状态。" +
+                "返回信息：" +
+                "- 节点名称（primary 为主客户端，其余为 fisco.read-peers 中的节点地址）；" +
+                "- 是否健康（被摘除的节点冷却期内不参与路由）；" +
+                "- 延迟EWMA（毫秒）、在途请求数、连续失败次数、最近探测的区块高度。")
+    public Result<List<ChainClientPool.NodeSnapshot>> getReadPoolStatus() {
+        return Result.success("获取只读路由池状态成功", nodeService.getReadPoolStatus());
+    }
 }
@@ -2,6 +2,7 @@ package com.fisco.app.controller.enterprise;
 
 import com.fisco.app.dto.enterprise.EnterpriseRegistrationRequest;
 import com.fisco.app.dto.enterprise.EnterpriseRegistrationResponse;
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
 import com.fisco.app.entity.enterprise.Enterprise;
 import com.fisco.app.security.RequireEnterprise;
 import com.fisco.app.service.enterprise.EnterpriseService;
@@ -89,7 +90,8 @@ public class EnterpriseController {
     @ApiOperation(value = "获取企业信息", notes = "获取当前登录企业的详细信息")
     @RequireEnterprise
     public Result<Enterprise> getCurrentEnterprise(HttpServletRequest request) {
-        Enterprise enterprise = (Enterprise) request.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) request.getAttribute("currentEnterprise");
+        Enterprise enterprise = enterpriseService.getEnterpriseById(currentEnterprise.getId());
         enterprise.setPassword(null); // 清除密码字段
         return Result.success(enterprise);
     }
@@ -105,7 +107,7 @@ public class EnterpriseController {
             @ApiParam(value = "企业ID", required = true, example = "a1b2c3d4-e5f6-7890-abcd-ef1234567890")
             @PathVariable @NonNull String id,
             HttpServletRequest httpRequest) {
-        Enterprise currentEnterprise = (Enterprise) httpRequest.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) httpRequest.getAttribute("currentEnterprise");
 
         // 验证是否查询自己的企业信息
         if (!currentEnterprise.getId().equals(id)) {
@@ -128,7 +130,7 @@ public class EnterpriseController {
     public Result<Enterprise> updateEnterprise(
             @Valid @RequestBody UpdateEnterpriseRequest request,
             HttpServletRequest httpRequest) {
-        Enterprise currentEnterprise = (Enterprise) httpRequest.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) httpRequest.getAttribute("currentEnterprise");
 
         log.info("企业请求更新信息: enterpriseId={}, address={}, updatedFields={}",
                  currentEnterprise.getId(), currentEnterprise.getAddress(),
@@ -158,7 +160,7 @@ public class EnterpriseController {
     public Result<String> changePassword(
             @Valid @RequestBody ChangePasswordRequest request,
             HttpServletRequest httpRequest) {
-        Enterprise currentEnterprise = (Enterprise) httpRequest.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) httpRequest.getAttribute("currentEnterprise");
 
         log.info("企业请求修改密码: enterpriseId={}, address={}",
                  currentEnterprise.getId(), currentEnterprise.getAddress());
@@ -183,7 +185,7 @@ public class EnterpriseController {
     public Result<String> requestEnterpriseDeletion(
             @Valid @RequestBody DeletionRequest request,
             HttpServletRequest httpRequest) {
-        Enterprise currentEnterprise = (Enterprise) httpRequest.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) httpRequest.getAttribute("currentEnterprise");
         String ipAddress = getClientIp(httpRequest);
 
         log.info("企业请求注销: enterpriseId={}, address={}, reason={}",
@@ -214,7 +216,7 @@ public class EnterpriseController {
     @ApiOperation(value = "获取企业统计", notes = "获取当前企业的统计信息")
     @RequireEnterprise
     public Result<Map<String, Object>> getEnterpriseStats(HttpServletRequest httpRequest) {
-        Enterprise currentEnterprise = (Enterprise) httpRequest.getAttribute("currentEnterprise");
+        EnterpriseSnapshot currentEnterprise = (EnterpriseSnapshot) httpRequest.getAttribute("currentEnterprise");
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("enterpriseId", currentEnterprise.getId());
@@ -1,7 +1,9 @@
 package com.fisco.app.controller.risk;
 
+import com.fisco.app.config.SingleFlightCache;
 import com.fisco.app.dto.risk.RiskAssessmentRequest;
 import com.fisco.app.dto.risk.RiskAssessmentResponse;
+import com.fisco.app.dto.risk.RiskMetricsSummary;
 import com.fisco.app.entity.risk.RiskAssessment;
 import com.fisco.app.service.risk.RiskService;
 import com.fisco.app.vo.Result;
@@ -9,10 +11,10 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.validation.Valid;
-import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * 风险监测Controller
+ * 风险报告与风险指标需要扫描全部企业画像，经 SingleFlightCache 合并并发请求并软过期刷新
  */
 @Slf4j
 @RestController
@@ -36,6 +39,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RiskController {
 
     private final RiskService riskService;
+    private final SingleFlightCache singleFlightCache;
 
     /**
      * POST /api/risk/assess
@@ -143,7 +147,8 @@ public class RiskController {
             Authentication authentication) {
         log.info("生成风险报告: startDate={}, endDate={}", startDate, endDate);
 
-        Map<String, Object> report = riskService.generateRiskReport(startDate, endDate);
+        Map<String, Object> report = singleFlightCache.get("riskReport",
+                Arrays.asList(startDate, endDate), () -> riskService.generateRiskReport(startDate, endDate));
 
         return Result.success("报告生成成功", report);
     }
@@ -153,49 +158,16 @@ public class RiskController {
      * 查询风险指标
      */
     @GetMapping("/metrics")
-    @ApiOperation(value = "查询风险指标", notes = "获取平台整体风险指标统计")
+    @ApiOperation(value = "查询风险指标", notes = "获取平台整体风险指标统计，未指定企业时基于全部企业风险画像做一次全量扫描")
     public Result<RiskMetricsSummary> getRiskMetrics(
             @ApiParam(value = "企业地址（可选）", example = "0x1234567890abcdef")
             @RequestParam(required = false) String enterpriseAddress,
             Authentication authentication) {
         log.info("查询风险指标: enterpriseAddress={}", enterpriseAddress);
 
-        // 简化实现
-        RiskMetricsSummary metrics = new RiskMetricsSummary();
-        metrics.setTotalEnterprisesAssessed(0L);
-        metrics.setHighRiskEnterprises(0L);
-        metrics.setMediumRiskEnterprises(0L);
-        metrics.setLowRiskEnterprises(0L);
-        metrics.setActiveAlerts(0L);
+        RiskMetricsSummary metrics = singleFlightCache.get("riskMetrics",
+                enterpriseAddress != null ? enterpriseAddress : "", () -> riskService.getRiskMetrics(enterpriseAddress));
 
         return Result.success("查询成功", metrics);
     }
-
-    /**
-     * 风险指标汇总
-     */
-    @Data
-    @io.swagger.annotations.ApiModel(value = "风险指标汇总")
-    public static class RiskMetricsSummary {
-        @io.swagger.annotations.ApiModelProperty(value = "已评估企业总数")
-        private Long totalEnterprisesAssessed;
-
-        @io.swagger.annotations.ApiModelProperty(value = "高风险企业数量")
-        private Long highRiskEnterprises;
-
-        @io.swagger.annotations.ApiModelProperty(value = "中风险企业数量")
-        private Long mediumRiskEnterprises;
-
-        @io.swagger.annotations.ApiModelProperty(value = "低风险企业数量")
-        private Long lowRiskEnterprises;
-
-        @io.swagger.annotations.ApiModelProperty(value = "活跃预警数量")
-        private Long activeAlerts;
-
-        @io.swagger.annotations.ApiModelProperty(value = "平均风险评分")
-        private Double averageRiskScore;
-
-        @io.swagger.annotations.ApiModelProperty(value = "平均信用评分")
-        private Double averageCreditScore;
-    }
 }
@@ -0,0 +1,57 @@
+package com.fisco.app.controller.system;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fisco.app.dto.system.AssetLineageNode;
+import com.fisco.app.entity.system.AssetLineage;
+import com.fisco.app.service.system.AssetLineageService;
+import com.fisco.app.vo.Result;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 资产溯源Controller
+ * 查询票据、应收账款、电子仓单经拆分/合并形成的完整祖先树与后代树
+ */
+@RestController
+@RequestMapping("/api/lineage")
+@RequiredArgsConstructor
+@Api(tags = "资产溯源")
+public class AssetLineageController {
+
+    private final AssetLineageService lineageService;
+
+    /**
+     * 查询祖先树
+     * GET /api/lineage/{assetType}/{assetId}/ancestors
+     */
+    @GetMapping("/{assetType}/{assetId}/ancestors")
+    @ApiOperation(value = "查询祖先树", notes = "返回资产经拆分/合并追溯到的全部上游资产及各自的直接父节点")
+    public Result<List<AssetLineageNode>> getAncestors(
+            @ApiParam(value = "资产类型: BILL, RECEIVABLE, WAREHOUSE_RECEIPT", required = true)
+            @PathVariable AssetLineage.AssetType assetType,
+            @ApiParam(value = "资产ID", required = true) @PathVariable String assetId) {
+        return Result.success(lineageService.getAncestors(assetType, assetId));
+    }
+
+    /**
+     * 查询后代树
+     * GET /api/lineage/{assetType}/{assetId}/descendants
+     */
+    @GetMapping("/{assetType}/{assetId}/descendants")
+    @ApiOperation(value = "查询后代树", notes = "返回资产经拆分/合并派生的全部下游资产及各自在子树内的直接父节点")
+    public Result<List<AssetLineageNode>> getDescendants(
+            @ApiParam(value = "资产类型: BILL, RECEIVABLE, WAREHOUSE_RECEIPT", required = true)
+            @PathVariable AssetLineage.AssetType assetType,
+            @ApiParam(value = "资产ID", required = true) @PathVariable String assetId) {
+        return Result.success(lineageService.getDescendants(assetType, assetId));
+    }
+}
@@ -16,8 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fisco.app.dto.audit.AuditLogQueryRequest;
 import com.fisco.app.dto.audit.AuditLogStatistics;
 import com.fisco.app.entity.system.AuditLog;
+import com.fisco.app.entity.system.PermissionAccessRollup;
 import com.fisco.app.security.RequireAdmin;
 import com.fisco.app.service.system.AuditLogService;
+import com.fisco.app.service.system.PermissionAuditService;
 import com.fisco.app.vo.Result;
 
 import io.swagger.annotations.Api;
@@ -37,6 +39,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final PermissionAuditService permissionAuditService;
 
     /**
      * 分页查询审计日志
@@ -150,4 +153,33 @@ public class AuditLogController {
         List<AuditLog> logs = auditLogService.getLogsByTxHash(txHash);
         return Result.success("查询成功", logs);
     }
+
+    /**
+     * 查询权限放行汇总
+     * GET /api/audit/permission-access/rollups
+     */
+    @GetMapping("/permission-access/rollups")
+    @ApiOperation(value = "查询权限放行汇总", notes = "按分钟汇总的权限放行次数，默认查询最近1小时；拒绝记录请查询权限审计日志")
+    @RequireAdmin(RequireAdmin.AdminRole.AUDITOR)
+    public Result<List<PermissionAccessRollup>> getPermissionAccessRollups(
+            @ApiParam(value = "用户名") @RequestParam(required = false) String username,
+            @ApiParam(value = "企业ID") @RequestParam(required = false) String enterpriseId,
+            @ApiParam(value = "权限类型", example = "ENTERPRISE_ACCESS") @RequestParam(required = false) String permissionType,
+            @ApiParam(value = "目标资源") @RequestParam(required = false) String targetResource,
+            @ApiParam(value = "开始时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @ApiParam(value = "结束时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("查询权限放行汇总: username={}, enterpriseId={}, permissionType={}, startDate={}, endDate={}",
+                username, enterpriseId, permissionType, startDate, endDate);
+
+        if (endDate == null) {
+            endDate = LocalDateTime.now();
+        }
+        if (startDate == null) {
+            startDate = endDate.minusHours(1);
+        }
+
+        List<PermissionAccessRollup> rollups = permissionAuditService.getAccessRollups(
+                username, enterpriseId, permissionType, targetResource, startDate, endDate);
+        return Result.success("查询成功", rollups);
+    }
 }
@@ -0,0 +1,79 @@
+package com.fisco.app.controller.system;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fisco.app.config.SingleFlightCache;
+import com.fisco.app.config.TaggedCaffeineCache;
+import com.fisco.app.service.blockchain.ChainRpcMetrics;
+import com.fisco.app.service.blockchain.ContractViewCache;
+import com.fisco.app.vo.Result;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 缓存统计Controller
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@Api(tags = "缓存统计")
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+    private final SingleFlightCache singleFlightCache;
+    private final ObjectProvider<ContractViewCache> contractViewCache;
+    private final ChainRpcMetrics chainRpcMetrics;
+
+    /**
+     * GET /api/admin/cache/stats
+     * 查询缓存统计
+     */
+    @GetMapping("/stats")
+    @ApiOperation(value = "查询缓存统计",
+        notes = "caches 为 Spring Cache 各缓存的 Caffeine 统计（命中、未命中、加载、淘汰）及等待在途加载的合并次数；" +
+                "singleFlight 为统计报表等单飞加载区域的命中、软过期命中、合并、加载、后台刷新、失败次数；" +
+                "contractViews 为合约视图调用缓存的命中、未命中、失效次数及已扫描/已观察的区块高度（未启用区块链时不返回）；" +
+                "chainRpc 为各上链业务操作的调用次数、期间发出的交易发送/回执查询/只读 RPC 次数及平均每次调用的 RPC 数")
+    public Result<Map<String, Object>> getCacheStats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof TaggedCaffeineCache)) {
+                continue;
+            }
+            TaggedCaffeineCache caffeineCache = (TaggedCaffeineCache) cache;
+            CacheStats stats = caffeineCache.getNativeCache().stats();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("size", caffeineCache.getNativeCache().estimatedSize());
+            item.put("hits", stats.hitCount());
+            item.put("misses", stats.missCount());
+            item.put("hitRate", stats.hitRate());
+            item.put("coalesced", caffeineCache.getCoalescedCount());
+            item.put("loads", stats.loadSuccessCount());
+            item.put("loadFailures", stats.loadFailureCount());
+            item.put("evictions", stats.evictionCount());
+            caches.put(name, item);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("caches", caches);
+        result.put("singleFlight", singleFlightCache.stats());
+        ContractViewCache viewCache = contractViewCache.getIfAvailable();
+        if (viewCache != null) {
+            result.put("contractViews", viewCache.stats());
+        }
+        result.put("chainRpc", chainRpcMetrics.stats());
+        return Result.success("查询成功", result);
+    }
+}
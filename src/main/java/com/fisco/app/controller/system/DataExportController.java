@@ -0,0 +1,109 @@
+package com.fisco.app.controller.system;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.entity.receivable.Receivable;
+import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
+import com.fisco.app.security.RequireAdmin;
+import com.fisco.app.service.system.DataExportService;
+import com.fisco.app.service.system.ExportFormat;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 数据导出Controller
+ * 以 CSV 或 NDJSON 流式下载全量业务数据，可选 gzip 压缩
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@Api(tags = "数据导出")
+public class DataExportController {
+
+    private final DataExportService dataExportService;
+
+    /**
+     * 导出票据
+     * GET /api/admin/export/bills
+     */
+    @GetMapping("/bills")
+    @ApiOperation(value = "导出票据", notes = "按条件流式导出票据，支持CSV/NDJSON格式")
+    @RequireAdmin(RequireAdmin.AdminRole.AUDITOR)
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @ApiParam(value = "导出格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @ApiParam(value = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @ApiParam(value = "票据状态") @RequestParam(required = false) Bill.BillStatus status,
+            @ApiParam(value = "当前持票人ID") @RequestParam(required = false) String holderId,
+            @ApiParam(value = "出票开始时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @ApiParam(value = "出票结束时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return dataExportService.exportBills(format, gzip, status, holderId, startDate, endDate);
+    }
+
+    /**
+     * 导出应收账款
+     * GET /api/admin/export/receivables
+     */
+    @GetMapping("/receivables")
+    @ApiOperation(value = "导出应收账款", notes = "按条件流式导出应收账款，支持CSV/NDJSON格式")
+    @RequireAdmin(RequireAdmin.AdminRole.AUDITOR)
+    public ResponseEntity<StreamingResponseBody> exportReceivables(
+            @ApiParam(value = "导出格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @ApiParam(value = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @ApiParam(value = "应收账款状态") @RequestParam(required = false) Receivable.ReceivableStatus status,
+            @ApiParam(value = "供应商地址") @RequestParam(required = false) String supplierAddress,
+            @ApiParam(value = "核心企业地址") @RequestParam(required = false) String coreEnterpriseAddress,
+            @ApiParam(value = "创建开始时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @ApiParam(value = "创建结束时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return dataExportService.exportReceivables(format, gzip, status, supplierAddress, coreEnterpriseAddress,
+                startDate, endDate);
+    }
+
+    /**
+     * 导出电子仓单
+     * GET /api/admin/export/warehouse-receipts
+     */
+    @GetMapping("/warehouse-receipts")
+    @ApiOperation(value = "导出电子仓单", notes = "按条件流式导出电子仓单，支持CSV/NDJSON格式")
+    @RequireAdmin(RequireAdmin.AdminRole.AUDITOR)
+    public ResponseEntity<StreamingResponseBody> exportWarehouseReceipts(
+            @ApiParam(value = "导出格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @ApiParam(value = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @ApiParam(value = "仓单状态") @RequestParam(required = false) ElectronicWarehouseReceipt.ReceiptStatus status,
+            @ApiParam(value = "货主企业ID") @RequestParam(required = false) String ownerId,
+            @ApiParam(value = "仓储企业ID") @RequestParam(required = false) String warehouseId,
+            @ApiParam(value = "创建开始时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @ApiParam(value = "创建结束时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return dataExportService.exportWarehouseReceipts(format, gzip, status, ownerId, warehouseId,
+                startDate, endDate);
+    }
+
+    /**
+     * 导出审计日志
+     * GET /api/admin/export/audit-logs
+     */
+    @GetMapping("/audit-logs")
+    @ApiOperation(value = "导出审计日志", notes = "按时间范围流式导出审计日志，默认最近30天，单次跨度不超过366天")
+    @RequireAdmin(RequireAdmin.AdminRole.AUDITOR)
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @ApiParam(value = "导出格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @ApiParam(value = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @ApiParam(value = "开始时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @ApiParam(value = "结束时间") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @ApiParam(value = "模块") @RequestParam(required = false) String module,
+            @ApiParam(value = "操作类型") @RequestParam(required = false) String actionType,
+            @ApiParam(value = "用户地址") @RequestParam(required = false) String userAddress) {
+        return dataExportService.exportAuditLogs(format, gzip, startDate, endDate, module, actionType, userAddress);
+    }
+}
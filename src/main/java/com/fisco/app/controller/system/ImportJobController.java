@@ -0,0 +1,59 @@
+package com.fisco.app.controller.system;
+
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fisco.app.entity.system.ImportJob;
+import com.fisco.app.entity.system.ImportJobRow;
+import com.fisco.app.service.system.BulkImportService;
+import com.fisco.app.vo.Result;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 批量导入任务Controller
+ * 查询票据、电子仓单批量导入任务的进度与逐行结果，仅任务提交人可查看
+ */
+@RestController
+@RequestMapping("/api/import/jobs")
+@RequiredArgsConstructor
+@Api(tags = "批量导入任务")
+public class ImportJobController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * 查询导入任务
+     * GET /api/import/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    @ApiOperation(value = "查询导入任务", notes = "返回任务状态、已处理行数、成功/失败数及上链结果统计")
+    public Result<ImportJob> getJob(
+            @ApiParam(value = "导入任务ID", required = true) @PathVariable String jobId,
+            Authentication authentication) {
+        return Result.success(bulkImportService.getJob(jobId, authentication.getName()));
+    }
+
+    /**
+     * 查询导入任务逐行结果
+     * GET /api/import/jobs/{jobId}/rows
+     */
+    @GetMapping("/{jobId}/rows")
+    @ApiOperation(value = "查询导入结果明细", notes = "按行号分页返回逐行结果，可按状态过滤失败行")
+    public Result<Page<ImportJobRow>> getJobRows(
+            @ApiParam(value = "导入任务ID", required = true) @PathVariable String jobId,
+            @ApiParam(value = "行状态") @RequestParam(required = false) ImportJobRow.RowStatus status,
+            @ApiParam(value = "页码（从0开始）") @RequestParam(defaultValue = "0") int page,
+            @ApiParam(value = "每页数量") @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        return Result.success(bulkImportService.getJobRows(jobId, status, page, size, authentication.getName()));
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fisco.app.config.SingleFlightCache;
 import com.fisco.app.dto.risk.RiskStatisticsDTO;
 import com.fisco.app.dto.statistics.BusinessStatisticsDTO;
 import com.fisco.app.dto.statistics.ComprehensiveReportDTO;
@@ -27,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * 统计分析Controller
+ * 统计查询经 SingleFlightCache 合并：相同查询条件的并发请求共享一次计算，软过期后返回旧结果并后台重算
  */
 @Slf4j
 @RestController
@@ -36,6 +38,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final SingleFlightCache singleFlightCache;
 
     /**
      * GET /api/statistics/business
@@ -61,7 +64,8 @@ public class StatisticsController {
         request.setEnterpriseAddress(enterpriseAddress);
         request.setGranularity(granularity);
 
-        BusinessStatisticsDTO statistics = statisticsService.getBusinessStatistics(request);
+        BusinessStatisticsDTO statistics = singleFlightCache.get("businessStatistics", request,
+                () -> statisticsService.getBusinessStatistics(request));
 
         return Result.success("查询成功", statistics);
     }
@@ -90,7 +94,8 @@ public class StatisticsController {
         request.setEnterpriseAddress(enterpriseAddress);
         request.setGranularity(granularity);
 
-        FinancingStatisticsDTO statistics = statisticsService.getFinancingStatistics(request);
+        FinancingStatisticsDTO statistics = singleFlightCache.get("financingStatistics", request,
+                () -> statisticsService.getFinancingStatistics(request));
 
         return Result.success("查询成功", statistics);
     }
@@ -119,7 +124,8 @@ public class StatisticsController {
         request.setEnterpriseAddress(enterpriseAddress);
         request.setGranularity(granularity);
 
-        RiskStatisticsDTO statistics = statisticsService.getRiskStatistics(request);
+        RiskStatisticsDTO statistics = singleFlightCache.get("riskStatistics", request,
+                () -> statisticsService.getRiskStatistics(request));
 
         return Result.success("查询成功", statistics);
     }
@@ -148,7 +154,8 @@ public class StatisticsController {
         request.setEnterpriseAddress(enterpriseAddress);
         request.setGranularity(granularity);
 
-        ComprehensiveReportDTO report = statisticsService.getComprehensiveReport(request);
+        ComprehensiveReportDTO report = singleFlightCache.get("comprehensiveReport", request,
+                () -> statisticsService.getComprehensiveReport(request));
 
         return Result.success("查询成功", report);
     }
@@ -172,9 +179,12 @@ public class StatisticsController {
         request.setEndTime(endTime);
 
         // 获取各模块统计数据
-        BusinessStatisticsDTO businessStats = statisticsService.getBusinessStatistics(request);
-        FinancingStatisticsDTO financingStats = statisticsService.getFinancingStatistics(request);
-        RiskStatisticsDTO riskStats = statisticsService.getRiskStatistics(request);
+        BusinessStatisticsDTO businessStats = singleFlightCache.get("businessStatistics", request,
+                () -> statisticsService.getBusinessStatistics(request));
+        FinancingStatisticsDTO financingStats = singleFlightCache.get("financingStatistics", request,
+                () -> statisticsService.getFinancingStatistics(request));
+        RiskStatisticsDTO riskStats = singleFlightCache.get("riskStatistics", request,
+                () -> statisticsService.getRiskStatistics(request));
 
         // 组装仪表盘数据
         DashboardStatisticsDTO dashboard = new DashboardStatisticsDTO();
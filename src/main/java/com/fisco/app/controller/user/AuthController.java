@@ -16,7 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fisco.app.entity.enterprise.Enterprise;
 import com.fisco.app.entity.user.User;
 import com.fisco.app.security.JwtTokenProvider;
-import com.fisco.app.security.PasswordUtil;
+import com.fisco.app.security.PasswordVerificationService;
 import com.fisco.app.service.enterprise.EnterpriseService;
 import com.fisco.app.service.user.UserService;
 import com.fisco.app.vo.Result;
@@ -45,6 +45,7 @@ public class AuthController {
     private final JwtTokenProvider jwtTokenProvider;
     private final EnterpriseService enterpriseService;
     private final UserService userService;
+    private final PasswordVerificationService passwordVerificationService;
 
     /**
      * 用户登录（用户名密码方式）- 推荐
@@ -188,10 +189,15 @@ public class AuthController {
                 return Result.error("账户未设置密码，请联系管理员初始化");
             }
 
-            if (!PasswordUtil.matches(request.getPassword(), enterprise.getPassword())) {
+            PasswordVerificationService.VerificationResult verification = passwordVerificationService.verify(
+                    "enterprise:" + enterprise.getId(), request.getPassword(), enterprise.getPassword());
+            if (!verification.isMatched()) {
                 log.warn("Enterprise login failed: invalid password, type={}, account={}", loginType, loginAccount);
                 return Result.error("密码错误");
             }
+            if (verification.getUpgradedHash() != null) {
+                enterpriseService.upgradePasswordHash(enterprise.getId(), verification.getUpgradedHash());
+            }
 
             // 生成增强型JWT令牌（包含企业ID、角色信息和区块链地址）
             String token = jwtTokenProvider.generateTokenWithAddress(
@@ -222,6 +228,9 @@ public class AuthController {
         } catch (com.fisco.app.exception.BusinessException.EnterpriseNotFoundException e) {
             log.warn("Enterprise login failed: not found, type={}, account={}", loginType, loginAccount);
             return Result.error("企业账户不存在，请先注册");
+        } catch (com.fisco.app.exception.BusinessException e) {
+            log.warn("Enterprise login rejected: type={}, account={}, error={}", loginType, loginAccount, e.getMessage());
+            return Result.error(e.getCode(), e.getMessage());
         }
     }
 
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.fisco.app.dto.receivable.SplitApplicationRequest;
 import com.fisco.app.dto.receivable.SplitApplicationResponse;
@@ -47,11 +49,14 @@ import com.fisco.app.dto.warehouse.ReceiptMergeResponse;
 import com.fisco.app.dto.warehouse.MergeApprovalRequest;
 import com.fisco.app.dto.warehouse.UpdateReceiptRequest;
 import com.fisco.app.dto.warehouse.WarehouseReceiptStatisticsDTO;
+import com.fisco.app.entity.system.ImportJob;
 import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
 import com.fisco.app.entity.warehouse.ReceiptCancelApplication;
 import com.fisco.app.entity.warehouse.ReceiptMergeApplication;
 import com.fisco.app.entity.warehouse.ReceiptChangeHistory;
 import com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository;
+import com.fisco.app.service.system.BulkImportService;
+import com.fisco.app.service.system.ExportFormat;
 import com.fisco.app.service.warehouse.ElectronicWarehouseReceiptService;
 import com.fisco.app.service.warehouse.WarehouseReceiptStatisticsService;
 import com.fisco.app.security.UserAuthentication;
@@ -81,6 +86,9 @@ public class ElectronicWarehouseReceiptController {
     @Autowired
     private WarehouseReceiptStatisticsService statisticsService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     /**
      * 创建仓单
      */
@@ -99,6 +107,26 @@ public class ElectronicWarehouseReceiptController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 批量导入仓单
+     * 文件逐行对应创建仓单请求，后台异步处理，通过 /api/import/jobs/{jobId} 查询进度
+     */
+    @PostMapping("/import")
+    @ApiOperation(value = "批量导入电子仓单", notes = "上传CSV/NDJSON文件批量创建草稿仓单，立即返回导入任务")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "导入任务已提交", response = ImportJob.class),
+            @ApiResponse(code = 400, message = "导入文件为空"),
+            @ApiResponse(code = 503, message = "导入任务过多")
+    })
+    public ResponseEntity<ImportJob> importReceipts(
+            @ApiParam(value = "导入文件", required = true) @RequestParam("file") MultipartFile file,
+            @ApiParam(value = "文件格式", example = "CSV") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            Authentication authentication) {
+        log.info("收到批量导入仓单请求, 文件: {}, 格式: {}", file.getOriginalFilename(), format);
+        ImportJob job = bulkImportService.submitReceiptImport(file, format, authentication);
+        return ResponseEntity.ok(job);
+    }
+
     /**
      * 更新仓单
      */
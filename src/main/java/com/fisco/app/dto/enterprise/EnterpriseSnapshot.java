@@ -0,0 +1,60 @@
+package com.fisco.app.dto.enterprise;
+
+import java.math.BigDecimal;
+
+import com.fisco.app.entity.enterprise.Enterprise;
+
+import lombok.Getter;
+
+/**
+ * 企业目录快照
+ * 企业热点校验所需字段的不可变副本，由 EnterpriseDirectoryCache 持有，
+ * 不包含密码、API密钥等敏感字段
+ */
+@Getter
+public class EnterpriseSnapshot {
+
+    private final String id;
+    private final String address;
+    private final String username;
+    private final String name;
+    private final Enterprise.EnterpriseRole role;
+    private final Enterprise.EnterpriseStatus status;
+    private final Integer creditRating;
+    private final BigDecimal creditLimit;
+
+    private EnterpriseSnapshot(String id, String address, String username, String name,
+                               Enterprise.EnterpriseRole role, Enterprise.EnterpriseStatus status,
+                               Integer creditRating, BigDecimal creditLimit) {
+        this.id = id;
+        this.address = address;
+        this.username = username;
+        this.name = name;
+        this.role = role;
+        this.status = status;
+        this.creditRating = creditRating;
+        this.creditLimit = creditLimit;
+    }
+
+    /**
+     * 从企业实体构建快照
+     */
+    public static EnterpriseSnapshot fromEntity(Enterprise enterprise) {
+        return new EnterpriseSnapshot(
+                enterprise.getId(),
+                enterprise.getAddress(),
+                enterprise.getUsername(),
+                enterprise.getName(),
+                enterprise.getRole(),
+                enterprise.getStatus(),
+                enterprise.getCreditRating(),
+                enterprise.getCreditLimit());
+    }
+
+    /**
+     * 企业是否处于激活状态
+     */
+    public boolean isActive() {
+        return status == Enterprise.EnterpriseStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.fisco.app.dto.risk;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import com.fisco.app.entity.credit.CreditLimitWarning;
+import com.fisco.app.enums.CreditWarningLevel;
+
+import lombok.Getter;
+
+/**
+ * 企业风险画像
+ * 风险评估所需的汇总指标的不可变副本，由 EnterpriseRiskProfileCache 持有，
+ * 金额单位均为分
+ */
+@Getter
+public class EnterpriseRiskProfile {
+
+    private final String enterpriseAddress;
+    private final int overdueCount;
+    private final long overdueAmount;
+    private final int transactionCount;
+    private final int successCount;
+    private final long transactionAmount;
+    private final List<WarningSummary> unresolvedWarnings;
+    private final LocalDateTime refreshedAt;
+
+    private EnterpriseRiskProfile(String enterpriseAddress, int overdueCount, long overdueAmount,
+                                  int transactionCount, int successCount, long transactionAmount,
+                                  List<WarningSummary> unresolvedWarnings) {
+        this.enterpriseAddress = enterpriseAddress;
+        this.overdueCount = overdueCount;
+        this.overdueAmount = overdueAmount;
+        this.transactionCount = transactionCount;
+        this.successCount = successCount;
+        this.transactionAmount = transactionAmount;
+        this.unresolvedWarnings = Collections.unmodifiableList(unresolvedWarnings);
+        this.refreshedAt = LocalDateTime.now();
+    }
+
+    public static EnterpriseRiskProfile of(String enterpriseAddress, int overdueCount, long overdueAmount,
+                                           int transactionCount, int successCount, long transactionAmount,
+                                           List<WarningSummary> unresolvedWarnings) {
+        return new EnterpriseRiskProfile(enterpriseAddress, overdueCount, overdueAmount,
+                transactionCount, successCount, transactionAmount, unresolvedWarnings);
+    }
+
+    /**
+     * 交易成功率，无交易时为1
+     */
+    public BigDecimal getTransactionSuccessRate() {
+        return transactionCount > 0
+                ? BigDecimal.valueOf(successCount).divide(BigDecimal.valueOf(transactionCount), 4, RoundingMode.HALF_UP)
+                : BigDecimal.ONE;
+    }
+
+    /**
+     * 平均交易金额（分）
+     */
+    public long getAverageTransactionAmount() {
+        return transactionCount > 0 ? transactionAmount / transactionCount : 0L;
+    }
+
+    /**
+     * 未处理的信用额度预警摘要
+     */
+    @Getter
+    public static class WarningSummary {
+
+        private final String id;
+        private final CreditWarningLevel warningLevel;
+        private final String warningType;
+        private final Double currentUsageRate;
+        private final LocalDateTime warningDate;
+
+        private WarningSummary(String id, CreditWarningLevel warningLevel, String warningType,
+                               Double currentUsageRate, LocalDateTime warningDate) {
+            this.id = id;
+            this.warningLevel = warningLevel;
+            this.warningType = warningType;
+            this.currentUsageRate = currentUsageRate;
+            this.warningDate = warningDate;
+        }
+
+        public static WarningSummary fromEntity(CreditLimitWarning warning) {
+            return new WarningSummary(warning.getId(), warning.getWarningLevel(), warning.getWarningType(),
+                    warning.getCurrentUsageRate(), warning.getWarningDate());
+        }
+    }
+}
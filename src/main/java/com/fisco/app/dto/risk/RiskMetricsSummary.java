@@ -0,0 +1,35 @@
+package com.fisco.app.dto.risk;
+
+import lombok.Data;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 风险指标汇总
+ */
+@Data
+@ApiModel(value = "风险指标汇总")
+public class RiskMetricsSummary {
+
+    @ApiModelProperty(value = "已评估企业总数")
+    private Long totalEnterprisesAssessed;
+
+    @ApiModelProperty(value = "高风险企业数量")
+    private Long highRiskEnterprises;
+
+    @ApiModelProperty(value = "中风险企业数量")
+    private Long mediumRiskEnterprises;
+
+    @ApiModelProperty(value = "低风险企业数量")
+    private Long lowRiskEnterprises;
+
+    @ApiModelProperty(value = "活跃预警数量")
+    private Long activeAlerts;
+
+    @ApiModelProperty(value = "平均风险评分")
+    private Double averageRiskScore;
+
+    @ApiModelProperty(value = "平均信用评分")
+    private Double averageCreditScore;
+}
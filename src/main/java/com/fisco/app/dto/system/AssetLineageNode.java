@@ -0,0 +1,26 @@
+package com.fisco.app.dto.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 溯源树节点
+ */
+@Data
+@ApiModel(value = "溯源树节点", description = "祖先树或后代树中的一个资产节点")
+public class AssetLineageNode {
+
+    @ApiModelProperty(value = "资产ID")
+    private String assetId;
+
+    @ApiModelProperty(value = "与查询资产的层级距离（最短路径）", example = "1")
+    private Integer depth;
+
+    @ApiModelProperty(value = "直接父节点ID（合并产生的资产有多个父节点）")
+    private List<String> parentIds = new ArrayList<>();
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.Id;
@@ -14,6 +15,7 @@ import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fisco.app.entity.risk.RiskProfileEntityListener;
 
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
@@ -54,8 +56,11 @@ import lombok.Data;
     @Index(name = "idx_backed_receipt_id", columnList = "backed_receipt_id"),
     @Index(name = "idx_created_at", columnList = "created_at"),
     @Index(name = "idx_parent_bill", columnList = "parent_bill_id"),
-    @Index(name = "idx_guarantee", columnList = "guarantee_id")
+    @Index(name = "idx_guarantee", columnList = "guarantee_id"),
+    @Index(name = "idx_drawer_address_status", columnList = "drawer_address, bill_status"),
+    @Index(name = "idx_drawee_address_status", columnList = "drawee_address, bill_status")
 })
+@EntityListeners(RiskProfileEntityListener.class)
 @ApiModel(value = "票据实体", description = "票据主表实体（完整版）")
 public class Bill {
 
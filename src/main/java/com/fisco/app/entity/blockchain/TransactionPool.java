@@ -67,7 +67,8 @@ public class TransactionPool {
         PENDING,       // 待处理
         QUEUED,        // 排队中
         PROCESSING,    // 处理中
-        CONFIRMED      // 已确认
+        CONFIRMED,     // 已确认
+        EXPIRED        // 超过最大轮询次数仍未取得回执
     }
 
     @PrePersist
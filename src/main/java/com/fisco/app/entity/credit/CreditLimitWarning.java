@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
@@ -21,6 +22,7 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fisco.app.entity.risk.RiskProfileEntityListener;
 import com.fisco.app.enums.CreditWarningLevel;
 
 import io.swagger.annotations.ApiModelProperty;
@@ -40,6 +42,7 @@ import lombok.EqualsAndHashCode;
     @Index(name = "idx_warning_date", columnList = "warning_date"),
     @Index(name = "idx_is_resolved", columnList = "is_resolved")
 })
+@EntityListeners(RiskProfileEntityListener.class)
 @Schema(name = "信用额度预警记录")
 public class CreditLimitWarning {
 
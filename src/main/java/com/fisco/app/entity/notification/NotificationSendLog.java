@@ -34,7 +34,7 @@ import javax.persistence.*;
 public class NotificationSendLog {
 
     @Id
-    @Column(name = "id", nullable = false, unique = true, length = 36)
+    @Column(name = "id", nullable = false, length = 36)
     @ApiModelProperty(value = "日志ID", required = true)
     private String id;
 
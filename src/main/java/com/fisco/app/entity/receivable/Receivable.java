@@ -21,6 +21,8 @@ import javax.persistence.Enumerated;
 
 import javax.persistence.*;
 
+import com.fisco.app.entity.risk.RiskProfileEntityListener;
+
 /**
  * 应收账款实体类
  */
@@ -32,8 +34,11 @@ import javax.persistence.*;
     @Index(name = "idx_holder", columnList = "current_holder"),
     @Index(name = "idx_financier", columnList = "financier_address"),
     @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_due_date", columnList = "due_date")
+    @Index(name = "idx_due_date", columnList = "due_date"),
+    @Index(name = "idx_supplier_overdue", columnList = "supplier_address, overdue_level"),
+    @Index(name = "idx_core_enterprise_overdue", columnList = "core_enterprise_address, overdue_level")
 })
+@EntityListeners(RiskProfileEntityListener.class)
 @ApiModel(value = "Receivable", description = "应收账款实体")
 @Schema(name = "应收账款")
 public class Receivable {
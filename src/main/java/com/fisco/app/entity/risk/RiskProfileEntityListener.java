@@ -0,0 +1,48 @@
+package com.fisco.app.entity.risk;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.entity.credit.CreditLimitWarning;
+import com.fisco.app.entity.receivable.Receivable;
+import com.fisco.app.service.risk.EnterpriseRiskProfileCache;
+
+/**
+ * 风险画像实体监听器
+ * 票据、应收账款、信用额度预警写入数据库后，把涉及的企业登记到 EnterpriseRiskProfileCache，
+ * 由其在事务提交后按企业重算画像
+ *
+ * 实例由 Hibernate 经 Spring Bean 容器创建；画像缓存依赖的 Repository 又依赖 EntityManagerFactory，
+ * 因此延迟到回调时再获取
+ */
+public class RiskProfileEntityListener {
+
+    private final ObjectProvider<EnterpriseRiskProfileCache> riskProfileCacheProvider;
+
+    public RiskProfileEntityListener(ObjectProvider<EnterpriseRiskProfileCache> riskProfileCacheProvider) {
+        this.riskProfileCacheProvider = riskProfileCacheProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        EnterpriseRiskProfileCache cache = riskProfileCacheProvider.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        if (entity instanceof Bill) {
+            Bill bill = (Bill) entity;
+            cache.markChanged(bill.getDrawerAddress(), bill.getDraweeAddress());
+        } else if (entity instanceof Receivable) {
+            Receivable receivable = (Receivable) entity;
+            cache.markChanged(receivable.getSupplierAddress(), receivable.getCoreEnterpriseAddress());
+        } else if (entity instanceof CreditLimitWarning) {
+            cache.markCreditLimitChanged(((CreditLimitWarning) entity).getCreditLimitId());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 资产溯源闭包表实体类
+ * 记录票据、应收账款、电子仓单拆分/合并产生的所有祖先-后代关系（含 depth=0 的自身行），
+ * 由 AssetLineageService 在拆分、合并时通过原生 SQL 维护，整棵祖先树或后代树均可一次索引查询取出
+ *
+ * 合并会产生多个父节点，depth 取最短路径长度
+ */
+@Data
+@Entity
+@Table(name = "asset_lineage", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_asset_lineage", columnNames = {"asset_type", "ancestor_id", "descendant_id"})
+}, indexes = {
+    @Index(name = "idx_asset_lineage_descendant", columnList = "asset_type,descendant_id,depth")
+})
+@ApiModel(value = "资产溯源关系", description = "拆分/合并溯源闭包表")
+public class AssetLineage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "asset_type", nullable = false, length = 20)
+    @ApiModelProperty(value = "资产类型")
+    private AssetType assetType;
+
+    @Column(name = "ancestor_id", nullable = false, length = 36)
+    @ApiModelProperty(value = "祖先资产ID")
+    private String ancestorId;
+
+    @Column(name = "descendant_id", nullable = false, length = 36)
+    @ApiModelProperty(value = "后代资产ID")
+    private String descendantId;
+
+    @Column(name = "depth", nullable = false)
+    @ApiModelProperty(value = "层级距离（0表示自身）")
+    private Integer depth;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 资产类型
+     */
+    public enum AssetType {
+        BILL,               // 票据
+        RECEIVABLE,         // 应收账款
+        WAREHOUSE_RECEIPT   // 电子仓单
+    }
+}
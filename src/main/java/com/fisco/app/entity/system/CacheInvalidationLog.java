@@ -0,0 +1,74 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+/**
+ * 缓存失效日志实体类
+ * 多实例部署时作为跨节点缓存失效总线，各节点按自增ID高水位轮询并在本地执行失效
+ */
+@Data
+@Entity
+@Table(name = "cache_invalidation_log", indexes = {
+    @Index(name = "idx_cache_inv_created", columnList = "created_at")
+})
+public class CacheInvalidationLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 缓存名称
+     */
+    @Column(name = "cache_name", nullable = false, length = 64)
+    private String cacheName;
+
+    /**
+     * 失效范围
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 10)
+    private Scope scope;
+
+    /**
+     * 缓存键或标签（scope 为 ALL 时为空）
+     */
+    @Column(name = "target", length = 255)
+    private String target;
+
+    /**
+     * 发起失效的节点ID
+     */
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * 失效范围枚举
+     */
+    public enum Scope {
+        KEY,    // 单个缓存键
+        TAG,    // 标签下的全部缓存键
+        ALL     // 整个缓存
+    }
+}
@@ -0,0 +1,88 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 到期事件实体类
+ * 票据到期、仓单过期、应收账款逾期、信用额度到期等按时间触发的状态变更，
+ * 由 DueEventScheduler 登记到时间轮并在到期时处理；每个业务对象每种事件只保留一行，
+ * 应用重启后从 PENDING 行恢复时间轮
+ */
+@Data
+@Entity
+@Table(name = "due_event", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_due_event_target", columnNames = {"event_type", "target_id"})
+}, indexes = {
+    @Index(name = "idx_due_event_status_due", columnList = "status,due_at")
+})
+@ApiModel(value = "到期事件", description = "按时间触发的业务状态变更")
+public class DueEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    @ApiModelProperty(value = "事件类型")
+    private EventType eventType;
+
+    @Column(name = "target_id", nullable = false, length = 36)
+    @ApiModelProperty(value = "业务对象ID")
+    private String targetId;
+
+    @Column(name = "due_at", nullable = false)
+    @ApiModelProperty(value = "到期时间")
+    private LocalDateTime dueAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    @ApiModelProperty(value = "状态")
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    @ApiModelProperty(value = "失败重试次数")
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 500)
+    @ApiModelProperty(value = "最近一次处理失败原因")
+    private String lastError;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 事件类型
+     */
+    public enum EventType {
+        BILL_MATURITY,        // 已贴现票据到期
+        RECEIPT_EXPIRY,       // 电子仓单过期
+        RECEIVABLE_OVERDUE,   // 应收账款逾期及逾期等级变化
+        CREDIT_LIMIT_EXPIRY   // 信用额度到期
+    }
+
+    /**
+     * 事件状态
+     */
+    public enum Status {
+        PENDING,   // 待触发
+        RUNNING,   // 已被某个节点认领，正在处理
+        DONE,      // 已处理
+        FAILED     // 重试次数用尽
+    }
+}
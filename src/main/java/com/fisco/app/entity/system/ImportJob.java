@@ -0,0 +1,123 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 批量导入任务实体类
+ * 记录一次文件导入的整体进度，逐行结果见 ImportJobRow
+ */
+@Data
+@Entity
+@Table(name = "import_job", indexes = {
+    @Index(name = "idx_import_job_creator", columnList = "created_by"),
+    @Index(name = "idx_import_job_created", columnList = "created_at")
+})
+@ApiModel(value = "批量导入任务", description = "批量导入任务进度")
+public class ImportJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    @ApiModelProperty(value = "任务ID")
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 32)
+    @ApiModelProperty(value = "导入类型")
+    private JobType jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @ApiModelProperty(value = "任务状态")
+    private JobStatus status;
+
+    @Column(name = "file_name", length = 255)
+    @ApiModelProperty(value = "文件名")
+    private String fileName;
+
+    @Column(name = "file_format", length = 10)
+    @ApiModelProperty(value = "文件格式")
+    private String fileFormat;
+
+    @Column(name = "total_rows", nullable = false)
+    @ApiModelProperty(value = "已读取行数")
+    private Long totalRows = 0L;
+
+    @Column(name = "created_rows", nullable = false)
+    @ApiModelProperty(value = "成功入库行数")
+    private Long createdRows = 0L;
+
+    @Column(name = "failed_rows", nullable = false)
+    @ApiModelProperty(value = "校验或入库失败行数")
+    private Long failedRows = 0L;
+
+    @Column(name = "chain_succeeded", nullable = false)
+    @ApiModelProperty(value = "上链成功行数")
+    private Long chainSucceeded = 0L;
+
+    @Column(name = "chain_failed", nullable = false)
+    @ApiModelProperty(value = "上链失败行数")
+    private Long chainFailed = 0L;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    @ApiModelProperty(value = "任务级错误信息")
+    private String errorMessage;
+
+    @Column(name = "created_by", length = 100)
+    @ApiModelProperty(value = "提交人")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @ApiModelProperty(value = "创建时间")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    @ApiModelProperty(value = "更新时间")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    @ApiModelProperty(value = "完成时间")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 导入类型
+     */
+    public enum JobType {
+        BILL,               // 票据开立
+        WAREHOUSE_RECEIPT   // 电子仓单创建
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum JobStatus {
+        PENDING,    // 已接收，等待处理
+        RUNNING,    // 处理中
+        COMPLETED,  // 已完成（逐行结果可能包含失败）
+        FAILED      // 任务中止
+    }
+}
@@ -0,0 +1,82 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 批量导入逐行结果实体类
+ * 由导入管道通过 JDBC 批量写入，上链结果返回后按 (job_id, row_no) 更新
+ */
+@Data
+@Entity
+@Table(name = "import_job_row", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_import_job_row", columnNames = {"job_id", "row_no"})
+}, indexes = {
+    @Index(name = "idx_import_job_row_status", columnList = "job_id,status")
+})
+@ApiModel(value = "批量导入行结果", description = "批量导入逐行处理结果")
+public class ImportJobRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    @ApiModelProperty(value = "任务ID")
+    private String jobId;
+
+    @Column(name = "row_no", nullable = false)
+    @ApiModelProperty(value = "文件行号（数据行从1开始）")
+    private Long rowNo;
+
+    @Column(name = "business_key", length = 100)
+    @ApiModelProperty(value = "业务键（票据ID/仓单编号）")
+    private String businessKey;
+
+    @Column(name = "entity_id", length = 36)
+    @ApiModelProperty(value = "创建的实体ID")
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @ApiModelProperty(value = "行状态")
+    private RowStatus status;
+
+    @Column(name = "message", length = 1000)
+    @ApiModelProperty(value = "失败原因")
+    private String message;
+
+    @Column(name = "tx_hash", length = 100)
+    @ApiModelProperty(value = "上链交易哈希")
+    private String txHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 行状态
+     */
+    public enum RowStatus {
+        INVALID,        // 解析或校验失败，未入库
+        CREATED,        // 已入库（待上链或无需上链）
+        ONCHAIN,        // 已上链
+        CHAIN_FAILED    // 已入库，上链失败
+    }
+}
@@ -0,0 +1,52 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+/**
+ * 业务编号号段实体类
+ * 每个"前缀+日期"一行，记录已分配出去的最大序号；各节点每次租用一段序号在内存中发放
+ */
+@Data
+@Entity
+@Table(name = "number_segment")
+public class NumberSegment {
+
+    /**
+     * 号段键，格式: 前缀:yyyyMMdd
+     */
+    @Id
+    @Column(name = "segment_key", length = 64)
+    private String segmentKey;
+
+    /**
+     * 已租出的最大序号
+     */
+    @Column(name = "max_value", nullable = false)
+    private Long maxValue;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,94 @@
+package com.fisco.app.entity.system;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 权限访问放行汇总实体类
+ * 放行事件按 (用户, 权限类型, 目标资源, 分钟) 在内存中计数后批量写入，拒绝事件仍逐条记录在 permission_audit_log
+ */
+@Data
+@Entity
+@Table(name = "permission_access_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_access_rollup",
+        columnNames = {"username", "permission_type", "target_resource", "bucket_start"}),
+    indexes = {
+        @Index(name = "idx_rollup_enterprise", columnList = "enterprise_id"),
+        @Index(name = "idx_rollup_bucket", columnList = "bucket_start")
+    })
+@ApiModel(value = "权限访问汇总", description = "按分钟汇总的权限放行次数")
+public class PermissionAccessRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "username", nullable = false, length = 100)
+    @ApiModelProperty(value = "用户名")
+    private String username;
+
+    @Column(name = "enterprise_id", length = 36)
+    @ApiModelProperty(value = "用户所属企业ID")
+    private String enterpriseId;
+
+    @Column(name = "permission_type", nullable = false, length = 50)
+    @ApiModelProperty(value = "权限类型", example = "ENTERPRISE_ACCESS")
+    private String permissionType;
+
+    /**
+     * 目标资源，无目标时为空字符串（参与唯一键）
+     */
+    @Column(name = "target_resource", nullable = false, length = 255)
+    @ApiModelProperty(value = "目标资源")
+    private String targetResource;
+
+    /**
+     * 统计分钟的起始时间
+     */
+    @Column(name = "bucket_start", nullable = false)
+    @ApiModelProperty(value = "统计分钟起始时间")
+    private LocalDateTime bucketStart;
+
+    /**
+     * 采样计入的放行次数
+     */
+    @Column(name = "grant_count", nullable = false)
+    @ApiModelProperty(value = "采样计入的放行次数")
+    private Long grantCount;
+
+    /**
+     * 写入时的采样率，估算实际次数 = grantCount / sampleRate
+     */
+    @Column(name = "sample_rate", nullable = false)
+    @ApiModelProperty(value = "采样率", example = "1.0")
+    private Double sampleRate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 按采样率估算的实际放行次数
+     */
+    @ApiModelProperty(value = "估算的实际放行次数")
+    public long getEstimatedCount() {
+        if (grantCount == null) {
+            return 0;
+        }
+        return sampleRate == null || sampleRate <= 0 ? grantCount : Math.round(grantCount / sampleRate);
+    }
+}
@@ -1,7 +1,7 @@
 package com.fisco.app.event;
-import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.fisco.app.security.PermissionCacheService;
 
@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 权限更新事件监听器
  * 监听用户和企业变更事件，自动更新权限缓存
+ * 在事务提交后异步处理，避免失效后被并发请求以未提交前的旧数据重新填充
  */
 @Slf4j
 @Component
@@ -24,7 +25,7 @@ public class PermissionUpdateListener {
      * 当用户信息（角色、企业）变更时清除缓存
      */
     @Async
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleUserUpdatedEvent(UserUpdatedEvent event) {
         log.info("检测到用户信息更新，清除权限缓存: username={}, enterpriseId={}",
                 event.getUsername(), event.getEnterpriseId());
@@ -46,7 +47,7 @@ public class PermissionUpdateListener {
      * 当企业信息变更时清除相关缓存
      */
     @Async
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleEnterpriseUpdatedEvent(EnterpriseUpdatedEvent event) {
         log.info("检测到企业信息更新，清除权限缓存: enterpriseId={}", event.getEnterpriseId());
 
@@ -60,7 +61,7 @@ public class PermissionUpdateListener {
      * 处理用户删除事件
      */
     @Async
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleUserDeletedEvent(UserDeletedEvent event) {
         log.info("检测到用户删除，清除权限缓存: username={}", event.getUsername());
 
@@ -2,11 +2,18 @@ package com.fisco.app.repository.bill;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -31,6 +38,13 @@ public interface BillRepository extends JpaRepository<Bill, String> {
      */
     Optional<Bill> findByBillNo(String billNo);
 
+    /**
+     * 加行锁查询票据，用于到期处理等与用户操作并发的状态变更
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b WHERE b.billId = :billId")
+    Optional<Bill> findByIdForUpdate(@Param("billId") String billId);
+
     /**
      * 根据票据类型查询
      */
@@ -348,4 +362,55 @@ public interface BillRepository extends JpaRepository<Bill, String> {
         LocalDateTime startDate,
         LocalDateTime endDate
     );
+
+    /**
+     * 查询已存在的票据ID，用于批量导入去重
+     */
+    @Query("SELECT b.billId FROM Bill b WHERE b.billId IN :billIds")
+    List<String> findExistingBillIds(@Param("billIds") Collection<String> billIds);
+
+    // ==================== 导出 ====================
+
+    /**
+     * 流式导出票据，需在只读事务内消费并关闭
+     * MySQL 驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行读取结果集
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT b FROM Bill b WHERE " +
+           "(:status IS NULL OR b.billStatus = :status) AND " +
+           "(:holderId IS NULL OR b.currentHolderId = :holderId) AND " +
+           "(:startDate IS NULL OR b.issueDate >= :startDate) AND " +
+           "(:endDate IS NULL OR b.issueDate <= :endDate)")
+    Stream<Bill> streamForExport(@Param("status") Bill.BillStatus status,
+                                 @Param("holderId") String holderId,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+
+    // ==================== 风险画像 ====================
+
+    /**
+     * 按票据状态汇总企业作为出票人或付款人的票据笔数与票面金额
+     */
+    @Query("SELECT b.billStatus, COUNT(b), COALESCE(SUM(b.faceValue), 0) FROM Bill b " +
+           "WHERE b.drawerAddress = :address OR b.draweeAddress = :address GROUP BY b.billStatus")
+    List<Object[]> aggregateByEnterpriseGroupByStatus(@Param("address") String address);
+
+    /**
+     * 按出票人、票据状态汇总票据笔数与票面金额
+     */
+    @Query("SELECT b.drawerAddress, b.billStatus, COUNT(b), COALESCE(SUM(b.faceValue), 0) FROM Bill b " +
+           "WHERE b.drawerAddress IS NOT NULL GROUP BY b.drawerAddress, b.billStatus")
+    List<Object[]> aggregateByDrawerGroupByStatus();
+
+    /**
+     * 按付款人、票据状态汇总票据笔数与票面金额，出票人与付款人相同的票据已在出票人维度统计，此处排除
+     */
+    @Query("SELECT b.draweeAddress, b.billStatus, COUNT(b), COALESCE(SUM(b.faceValue), 0) FROM Bill b " +
+           "WHERE b.draweeAddress IS NOT NULL " +
+           "AND (b.drawerAddress IS NULL OR b.draweeAddress <> b.drawerAddress) " +
+           "GROUP BY b.draweeAddress, b.billStatus")
+    List<Object[]> aggregateByDraweeGroupByStatus();
 }
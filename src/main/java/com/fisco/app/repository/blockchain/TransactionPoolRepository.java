@@ -1,6 +1,7 @@
 package com.fisco.app.repository.blockchain;
 
 import com.fisco.app.entity.blockchain.TransactionPool;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,6 +29,17 @@ public interface TransactionPoolRepository extends JpaRepository<TransactionPool
      */
     List<TransactionPool> findByStatusOrderBySubmittedAtAsc(TransactionPool.PoolStatus status);
 
+    /**
+     * 按提交时间顺序查询待处理交易哈希，用于批量拉取回执
+     */
+    @Query("SELECT tp.transactionHash FROM TransactionPool tp WHERE tp.status = 'PENDING' ORDER BY tp.submittedAt")
+    List<String> findPendingHashes(Pageable pageable);
+
+    /**
+     * 判断交易是否处于指定状态
+     */
+    boolean existsByTransactionHashAndStatus(String transactionHash, TransactionPool.PoolStatus status);
+
     /**
      * 统计账户待处理交易数
      */
@@ -157,4 +157,12 @@ public interface CreditLimitWarningRepository extends JpaRepository<CreditLimitW
     @Query("SELECT w FROM CreditLimitWarning w WHERE w.warningLevel IN ('HIGH', 'CRITICAL') " +
            "AND w.isResolved = false ORDER BY w.warningLevel DESC, w.warningDate DESC")
     List<CreditLimitWarning> findRecentHighPriorityWarnings(Pageable pageable);
+
+    /**
+     * 查找全部未处理预警及其所属企业地址，返回 [enterpriseAddress, CreditLimitWarning]
+     */
+    @Query("SELECT cl.enterpriseAddress, w FROM CreditLimitWarning w, CreditLimit cl " +
+           "WHERE cl.id = w.creditLimitId AND w.isResolved = false " +
+           "ORDER BY w.warningLevel DESC, w.warningDate DESC")
+    List<Object[]> findAllUnresolvedWithEnterpriseAddress();
 }
@@ -39,6 +39,23 @@ public interface ReceivableRepaymentRecordRepository extends JpaRepository<Recei
     @Query("SELECT COALESCE(SUM(r.repaymentAmount), 0) FROM ReceivableRepaymentRecord r WHERE r.receivableId = :receivableId AND r.status = 'CONFIRMED'")
     BigDecimal totalRepaidAmountByReceivable(@Param("receivableId") String receivableId);
 
+    /**
+     * 计算符合条件的应收账款的已还总金额（仅已确认的还款），条件为空时不过滤
+     *
+     * @param supplierAddress 供应商地址（可选）
+     * @param coreEnterpriseAddress 核心企业地址（可选）
+     * @param financierAddress 资金方地址（可选）
+     * @return 已还总金额
+     */
+    @Query("SELECT COALESCE(SUM(rr.repaymentAmount), 0) FROM ReceivableRepaymentRecord rr, Receivable r " +
+           "WHERE r.id = rr.receivableId AND rr.status = 'CONFIRMED' " +
+           "AND (:supplierAddress IS NULL OR r.supplierAddress = :supplierAddress) " +
+           "AND (:coreEnterpriseAddress IS NULL OR r.coreEnterpriseAddress = :coreEnterpriseAddress) " +
+           "AND (:financierAddress IS NULL OR r.financierAddress = :financierAddress)")
+    BigDecimal totalRepaidAmountByReceivableFilter(@Param("supplierAddress") String supplierAddress,
+                                                   @Param("coreEnterpriseAddress") String coreEnterpriseAddress,
+                                                   @Param("financierAddress") String financierAddress);
+
     /**
      * 统计应收账款的还款次数
      *
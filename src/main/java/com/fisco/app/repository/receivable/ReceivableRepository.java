@@ -4,6 +4,7 @@ import com.fisco.app.entity.receivable.Receivable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
@@ -11,6 +12,9 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 /**
  * 应收账款Repository
@@ -73,9 +77,82 @@ public interface ReceivableRepository extends JpaRepository<Receivable, String>
      */
     List<Receivable> findByParentReceivableId(String parentReceivableId);
 
+    /**
+     * 根据供应商、核心企业和状态查找应收账款
+     */
+    List<Receivable> findBySupplierAddressAndCoreEnterpriseAddressAndStatus(
+            String supplierAddress, String coreEnterpriseAddress, Receivable.ReceivableStatus status);
+
     /**
      * 根据id查找应收账款（使用业务ID查询）
      */
     @Query("SELECT r FROM Receivable r WHERE r.id = :receivableId")
     java.util.Optional<Receivable> findByReceivableId(@Param("receivableId") String receivableId);
+
+    /**
+     * 流式导出应收账款，需在只读事务内消费并关闭
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Receivable r WHERE " +
+           "(:status IS NULL OR r.status = :status) AND " +
+           "(:supplierAddress IS NULL OR r.supplierAddress = :supplierAddress) AND " +
+           "(:coreEnterpriseAddress IS NULL OR r.coreEnterpriseAddress = :coreEnterpriseAddress) AND " +
+           "(:startDate IS NULL OR r.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR r.createdAt <= :endDate)")
+    Stream<Receivable> streamForExport(@Param("status") Receivable.ReceivableStatus status,
+                                       @Param("supplierAddress") String supplierAddress,
+                                       @Param("coreEnterpriseAddress") String coreEnterpriseAddress,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * 统计企业作为供应商或核心企业的逾期应收账款笔数与金额
+     */
+    @Query("SELECT COUNT(r), COALESCE(SUM(r.amount), 0) FROM Receivable r WHERE " +
+           "(r.supplierAddress = :address OR r.coreEnterpriseAddress = :address) AND r.overdueLevel IS NOT NULL")
+    List<Object[]> aggregateOverdueByEnterprise(@Param("address") String address);
+
+    /**
+     * 按供应商汇总逾期应收账款笔数与金额
+     */
+    @Query("SELECT r.supplierAddress, COUNT(r), COALESCE(SUM(r.amount), 0) FROM Receivable r " +
+           "WHERE r.overdueLevel IS NOT NULL GROUP BY r.supplierAddress")
+    List<Object[]> aggregateOverdueBySupplier();
+
+    /**
+     * 按核心企业汇总逾期应收账款笔数与金额，供应商与核心企业相同的记录已在供应商维度统计，此处排除
+     */
+    @Query("SELECT r.coreEnterpriseAddress, COUNT(r), COALESCE(SUM(r.amount), 0) FROM Receivable r " +
+           "WHERE r.overdueLevel IS NOT NULL AND r.coreEnterpriseAddress <> r.supplierAddress " +
+           "GROUP BY r.coreEnterpriseAddress")
+    List<Object[]> aggregateOverdueByCoreEnterprise();
+
+    /**
+     * 按状态和账龄段分组汇总应收账款，条件为空时不过滤
+     * 账龄段按 TIMESTAMPDIFF(DAY, due_date, now) 计算（与 ChronoUnit.DAYS.between 一致，按整天截断）：
+     * 0-未到期，1-已过到期时间但不足1天，2-逾期1-30天，3-逾期31-60天，4-逾期61-90天，5-逾期90天以上
+     *
+     * @return [status, bucket, count, sum(amount), count(finance_amount), sum(finance_amount)]
+     */
+    @Query(value = "SELECT r.status, " +
+           "CASE WHEN r.due_date >= :now THEN 0 " +
+           "WHEN TIMESTAMPDIFF(DAY, r.due_date, :now) <= 0 THEN 1 " +
+           "WHEN TIMESTAMPDIFF(DAY, r.due_date, :now) <= 30 THEN 2 " +
+           "WHEN TIMESTAMPDIFF(DAY, r.due_date, :now) <= 60 THEN 3 " +
+           "WHEN TIMESTAMPDIFF(DAY, r.due_date, :now) <= 90 THEN 4 " +
+           "ELSE 5 END AS aging_bucket, " +
+           "COUNT(*), COALESCE(SUM(r.amount), 0), COUNT(r.finance_amount), COALESCE(SUM(r.finance_amount), 0) " +
+           "FROM receivable r WHERE " +
+           "(:supplierAddress IS NULL OR r.supplier_address = :supplierAddress) AND " +
+           "(:coreEnterpriseAddress IS NULL OR r.core_enterprise_address = :coreEnterpriseAddress) AND " +
+           "(:financierAddress IS NULL OR r.financier_address = :financierAddress) " +
+           "GROUP BY r.status, aging_bucket",
+           nativeQuery = true)
+    List<Object[]> aggregateByStatusAndAgingBucket(@Param("supplierAddress") String supplierAddress,
+                                                   @Param("coreEnterpriseAddress") String coreEnterpriseAddress,
+                                                   @Param("financierAddress") String financierAddress,
+                                                   @Param("now") LocalDateTime now);
 }
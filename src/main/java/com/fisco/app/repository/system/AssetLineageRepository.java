@@ -0,0 +1,84 @@
+package com.fisco.app.repository.system;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.AssetLineage;
+
+/**
+ * 资产溯源闭包表Repository
+ */
+@Repository
+public interface AssetLineageRepository extends JpaRepository<AssetLineage, Long> {
+
+    /**
+     * 写入资产自身行（depth=0），已存在时忽略
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO asset_lineage (asset_type, ancestor_id, descendant_id, depth, created_at) " +
+            "VALUES (:assetType, :assetId, :assetId, 0, NOW())", nativeQuery = true)
+    int insertSelf(@Param("assetType") String assetType, @Param("assetId") String assetId);
+
+    /**
+     * 建立父子关系：父节点的每个祖先（含自身）与子节点的每个后代（含自身）两两关联，
+     * 已存在的关系保留较短的层级距离
+     */
+    @Modifying
+    @Query(value = "INSERT INTO asset_lineage (asset_type, ancestor_id, descendant_id, depth, created_at) " +
+            "SELECT a.asset_type, a.ancestor_id, d.descendant_id, a.depth + d.depth + 1, NOW() " +
+            "FROM asset_lineage a JOIN asset_lineage d ON d.asset_type = a.asset_type " +
+            "WHERE a.asset_type = :assetType AND a.descendant_id = :parentId AND d.ancestor_id = :childId " +
+            "ON DUPLICATE KEY UPDATE depth = LEAST(asset_lineage.depth, VALUES(depth))", nativeQuery = true)
+    int linkClosure(@Param("assetType") String assetType,
+                    @Param("parentId") String parentId,
+                    @Param("childId") String childId);
+
+    /**
+     * 删除叶子节点与其祖先的关系（保留自身行），用于撤销被拒绝的拆分/合并
+     */
+    @Modifying
+    @Query(value = "DELETE FROM asset_lineage WHERE asset_type = :assetType AND descendant_id = :assetId AND depth > 0",
+            nativeQuery = true)
+    int deleteAncestorLinks(@Param("assetType") String assetType, @Param("assetId") String assetId);
+
+    /**
+     * 查询全部祖先及每个祖先的直接父节点，一次查询构成祖先树
+     * 返回 [ancestor_id, depth, parent_id]，没有父节点的祖先 parent_id 为 null
+     */
+    @Query(value = "SELECT a.ancestor_id, a.depth, p.ancestor_id AS parent_id FROM asset_lineage a " +
+            "LEFT JOIN asset_lineage p ON p.asset_type = a.asset_type AND p.descendant_id = a.ancestor_id AND p.depth = 1 " +
+            "WHERE a.asset_type = :assetType AND a.descendant_id = :assetId AND a.depth > 0 " +
+            "ORDER BY a.depth, a.ancestor_id", nativeQuery = true)
+    List<Object[]> findAncestorTree(@Param("assetType") String assetType, @Param("assetId") String assetId);
+
+    /**
+     * 查询全部后代及每个后代在该子树内的直接父节点，一次查询构成后代树
+     * 返回 [descendant_id, depth, parent_id]
+     */
+    @Query(value = "SELECT d.descendant_id, d.depth, p.ancestor_id AS parent_id FROM asset_lineage d " +
+            "JOIN asset_lineage p ON p.asset_type = d.asset_type AND p.descendant_id = d.descendant_id AND p.depth = 1 " +
+            "JOIN asset_lineage s ON s.asset_type = d.asset_type AND s.ancestor_id = d.ancestor_id " +
+            "AND s.descendant_id = p.ancestor_id " +
+            "WHERE d.asset_type = :assetType AND d.ancestor_id = :assetId AND d.depth > 0 " +
+            "ORDER BY d.depth, d.descendant_id", nativeQuery = true)
+    List<Object[]> findDescendantTree(@Param("assetType") String assetType, @Param("assetId") String assetId);
+
+    /**
+     * 查询直接父节点ID
+     */
+    @Query("SELECT l.ancestorId FROM AssetLineage l WHERE l.assetType = :assetType " +
+            "AND l.descendantId = :assetId AND l.depth = 1")
+    List<String> findParentIds(@Param("assetType") AssetLineage.AssetType assetType,
+                               @Param("assetId") String assetId);
+
+    /**
+     * 判断是否存在祖先-后代关系
+     */
+    boolean existsByAssetTypeAndAncestorIdAndDescendantIdAndDepthGreaterThan(
+            AssetLineage.AssetType assetType, String ancestorId, String descendantId, Integer depth);
+}
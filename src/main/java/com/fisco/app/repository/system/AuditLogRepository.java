@@ -1,9 +1,13 @@
 package com.fisco.app.repository.system;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -100,4 +104,23 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
      * 根据区块链交易哈希查询
      */
     List<AuditLog> findByTxHash(String txHash);
+
+    /**
+     * 流式导出审计日志，需在只读事务内消费并关闭
+     * 按 created_at 范围过滤，可裁剪到对应的月分区
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "a.createdAt >= :startDate AND a.createdAt <= :endDate AND " +
+           "(:module IS NULL OR a.module = :module) AND " +
+           "(:actionType IS NULL OR a.actionType = :actionType) AND " +
+           "(:userAddress IS NULL OR a.userAddress = :userAddress)")
+    Stream<AuditLog> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("module") String module,
+                                     @Param("actionType") String actionType,
+                                     @Param("userAddress") String userAddress);
 }
@@ -0,0 +1,37 @@
+package com.fisco.app.repository.system;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.CacheInvalidationLog;
+
+/**
+ * 缓存失效日志Repository
+ */
+@Repository
+public interface CacheInvalidationLogRepository extends JpaRepository<CacheInvalidationLog, Long> {
+
+    /**
+     * 查询高水位之后的失效记录
+     */
+    List<CacheInvalidationLog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 当前最大ID，作为节点启动时的初始高水位
+     */
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidationLog c")
+    Long findMaxId();
+
+    /**
+     * 删除过期的失效记录
+     */
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationLog c WHERE c.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
+}
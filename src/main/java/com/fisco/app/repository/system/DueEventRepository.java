@@ -0,0 +1,89 @@
+package com.fisco.app.repository.system;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.DueEvent;
+
+/**
+ * 到期事件Repository
+ */
+@Repository
+public interface DueEventRepository extends JpaRepository<DueEvent, Long> {
+
+    /**
+     * 登记或改期：已存在的事件重置为待触发
+     */
+    @Modifying
+    @Query(value = "INSERT INTO due_event (event_type, target_id, due_at, status, attempts, updated_at) " +
+            "VALUES (:eventType, :targetId, :dueAt, 'PENDING', 0, NOW()) " +
+            "ON DUPLICATE KEY UPDATE due_at = VALUES(due_at), status = 'PENDING', attempts = 0, " +
+            "last_error = NULL, updated_at = NOW()", nativeQuery = true)
+    int upsertPending(@Param("eventType") String eventType,
+                      @Param("targetId") String targetId,
+                      @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * 认领待触发事件；返回 1 时由当前节点处理，返回 0 说明已被其他节点认领或已改期
+     */
+    @Modifying
+    @Query(value = "UPDATE due_event SET status = 'RUNNING', updated_at = NOW() " +
+            "WHERE event_type = :eventType AND target_id = :targetId AND due_at = :dueAt AND status = 'PENDING'",
+            nativeQuery = true)
+    int claim(@Param("eventType") String eventType,
+              @Param("targetId") String targetId,
+              @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * 标记已处理；仅当到期时间未被改期时生效
+     */
+    @Modifying
+    @Query(value = "UPDATE due_event SET status = 'DONE', updated_at = NOW() " +
+            "WHERE event_type = :eventType AND target_id = :targetId AND due_at = :dueAt AND status = 'RUNNING'",
+            nativeQuery = true)
+    int markDone(@Param("eventType") String eventType,
+                 @Param("targetId") String targetId,
+                 @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * 处理失败：推迟到 retryAt 重试，次数用尽后标记 FAILED
+     */
+    @Modifying
+    @Query(value = "UPDATE due_event SET attempts = attempts + 1, last_error = :error, " +
+            "status = IF(attempts >= :maxAttempts, 'FAILED', 'PENDING'), due_at = :retryAt, updated_at = NOW() " +
+            "WHERE event_type = :eventType AND target_id = :targetId AND due_at = :dueAt AND status = 'RUNNING'",
+            nativeQuery = true)
+    int markFailed(@Param("eventType") String eventType,
+                   @Param("targetId") String targetId,
+                   @Param("dueAt") LocalDateTime dueAt,
+                   @Param("error") String error,
+                   @Param("retryAt") LocalDateTime retryAt,
+                   @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 认领后未完成（处理节点宕机）的事件重置为待触发
+     */
+    @Modifying
+    @Query(value = "UPDATE due_event SET status = 'PENDING', updated_at = NOW() " +
+            "WHERE status = 'RUNNING' AND updated_at < :staleBefore", nativeQuery = true)
+    int resetStaleRunning(@Param("staleBefore") LocalDateTime staleBefore);
+
+    Optional<DueEvent> findByEventTypeAndTargetId(DueEvent.EventType eventType, String targetId);
+
+    /**
+     * 全部待触发事件，用于启动时恢复时间轮
+     */
+    List<DueEvent> findByStatus(DueEvent.Status status);
+
+    /**
+     * 指定时间之前到期的待触发事件，用于各节点定期同步其他节点登记的事件
+     */
+    List<DueEvent> findByStatusAndDueAtLessThanEqual(DueEvent.Status status, LocalDateTime dueBefore);
+}
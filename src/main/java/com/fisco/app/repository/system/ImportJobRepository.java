@@ -0,0 +1,13 @@
+package com.fisco.app.repository.system;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.ImportJob;
+
+/**
+ * 批量导入任务Repository
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+}
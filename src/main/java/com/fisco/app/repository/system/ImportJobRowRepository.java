@@ -0,0 +1,26 @@
+package com.fisco.app.repository.system;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.ImportJobRow;
+
+/**
+ * 批量导入逐行结果Repository
+ */
+@Repository
+public interface ImportJobRowRepository extends JpaRepository<ImportJobRow, Long> {
+
+    /**
+     * 分页查询任务的逐行结果
+     */
+    Page<ImportJobRow> findByJobIdOrderByRowNo(String jobId, Pageable pageable);
+
+    /**
+     * 按状态分页查询任务的逐行结果
+     */
+    Page<ImportJobRow> findByJobIdAndStatusOrderByRowNo(String jobId, ImportJobRow.RowStatus status,
+                                                       Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.fisco.app.repository.system;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.NumberSegment;
+
+/**
+ * 业务编号号段Repository
+ * 号段租用由 BusinessNumberAllocator 以 JDBC 语句完成，此处仅供查询
+ */
+@Repository
+public interface NumberSegmentRepository extends JpaRepository<NumberSegment, String> {
+}
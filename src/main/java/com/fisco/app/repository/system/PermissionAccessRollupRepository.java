@@ -0,0 +1,34 @@
+package com.fisco.app.repository.system;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fisco.app.entity.system.PermissionAccessRollup;
+
+/**
+ * 权限访问汇总Repository
+ */
+@Repository
+public interface PermissionAccessRollupRepository extends JpaRepository<PermissionAccessRollup, Long> {
+
+    /**
+     * 根据条件查询汇总记录
+     */
+    @Query("SELECT r FROM PermissionAccessRollup r WHERE " +
+           "(:username IS NULL OR r.username = :username) AND " +
+           "(:enterpriseId IS NULL OR r.enterpriseId = :enterpriseId) AND " +
+           "(:permissionType IS NULL OR r.permissionType = :permissionType) AND " +
+           "(:targetResource IS NULL OR r.targetResource = :targetResource) AND " +
+           "r.bucketStart >= :start AND r.bucketStart < :end " +
+           "ORDER BY r.bucketStart DESC")
+    List<PermissionAccessRollup> findByConditions(@Param("username") String username,
+                                                  @Param("enterpriseId") String enterpriseId,
+                                                  @Param("permissionType") String permissionType,
+                                                  @Param("targetResource") String targetResource,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end);
+}
@@ -2,6 +2,7 @@ package com.fisco.app.repository.user;
 
 import com.fisco.app.entity.user.UserActivity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -114,7 +115,9 @@ public interface UserActivityRepository extends JpaRepository<UserActivity, Long
 
     /**
      * 删除指定日期之前的活动日志
+     * 仅在 user_activity 未分区时使用，分区表由 LogPartitionMaintenanceService 按分区删除
      */
+    @Modifying
     @Query("DELETE FROM UserActivity ua WHERE ua.createdAt < :date")
     void deleteOldActivities(@Param("date") LocalDateTime date);
 }
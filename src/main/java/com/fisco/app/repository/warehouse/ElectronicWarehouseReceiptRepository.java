@@ -1,10 +1,16 @@
 package com.fisco.app.repository.warehouse;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -125,4 +131,42 @@ public interface ElectronicWarehouseReceiptRepository extends JpaRepository<Elec
      * 根据父仓单ID查询所有子仓单
      */
     List<ElectronicWarehouseReceipt> findByParentReceiptId(String parentReceiptId);
+
+    /**
+     * 批量写入上链结果（拆分、合并后一次性更新全部相关仓单）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ElectronicWarehouseReceipt e SET e.txHash = :txHash, e.blockNumber = :blockNumber, " +
+           "e.blockchainStatus = :blockchainStatus, e.blockchainTimestamp = :timestamp, e.updatedAt = :timestamp " +
+           "WHERE e.id IN :ids")
+    int updateBlockchainInfo(@Param("ids") Collection<String> ids,
+                             @Param("txHash") String txHash,
+                             @Param("blockNumber") Long blockNumber,
+                             @Param("blockchainStatus") ElectronicWarehouseReceipt.BlockchainStatus blockchainStatus,
+                             @Param("timestamp") LocalDateTime timestamp);
+
+    /**
+     * 查询已存在的仓单编号，用于批量导入去重
+     */
+    @Query("SELECT r.receiptNo FROM ElectronicWarehouseReceipt r WHERE r.receiptNo IN :receiptNos")
+    List<String> findExistingReceiptNos(@Param("receiptNos") Collection<String> receiptNos);
+
+    /**
+     * 流式导出仓单，需在只读事务内消费并关闭
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM ElectronicWarehouseReceipt r WHERE " +
+           "(:status IS NULL OR r.receiptStatus = :status) AND " +
+           "(:ownerId IS NULL OR r.ownerId = :ownerId) AND " +
+           "(:warehouseId IS NULL OR r.warehouseId = :warehouseId) AND " +
+           "(:startDate IS NULL OR r.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR r.createdAt <= :endDate)")
+    Stream<ElectronicWarehouseReceipt> streamForExport(@Param("status") ElectronicWarehouseReceipt.ReceiptStatus status,
+                                                       @Param("ownerId") String ownerId,
+                                                       @Param("warehouseId") String warehouseId,
+                                                       @Param("startDate") LocalDateTime startDate,
+                                                       @Param("endDate") LocalDateTime endDate);
 }
@@ -11,7 +11,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fisco.app.entity.enterprise.Enterprise;
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
+import com.fisco.app.exception.BusinessException;
 import com.fisco.app.service.enterprise.EnterpriseService;
 import com.fisco.app.vo.Result;
 
@@ -66,15 +67,17 @@ public class EnterpriseAuthInterceptor implements HandlerInterceptor {
 
         log.debug("EnterpriseAuthInterceptor: enterpriseId={}, address={}", enterpriseId, address);
 
-        Enterprise enterprise;
+        EnterpriseSnapshot enterprise;
         try {
-            // 优先使用enterpriseId查询（更准确）
+            // 优先使用enterpriseId查询（更准确），均走企业目录缓存
             if (enterpriseId != null && !enterpriseId.isEmpty()) {
-                enterprise = enterpriseService.getEnterpriseById(enterpriseId);
+                enterprise = enterpriseService.findEnterpriseSnapshotById(enterpriseId)
+                        .orElseThrow(() -> new BusinessException.EnterpriseNotFoundException(enterpriseId));
                 log.debug("Found enterprise by ID: {}", enterpriseId);
             } else if (address != null && !address.isEmpty()) {
                 // 兼容旧版本：使用address查询
-                enterprise = enterpriseService.getEnterprise(address);
+                enterprise = enterpriseService.findEnterpriseSnapshot(address)
+                        .orElseThrow(() -> new BusinessException.EnterpriseNotFoundException(address));
                 log.debug("Found enterprise by address: {}", address);
             } else {
                 sendErrorResponse(response, 401, "令牌无效或已过期：缺少企业标识");
@@ -82,12 +85,12 @@ public class EnterpriseAuthInterceptor implements HandlerInterceptor {
             }
 
             // 检查企业状态（如果需要）
-            if (requireEnterprise.requireActive() && enterprise.getStatus() != Enterprise.EnterpriseStatus.ACTIVE) {
+            if (requireEnterprise.requireActive() && !enterprise.isActive()) {
                 sendErrorResponse(response, 403, "企业账户未激活，请联系管理员");
                 return false;
             }
 
-            // 将企业信息存入request attribute，供Controller使用
+            // 将企业快照存入request attribute，供Controller使用；需要完整信息时由Controller按ID加载
             request.setAttribute("currentEnterprise", enterprise);
             log.debug("Enterprise authentication successful: id={}, name={}, username={}",
                      enterprise.getId(), enterprise.getName(), enterprise.getUsername());
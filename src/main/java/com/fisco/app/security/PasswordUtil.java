@@ -2,18 +2,34 @@ package com.fisco.app.security;
 import com.fisco.app.security.PasswordUtil;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
  * 密码加密工具类
  * 使用BCrypt算法加密密码
+ *
+ * 哈希版本即BCrypt密文中携带的算法版本与代价因子（如 $2a$12$），
+ * 代价因子可通过 app.security.password.bcrypt-strength 调整，
+ * 旧版本密文仍可校验，登录成功后由 PasswordVerificationService 按新版本重新加密
  */
 @Slf4j
 @Component
 public class PasswordUtil {
 
-    private static final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
+    private static final int DEFAULT_STRENGTH = 12;
+
+    private static volatile BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(DEFAULT_STRENGTH);
+
+    /**
+     * 设置新密文使用的BCrypt代价因子
+     */
+    @Value("${app.security.password.bcrypt-strength:12}")
+    public void setStrength(int strength) {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        log.info("密码哈希代价因子: {}", strength);
+    }
 
     /**
      * 加密密码
@@ -36,6 +52,25 @@ public class PasswordUtil {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
 
+    /**
+     * 判断密文是否需要按当前版本重新加密
+     * 代价因子低于当前配置的BCrypt密文返回true，无法识别的密文返回false
+     *
+     * @param encodedPassword 加密后的密码
+     * @return 是否需要重新加密
+     */
+    public static boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        try {
+            return passwordEncoder.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            log.warn("无法识别的密码密文版本，跳过重新加密");
+            return false;
+        }
+    }
+
     /**
      * 生成随机密码
      *
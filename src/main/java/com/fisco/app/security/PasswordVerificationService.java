@@ -0,0 +1,207 @@
+package com.fisco.app.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fisco.app.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 密码校验服务
+ * BCrypt 校验单次耗时数百毫秒，统一提交到独立的有界线程池执行，避免登录高峰占满 Tomcat 请求线程和CPU
+ *
+ * 保护策略：
+ * - 线程池与等待队列均有上限，队列满时立即拒绝（快速失败）
+ * - 按账号、按客户端IP统计失败次数，超过阈值后在窗口期内直接拒绝，不再执行BCrypt
+ * - 校验成功且密文版本低于当前配置时，在同一任务中生成新密文供调用方回写
+ */
+@Slf4j
+@Service
+public class PasswordVerificationService {
+
+    @Value("${app.security.password.verify-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int verifyThreads;
+
+    @Value("${app.security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    @Value("${app.security.password.max-failures-per-account:5}")
+    private int maxFailuresPerAccount;
+
+    @Value("${app.security.password.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${app.security.password.failure-window-minutes:15}")
+    private long failureWindowMinutes;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, AtomicInteger> accountFailures;
+    private Cache<String, AtomicInteger> ipFailures;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, verifyThreads);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("password-verify-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        accountFailures = Caffeine.newBuilder()
+                .expireAfterWrite(failureWindowMinutes, TimeUnit.MINUTES)
+                .maximumSize(100_000)
+                .build();
+        ipFailures = Caffeine.newBuilder()
+                .expireAfterWrite(failureWindowMinutes, TimeUnit.MINUTES)
+                .maximumSize(100_000)
+                .build();
+        log.info("密码校验线程池已初始化: threads={}, queueCapacity={}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 校验密码，成功且需要升级密文时一并返回新密文
+     *
+     * @param account 限流账号标识，如 "user:alice"
+     * @param rawPassword 原始密码
+     * @param encodedPassword 加密后的密码
+     * @return 校验结果
+     */
+    public VerificationResult verify(String account, String rawPassword, String encodedPassword) {
+        String ip = currentClientIp();
+        checkThrottle(account, ip);
+
+        VerificationResult result = execute(() -> {
+            if (!PasswordUtil.matches(rawPassword, encodedPassword)) {
+                return VerificationResult.FAILED;
+            }
+            String upgradedHash = PasswordUtil.needsRehash(encodedPassword) ? PasswordUtil.encode(rawPassword) : null;
+            return new VerificationResult(true, upgradedHash);
+        });
+
+        if (result.isMatched()) {
+            accountFailures.invalidate(account);
+        } else {
+            recordFailure(account, ip);
+        }
+        return result;
+    }
+
+    /**
+     * 在校验线程池中加密密码
+     *
+     * @param rawPassword 原始密码
+     * @return 加密后的密码
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> PasswordUtil.encode(rawPassword));
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码校验线程池已满，拒绝请求: active={}, queued={}",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw new BusinessException(503, "登录请求繁忙，请稍后重试");
+        }
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码校验等待超时: timeout={}ms", waitTimeoutMs);
+            throw new BusinessException(503, "登录请求繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(503, "登录请求已中断");
+        } catch (ExecutionException e) {
+            throw new BusinessException(500, "密码校验失败", e.getCause());
+        }
+    }
+
+    private void checkThrottle(String account, String ip) {
+        AtomicInteger byAccount = accountFailures.getIfPresent(account);
+        if (byAccount != null && byAccount.get() >= maxFailuresPerAccount) {
+            log.warn("账号密码错误次数过多，暂时拒绝登录: account={}", account);
+            throw new BusinessException(429, "密码错误次数过多，请" + failureWindowMinutes + "分钟后再试");
+        }
+        if (ip != null) {
+            AtomicInteger byIp = ipFailures.getIfPresent(ip);
+            if (byIp != null && byIp.get() >= maxFailuresPerIp) {
+                log.warn("客户端密码错误次数过多，暂时拒绝登录: ip={}", ip);
+                throw new BusinessException(429, "登录失败次数过多，请稍后再试");
+            }
+        }
+    }
+
+    private void recordFailure(String account, String ip) {
+        accountFailures.get(account, k -> new AtomicInteger()).incrementAndGet();
+        if (ip != null) {
+            ipFailures.get(ip, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * 获取当前请求的客户端IP，非Web请求上下文返回null
+     * 不直接读取 X-Forwarded-For（客户端可任意伪造以绕过按IP限流）；经可信反向代理转发时，
+     * 由 server.forward-headers-strategy=native 启用的 RemoteIpValve 只采信 server.tomcat.remoteip.internal-proxies
+     * 中代理追加的地址并改写 getRemoteAddr()
+     */
+    private String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 密码校验结果
+     */
+    @Getter
+    public static class VerificationResult {
+
+        static final VerificationResult FAILED = new VerificationResult(false, null);
+
+        private final boolean matched;
+
+        /**
+         * 按当前版本重新加密的密文，无需升级时为null
+         */
+        private final String upgradedHash;
+
+        VerificationResult(boolean matched, String upgradedHash) {
+            this.matched = matched;
+            this.upgradedHash = upgradedHash;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.fisco.app.security;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 
-import org.springframework.cache.annotation.CacheEvict;
+import javax.annotation.PostConstruct;
+
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.fisco.app.config.CacheKeyIndex;
+import com.fisco.app.service.system.CacheInvalidationBus;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -12,14 +19,38 @@ import lombok.extern.slf4j.Slf4j;
  * 缓存用户权限信息，提高权限验证性能
  *
  * 缓存策略：
- * - 用户权限信息缓存5分钟
- * - 企业关系缓存10分钟
- * - 角色信息缓存10分钟
+ * - 各缓存的容量与过期时间见 app.cache.specs
+ * - 用户、企业变更时由 PermissionUpdateListener 按用户名或企业ID精确失效
+ * - 失效经 CacheInvalidationBus 广播到其他节点，因此各权限缓存可使用较长的过期时间
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class PermissionCacheService {
 
+    private static final String ENTERPRISE_ACCESS = "enterpriseAccess";
+    private static final String USER_ROLE = "userRole";
+    private static final String USER_ROLES = "userRoles";
+    private static final String USER_TAG_PREFIX = "user:";
+    private static final String ENTERPRISE_TAG_PREFIX = "enterprise:";
+
+    private final CacheKeyIndex cacheKeyIndex;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 注册缓存键的标签提取规则
+     * enterpriseAccess 键为 "username:enterpriseId"，userRole 键为 "username:role"，userRoles 键为 "username"
+     */
+    @PostConstruct
+    public void registerTaggers() {
+        cacheKeyIndex.registerTagger(ENTERPRISE_ACCESS, key -> {
+            String[] parts = splitKey(key);
+            return Arrays.asList(USER_TAG_PREFIX + parts[0], ENTERPRISE_TAG_PREFIX + parts[1]);
+        });
+        cacheKeyIndex.registerTagger(USER_ROLE, key -> Collections.singletonList(USER_TAG_PREFIX + splitKey(key)[0]));
+        cacheKeyIndex.registerTagger(USER_ROLES, key -> Collections.singletonList(USER_TAG_PREFIX + key));
+    }
+
     /**
      * 检查用户是否有企业访问权限（带缓存）
      *
@@ -62,32 +93,50 @@ public class PermissionCacheService {
 
     /**
      * 清除用户权限缓存
-     * 当用户信息更新时调用
+     * 当用户信息更新时调用，通过键索引精确失效该用户在各权限缓存中的条目
      *
      * @param username 用户名
      */
-    @CacheEvict(value = {"enterpriseAccess", "userRole", "userRoles"}, key = "#username + '*")
     public void evictUserPermissions(String username) {
-        log.info("清除用户权限缓存: username={}", username);
+        int evicted = evictTag(USER_TAG_PREFIX + username, ENTERPRISE_ACCESS, USER_ROLE, USER_ROLES);
+        log.info("清除用户权限缓存: username={}, evicted={}", username, evicted);
     }
 
     /**
      * 清除企业相关缓存
-     * 当企业信息更新时调用
+     * 当企业信息更新时调用，通过键索引精确失效该企业的访问权限条目
      *
      * @param enterpriseId 企业ID
      */
-    @CacheEvict(value = {"enterpriseAccess"}, key = "*:" + "#enterpriseId")
     public void evictEnterprisePermissions(String enterpriseId) {
-        log.info("清除企业权限缓存: enterpriseId={}", enterpriseId);
+        int evicted = evictTag(ENTERPRISE_TAG_PREFIX + enterpriseId, ENTERPRISE_ACCESS);
+        log.info("清除企业权限缓存: enterpriseId={}, evicted={}", enterpriseId, evicted);
+    }
+
+    private int evictTag(String tag, String... cacheNames) {
+        int evicted = 0;
+        for (String cacheName : cacheNames) {
+            evicted += cacheInvalidationBus.evictTag(cacheName, tag);
+        }
+        return evicted;
+    }
+
+    private static String[] splitKey(Object key) {
+        String value = String.valueOf(key);
+        int separator = value.indexOf(':');
+        return separator < 0
+                ? new String[] {value, ""}
+                : new String[] {value.substring(0, separator), value.substring(separator + 1)};
     }
 
     /**
      * 清除所有权限缓存
      * 系统维护时使用
      */
-    @CacheEvict(value = {"enterpriseAccess", "userRole", "userRoles"}, allEntries = true)
     public void evictAllPermissions() {
+        for (String cacheName : Arrays.asList(ENTERPRISE_ACCESS, USER_ROLE, USER_ROLES)) {
+            cacheInvalidationBus.clear(cacheName);
+        }
         log.warn("清除所有权限缓存");
     }
 }
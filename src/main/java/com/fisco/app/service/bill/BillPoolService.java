@@ -29,10 +29,13 @@ import com.fisco.app.entity.bill.Bill;
 import com.fisco.app.entity.bill.BillInvestment;
 import com.fisco.app.entity.bill.Endorsement;
 import com.fisco.app.entity.enterprise.Enterprise;
+import com.fisco.app.entity.system.AssetLineage;
 import com.fisco.app.exception.BusinessException;
 import com.fisco.app.repository.bill.BillInvestmentRepository;
 import com.fisco.app.repository.bill.BillRepository;
 import com.fisco.app.repository.enterprise.EnterpriseRepository;
+import com.fisco.app.service.system.AssetLineageService;
+import com.fisco.app.service.system.BulkEntityWriter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -53,6 +56,8 @@ public class BillPoolService {
     private final BillInvestmentRepository investmentRepository;
     private final BillService billService;
     private final EnterpriseRepository enterpriseRepository;
+    private final BulkEntityWriter bulkEntityWriter;
+    private final AssetLineageService lineageService;
 
     // ==================== 票据池查询 ====================
 
@@ -354,10 +359,15 @@ public class BillPoolService {
             subBill.setFaceValue(splitAmounts.get(i));
             subBill.setBillStatus(Bill.BillStatus.ISSUED);
             subBill.setParentBillId(billId); // 建立溯源关系
-            
-            subBills.add(billRepository.save(subBill));
+
+            subBills.add(subBill);
         }
 
+        // 6. 批量插入子票据
+        bulkEntityWriter.insertAll(subBills);
+        lineageService.recordSplit(AssetLineage.AssetType.BILL, billId,
+                subBills.stream().map(Bill::getBillId).collect(Collectors.toList()));
+
         return subBills;
     }
 
@@ -7,6 +7,8 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.annotation.Idempotent;
 import com.fisco.app.dto.bill.BillStatisticsDTO;
 import com.fisco.app.dto.bill.DiscountBillRequest;
 import com.fisco.app.dto.bill.DiscountBillResponse;
@@ -19,6 +21,7 @@ import com.fisco.app.entity.bill.Bill;
 import com.fisco.app.entity.bill.DiscountRecord;
 import com.fisco.app.entity.bill.Endorsement;
 import com.fisco.app.entity.bill.RepaymentRecord;
+import com.fisco.app.entity.system.DueEvent;
 import com.fisco.app.exception.BlockchainIntegrationException;
 import com.fisco.app.repository.bill.BillRepository;
 import com.fisco.app.repository.bill.DiscountRecordRepository;
@@ -26,6 +29,7 @@ import com.fisco.app.repository.bill.EndorsementRepository;
 import com.fisco.app.repository.bill.RepaymentRecordRepository;
 import com.fisco.app.service.blockchain.ContractService;
 import com.fisco.app.service.enterprise.EnterpriseService;
+import com.fisco.app.service.system.DueEventScheduler;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -47,11 +51,14 @@ public class BillService {
     private final EndorsementRepository endorsementRepository;
     private final DiscountRecordRepository discountRecordRepository;
     private final RepaymentRecordRepository repaymentRecordRepository;
+    private final DueEventScheduler dueEventScheduler;
 
     /**
      * 开票
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.ISSUE)
     public Bill issueBill(IssueBillRequest request, String issuerAddress) {
         log.info("==================== 票据开立开始 ====================");
         log.info("票据基本信息: billId={}, type={}, amount={}, currency={}",
@@ -129,7 +136,7 @@ public class BillService {
             // 步骤2: 调用区块链合约
             log.debug("准备上链开立票据");
             try {
-                String txHash = contractService.issueBillOnChain(saved);
+                String txHash = contractService.issueBillOnChain(saved).getTxHash();
                 log.info("✓ 票据已上链: billId={}, txHash={}", saved.getBillId(), txHash);
 
                 // 步骤3: 更新 txHash
@@ -166,6 +173,8 @@ public class BillService {
      * 承兑票据
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void acceptBill(@NonNull String billId) {
         log.info("==================== 票据承兑开始 ====================");
         log.info("票据ID: {}", billId);
@@ -189,7 +198,7 @@ public class BillService {
             // 步骤1: 调用区块链合约
             log.debug("准备上链承兑票据");
             try {
-                String txHash = contractService.acceptBillOnChain(billId);
+                String txHash = contractService.acceptBillOnChain(billId).getTxHash();
                 log.info("✓ 票据已上链承兑: billId={}, txHash={}", billId, txHash);
 
                 // 步骤2: 更新数据库状态和交易哈希
@@ -223,6 +232,8 @@ public class BillService {
      * 支付票据
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void payBill(@NonNull String billId) {
         log.info("支付票据: id={}", billId);
 
@@ -235,7 +246,7 @@ public class BillService {
 
         // 步骤1: 调用区块链合约
         try {
-            String txHash = contractService.payBillOnChain(billId);
+            String txHash = contractService.payBillOnChain(billId).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             bill.setBillStatus(Bill.BillStatus.PAID);
@@ -257,6 +268,8 @@ public class BillService {
      * 票据背书
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.ENDORSE)
     public EndorsementResponse endorseBill(@NonNull String billId, EndorseBillRequest request, String endorserAddress) {
         log.info("票据背书: billId={}, endorser={}, endorsee={}, type={}",
             billId, endorserAddress, request.getEndorseeAddress(), request.getEndorsementType());
@@ -290,7 +303,7 @@ public class BillService {
 
         // 步骤2: 调用区块链合约
         try {
-            String txHash = contractService.endorseBillOnChain(billId, request.getEndorseeAddress());
+            String txHash = contractService.endorseBillOnChain(billId, request.getEndorseeAddress()).getTxHash();
 
             // 步骤3: 创建背书记录
             Endorsement endorsement = new Endorsement();
@@ -359,6 +372,8 @@ public class BillService {
      * 票据贴现
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public DiscountBillResponse discountBill(@NonNull String billId, DiscountBillRequest request, String holderAddress) {
         log.info("票据贴现: billId={}, holder={}, institution={}, amount={}, rate={}",
             billId, holderAddress, request.getFinancialInstitutionAddress(),
@@ -403,7 +418,7 @@ public class BillService {
                 request.getFinancialInstitutionAddress(),
                 request.getDiscountAmount(),
                 request.getDiscountRate()
-            );
+            ).getTxHash();
 
             // 步骤3: 创建贴现记录
             DiscountRecord discountRecord = new DiscountRecord();
@@ -429,6 +444,9 @@ public class BillService {
             bill.setBlockchainTxHash(txHash);
             billRepository.save(bill);
 
+            // 到期日自动执行到期还款
+            dueEventScheduler.schedule(DueEvent.EventType.BILL_MATURITY, billId, bill.getDueDate());
+
             // 步骤5: 构建响应
             DiscountBillResponse response = new DiscountBillResponse();
             response.setId(savedRecord.getId());
@@ -550,11 +568,33 @@ public class BillService {
         return result;
     }
 
+    /**
+     * 票据到期事件处理
+     * 由到期事件调度器在到期日触发，票据仍为已贴现状态时执行到期还款
+     *
+     * @param billId 票据ID
+     * @return 到期日被推迟、尚未到期时返回新的到期日，否则返回 null
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public LocalDateTime onBillMaturityDue(@NonNull String billId) {
+        // 加行锁后再判断状态，避免与同时进行的还款、改期等操作重复处理
+        Bill bill = billRepository.findByIdForUpdate(billId).orElse(null);
+        if (bill == null || bill.getBillStatus() != Bill.BillStatus.DISCOUNTED) {
+            return null;
+        }
+        if (bill.getDueDate().isAfter(LocalDateTime.now())) {
+            return bill.getDueDate();
+        }
+        handleBillMaturity(billId);
+        return null;
+    }
+
     /**
      * 票据到期处理
      * 自动处理到期票据，计算利息并更新状态
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public RepayBillResponse handleBillMaturity(@NonNull String billId) {
         log.info("处理票据到期: billId={}", billId);
 
@@ -581,7 +621,7 @@ public class BillService {
 
         // 步骤2: 调用区块链合约支付票据
         try {
-            String txHash = contractService.payBillOnChain(billId);
+            String txHash = contractService.payBillOnChain(billId).getTxHash();
 
             // 步骤3: 计算利息
             java.math.BigDecimal interestAmount = calculateInterest(
@@ -656,6 +696,8 @@ public class BillService {
      * 支持主动还款（提前或逾期）
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public RepayBillResponse repayBill(@NonNull String billId, RepayBillRequest request, String payerAddress) {
         log.info("票据还款: billId={}, payer={}, amount={}, type={}",
             billId, payerAddress, request.getPaymentAmount(), request.getPaymentType());
@@ -688,7 +730,7 @@ public class BillService {
 
         // 步骤2: 调用区块链合约支付票据
         try {
-            String txHash = contractService.payBillOnChain(billId);
+            String txHash = contractService.payBillOnChain(billId).getTxHash();
 
             // 步骤3: 计算逾期天数和利息
             java.math.BigDecimal calculatedInterest = request.getInterestAmount();
@@ -818,6 +860,7 @@ public class BillService {
      * 作废票据
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
     public Bill cancelBill(@NonNull String billId, com.fisco.app.dto.bill.CancelBillRequest request, String operatorAddress) {
         log.info("==================== 票据作废开始 ====================");
         log.info("票据ID: {}, 操作人: {}", billId, operatorAddress);
@@ -876,6 +919,7 @@ public class BillService {
      * 冻结票据
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
     public Bill freezeBill(@NonNull String billId, com.fisco.app.dto.bill.FreezeBillRequest request, String operatorAddress) {
         log.info("==================== 票据冻结开始 ====================");
         log.info("票据ID: {}, 操作人: {}", billId, operatorAddress);
@@ -935,6 +979,7 @@ public class BillService {
      * 解冻票据
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
     public Bill unfreezeBill(@NonNull String billId, com.fisco.app.dto.bill.UnfreezeBillRequest request, String operatorAddress) {
         log.info("==================== 票据解冻开始 ====================");
         log.info("票据ID: {}, 操作人: {}", billId, operatorAddress);
@@ -1051,6 +1096,7 @@ public class BillService {
      * 票据融资申请
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
     public com.fisco.app.dto.bill.FinanceApplicationResponse applyFinance(@NonNull String billId,
                                                                        com.fisco.app.dto.bill.FinanceBillRequest request,
                                                                        @org.springframework.lang.Nullable String applicantAddress) {
@@ -1141,6 +1187,7 @@ public class BillService {
      */
     @Transactional(rollbackFor = Exception.class)
     @SuppressWarnings("null")
+    @Idempotent
     public com.fisco.app.dto.bill.FinanceApplicationResponse approveFinance(com.fisco.app.dto.bill.ApproveFinanceRequest request,
                                                                            String reviewerAddress) {
         log.info("==================== 审核票据融资开始 ====================");
@@ -1249,6 +1296,7 @@ public class BillService {
      */
     @Transactional(rollbackFor = Exception.class)
     @SuppressWarnings("null")
+    @Idempotent
     public com.fisco.app.dto.bill.FinanceApplicationResponse repayFinance(@NonNull String applicationId,
                                                                      com.fisco.app.dto.bill.RepayFinanceRequest request,
                                                                      @org.springframework.lang.Nullable String payerAddress) {
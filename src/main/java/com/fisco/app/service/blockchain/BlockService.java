@@ -4,7 +4,6 @@ import com.fisco.app.dto.blockchain.*;
 import com.fisco.app.exception.BlockchainIntegrationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.client.protocol.response.*;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.springframework.cache.annotation.Cacheable;
@@ -17,6 +16,8 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 /**
@@ -28,7 +29,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BlockService {
 
-    private final Client client;
+    private final ChainClientPool chainClientPool;
+
+    /**
+     * 链上并发读取执行器，见 AsyncConfig
+     */
+    private final ExecutorService chainIoExecutor;
 
     // ========== 常量定义 ==========
 
@@ -52,7 +58,7 @@ public class BlockService {
 
         try {
             // 调用SDK获取区块信息
-            BcosBlock bcosBlock = client.getBlockByNumber(blockNumber, true, false);
+            BcosBlock bcosBlock = chainClientPool.read(c -> c.getBlockByNumber(blockNumber, true, false));
 
             if (bcosBlock == null || bcosBlock.getBlock() == null) {
                 throw new BlockchainIntegrationException("Block not found: " + blockNumber);
@@ -77,7 +83,7 @@ public class BlockService {
 
         try {
             // 获取区块信息，包含交易列表
-            BcosBlock bcosBlock = client.getBlockByNumber(blockNumber, true, false);
+            BcosBlock bcosBlock = chainClientPool.read(c -> c.getBlockByNumber(blockNumber, true, false));
 
             if (bcosBlock == null || bcosBlock.getBlock() == null) {
                 return Collections.emptyList();
@@ -105,7 +111,7 @@ public class BlockService {
                     try {
                         String hash = txHash.get();
                         // 通过交易哈希获取完整交易信息
-                        BcosTransaction bcosTx = client.getTransaction(hash, false);
+                        BcosTransaction bcosTx = chainClientPool.read(c -> c.getTransaction(hash, false));
 
                         if (bcosTx != null && bcosTx.getTransaction().isPresent()) {
                             return convertToTransactionDTO(bcosTx.getTransaction().get(), block);
@@ -137,7 +143,7 @@ public class BlockService {
 
         try {
             // 获取当前区块
-            BcosBlock currentBcosBlock = client.getBlockByNumber(blockNumber, false, false);
+            BcosBlock currentBcosBlock = chainClientPool.read(c -> c.getBlockByNumber(blockNumber, false, false));
 
             if (currentBcosBlock == null || currentBcosBlock.getBlock() == null) {
                 response.setIsValid(false);
@@ -157,7 +163,7 @@ public class BlockService {
 
                     // 获取父区块进行验证
                     BigInteger parentNumber = blockNumber.subtract(BigInteger.ONE);
-                    BcosBlock parentBcosBlock = client.getBlockByNumber(parentNumber, false, false);
+                    BcosBlock parentBcosBlock = chainClientPool.read(c -> c.getBlockByNumber(parentNumber, false, false));
 
                     if (parentBcosBlock != null && parentBcosBlock.getBlock() != null) {
                         BcosBlock.Block parentBlock = parentBcosBlock.getBlock();
@@ -208,42 +214,54 @@ public class BlockService {
 
     /**
      * 获取区块链统计信息（带缓存）
+     * 缓存过期时并发请求只触发一次计算；refreshAfterWrite 到期后先返回旧值，由 BlockchainStatsCacheLoader 后台重算
      */
-    @Cacheable(value = "blockchainStats", key = "'statistics'", unless = "#result == null")
+    @Cacheable(value = "blockchainStats", key = "'statistics'", sync = true)
     public BlockStatisticsDTO getBlockchainStatistics() {
+        return calculateBlockchainStatistics();
+    }
+
+    /**
+     * 计算区块链统计信息（不经缓存，按 RPC 扫描最近区块）
+     */
+    public BlockStatisticsDTO calculateBlockchainStatistics() {
         log.info("Calculating blockchain statistics...");
 
         try {
             BlockStatisticsDTO stats = new BlockStatisticsDTO();
 
             // 1. 获取最新区块号
-            BigInteger latestBlock = client.getBlockNumber().getBlockNumber();
+            BigInteger latestBlock = chainClientPool.read(c -> c.getBlockNumber().getBlockNumber());
             stats.setLatestBlockNumber(latestBlock);
 
             // 2. 获取总交易数
-            TotalTransactionCount totalCount = client.getTotalTransactionCount();
+            TotalTransactionCount totalCount = chainClientPool.read(c -> c.getTotalTransactionCount());
             if (totalCount != null && totalCount.getTotalTransactionCount() != null) {
                 String txCountStr = totalCount.getTotalTransactionCount().getTransactionCount();
                 stats.setTotalTransactions(new BigInteger(txCountStr));
             }
 
+            // 采样区块并发读取一次，出块时间、TPS、gas 统计共用
+            int sampleSize = Math.max(DEFAULT_BLOCK_TIME_SAMPLE_SIZE, Math.max(DEFAULT_TPS_SAMPLE_SIZE, DEFAULT_GAS_SAMPLE_SIZE));
+            Map<BigInteger, BcosBlock.Block> blocks = readSampleBlocks(latestBlock, sampleSize);
+
             // 3. 计算平均出块时间（基于最近30个区块，性能优化）
-            BigDecimal avgBlockTime = calculateAverageBlockTime(latestBlock, DEFAULT_BLOCK_TIME_SAMPLE_SIZE);
+            BigDecimal avgBlockTime = calculateAverageBlockTime(latestBlock, DEFAULT_BLOCK_TIME_SAMPLE_SIZE, blocks);
             stats.setAverageBlockTime(avgBlockTime);
 
             // 4. 计算TPS（基于最近30个区块，性能优化）
-            BigDecimal tps = calculateTPS(latestBlock, DEFAULT_TPS_SAMPLE_SIZE);
+            BigDecimal tps = calculateTPS(latestBlock, DEFAULT_TPS_SAMPLE_SIZE, blocks);
             stats.setTransactionsPerSecond(tps);
 
             // 5. 计算平均gas使用量
-            BigInteger avgGasUsed = calculateAverageGasUsed(latestBlock, DEFAULT_GAS_SAMPLE_SIZE);
+            BigInteger avgGasUsed = calculateAverageGasUsed(latestBlock, DEFAULT_GAS_SAMPLE_SIZE, blocks);
             stats.setAverageGasUsed(avgGasUsed);
 
             // 6. 计算gas使用率（简化计算，基于历史平均值）
             stats.setGasUtilizationRate(DEFAULT_GAS_UTILIZATION); // 简化值
 
             // 7. 获取节点数量
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
             int nodeCount = 0;
             if (peers != null && peers.getPeers() != null) {
                 List<Peers.PeerInfo> peerList = peers.getPeers().getPeers();
@@ -269,7 +287,7 @@ public class BlockService {
      */
     public BigInteger getLatestBlockNumber() {
         try {
-            return client.getBlockNumber().getBlockNumber();
+            return chainClientPool.read(c -> c.getBlockNumber().getBlockNumber());
         } catch (Exception e) {
             log.error("Failed to get latest block number", e);
             throw new BlockchainIntegrationException(
@@ -341,7 +359,7 @@ public class BlockService {
 
         // 获取交易回执以获取gasUsed和status
         try {
-            BcosTransactionReceipt receiptWrapper = client.getTransactionReceipt(tx.getHash(), false);
+            BcosTransactionReceipt receiptWrapper = chainClientPool.read(c -> c.getTransactionReceipt(tx.getHash(), false));
 
             if (receiptWrapper != null && receiptWrapper.getTransactionReceipt() != null) {
                 org.fisco.bcos.sdk.v3.model.TransactionReceipt receipt = receiptWrapper.getTransactionReceipt();
@@ -392,7 +410,36 @@ public class BlockService {
         return dto;
     }
 
-    private BigDecimal calculateAverageBlockTime(BigInteger latestBlock, int sampleSize) {
+    /**
+     * 并发读取最近 sampleSize 个采样区块，覆盖各统计方法的采样范围，读取失败的区块不在结果中
+     */
+    private Map<BigInteger, BcosBlock.Block> readSampleBlocks(BigInteger latestBlock, int sampleSize) {
+        int actualSampleSize = Math.min(sampleSize, MAX_SAMPLE_SIZE);
+        BigInteger startBlock = latestBlock.subtract(BigInteger.valueOf(actualSampleSize)).max(BigInteger.ZERO);
+
+        Map<BigInteger, CompletableFuture<BcosBlock>> futures = new LinkedHashMap<>();
+        for (BigInteger i = startBlock; i.compareTo(latestBlock) <= 0; i = i.add(BigInteger.ONE)) {
+            BigInteger number = i;
+            futures.put(number, CompletableFuture.supplyAsync(
+                    () -> chainClientPool.read(c -> c.getBlockByNumber(number, false, false)), chainIoExecutor));
+        }
+
+        Map<BigInteger, BcosBlock.Block> blocks = new HashMap<>();
+        futures.forEach((number, future) -> {
+            try {
+                BcosBlock bcosBlock = future.join();
+                if (bcosBlock != null && bcosBlock.getBlock() != null) {
+                    blocks.put(number, bcosBlock.getBlock());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read sample block {}: {}", number, e.getMessage());
+            }
+        });
+        return blocks;
+    }
+
+    private BigDecimal calculateAverageBlockTime(BigInteger latestBlock, int sampleSize,
+                                                 Map<BigInteger, BcosBlock.Block> blocks) {
         if (latestBlock.compareTo(BigInteger.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
@@ -412,10 +459,9 @@ public class BlockService {
             BcosBlock.Block prevBlock = null;
 
             for (BigInteger i = startBlock; i.compareTo(latestBlock) <= 0; i = i.add(BigInteger.ONE)) {
-                BcosBlock bcosBlock = client.getBlockByNumber(i, false, false);
+                BcosBlock.Block block = blocks.get(i);
 
-                if (bcosBlock != null && bcosBlock.getBlock() != null) {
-                    BcosBlock.Block block = bcosBlock.getBlock();
+                if (block != null) {
 
                     if (prevBlock != null) {
                         totalSeconds += (block.getTimestamp() - prevBlock.getTimestamp());
@@ -437,7 +483,7 @@ public class BlockService {
         return BigDecimal.ZERO;
     }
 
-    private BigDecimal calculateTPS(BigInteger latestBlock, int sampleSize) {
+    private BigDecimal calculateTPS(BigInteger latestBlock, int sampleSize, Map<BigInteger, BcosBlock.Block> blocks) {
         try {
             long totalTx = 0;
             long totalSeconds = 0;
@@ -450,19 +496,17 @@ public class BlockService {
                 startBlock = BigInteger.ONE;
             }
 
-            BcosBlock firstBlock = client.getBlockByNumber(startBlock, false, false);
-            BcosBlock lastBlock = client.getBlockByNumber(latestBlock, false, false);
+            BcosBlock.Block firstBlock = blocks.get(startBlock);
+            BcosBlock.Block lastBlock = blocks.get(latestBlock);
 
-            if (firstBlock != null && firstBlock.getBlock() != null &&
-                lastBlock != null && lastBlock.getBlock() != null) {
+            if (firstBlock != null && lastBlock != null) {
 
-                totalSeconds = lastBlock.getBlock().getTimestamp() - firstBlock.getBlock().getTimestamp();
+                totalSeconds = lastBlock.getTimestamp() - firstBlock.getTimestamp();
 
                 for (BigInteger i = startBlock; i.compareTo(latestBlock) <= 0; i = i.add(BigInteger.ONE)) {
-                    BcosBlock bcosBlock = client.getBlockByNumber(i, false, false);
+                    BcosBlock.Block block = blocks.get(i);
 
-                    if (bcosBlock != null && bcosBlock.getBlock() != null) {
-                        BcosBlock.Block block = bcosBlock.getBlock();
+                    if (block != null) {
                         List<BcosBlock.TransactionHash> transactions = block.getTransactionHashes();
 
                         if (transactions != null) {
@@ -483,7 +527,8 @@ public class BlockService {
         return BigDecimal.ZERO;
     }
 
-    private BigInteger calculateAverageGasUsed(BigInteger latestBlock, int sampleSize) {
+    private BigInteger calculateAverageGasUsed(BigInteger latestBlock, int sampleSize,
+                                               Map<BigInteger, BcosBlock.Block> blocks) {
         try {
             BigInteger totalGasUsed = BigInteger.ZERO;
             int count = 0;
@@ -497,10 +542,9 @@ public class BlockService {
             }
 
             for (BigInteger i = startBlock; i.compareTo(latestBlock) <= 0; i = i.add(BigInteger.ONE)) {
-                BcosBlock bcosBlock = client.getBlockByNumber(i, false, false);
+                BcosBlock.Block block = blocks.get(i);
 
-                if (bcosBlock != null && bcosBlock.getBlock() != null) {
-                    BcosBlock.Block block = bcosBlock.getBlock();
+                if (block != null) {
 
                     try {
                         String gasUsedStr = block.getGasUsed();
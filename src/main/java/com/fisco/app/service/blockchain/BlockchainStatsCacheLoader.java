@@ -0,0 +1,29 @@
+package com.fisco.app.service.blockchain;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * blockchainStats 缓存的加载器
+ * 缓存配置 refreshAfterWrite 后由 Caffeine 在后台调用，期间读请求继续拿到旧的统计结果，
+ * 不会在过期瞬间集中重新扫描区块
+ */
+@Component("blockchainStatsCacheLoader")
+@RequiredArgsConstructor
+public class BlockchainStatsCacheLoader implements CacheLoader<Object, Object> {
+
+    /**
+     * 缓存管理器创建时即查找加载器，延迟获取 BlockService 避免提前初始化链客户端
+     */
+    private final ObjectProvider<BlockService> blockService;
+
+    @Override
+    public Object load(@NonNull Object key) {
+        return blockService.getObject().calculateBlockchainStatistics();
+    }
+}
@@ -0,0 +1,209 @@
+package com.fisco.app.service.blockchain;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.config.ChainAdmissionProperties;
+import com.fisco.app.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 上链准入控制
+ * 每个企业、每类上链操作一个令牌桶，单个企业的批量操作只消耗自己的令牌，
+ * 不会占满唯一的签名账户和链连接而拖慢其他企业
+ *
+ * 在线请求超限时立即拒绝（admit），由客户端稍后重试；后台批量任务按令牌补充速度等待（await）
+ *
+ * 启动时校验配置：补充速率必须大于 0，且每个 @ChainOperation 对同一类别需要的令牌数不超过该类别的 burst，
+ * 否则该操作永远无法取得全部令牌
+ */
+@Slf4j
+@Component
+public class ChainAdmissionControl {
+
+    private final ChainAdmissionProperties properties;
+
+    /**
+     * 企业 + 操作类别 -> 令牌桶，长时间无操作的企业自动移除
+     */
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .maximumSize(100_000)
+            .build();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ChainAdmissionControl(ChainAdmissionProperties properties) {
+        this.properties = properties;
+        if (properties.isEnabled()) {
+            for (ChainOperation.OperationClass operationClass : ChainOperation.OperationClass.values()) {
+                double permitsPerSecond = properties.limitOf(operationClass).getPermitsPerSecond();
+                if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+                    throw new IllegalStateException("上链准入类别 " + operationClass
+                            + " 的 permits-per-second 必须为大于 0 的有限值，当前为 " + permitsPerSecond
+                            + "；不限速请关闭 app.chain-admission.enabled");
+                }
+            }
+        }
+    }
+
+    /**
+     * 校验全部 Bean 上的 @ChainOperation 所需令牌数不超过对应类别的 burst
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void verifyOperations(ContextRefreshedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ApplicationContext context = event.getApplicationContext();
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> beanType = context.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType),
+                    method -> checkOperation(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                            method.getAnnotation(ChainOperation.class).value()),
+                    method -> method.isAnnotationPresent(ChainOperation.class));
+        }
+    }
+
+    /**
+     * 校验一个业务操作需要的各类别令牌数不超过该类别的 burst
+     *
+     * @param operation 业务操作名（类名.方法名）
+     * @param operationClasses 操作包含的上链交易类别
+     */
+    void checkOperation(String operation, ChainOperation.OperationClass... operationClasses) {
+        Map<ChainOperation.OperationClass, Integer> required = new EnumMap<>(ChainOperation.OperationClass.class);
+        for (ChainOperation.OperationClass operationClass : operationClasses) {
+            required.merge(operationClass, 1, Integer::sum);
+        }
+        required.forEach((operationClass, count) -> {
+            int burst = Math.max(1, properties.limitOf(operationClass).getBurst());
+            if (count > burst) {
+                throw new IllegalStateException(operation + " 需要 " + count + " 个 " + operationClass
+                        + " 令牌，超过该类别的 burst " + burst + "，该操作将永远被拒绝");
+            }
+        });
+    }
+
+    /**
+     * 申请一个业务操作需要的全部上链令牌，任一类别不足时归还已取得的令牌并抛出 429 业务异常
+     *
+     * @param enterprise 企业地址
+     * @param operationClasses 操作包含的上链交易类别，同一类别出现多次表示需要多个令牌
+     */
+    public void admit(String enterprise, ChainOperation.OperationClass... operationClasses) {
+        if (!properties.isEnabled() || operationClasses.length == 0) {
+            return;
+        }
+        TokenBucket[] acquired = new TokenBucket[operationClasses.length];
+        for (int i = 0; i < operationClasses.length; i++) {
+            TokenBucket bucket = bucket(enterprise, operationClasses[i]);
+            long waitMs = bucket.tryAcquire();
+            if (waitMs > 0) {
+                for (int j = 0; j < i; j++) {
+                    acquired[j].release();
+                }
+                rejected.increment();
+                log.warn("上链准入拒绝: enterprise={}, operation={}, retryAfterMs={}",
+                        enterprise, operationClasses[i], waitMs);
+                throw new BusinessException(429, "上链操作过于频繁，请" + waitMs + "毫秒后重试");
+            }
+            acquired[i] = bucket;
+        }
+        admitted.increment();
+    }
+
+    /**
+     * 等待直到取得令牌，用于后台批量任务
+     */
+    public void await(String enterprise, ChainOperation.OperationClass operationClass) throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        TokenBucket bucket = bucket(enterprise, operationClass);
+        long waitMs;
+        while ((waitMs = bucket.tryAcquire()) > 0) {
+            Thread.sleep(waitMs);
+        }
+        admitted.increment();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private TokenBucket bucket(String enterprise, ChainOperation.OperationClass operationClass) {
+        return buckets.get(enterprise + "|" + operationClass.name(),
+                key -> new TokenBucket(properties.limitOf(operationClass)));
+    }
+
+    /**
+     * 令牌桶：按时间差惰性补充令牌
+     */
+    static final class TokenBucket {
+
+        private final double permitsPerMs;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(ChainAdmissionProperties.Limit limit) {
+            this(limit, System.nanoTime());
+        }
+
+        TokenBucket(ChainAdmissionProperties.Limit limit, long nowNanos) {
+            this.permitsPerMs = limit.getPermitsPerSecond() / 1000.0;
+            this.capacity = Math.max(1, limit.getBurst());
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        /**
+         * 取一个令牌，成功返回 0，否则返回距下一个令牌的毫秒数；速率为 0 时返回 Long.MAX_VALUE（启动校验已排除）
+         */
+        long tryAcquire() {
+            return tryAcquire(System.nanoTime());
+        }
+
+        synchronized long tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + Math.max(0L, now - lastRefillNanos) / 1_000_000.0 * permitsPerMs);
+            lastRefillNanos = Math.max(lastRefillNanos, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0L;
+            }
+            if (permitsPerMs <= 0) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(1L, (long) Math.ceil((1 - tokens) / permitsPerMs));
+        }
+
+        /**
+         * 归还一个令牌（同一操作的其他类别被拒绝时）
+         */
+        synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
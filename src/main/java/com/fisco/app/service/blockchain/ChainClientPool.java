@@ -0,0 +1,327 @@
+package com.fisco.app.service.blockchain;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
+import org.fisco.bcos.sdk.v3.transaction.model.exception.ContractException;
+
+import com.fisco.app.exception.BlockchainIntegrationException;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 链客户端池
+ * 持有主客户端和按 fisco.read-peers 逐个节点建立的只读客户端；
+ * 只读调用（合约视图、区块、交易查询）按 延迟 EWMA ×（在途请求数 + 1）选择负载最低的健康节点，
+ * 连接失败、超时等传输层错误时切换到下一个节点重试；合约回滚等调用本身的错误直接抛出，不切换节点、不影响节点健康度
+ *
+ * 连续失败达到阈值、延迟超过慢节点阈值或区块高度落后过多的节点被摘除，
+ * 冷却期过后由定时探测恢复；所有节点都被摘除时仍按得分依次尝试，不因摘除直接失败
+ *
+ * 交易发送固定走主客户端（bcosClient），保证同一账户的交易经同一连接提交
+ *
+ * 读己之写：本应用交易上链后登记其区块高度（onWrite），探测到的区块高度低于该高度的只读节点
+ * 排在已追上的节点之后；主节点即交易提交节点，始终视为已追上。
+ * 因此刚写入后的读取落在主节点或已同步到该区块的节点上，不会读到写入前的状态
+ */
+@Slf4j
+public class ChainClientPool implements AutoCloseable {
+
+    /**
+     * 延迟 EWMA 平滑系数
+     */
+    private static final double LATENCY_ALPHA = 0.3;
+
+    private final List<Node> nodes;
+    private final Node primary;
+    private final int failureThreshold;
+    private final long slowThresholdMs;
+    private final long ejectMs;
+    private final long maxBlockLag;
+
+    /**
+     * 本应用交易所在的最高区块高度，-1 表示尚无写入
+     */
+    private final AtomicLong writtenHeight = new AtomicLong(-1L);
+
+    public ChainClientPool(Client primaryClient, List<Node> readNodes, int failureThreshold,
+                           long slowThresholdMs, long ejectMs, long maxBlockLag) {
+        this.primary = new Node("primary", primaryClient, false);
+        List<Node> all = new ArrayList<>();
+        all.add(primary);
+        all.addAll(readNodes);
+        this.nodes = Collections.unmodifiableList(all);
+        this.failureThreshold = failureThreshold;
+        this.slowThresholdMs = slowThresholdMs;
+        this.ejectMs = ejectMs;
+        this.maxBlockLag = maxBlockLag;
+        log.info("Chain client pool initialized: nodes={}", all.size());
+    }
+
+    /**
+     * 只读节点
+     */
+    public static Node readNode(String name, Client client) {
+        return new Node(name, client, true);
+    }
+
+    /**
+     * 主客户端，用于发送交易
+     */
+    public Client primary() {
+        return primary.client;
+    }
+
+    /**
+     * 登记本应用交易所在的区块高度，之后的只读调用优先选择已同步到该高度的节点
+     *
+     * @param blockNumber 交易回执中的区块高度
+     */
+    public void onWrite(long blockNumber) {
+        writtenHeight.accumulateAndGet(blockNumber, Math::max);
+    }
+
+    /**
+     * 在负载最低的健康节点上执行只读调用，失败时依次切换到其他节点
+     *
+     * @param call 只读调用
+     * @return 调用结果
+     */
+    public <T> T read(ChainCall<T> call) {
+        Exception lastError = null;
+        for (Node node : candidates()) {
+            node.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                T result = call.call(node.client);
+                onSuccess(node, (System.nanoTime() - start) / 1_000_000L);
+                return result;
+            } catch (Exception e) {
+                if (!isTransportError(e)) {
+                    // 节点已正常应答，换节点结果相同
+                    throw propagate(e);
+                }
+                onFailure(node, e);
+                lastError = e;
+            } finally {
+                node.inFlight.decrementAndGet();
+            }
+        }
+        throw propagate(lastError);
+    }
+
+    /**
+     * 是否为连接、超时等与节点相关的传输层错误（含异常链）
+     */
+    static boolean isTransportError(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ContractException) {
+                return false;
+            }
+            if (e instanceof ClientException || e instanceof IOException || e instanceof TimeoutException
+                    || e instanceof BlockchainIntegrationException.NetworkTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException propagate(Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new BlockchainIntegrationException("链上只读调用失败: " + e.getMessage(), e);
+    }
+
+    /**
+     * 各节点当前状态
+     */
+    public List<NodeSnapshot> snapshot() {
+        long now = System.currentTimeMillis();
+        List<NodeSnapshot> result = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            result.add(new NodeSnapshot(node.name, node.isHealthy(now), Math.round(node.latencyMs),
+                    node.inFlight.get(), node.consecutiveFailures.get(), node.blockNumber));
+        }
+        return result;
+    }
+
+    /**
+     * 定时探测各节点区块高度和延迟：恢复冷却期已过且探测成功的节点，摘除高度落后过多的节点
+     * 由 ChainScanScheduler 每 app.chain-pool.probe-interval-ms 调用
+     */
+    public void probe() {
+        if (nodes.size() == 1) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long highest = -1L;
+        for (Node node : nodes) {
+            if (node.ejectedUntil > now) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                BigInteger blockNumber = node.client.getBlockNumber().getBlockNumber();
+                node.blockNumber = blockNumber.longValue();
+                highest = Math.max(highest, node.blockNumber);
+                onSuccess(node, (System.nanoTime() - start) / 1_000_000L);
+            } catch (Exception e) {
+                onFailure(node, e);
+            }
+        }
+        if (highest < 0) {
+            return;
+        }
+        for (Node node : nodes) {
+            if (node.isHealthy(now) && highest - node.blockNumber > maxBlockLag) {
+                eject(node, "block lag " + (highest - node.blockNumber));
+            }
+        }
+    }
+
+    /**
+     * 已同步到最近写入高度的健康节点按得分升序在前，其次是尚未同步的健康节点，已摘除节点按得分升序在后；
+     * 未同步的节点只在前面的节点都失败时使用
+     */
+    private List<Node> candidates() {
+        long now = System.currentTimeMillis();
+        long written = writtenHeight.get();
+        List<Node> caughtUp = new ArrayList<>(nodes.size());
+        List<Node> lagging = new ArrayList<>();
+        List<Node> ejected = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!node.isHealthy(now)) {
+                ejected.add(node);
+            } else if (node == primary || node.blockNumber >= written) {
+                caughtUp.add(node);
+            } else {
+                lagging.add(node);
+            }
+        }
+        Comparator<Node> byScore = Comparator.comparingDouble(Node::score);
+        caughtUp.sort(byScore);
+        lagging.sort(byScore);
+        ejected.sort(byScore);
+        caughtUp.addAll(lagging);
+        caughtUp.addAll(ejected);
+        return caughtUp;
+    }
+
+    private void onSuccess(Node node, long latencyMs) {
+        node.latencyMs = node.latencyMs == 0 ? latencyMs
+                : LATENCY_ALPHA * latencyMs + (1 - LATENCY_ALPHA) * node.latencyMs;
+        node.consecutiveFailures.set(0);
+        if (node.ejectedUntil > 0 && node.ejectedUntil <= System.currentTimeMillis()) {
+            node.ejectedUntil = 0;
+            log.info("Chain node restored: node={}, latencyMs={}", node.name, Math.round(node.latencyMs));
+        }
+        if (node.latencyMs > slowThresholdMs && hasOtherHealthy(node)) {
+            eject(node, "latency " + Math.round(node.latencyMs) + "ms");
+        }
+    }
+
+    private void onFailure(Node node, Exception e) {
+        int failures = node.consecutiveFailures.incrementAndGet();
+        log.warn("Chain read failed: node={}, failures={}, error={}", node.name, failures, e.getMessage());
+        if (failures >= failureThreshold && hasOtherHealthy(node)) {
+            eject(node, failures + " consecutive failures");
+        }
+    }
+
+    private boolean hasOtherHealthy(Node node) {
+        long now = System.currentTimeMillis();
+        return nodes.stream().anyMatch(other -> other != node && other.isHealthy(now));
+    }
+
+    private void eject(Node node, String reason) {
+        node.ejectedUntil = System.currentTimeMillis() + ejectMs;
+        // 恢复后按一次新的探测延迟重新计分
+        node.latencyMs = 0;
+        log.warn("Chain node ejected: node={}, reason={}, ejectMs={}", node.name, reason, ejectMs);
+    }
+
+    @Override
+    public void close() {
+        for (Node node : nodes) {
+            if (node.readOnly) {
+                try {
+                    node.client.destroy();
+                } catch (Exception e) {
+                    log.warn("Failed to destroy chain client: node={}", node.name, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 只读链上调用
+     */
+    @FunctionalInterface
+    public interface ChainCall<T> {
+        T call(Client client) throws Exception;
+    }
+
+    /**
+     * 池中的一个节点
+     */
+    public static final class Node {
+
+        private final String name;
+        private final Client client;
+        private final boolean readOnly;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyMs;
+        private volatile long ejectedUntil;
+        private volatile long blockNumber = -1L;
+
+        private Node(String name, Client client, boolean readOnly) {
+            this.name = name;
+            this.client = client;
+            this.readOnly = readOnly;
+        }
+
+        private boolean isHealthy(long now) {
+            return ejectedUntil <= now;
+        }
+
+        private double score() {
+            return Math.max(latencyMs, 1.0) * (inFlight.get() + 1);
+        }
+    }
+
+    /**
+     * 节点状态快照
+     */
+    @Getter
+    public static final class NodeSnapshot {
+
+        private final String name;
+        private final boolean healthy;
+        private final long latencyMs;
+        private final int inFlight;
+        private final int consecutiveFailures;
+        private final long blockNumber;
+
+        private NodeSnapshot(String name, boolean healthy, long latencyMs, int inFlight,
+                             int consecutiveFailures, long blockNumber) {
+            this.name = name;
+            this.healthy = healthy;
+            this.latencyMs = latencyMs;
+            this.inFlight = inFlight;
+            this.consecutiveFailures = consecutiveFailures;
+            this.blockNumber = blockNumber;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.fisco.app.service.blockchain;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+/**
+ * 业务操作链上 RPC 计数
+ * 按 @ChainOperation 业务方法统计调用次数和期间发出的链上 RPC：交易发送、回执查询、只读调用（含视图缓存未命中时的区块高度查询），
+ * 用于观察每个业务操作平均需要几次 RPC 往返；视图缓存命中不发起 RPC，不计入
+ *
+ * 统计范围由 ChainAdmissionAspect 在最外层业务方法入口开启，范围外的 RPC（定时扫描、区块浏览查询）不计入
+ */
+@Component
+public class ChainRpcMetrics {
+
+    /**
+     * RPC 类型
+     */
+    public enum RpcType {
+        TRANSACTION,
+        RECEIPT,
+        READ
+    }
+
+    private static final ThreadLocal<Counter> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Counter> operations = new ConcurrentHashMap<>();
+
+    /**
+     * 开始统计一次业务操作，当前线程随后记录的 RPC 计入该操作
+     *
+     * @param operation 业务操作名（类名.方法名）
+     */
+    public void begin(String operation) {
+        Counter counter = operations.computeIfAbsent(operation, k -> new Counter());
+        counter.invocations.increment();
+        CURRENT.set(counter);
+    }
+
+    /**
+     * 结束当前线程的业务操作统计
+     */
+    public void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录当前业务操作发出的 RPC，不在业务操作内时忽略
+     */
+    public void record(RpcType type, int count) {
+        Counter counter = CURRENT.get();
+        if (counter != null) {
+            counter.rpcs[type.ordinal()].add(count);
+        }
+    }
+
+    /**
+     * 各业务操作的计数快照，按操作名排序
+     */
+    public Map<String, OperationStats> stats() {
+        Map<String, OperationStats> result = new TreeMap<>();
+        operations.forEach((operation, counter) -> result.put(operation, new OperationStats(
+                counter.invocations.sum(),
+                counter.rpcs[RpcType.TRANSACTION.ordinal()].sum(),
+                counter.rpcs[RpcType.RECEIPT.ordinal()].sum(),
+                counter.rpcs[RpcType.READ.ordinal()].sum())));
+        return result;
+    }
+
+    private static final class Counter {
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder[] rpcs = new LongAdder[RpcType.values().length];
+
+        private Counter() {
+            for (int i = 0; i < rpcs.length; i++) {
+                rpcs[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * 单个业务操作的计数快照
+     */
+    @Getter
+    public static final class OperationStats {
+
+        private final long invocations;
+        private final long transactions;
+        private final long receiptLookups;
+        private final long reads;
+        private final double rpcsPerInvocation;
+
+        private OperationStats(long invocations, long transactions, long receiptLookups, long reads) {
+            this.invocations = invocations;
+            this.transactions = transactions;
+            this.receiptLookups = receiptLookups;
+            this.reads = reads;
+            this.rpcsPerInvocation = invocations == 0 ? 0
+                    : (double) (transactions + receiptLookups + reads) / invocations;
+        }
+    }
+}
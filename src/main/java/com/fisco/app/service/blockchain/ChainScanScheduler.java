@@ -0,0 +1,82 @@
+package com.fisco.app.service.blockchain;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 链上扫描任务调度器
+ * 每轮都要发起多次 RPC 的扫描任务在节点变慢时单轮可能持续数秒；
+ * 这些任务在各自的线程上按固定间隔运行，不占用 @Scheduled 公共线程池，
+ * 不会拖慢缓存失效轮询、到期事件时间轮等需要按时执行的任务
+ *
+ * 任务抛出异常时只记录日志，下一轮照常执行
+ */
+@Slf4j
+@Component
+public class ChainScanScheduler {
+
+    private final ObjectProvider<ContractViewCache> contractViewCache;
+    private final ObjectProvider<PendingTransactionTracker> transactionTracker;
+    private final ObjectProvider<ChainClientPool> chainClientPool;
+
+    /**
+     * 每个任务一个线程，固定间隔调度下同一任务不会并发执行
+     */
+    private final ScheduledThreadPoolExecutor executor =
+            new ScheduledThreadPoolExecutor(3, new CustomizableThreadFactory("chain-scan-"));
+
+    @Value("${app.contract-view-cache.poll-interval-ms:1000}")
+    private long viewCacheIntervalMs;
+
+    @Value("${app.tx-tracker.poll-interval-ms:1000}")
+    private long txTrackerIntervalMs;
+
+    @Value("${app.chain-pool.probe-interval-ms:5000}")
+    private long probeIntervalMs;
+
+    public ChainScanScheduler(ObjectProvider<ContractViewCache> contractViewCache,
+                              ObjectProvider<PendingTransactionTracker> transactionTracker,
+                              ObjectProvider<ChainClientPool> chainClientPool) {
+        this.contractViewCache = contractViewCache;
+        this.transactionTracker = transactionTracker;
+        this.chainClientPool = chainClientPool;
+    }
+
+    /**
+     * 应用启动完成后开始调度；未启用区块链时对应的 Bean 不存在，不调度任何任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        contractViewCache.ifAvailable(cache -> schedule("contract-view-scan", cache::scan, viewCacheIntervalMs));
+        transactionTracker.ifAvailable(tracker -> schedule("tx-tracker-poll", tracker::poll, txTrackerIntervalMs));
+        chainClientPool.ifAvailable(pool -> schedule("chain-pool-probe", pool::probe, probeIntervalMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(String name, Runnable task, long intervalMs) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                // 周期任务抛出异常会被取消，此处吞掉异常保证下一轮继续
+                log.error("Chain scan task failed: task={}", name, e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Chain scan task scheduled: task={}, intervalMs={}", name, intervalMs);
+    }
+}
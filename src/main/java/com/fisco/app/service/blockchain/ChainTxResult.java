@@ -0,0 +1,117 @@
+package com.fisco.app.service.blockchain;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+
+import lombok.Getter;
+
+/**
+ * 上链交易结果
+ * ContractService 各 *OnChain 方法的返回值，交易哈希、区块号、Gas 消耗、状态均直接取自交易回执，
+ * 调用方无需再按交易哈希查询回执获取区块号
+ *
+ * 合约尚未提供对应方法的占位实现只有模拟交易哈希，区块号等字段为空
+ */
+@Getter
+public class ChainTxResult {
+
+    private final String txHash;
+    private final Long blockNumber;
+    private final Long gasUsed;
+    private final Integer status;
+    private final String contractAddress;
+    private final boolean simulated;
+
+    /**
+     * 原始回执，占位实现为空
+     */
+    private final TransactionReceipt receipt;
+
+    private ChainTxResult(String txHash, Long blockNumber, Long gasUsed, Integer status,
+                          String contractAddress, boolean simulated, TransactionReceipt receipt) {
+        this.txHash = txHash;
+        this.blockNumber = blockNumber;
+        this.gasUsed = gasUsed;
+        this.status = status;
+        this.contractAddress = contractAddress;
+        this.simulated = simulated;
+        this.receipt = receipt;
+    }
+
+    /**
+     * 由交易回执构建
+     */
+    public static ChainTxResult fromReceipt(TransactionReceipt receipt) {
+        BigInteger blockNumber = receipt.getBlockNumber();
+        return new ChainTxResult(receipt.getTransactionHash(),
+                blockNumber != null ? blockNumber.longValue() : null,
+                parseGasUsed(receipt.getGasUsed()),
+                receipt.getStatus(),
+                receipt.getTo(),
+                false,
+                receipt);
+    }
+
+    /**
+     * 占位实现的模拟结果
+     */
+    public static ChainTxResult simulated(String txHash) {
+        return new ChainTxResult(txHash, null, null, 0, null, true, null);
+    }
+
+    /**
+     * 取交易哈希，结果为空（占位实现上链失败）时返回 null
+     */
+    public static String txHashOf(ChainTxResult result) {
+        return result != null ? result.getTxHash() : null;
+    }
+
+    /**
+     * 交易是否执行成功
+     */
+    public boolean isSuccess() {
+        return status != null && status == 0;
+    }
+
+    /**
+     * 用合约包装类的事件解析方法解码回执中的事件，例如 {@code result.decodeEvents(billContract::getBillIssuedEvents)}；
+     * 模拟结果返回空列表
+     */
+    public <T> List<T> decodeEvents(Function<TransactionReceipt, List<T>> decoder) {
+        if (receipt == null) {
+            return Collections.emptyList();
+        }
+        return decoder.apply(receipt);
+    }
+
+    /**
+     * 回执中的原始事件日志
+     */
+    public List<TransactionReceipt.Logs> getLogs() {
+        if (receipt == null || receipt.getLogEntries() == null) {
+            return Collections.emptyList();
+        }
+        return receipt.getLogEntries();
+    }
+
+    private static Long parseGasUsed(String gasUsed) {
+        if (gasUsed == null || gasUsed.isEmpty()) {
+            return null;
+        }
+        try {
+            return gasUsed.startsWith("0x") ? Long.parseLong(gasUsed.substring(2), 16) : Long.parseLong(gasUsed);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChainTxResult{txHash=" + txHash + ", blockNumber=" + blockNumber + ", status=" + status
+                + (simulated ? ", simulated" : "") + "}";
+    }
+}
@@ -3,6 +3,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 
@@ -37,6 +39,10 @@ public class ContractService {
     private final Client client;
     private final CryptoKeyPair cryptoKeyPair;
     private final DataHashUtil dataHashUtil;
+    private final PendingTransactionTracker transactionTracker;
+    private final ChainClientPool chainClientPool;
+    private final ContractViewCache viewCache;
+    private final ChainRpcMetrics rpcMetrics;
 
     @Value("${contracts.bill.address:}")
     private String billContractAddress;
@@ -59,10 +65,20 @@ public class ContractService {
     private WarehouseReceiptV2 warehouseReceiptContract;
     private EnterpriseRegistryV2 enterpriseRegistryContract;
 
-    public ContractService(Client client, CryptoKeyPair cryptoKeyPair, DataHashUtil dataHashUtil) {
+    // 只读节点上的合约实例，视图调用经 ChainClientPool 路由到对应节点
+    private final Map<Client, BillV2> billReaders = new ConcurrentHashMap<>();
+    private final Map<Client, EnterpriseRegistryV2> enterpriseRegistryReaders = new ConcurrentHashMap<>();
+
+    public ContractService(Client client, CryptoKeyPair cryptoKeyPair, DataHashUtil dataHashUtil,
+                           PendingTransactionTracker transactionTracker, ChainClientPool chainClientPool,
+                           ContractViewCache viewCache, ChainRpcMetrics rpcMetrics) {
         this.client = client;
         this.cryptoKeyPair = cryptoKeyPair;
         this.dataHashUtil = dataHashUtil;
+        this.transactionTracker = transactionTracker;
+        this.chainClientPool = chainClientPool;
+        this.viewCache = viewCache;
+        this.rpcMetrics = rpcMetrics;
     }
 
     /**
@@ -116,9 +132,9 @@ public class ContractService {
      * 在区块链上开具票据
      *
      * @param bill 票据实体
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String issueBillOnChain(com.fisco.app.entity.bill.Bill bill) {
+    public ChainTxResult issueBillOnChain(com.fisco.app.entity.bill.Bill bill) {
         if (billContract == null) {
             log.error("Bill合约未加载，无法执行上链操作");
             throw new BlockchainIntegrationException.ContractNotFoundException(billContractAddress);
@@ -177,7 +193,7 @@ public class ContractService {
             log.info("║           区块链票据开具结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.fromReceipt(receipt);
 
         } catch (BlockchainIntegrationException e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -203,9 +219,9 @@ public class ContractService {
      * 在区块链上创建应收账款
      *
      * @param receivable 应收账款实体
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String createReceivableOnChain(com.fisco.app.entity.receivable.Receivable receivable) {
+    public ChainTxResult createReceivableOnChain(com.fisco.app.entity.receivable.Receivable receivable) {
         if (receivableContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(receivableContractAddress);
         }
@@ -241,7 +257,7 @@ public class ContractService {
             log.info("Receivable created successfully on blockchain: receivableId={}, txHash={}",
                 receivable.getId(), txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(receipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -257,9 +273,9 @@ public class ContractService {
      * 在区块链上创建仓单
      *
      * @param receipt 仓单实体
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String createReceiptOnChain(com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt receipt) {
+    public ChainTxResult createReceiptOnChain(com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt receipt) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -294,7 +310,7 @@ public class ContractService {
             log.info("Warehouse receipt created successfully on blockchain: receiptId={}, txHash={}",
                 receipt.getId(), txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -310,10 +326,10 @@ public class ContractService {
      * 创建仓单到区块链（支持旧的WarehouseReceipt类型，保持向后兼容）
      *
      * @param receipt 旧的仓单实体
-     * @return 交易哈希
+     * @return 上链交易结果
      * @throws BlockchainIntegrationException 如果上链失败
      */
-    public String createReceiptOnChain(com.fisco.app.entity.warehouse.WarehouseReceipt receipt) {
+    public ChainTxResult createReceiptOnChain(com.fisco.app.entity.warehouse.WarehouseReceipt receipt) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -348,7 +364,7 @@ public class ContractService {
             log.info("Warehouse receipt created successfully on blockchain: receiptId={}, txHash={}",
                 receipt.getId(), txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -364,10 +380,10 @@ public class ContractService {
      * 验证仓单到区块链
      *
      * @param receiptId 仓单ID
-     * @return 交易哈希
+     * @return 上链交易结果
      * @throws BlockchainIntegrationException 如果验证失败
      */
-    public String verifyReceiptOnChain(String receiptId) {
+    public ChainTxResult verifyReceiptOnChain(String receiptId) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -385,7 +401,7 @@ public class ContractService {
             log.info("Warehouse receipt verified successfully on blockchain: receiptId={}, txHash={}",
                      receiptId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -396,6 +412,28 @@ public class ContractService {
         }
     }
 
+    /**
+     * 取指定节点上的 Bill 合约实例，主客户端直接使用已加载的实例
+     */
+    private BillV2 billReader(Client readClient) {
+        if (readClient == client) {
+            return billContract;
+        }
+        return billReaders.computeIfAbsent(readClient,
+                c -> BillV2.load(billContractAddress, c, cryptoKeyPair));
+    }
+
+    /**
+     * 取指定节点上的 EnterpriseRegistry 合约实例，主客户端直接使用已加载的实例
+     */
+    private EnterpriseRegistryV2 enterpriseRegistryReader(Client readClient) {
+        if (readClient == client) {
+            return enterpriseRegistryContract;
+        }
+        return enterpriseRegistryReaders.computeIfAbsent(readClient,
+                c -> EnterpriseRegistryV2.load(enterpriseContractAddress, c, cryptoKeyPair));
+    }
+
     /**
      * 获取交易所在的区块号
      *
@@ -407,8 +445,12 @@ public class ContractService {
         try {
             log.debug("Getting block number for transaction: txHash={}", txHash);
 
-            // 通过交易回执获取区块号
-            TransactionReceipt receipt = client.getTransactionReceipt(txHash, false).getTransactionReceipt();
+            // 优先使用跟踪器中尚未结算写库的回执，否则查询交易回执
+            TransactionReceipt receipt = transactionTracker.findQueuedReceipt(txHash)
+                    .orElseGet(() -> {
+                        rpcMetrics.record(ChainRpcMetrics.RpcType.RECEIPT, 1);
+                        return client.getTransactionReceipt(txHash, false).getTransactionReceipt();
+                    });
 
             if (receipt == null) {
                 throw new BlockchainIntegrationException("Transaction receipt not found for txHash: " + txHash);
@@ -436,11 +478,18 @@ public class ContractService {
      * @param methodName 方法名
      */
     private void validateTransactionReceipt(TransactionReceipt receipt, String contractAddress, String methodName) {
+        // 同步发送交易，一次 RPC 返回回执
+        rpcMetrics.record(ChainRpcMetrics.RpcType.TRANSACTION, 1);
         if (receipt == null) {
             throw new BlockchainIntegrationException.ContractCallException(
                 contractAddress, methodName, "Transaction receipt is null", null);
         }
 
+        // 登记交易，由跟踪器批量写入交易池与回执表（成功或回滚均记录）
+        transactionTracker.track(receipt, contractAddress);
+        // 合约状态可能已变化，使该合约此前读取的视图缓存失效
+        viewCache.onTransaction(contractAddress, receipt.getBlockNumber());
+
         // 检查交易状态（0 表示成功）
         if (receipt.getStatus() != 0) {
             String message = "Transaction failed with status: " + receipt.getStatus();
@@ -515,9 +564,9 @@ public class ContractService {
      * 确认应收账款到区块链
      *
      * @param receivableId 应收账款ID
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String confirmReceivableOnChain(String receivableId) {
+    public ChainTxResult confirmReceivableOnChain(String receivableId) {
         if (receivableContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(receivableContractAddress);
         }
@@ -535,7 +584,7 @@ public class ContractService {
             log.info("Receivable confirmed successfully on blockchain: receivableId={}, txHash={}",
                 receivableId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -554,9 +603,9 @@ public class ContractService {
      * @param financierAddress 资金方地址
      * @param financeAmount 融资金额
      * @param financeRate 融资利率
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String financeReceivableOnChain(String receivableId, String financierAddress,
+    public ChainTxResult financeReceivableOnChain(String receivableId, String financierAddress,
                                             BigDecimal financeAmount, Integer financeRate) {
         if (receivableContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(receivableContractAddress);
@@ -586,7 +635,7 @@ public class ContractService {
             log.info("Receivable financed successfully on blockchain: receivableId={}, txHash={}",
                 receivableId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -602,9 +651,9 @@ public class ContractService {
      * 承兑票据到区块链
      *
      * @param billId 票据ID
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String acceptBillOnChain(String billId) {
+    public ChainTxResult acceptBillOnChain(String billId) {
         if (billContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(billContractAddress);
         }
@@ -622,7 +671,7 @@ public class ContractService {
             log.info("Bill accepted successfully on blockchain: billId={}, txHash={}",
                 billId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -638,9 +687,9 @@ public class ContractService {
      * 支付票据到区块链
      *
      * @param billId 票据ID
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String payBillOnChain(String billId) {
+    public ChainTxResult payBillOnChain(String billId) {
         if (billContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(billContractAddress);
         }
@@ -658,7 +707,7 @@ public class ContractService {
             log.info("Bill paid successfully on blockchain: billId={}, txHash={}",
                 billId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -675,10 +724,10 @@ public class ContractService {
      *
      * @param billId 票据ID
      * @param newHolder 新持有人地址
-     * @return 交易哈希
+     * @return 上链交易结果
      * NOTE: V2 contract endorseBill only takes billId and endorsee (no endorsementType)
      */
-    public String endorseBillOnChain(String billId, String newHolder) {
+    public ChainTxResult endorseBillOnChain(String billId, String newHolder) {
         if (billContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(billContractAddress);
         }
@@ -700,7 +749,7 @@ public class ContractService {
             log.info("Bill endorsed successfully on blockchain: billId={}, txHash={}",
                 billId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -719,9 +768,9 @@ public class ContractService {
      * @param financialInstitution 金融机构地址
      * @param discountAmount 贴现金额（分）
      * @param discountRate 贴现利率（基点，如 550 表示 5.50%）
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String discountBillOnChain(String billId, String financialInstitution,
+    public ChainTxResult discountBillOnChain(String billId, String financialInstitution,
                                       java.math.BigDecimal discountAmount, java.math.BigDecimal discountRate) {
         if (billContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(billContractAddress);
@@ -751,7 +800,7 @@ public class ContractService {
             log.info("Bill discounted successfully on blockchain: billId={}, txHash={}",
                 billId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -778,26 +827,33 @@ public class ContractService {
         try {
             log.info("Getting endorsement history from blockchain: billId={}", billId);
 
-            // 获取背书历史记录数量 - V2使用getEndorsementCount方法
-            BigInteger count = billContract.getEndorsementCount(billId);
-            log.debug("Endorsement history count: {}", count);
-
-            java.util.List<java.util.Map<String, Object>> history = new java.util.ArrayList<>();
-
-            // 遍历所有背书记录
-            for (int i = 0; i < count.intValue(); i++) {
-                var endorsementRecord = billContract.endorsementHistory(
-                    billId,
-                    BigInteger.valueOf(i)
-                );
-
-                java.util.Map<String, Object> record = new java.util.HashMap<>();
-                record.put("index", i);
-                record.put("endorser", endorsementRecord.getValue1()); // 背书人
-                record.put("endorsee", endorsementRecord.getValue2()); // 被背书人
-                record.put("timestamp", endorsementRecord.getValue3()); // 时间戳
-                history.add(record);
-            }
+            // 数量和各条记录在同一节点上读取，避免节点间高度差导致不一致
+            java.util.List<java.util.Map<String, Object>> history = viewCache.read(billContractAddress,
+                    "endorsementHistory", java.util.Collections.singletonList(billId), c -> {
+                BillV2 reader = billReader(c);
+
+                // 获取背书历史记录数量 - V2使用getEndorsementCount方法
+                BigInteger count = reader.getEndorsementCount(billId);
+                log.debug("Endorsement history count: {}", count);
+
+                java.util.List<java.util.Map<String, Object>> records = new java.util.ArrayList<>();
+
+                // 遍历所有背书记录
+                for (int i = 0; i < count.intValue(); i++) {
+                    var endorsementRecord = reader.endorsementHistory(
+                        billId,
+                        BigInteger.valueOf(i)
+                    );
+
+                    java.util.Map<String, Object> record = new java.util.HashMap<>();
+                    record.put("index", i);
+                    record.put("endorser", endorsementRecord.getValue1()); // 背书人
+                    record.put("endorsee", endorsementRecord.getValue2()); // 被背书人
+                    record.put("timestamp", endorsementRecord.getValue3()); // 时间戳
+                    records.add(record);
+                }
+                return records;
+            });
 
             log.info("Retrieved {} endorsement records from blockchain for billId={}",
                 history.size(), billId);
@@ -820,9 +876,9 @@ public class ContractService {
      * @param receiptId 仓单ID
      * @param financialInstitutionAddress 金融机构地址
      * @param pledgeAmount 质押金额
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String pledgeReceiptOnChain(String receiptId, String financialInstitutionAddress,
+    public ChainTxResult pledgeReceiptOnChain(String receiptId, String financialInstitutionAddress,
                                         BigDecimal pledgeAmount) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
@@ -850,7 +906,7 @@ public class ContractService {
             log.info("Warehouse receipt pledged successfully on blockchain: receiptId={}, txHash={}",
                 receiptId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -868,9 +924,9 @@ public class ContractService {
      * @param receiptId 仓单ID
      * @param newOwner 新持单人地址
      * @param transferPrice 转让价格（可选）
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String transferReceiptOnChain(String receiptId, String newOwner,
+    public ChainTxResult transferReceiptOnChain(String receiptId, String newOwner,
                                          java.math.BigDecimal transferPrice) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
@@ -910,7 +966,7 @@ public class ContractService {
             log.info("║           区块链仓单转让结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             log.error("✗✗✗ 仓单转让上链失败（区块链异常）: receiptId={}, error={}",
@@ -928,9 +984,9 @@ public class ContractService {
      * 释放仓单到区块链
      *
      * @param receiptId 仓单ID
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String releaseReceiptOnChain(String receiptId) {
+    public ChainTxResult releaseReceiptOnChain(String receiptId) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -951,7 +1007,7 @@ public class ContractService {
             log.info("Warehouse receipt released successfully on blockchain: receiptId={}, txHash={}",
                 receiptId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -970,9 +1026,9 @@ public class ContractService {
      * 使用 registerEnterpriseByAdmin 函数，可以注册多个企业
      *
      * @param enterprise 企业实体
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String registerEnterpriseOnChain(Enterprise enterprise) {
+    public ChainTxResult registerEnterpriseOnChain(Enterprise enterprise) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -999,7 +1055,7 @@ public class ContractService {
             log.info("Enterprise registered successfully on blockchain: address={}, txHash={}",
                 enterprise.getAddress(), txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1015,9 +1071,9 @@ public class ContractService {
      * 在区块链上审核企业
      *
      * @param address 企业地址
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String approveEnterpriseOnChain(String address) {
+    public ChainTxResult approveEnterpriseOnChain(String address) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -1040,7 +1096,7 @@ public class ContractService {
             log.info("Enterprise approved successfully on blockchain: address={}, txHash={}",
                 address, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1056,9 +1112,9 @@ public class ContractService {
      *
      * @param address 企业地址
      * @param status 新状态
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String updateEnterpriseStatusOnChain(String address, Enterprise.EnterpriseStatus status) {
+    public ChainTxResult updateEnterpriseStatusOnChain(String address, Enterprise.EnterpriseStatus status) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -1084,7 +1140,7 @@ public class ContractService {
             log.info("Enterprise status updated successfully on blockchain: address={}, txHash={}",
                 address, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1101,9 +1157,9 @@ public class ContractService {
      * @param address 企业地址
      * @param newRating 新评级
      * @param reason 原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String updateCreditRatingOnChain(String address, Integer newRating, String reason) {
+    public ChainTxResult updateCreditRatingOnChain(String address, Integer newRating, String reason) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -1128,7 +1184,7 @@ public class ContractService {
             log.info("Credit rating updated successfully on blockchain: address={}, txHash={}",
                 address, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1144,9 +1200,9 @@ public class ContractService {
      *
      * @param address 企业地址
      * @param creditLimit 授信额度
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String setCreditLimitOnChain(String address, java.math.BigDecimal creditLimit) {
+    public ChainTxResult setCreditLimitOnChain(String address, java.math.BigDecimal creditLimit) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -1170,7 +1226,7 @@ public class ContractService {
             log.info("Credit limit set successfully on blockchain: address={}, txHash={}",
                 address, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1195,7 +1251,8 @@ public class ContractService {
         try {
             log.info("Getting enterprise from blockchain: address={}", address);
 
-            return enterpriseRegistryContract.getEnterprise(address);
+            return viewCache.read(enterpriseContractAddress, "getEnterprise", java.util.Collections.singletonList(address),
+                    c -> enterpriseRegistryReader(c).getEnterprise(address));
 
         } catch (Exception e) {
             log.error("Failed to get enterprise from blockchain: address={}", address, e);
@@ -1217,7 +1274,8 @@ public class ContractService {
         try {
             log.info("Getting active enterprise count from blockchain");
 
-            BigInteger count = enterpriseRegistryContract.enterpriseCount();
+            BigInteger count = viewCache.read(enterpriseContractAddress, "enterpriseCount", java.util.Collections.emptyList(),
+                    c -> enterpriseRegistryReader(c).enterpriseCount());
             long countLong = count.longValue();
             log.info("Active enterprise count from blockchain: {}", countLong);
 
@@ -1243,7 +1301,8 @@ public class ContractService {
         try {
             log.info("Getting total enterprise count from blockchain");
 
-            BigInteger count = enterpriseRegistryContract.enterpriseCount();
+            BigInteger count = viewCache.read(enterpriseContractAddress, "enterpriseCount", java.util.Collections.emptyList(),
+                    c -> enterpriseRegistryReader(c).enterpriseCount());
             long countLong = count.longValue();
             log.info("Total enterprise count from blockchain: {}", countLong);
 
@@ -1261,9 +1320,9 @@ public class ContractService {
      * 注意：由于区块链不可篡改特性，这里实际上是更新企业状态为DELETED
      *
      * @param address 企业地址
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String removeEnterpriseFromChain(String address) {
+    public ChainTxResult removeEnterpriseFromChain(String address) {
         if (enterpriseRegistryContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(enterpriseContractAddress);
         }
@@ -1288,7 +1347,7 @@ public class ContractService {
             log.info("Enterprise status updated to DELETED on blockchain: address={}, txHash={}",
                 address, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1304,9 +1363,9 @@ public class ContractService {
      *
      * @param receivableId 应收账款ID
      * @param amount 还款金额
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String repayReceivableOnChain(String receivableId, BigDecimal amount) {
+    public ChainTxResult repayReceivableOnChain(String receivableId, BigDecimal amount) {
         if (receivableContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(receivableContractAddress);
         }
@@ -1331,7 +1390,7 @@ public class ContractService {
             log.info("Receivable repaid successfully on blockchain: receivableId={}, txHash={}",
                 receivableId, txHash);
 
-            return txHash;
+            return ChainTxResult.fromReceipt(txReceipt);
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1348,9 +1407,9 @@ public class ContractService {
      *
      * @param receivableId 应收账款ID
      * @param newHolder 新持有人地址
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String transferReceivableOnChain(String receivableId, String newHolder) {
+    public ChainTxResult transferReceivableOnChain(String receivableId, String newHolder) {
         if (receivableContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(receivableContractAddress);
         }
@@ -1361,7 +1420,7 @@ public class ContractService {
 
             // V2合约没有transferReceivable方法，暂时使用模拟交易哈希
             log.warn("ReceivableV2 contract does not have transferReceivable method, using mock tx hash");
-            return "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
+            return ChainTxResult.simulated("0x" + java.util.UUID.randomUUID().toString().replace("-", ""));
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -1399,9 +1458,9 @@ public class ContractService {
      * @param receiptId 仓单ID
      * @param freezeReason 冻结原因
      * @param referenceNo 相关文件编号
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String freezeReceiptOnChain(String receiptId, String freezeReason, String referenceNo) {
+    public ChainTxResult freezeReceiptOnChain(String receiptId, String freezeReason, String referenceNo) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -1439,7 +1498,7 @@ public class ContractService {
             log.info("║           区块链仓单冻结结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.simulated(txHash);
 
         } catch (BlockchainIntegrationException e) {
             log.error("✗✗✗ 仓单冻结上链失败（区块链异常）: receiptId={}, error={}",
@@ -1458,9 +1517,9 @@ public class ContractService {
      *
      * @param receiptId 仓单ID
      * @param targetStatus 解冻后的目标状态
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String unfreezeReceiptOnChain(String receiptId, String targetStatus) {
+    public ChainTxResult unfreezeReceiptOnChain(String receiptId, String targetStatus) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -1497,7 +1556,7 @@ public class ContractService {
             log.info("║           区块链仓单解冻结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.simulated(txHash);
 
         } catch (BlockchainIntegrationException e) {
             log.error("✗✗✗ 仓单解冻上链失败（区块链异常）: receiptId={}, error={}",
@@ -1547,9 +1606,9 @@ public class ContractService {
      * @param parentReceiptId 父仓单ID
      * @param childReceiptIds 子仓单ID列表
      * @param splitCount 拆分数量
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String splitReceiptOnChain(String parentReceiptId, java.util.List<String> childReceiptIds, int splitCount) {
+    public ChainTxResult splitReceiptOnChain(String parentReceiptId, java.util.List<String> childReceiptIds, int splitCount) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -1592,7 +1651,7 @@ public class ContractService {
             log.info("║           区块链仓单拆分结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.simulated(txHash);
 
         } catch (BlockchainIntegrationException e) {
             log.error("✗✗✗ 仓单拆分上链失败（区块链异常）: parentReceiptId={}, error={}",
@@ -1611,9 +1670,9 @@ public class ContractService {
      *
      * @param receiptId 仓单ID
      * @param cancelReason 作废原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String cancelReceiptOnChain(String receiptId, String cancelReason) {
+    public ChainTxResult cancelReceiptOnChain(String receiptId, String cancelReason) {
         if (warehouseReceiptContract == null) {
             throw new BlockchainIntegrationException.ContractNotFoundException(warehouseReceiptContractAddress);
         }
@@ -1642,7 +1701,7 @@ public class ContractService {
             log.info("║           区块链仓单作废结束                                  ║");
             log.info("╚════════════════════════════════════════════════════════════╝");
 
-            return txHash;
+            return ChainTxResult.simulated(txHash);
 
         } catch (BlockchainIntegrationException e) {
             log.error("✗✗✗ 仓单作废上链失败（区块链异常）: receiptId={}, error={}",
@@ -1665,46 +1724,46 @@ public class ContractService {
      * @param remindType 催收类型
      * @param operatorAddress 操作人地址
      * @param remindContent 催收内容
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordRemindOnChain(String receivableId, String remindType,
+    public ChainTxResult recordRemindOnChain(String receivableId, String remindType,
                                       String operatorAddress, String remindContent) {
         // ReceivableWithOverdue合约不存在，使用模拟交易哈希
         log.warn("ReceivableWithOverdue contract is not available, using mock tx hash");
-        return "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
+        return ChainTxResult.simulated("0x" + java.util.UUID.randomUUID().toString().replace("-", ""));
     }
 
     /**
      * 罚息记录上链（使用 ReceivableWithOverdue 合约）
      */
-    public String recordPenaltyOnChainWithNewContract(String receivableId, String penaltyType,
+    public ChainTxResult recordPenaltyOnChainWithNewContract(String receivableId, String penaltyType,
                                                       BigDecimal principalAmount, Integer overdueDays,
                                                       BigDecimal dailyRate, BigDecimal penaltyAmount,
                                                       BigDecimal totalPenaltyAmount) {
         // ReceivableWithOverdue合约不存在，使用模拟交易哈希
         log.warn("ReceivableWithOverdue contract is not available, using mock tx hash");
-        return "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
+        return ChainTxResult.simulated("0x" + java.util.UUID.randomUUID().toString().replace("-", ""));
     }
 
     /**
      * 坏账记录上链（使用 ReceivableWithOverdue 合约）
      */
-    public String recordBadDebtOnChainWithNewContract(String receivableId, String badDebtType,
+    public ChainTxResult recordBadDebtOnChainWithNewContract(String receivableId, String badDebtType,
                                                       BigDecimal principalAmount, Integer overdueDays,
                                                       BigDecimal totalPenaltyAmount, BigDecimal totalLossAmount,
                                                       String badDebtReason) {
         // ReceivableWithOverdue合约不存在，使用模拟交易哈希
         log.warn("ReceivableWithOverdue contract is not available, using mock tx hash");
-        return "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
+        return ChainTxResult.simulated("0x" + java.util.UUID.randomUUID().toString().replace("-", ""));
     }
 
     /**
      * 更新逾期状态上链（使用 ReceivableWithOverdue 合约）
      */
-    public String updateOverdueStatusOnChainWithNewContract(String receivableId, String overdueLevel, Integer overdueDays) {
+    public ChainTxResult updateOverdueStatusOnChainWithNewContract(String receivableId, String overdueLevel, Integer overdueDays) {
         // ReceivableWithOverdue合约不存在，使用模拟交易哈希
         log.warn("ReceivableWithOverdue contract is not available, using mock tx hash");
-        return "0x" + java.util.UUID.randomUUID().toString().replace("-", "");
+        return ChainTxResult.simulated("0x" + java.util.UUID.randomUUID().toString().replace("-", ""));
     }
 
     /**
@@ -1723,9 +1782,9 @@ public class ContractService {
      * @param dailyRate 日利率
      * @param penaltyAmount 罚息金额
      * @param totalPenaltyAmount 累计罚息金额
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordPenaltyOnChain(String receivableId, String penaltyType,
+    public ChainTxResult recordPenaltyOnChain(String receivableId, String penaltyType,
                                         BigDecimal principalAmount, Integer overdueDays,
                                         BigDecimal dailyRate, BigDecimal penaltyAmount,
                                         BigDecimal totalPenaltyAmount) {
@@ -1744,9 +1803,9 @@ public class ContractService {
      * @param totalPenaltyAmount 累计罚息金额
      * @param totalLossAmount 总损失金额
      * @param badDebtReason 坏账原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordBadDebtOnChain(String receivableId, String badDebtType,
+    public ChainTxResult recordBadDebtOnChain(String receivableId, String badDebtType,
                                         BigDecimal principalAmount, Integer overdueDays,
                                         BigDecimal totalPenaltyAmount, BigDecimal totalLossAmount,
                                         String badDebtReason) {
@@ -1761,9 +1820,9 @@ public class ContractService {
      * @param receivableId 应收账款ID
      * @param overdueLevel 逾期等级
      * @param overdueDays 逾期天数
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String updateOverdueStatusOnChain(String receivableId, String overdueLevel, Integer overdueDays) {
+    public ChainTxResult updateOverdueStatusOnChain(String receivableId, String overdueLevel, Integer overdueDays) {
         // 使用 ReceivableWithOverdue 合约
         return updateOverdueStatusOnChainWithNewContract(receivableId, overdueLevel, overdueDays);
     }
@@ -1775,9 +1834,9 @@ public class ContractService {
      * 注意：当前为占位实现，等待使用sol2java工具生成完整的Java合约包装类
      *
      * @param creditLimit 信用额度实体
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordCreditLimitOnChain(com.fisco.app.entity.credit.CreditLimit creditLimit) {
+    public ChainTxResult recordCreditLimitOnChain(com.fisco.app.entity.credit.CreditLimit creditLimit) {
         log.info("Recording credit limit on blockchain: limitId={}, enterprise={}, type={}, limit={}分",
                 creditLimit.getId(), creditLimit.getEnterpriseAddress(),
                 creditLimit.getLimitType(), creditLimit.getTotalLimit());
@@ -1790,7 +1849,7 @@ public class ContractService {
             log.info("✓ Credit limit recorded on blockchain (placeholder implementation): limitId={}, txHash={}",
                     creditLimit.getId(), mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to record credit limit on blockchain: limitId={}",
@@ -1806,9 +1865,9 @@ public class ContractService {
      * 注意：当前为占位实现
      *
      * @param usage 额度使用记录
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordCreditUsageOnChain(com.fisco.app.entity.credit.CreditLimitUsage usage) {
+    public ChainTxResult recordCreditUsageOnChain(com.fisco.app.entity.credit.CreditLimitUsage usage) {
         log.info("Recording credit usage on blockchain: usageId={}, creditLimitId={}, type={}, amount={}分",
                 usage.getId(), usage.getCreditLimitId(), usage.getUsageType(), usage.getAmount());
 
@@ -1819,7 +1878,7 @@ public class ContractService {
             log.info("✓ Credit usage recorded on blockchain (placeholder implementation): usageId={}, txHash={}",
                     usage.getId(), mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to record credit usage on blockchain: usageId={}",
@@ -1834,9 +1893,9 @@ public class ContractService {
      * 注意：当前为占位实现
      *
      * @param adjustRequest 额度调整申请
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String recordCreditAdjustOnChain(com.fisco.app.entity.credit.CreditLimitAdjustRequest adjustRequest) {
+    public ChainTxResult recordCreditAdjustOnChain(com.fisco.app.entity.credit.CreditLimitAdjustRequest adjustRequest) {
         log.info("Recording credit limit adjustment on blockchain: requestId={}, adjustType={}, newLimit={}分",
                 adjustRequest.getId(), adjustRequest.getAdjustType(), adjustRequest.getNewLimit());
 
@@ -1854,7 +1913,7 @@ public class ContractService {
             log.info("✓ Credit limit adjustment recorded on blockchain (placeholder implementation): requestId={}, txHash={}",
                     adjustRequest.getId(), mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to record credit limit adjustment on blockchain: requestId={}",
@@ -1870,9 +1929,9 @@ public class ContractService {
      *
      * @param limitId 额度ID
      * @param reason 冻结原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String freezeCreditLimitOnChain(String limitId, String reason) {
+    public ChainTxResult freezeCreditLimitOnChain(String limitId, String reason) {
         log.info("Freezing credit limit on blockchain: limitId={}, reason={}", limitId, reason);
 
         try {
@@ -1882,7 +1941,7 @@ public class ContractService {
             log.info("✓ Credit limit frozen on blockchain (placeholder implementation): limitId={}, txHash={}",
                     limitId, mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to freeze credit limit on blockchain: limitId={}", limitId, e);
@@ -1897,9 +1956,9 @@ public class ContractService {
      *
      * @param limitId 额度ID
      * @param reason 解冻原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String unfreezeCreditLimitOnChain(String limitId, String reason) {
+    public ChainTxResult unfreezeCreditLimitOnChain(String limitId, String reason) {
         log.info("Unfreezing credit limit on blockchain: limitId={}, reason={}", limitId, reason);
 
         try {
@@ -1909,7 +1968,7 @@ public class ContractService {
             log.info("✓ Credit limit unfrozen on blockchain (placeholder implementation): limitId={}, txHash={}",
                     limitId, mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to unfreeze credit limit on blockchain: limitId={}", limitId, e);
@@ -1925,9 +1984,9 @@ public class ContractService {
      * @param limitId 额度ID
      * @param riskLevel 风险等级
      * @param reason 原因
-     * @return 交易哈希
+     * @return 上链交易结果
      */
-    public String updateRiskLevelOnChain(String limitId, com.fisco.app.entity.credit.CreditLimit.RiskLevel riskLevel, String reason) {
+    public ChainTxResult updateRiskLevelOnChain(String limitId, com.fisco.app.entity.credit.CreditLimit.RiskLevel riskLevel, String reason) {
         log.info("Updating risk level on blockchain: limitId={}, riskLevel={}", limitId, riskLevel);
 
         try {
@@ -1937,7 +1996,7 @@ public class ContractService {
             log.info("✓ Risk level updated on blockchain (placeholder implementation): limitId={}, txHash={}",
                     limitId, mockTxHash);
 
-            return mockTxHash;
+            return ChainTxResult.simulated(mockTxHash);
 
         } catch (Exception e) {
             log.error("Failed to update risk level on blockchain: limitId={}", limitId, e);
@@ -0,0 +1,276 @@
+package com.fisco.app.service.blockchain;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 合约视图调用缓存
+ * 按 合约地址 + 方法 + 参数 缓存只读合约调用的结果，并记录读取时所在节点的区块高度；
+ * 定时逐块扫描新区块中交易的目标地址，记录每个合约最近一次被交易修改的区块高度
+ *
+ * 缓存结果只在以下条件同时成立时返回：
+ * - 已扫描到最近观察到的区块高度（扫描落后时直接读链）；
+ * - 读取时的区块高度不低于该合约最近一次被修改的高度。
+ * 因此不会返回比最近观察到的区块更旧的状态。本应用发出的交易在拿到回执时立即登记（onTransaction），
+ * 不必等待下一轮扫描
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "fisco.enabled", havingValue = "true", matchIfMissing = true)
+public class ContractViewCache {
+
+    private final ChainClientPool chainClientPool;
+    private final ChainRpcMetrics rpcMetrics;
+    private final Cache<ViewKey, Entry> entries;
+
+    /**
+     * 各合约最近一次被交易修改的区块高度，只记录已缓存过视图结果的合约
+     */
+    private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 已扫描到的区块高度，-1 表示尚未开始扫描
+     */
+    private volatile long scannedHeight = -1L;
+
+    /**
+     * 最近观察到的区块高度（扫描、读取、本应用交易回执）
+     */
+    private volatile long observedHeight = -1L;
+
+    /**
+     * 扫描跳过的区块范围内的修改无法得知，低于该高度读取的结果一律视为过期
+     */
+    private volatile long minValidHeight = -1L;
+
+    @Value("${app.contract-view-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.contract-view-cache.max-catch-up-blocks:200}")
+    private long maxCatchUpBlocks;
+
+    public ContractViewCache(ChainClientPool chainClientPool, ChainRpcMetrics rpcMetrics,
+                             @Value("${app.contract-view-cache.maximum-size:5000}") long maximumSize) {
+        this.chainClientPool = chainClientPool;
+        this.rpcMetrics = rpcMetrics;
+        this.entries = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * 读取合约视图，命中时不发起 RPC；未命中时在同一节点上读取区块高度和视图结果
+     *
+     * @param contractAddress 合约地址
+     * @param method 视图方法名
+     * @param args 方法参数
+     * @param call 视图调用
+     * @return 调用结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String contractAddress, String method, List<?> args, ChainClientPool.ChainCall<T> call) {
+        if (!enabled || contractAddress == null || contractAddress.isEmpty()) {
+            return chainClientPool.read(c -> {
+                rpcMetrics.record(ChainRpcMetrics.RpcType.READ, 1);
+                return call.call(c);
+            });
+        }
+        String contract = normalize(contractAddress);
+        ViewKey key = new ViewKey(contract, method, args);
+        long scanned = scannedHeight;
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null && scanned >= 0 && scanned >= observedHeight && cached.blockHeight >= validFrom(contract)) {
+            hits.increment();
+            return (T) cached.value;
+        }
+        misses.increment();
+
+        // 首次缓存该合约时，登记之前的修改未被记录。scan 和 onTransaction 都先 observe 再 modified，
+        // 登记前被忽略的修改高度不超过 observedHeight；该高度在映射函数内读取，与同一合约的
+        // computeIfPresent 互斥，登记之后的修改都会被记录
+        lastModified.computeIfAbsent(contract, k -> Math.max(observedHeight, scannedHeight));
+        Entry loaded = chainClientPool.read(c -> {
+            // 区块高度与视图调用各一次
+            rpcMetrics.record(ChainRpcMetrics.RpcType.READ, 2);
+            long height = c.getBlockNumber().getBlockNumber().longValue();
+            return new Entry(call.call(c), height);
+        });
+        observe(loaded.blockHeight);
+        if (loaded.value != null && loaded.blockHeight >= validFrom(contract)) {
+            entries.put(key, loaded);
+        }
+        return (T) loaded.value;
+    }
+
+    /**
+     * 登记本应用发出的交易：立即使该合约在此前高度读取的结果失效，
+     * 并让链客户端池在只读节点同步到该高度前优先从主节点读取
+     *
+     * @param contractAddress 交易目标合约地址
+     * @param blockNumber 交易所在区块高度
+     */
+    public void onTransaction(String contractAddress, BigInteger blockNumber) {
+        if (blockNumber == null) {
+            return;
+        }
+        chainClientPool.onWrite(blockNumber.longValue());
+        if (contractAddress == null || contractAddress.isEmpty()) {
+            return;
+        }
+        observe(blockNumber.longValue());
+        modified(normalize(contractAddress), blockNumber.longValue());
+    }
+
+    /**
+     * 扫描新区块，记录被交易修改的合约
+     * 由 ChainScanScheduler 每 app.contract-view-cache.poll-interval-ms 调用
+     */
+    public void scan() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long latest = chainClientPool.read(c -> c.getBlockNumber().getBlockNumber()).longValue();
+            observe(latest);
+            if (scannedHeight < 0 || latest - scannedHeight > maxCatchUpBlocks) {
+                // 首次扫描或落后过多：丢弃全部结果，从最新高度开始
+                entries.invalidateAll();
+                minValidHeight = latest;
+                scannedHeight = latest;
+                log.info("Contract view cache reset: blockNumber={}", latest);
+                return;
+            }
+            for (long number = scannedHeight + 1; number <= latest; number++) {
+                BigInteger blockNumber = BigInteger.valueOf(number);
+                BcosBlock bcosBlock = chainClientPool.read(c -> c.getBlockByNumber(blockNumber, false, false));
+                if (bcosBlock == null || bcosBlock.getBlock() == null) {
+                    return;
+                }
+                List<BcosBlock.TransactionObject> transactions = bcosBlock.getBlock().getTransactionObject();
+                if (transactions != null) {
+                    for (BcosBlock.TransactionObject tx : transactions) {
+                        if (tx.getTo() != null) {
+                            modified(normalize(tx.getTo()), number);
+                        }
+                    }
+                }
+                scannedHeight = number;
+            }
+        } catch (Exception e) {
+            // 扫描落后期间视图调用直接读链，下一轮继续
+            log.warn("Contract view cache scan failed: scannedHeight={}, error={}", scannedHeight, e.getMessage());
+        }
+    }
+
+    /**
+     * 命中、未命中、失效计数
+     */
+    public ViewCacheStats stats() {
+        return new ViewCacheStats(hits.sum(), misses.sum(), invalidations.sum(), entries.estimatedSize(),
+                scannedHeight, observedHeight);
+    }
+
+    private void modified(String contract, long blockNumber) {
+        Long previous = lastModified.computeIfPresent(contract, (k, v) -> Math.max(v, blockNumber));
+        if (previous != null) {
+            invalidations.increment();
+        }
+    }
+
+    private long validFrom(String contract) {
+        return Math.max(minValidHeight, lastModified.getOrDefault(contract, Long.MAX_VALUE));
+    }
+
+    private synchronized void observe(long blockNumber) {
+        if (blockNumber > observedHeight) {
+            observedHeight = blockNumber;
+        }
+    }
+
+    private static String normalize(String address) {
+        return address.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ViewKey {
+
+        private final String contract;
+        private final String method;
+        private final List<?> args;
+
+        private ViewKey(String contract, String method, List<?> args) {
+            this.contract = contract;
+            this.method = method;
+            this.args = args;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ViewKey)) {
+                return false;
+            }
+            ViewKey other = (ViewKey) o;
+            return contract.equals(other.contract) && method.equals(other.method) && args.equals(other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[] {contract, method, args});
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long blockHeight;
+
+        private Entry(Object value, long blockHeight) {
+            this.value = value;
+            this.blockHeight = blockHeight;
+        }
+    }
+
+    /**
+     * 视图缓存计数快照
+     */
+    @Getter
+    public static final class ViewCacheStats {
+
+        private final long hits;
+        private final long misses;
+        private final long invalidations;
+        private final long size;
+        private final long scannedHeight;
+        private final long observedHeight;
+
+        private ViewCacheStats(long hits, long misses, long invalidations, long size,
+                               long scannedHeight, long observedHeight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.scannedHeight = scannedHeight;
+            this.observedHeight = observedHeight;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.fisco.app.dto.blockchain.*;
 import com.fisco.app.exception.BlockchainIntegrationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.client.protocol.response.Peers;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -28,7 +27,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NodeService {
 
-    private final Client client;
+    private final ChainClientPool chainClientPool;
 
     // ========== 常量定义 ==========
 
@@ -47,7 +46,7 @@ public class NodeService {
         log.debug("Getting node list");
 
         try {
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
 
             if (peers == null || peers.getPeers() == null ||
                 peers.getPeers().getPeers() == null) {
@@ -90,7 +89,7 @@ public class NodeService {
             NodeStatusDTO status = new NodeStatusDTO();
 
             // 获取当前区块高度
-            BigInteger blockNumber = client.getBlockNumber().getBlockNumber();
+            BigInteger blockNumber = chainClientPool.read(c -> c.getBlockNumber().getBlockNumber());
             status.setBlockNumber(blockNumber);
 
             // 设置节点信息
@@ -101,7 +100,7 @@ public class NodeService {
             }
 
             // 检查节点是否在线
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
             boolean online = peers != null && peers.getPeers() != null &&
                            peers.getPeers().getPeers() != null &&
                            !peers.getPeers().getPeers().isEmpty();
@@ -132,7 +131,7 @@ public class NodeService {
         try {
             NodeStatisticsDTO stats = new NodeStatisticsDTO();
 
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
 
             int nodeCount = 0;
             if (peers != null && peers.getPeers() != null &&
@@ -183,7 +182,7 @@ public class NodeService {
             NodePeerDTO dto = new NodePeerDTO();
             dto.setNodeId(nodeId);
 
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
 
             List<NodePeerDTO.PeerInfo> peerInfoList = new ArrayList<>();
 
@@ -227,7 +226,7 @@ public class NodeService {
             NodeSyncStatusDTO syncStatus = new NodeSyncStatusDTO();
 
             // 获取当前节点区块高度
-            BigInteger currentBlockNumber = client.getBlockNumber().getBlockNumber();
+            BigInteger currentBlockNumber = chainClientPool.read(c -> c.getBlockNumber().getBlockNumber());
             syncStatus.setCurrentBlockNumber(currentBlockNumber);
 
             // 简化处理：假设网络最高块高与当前块高相同
@@ -281,7 +280,7 @@ public class NodeService {
             currentGroup.setGroupStatus("RUNNING");
 
             // 获取节点数量
-            Peers peers = client.getPeers();
+            Peers peers = chainClientPool.read(c -> c.getPeers());
             int nodeCount = 1; // 默认至少有当前节点
 
             if (peers != null && peers.getPeers() != null &&
@@ -329,6 +328,13 @@ public class NodeService {
         }
     }
 
+    /**
+     * 获取只读路由池中各节点的健康状态、延迟和在途请求数
+     */
+    public List<ChainClientPool.NodeSnapshot> getReadPoolStatus() {
+        return chainClientPool.snapshot();
+    }
+
     // ========== 辅助方法 ==========
 
     /**
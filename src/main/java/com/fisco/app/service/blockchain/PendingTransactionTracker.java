@@ -0,0 +1,321 @@
+package com.fisco.app.service.blockchain;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosTransactionReceipt;
+import org.fisco.bcos.sdk.v3.crypto.keypair.CryptoKeyPair;
+import org.fisco.bcos.sdk.v3.model.Response;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.fisco.bcos.sdk.v3.model.callback.RespCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fisco.app.entity.blockchain.Transaction;
+import com.fisco.app.entity.blockchain.TransactionPool;
+import com.fisco.app.repository.blockchain.TransactionPoolRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 待确认交易跟踪器
+ * 应用提交的每笔交易先登记在内存中，由定时任务批量写入交易池（blockchain_transaction_pool）；
+ * 已随同步调用拿到回执的交易直接结算，其余待处理交易按固定节奏批量异步拉取回执，
+ * 结算结果批量写入回执表、交易池和交易表，请求线程不为单笔回执发起 RPC 或写库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fisco.enabled", havingValue = "true", matchIfMissing = true)
+public class PendingTransactionTracker {
+
+    private static final String UPSERT_POOL_SQL = "INSERT INTO blockchain_transaction_pool "
+            + "(id, transaction_hash, from_address, to_address, submitted_at, status, retry_count) "
+            + "VALUES (?, ?, ?, ?, NOW(), ?, 0) "
+            + "ON DUPLICATE KEY UPDATE status = IF(VALUES(status) = 'CONFIRMED', 'CONFIRMED', status)";
+
+    private static final String INSERT_RECEIPT_SQL = "INSERT IGNORE INTO blockchain_transaction_receipt "
+            + "(id, transaction_hash, block_number, gas_used, contract_address, status, revert_reason, "
+            + "receipt_obtained_at) VALUES (?, ?, ?, ?, ?, ?, ?, NOW())";
+
+    private static final String UPDATE_TRANSACTION_SQL = "UPDATE blockchain_transaction "
+            + "SET status = ?, block_number = ?, gas_used = ?, error_message = ?, updated_at = NOW() "
+            + "WHERE transaction_hash = ?";
+
+    private static final String MARK_RETRY_SQL = "UPDATE blockchain_transaction_pool "
+            + "SET status = IF(retry_count + 1 >= ?, 'EXPIRED', status), retry_count = retry_count + 1, "
+            + "last_retry_at = NOW() WHERE transaction_hash = ? AND status = 'PENDING'";
+
+    private final Client client;
+    private final CryptoKeyPair cryptoKeyPair;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionPoolRepository poolRepository;
+
+    @Value("${app.tx-tracker.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.tx-tracker.receipt-timeout-ms:3000}")
+    private long receiptTimeoutMs;
+
+    @Value("${app.tx-tracker.max-attempts:60}")
+    private int maxAttempts;
+
+    /**
+     * 尚未写入交易池的登记，按交易哈希去重；写库成功后才移出，写库失败时留待下一轮重试
+     */
+    private final Map<String, TrackedTransaction> queued = new ConcurrentHashMap<>();
+
+    /**
+     * 登记已提交、尚无回执的交易
+     */
+    public void track(String transactionHash, String fromAddress, String toAddress) {
+        if (transactionHash == null || transactionHash.isEmpty()) {
+            return;
+        }
+        queued.putIfAbsent(transactionHash, new TrackedTransaction(fromAddress, toAddress, null));
+    }
+
+    /**
+     * 登记已取得回执的交易（同步合约调用返回的回执），下一轮直接结算，无需再拉取
+     */
+    public void track(TransactionReceipt receipt, String toAddress) {
+        if (receipt == null || receipt.getTransactionHash() == null) {
+            return;
+        }
+        queued.put(receipt.getTransactionHash(),
+                new TrackedTransaction(receipt.getFrom(), toAddress, receipt));
+    }
+
+    /**
+     * 查询尚未写库的已知回执
+     */
+    public Optional<TransactionReceipt> findQueuedReceipt(String transactionHash) {
+        TrackedTransaction tracked = queued.get(transactionHash);
+        return tracked != null ? Optional.ofNullable(tracked.receipt) : Optional.empty();
+    }
+
+    /**
+     * 交易是否已登记但尚未结算
+     */
+    public boolean isPending(String transactionHash) {
+        TrackedTransaction tracked = queued.get(transactionHash);
+        if (tracked != null) {
+            return tracked.receipt == null;
+        }
+        return poolRepository.existsByTransactionHashAndStatus(transactionHash, TransactionPool.PoolStatus.PENDING);
+    }
+
+    /**
+     * 定时结算：写入新登记的交易，批量拉取待处理交易的回执并写回
+     * 由 ChainScanScheduler 每 app.tx-tracker.poll-interval-ms 调用
+     */
+    public synchronized void poll() {
+        Map<String, TrackedTransaction> known = flushQueued();
+        Map<String, TransactionReceipt> settled = receiptsOf(known);
+
+        List<String> pending = new ArrayList<>();
+        for (String hash : poolRepository.findPendingHashes(PageRequest.of(0, batchSize))) {
+            if (!settled.containsKey(hash)) {
+                pending.add(hash);
+            }
+        }
+        Map<String, TransactionReceipt> fetched = fetchReceipts(pending);
+        settled.putAll(fetched);
+
+        if (writeSettled(settled.values())) {
+            removeQueued(known);
+        }
+
+        List<Object[]> retries = new ArrayList<>();
+        for (String hash : pending) {
+            if (!fetched.containsKey(hash)) {
+                retries.add(new Object[] {maxAttempts, hash});
+            }
+        }
+        if (!retries.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_RETRY_SQL, retries);
+        }
+        if (!settled.isEmpty() || !pending.isEmpty()) {
+            log.debug("交易回执结算: settled={}, polled={}, unresolved={}",
+                    settled.size(), pending.size(), retries.size());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        Map<String, TrackedTransaction> known = flushQueued();
+        if (writeSettled(receiptsOf(known).values())) {
+            removeQueued(known);
+        }
+    }
+
+    /**
+     * 把内存中无回执的登记批量写入交易池，写入成功后移出；已带回执的登记原样返回，
+     * 由调用方在回执写库成功后移出
+     */
+    private Map<String, TrackedTransaction> flushQueued() {
+        Map<String, TrackedTransaction> withReceipt = new HashMap<>();
+        if (queued.isEmpty()) {
+            return withReceipt;
+        }
+        Map<String, TrackedTransaction> pending = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, TrackedTransaction> entry : queued.entrySet()) {
+            TrackedTransaction tracked = entry.getValue();
+            if (tracked.receipt != null) {
+                // 交易池记录随结算一起写入
+                withReceipt.put(entry.getKey(), tracked);
+                continue;
+            }
+            pending.put(entry.getKey(), tracked);
+            rows.add(new Object[] {UUID.randomUUID().toString(), entry.getKey(),
+                    tracked.fromAddress != null ? tracked.fromAddress : cryptoKeyPair.getAddress(),
+                    tracked.toAddress, TransactionPool.PoolStatus.PENDING.name()});
+        }
+        // 写入失败时异常抛出，登记仍在内存中，下一轮重写（UPSERT 幂等）
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(UPSERT_POOL_SQL, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+        removeQueued(pending);
+        return withReceipt;
+    }
+
+    /**
+     * 移出已写库的登记；写库期间被新登记（例如补上回执）替换的保留
+     */
+    private void removeQueued(Map<String, TrackedTransaction> written) {
+        written.forEach(queued::remove);
+    }
+
+    private static Map<String, TransactionReceipt> receiptsOf(Map<String, TrackedTransaction> tracked) {
+        Map<String, TransactionReceipt> receipts = new HashMap<>();
+        tracked.forEach((hash, transaction) -> receipts.put(hash, transaction.receipt));
+        return receipts;
+    }
+
+    /**
+     * 一轮内并发发出全部回执查询，只在本轮末尾等待一次
+     */
+    private Map<String, TransactionReceipt> fetchReceipts(List<String> hashes) {
+        Map<String, TransactionReceipt> found = new ConcurrentHashMap<>();
+        if (hashes.isEmpty()) {
+            return found;
+        }
+        CountDownLatch latch = new CountDownLatch(hashes.size());
+        for (String hash : hashes) {
+            client.getTransactionReceiptAsync(hash, false, new RespCallback<BcosTransactionReceipt>() {
+                @Override
+                public void onResponse(BcosTransactionReceipt response) {
+                    if (response != null && response.getTransactionReceipt() != null) {
+                        found.put(hash, response.getTransactionReceipt());
+                    }
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Response errorResponse) {
+                    latch.countDown();
+                }
+            });
+        }
+        try {
+            if (!latch.await(receiptTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("本轮回执查询超时，未返回的交易下一轮重试: requested={}, received={}",
+                        hashes.size(), found.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new HashMap<>(found);
+    }
+
+    /**
+     * 批量写入回执，并把交易池、交易表标记为已结算
+     *
+     * @return 是否写入成功；失败时内存中的回执登记保留，从节点拉取的回执对应交易仍为 PENDING，下一轮重新结算
+     */
+    private boolean writeSettled(Collection<TransactionReceipt> receipts) {
+        if (receipts.isEmpty()) {
+            return true;
+        }
+        List<Object[]> receiptRows = new ArrayList<>(receipts.size());
+        List<Object[]> poolRows = new ArrayList<>(receipts.size());
+        List<Object[]> transactionRows = new ArrayList<>(receipts.size());
+        for (TransactionReceipt receipt : receipts) {
+            Long blockNumber = toLong(receipt.getBlockNumber());
+            Long gasUsed = parseLong(receipt.getGasUsed());
+            boolean success = receipt.getStatus() == 0;
+            String revertReason = success ? null : truncate(receipt.getMessage(), 255);
+
+            receiptRows.add(new Object[] {UUID.randomUUID().toString(), receipt.getTransactionHash(), blockNumber,
+                    gasUsed, receipt.getContractAddress(), receipt.getStatus(), revertReason});
+            poolRows.add(new Object[] {UUID.randomUUID().toString(), receipt.getTransactionHash(),
+                    receipt.getFrom() != null ? receipt.getFrom() : cryptoKeyPair.getAddress(), receipt.getTo(),
+                    TransactionPool.PoolStatus.CONFIRMED.name()});
+            transactionRows.add(new Object[] {
+                    (success ? Transaction.TransactionStatus.SUCCESS : Transaction.TransactionStatus.FAILED).getCode(),
+                    blockNumber, gasUsed,
+                    success ? null : "Transaction failed with status: " + receipt.getStatus(),
+                    receipt.getTransactionHash()});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_RECEIPT_SQL, receiptRows);
+            jdbcTemplate.batchUpdate(UPSERT_POOL_SQL, poolRows);
+            jdbcTemplate.batchUpdate(UPDATE_TRANSACTION_SQL, transactionRows);
+            return true;
+        } catch (Exception e) {
+            log.error("交易回执批量写入失败，下一轮重试: count={}, error={}", receipts.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static Long toLong(BigInteger value) {
+        return value != null ? value.longValue() : null;
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return value.startsWith("0x") ? Long.parseLong(value.substring(2), 16) : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * 内存中的交易登记
+     */
+    private static final class TrackedTransaction {
+        private final String fromAddress;
+        private final String toAddress;
+        private final TransactionReceipt receipt;
+
+        TrackedTransaction(String fromAddress, String toAddress, TransactionReceipt receipt) {
+            this.fromAddress = fromAddress;
+            this.toAddress = toAddress;
+            this.receipt = receipt;
+        }
+    }
+}
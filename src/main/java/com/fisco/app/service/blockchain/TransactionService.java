@@ -4,7 +4,6 @@ import java.math.BigInteger;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosTransaction;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosTransactionReceipt;
@@ -44,15 +43,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class TransactionService {
 
-    private final Client client;
+    private final ChainClientPool chainClientPool;
     private final CryptoKeyPair cryptoKeyPair;
     private final TransactionRepository transactionRepository;
     private final TransactionReceiptRepository receiptRepository;
     private final TransactionPoolRepository poolRepository;
+    private final PendingTransactionTracker transactionTracker;
 
     // ========== 常量定义 ==========
 
     private static final String ERROR_TX_NOT_FOUND = "交易不存在";
+    private static final String ERROR_RECEIPT_PENDING = "交易回执尚未生成，请稍后查询";
     private static final String ERROR_TX_ALREADY_CONFIRMED = "交易已确认，无法取消";
     private static final String ERROR_GAS_LIMIT_EXCEEDED = "Gas限制超过最大值";
     private static final Long MAX_GAS_LIMIT = 30000000L;
@@ -84,6 +85,7 @@ public class TransactionService {
         tx.setStatus(Transaction.TransactionStatus.PENDING.getCode());
 
         transactionRepository.save(tx);
+        transactionTracker.track(transactionHash, tx.getFromAddress(), toAddress);
         log.info("Transaction recorded: hash={}", transactionHash);
     }
 
@@ -99,7 +101,7 @@ public class TransactionService {
                 .orElse(null);
 
             // 2. 从区块链查询最新状态
-            BcosTransaction bcosTx = client.getTransaction(transactionHash, false);
+            BcosTransaction bcosTx = chainClientPool.read(c -> c.getTransaction(transactionHash, false));
             JsonTransactionResponse tx = null;
             if (bcosTx != null && bcosTx.getTransaction().isPresent()) {
                 tx = bcosTx.getTransaction().get();
@@ -114,7 +116,7 @@ public class TransactionService {
             }
 
             // 3. 获取交易回执
-            BcosTransactionReceipt bcosReceipt = client.getTransactionReceipt(transactionHash, false);
+            BcosTransactionReceipt bcosReceipt = chainClientPool.read(c -> c.getTransactionReceipt(transactionHash, false));
             TransactionReceipt receipt = null;
             if (bcosReceipt != null && bcosReceipt.getTransactionReceipt() != null) {
                 receipt = bcosReceipt.getTransactionReceipt();
@@ -225,17 +227,33 @@ public class TransactionService {
 
     /**
      * 查询交易回执
+     * 回执由 PendingTransactionTracker 批量结算写库，已结算或已跟踪的交易不再逐笔查询链上回执；
+     * 只有未经本应用提交的交易才回退到一次 RPC 查询
      */
     public TransactionReceiptDTO getTransactionReceipt(String transactionHash) {
         log.debug("Getting transaction receipt: hash={}", transactionHash);
 
         try {
-            // 1. 从数据库查询
+            // 1. 从数据库查询（回执一经生成不再变化）
             TransactionReceiptEntity dbReceipt = receiptRepository.findByTransactionHash(transactionHash)
                 .orElse(null);
+            if (dbReceipt != null) {
+                return convertToReceiptDTO(dbReceipt);
+            }
+
+            // 2. 已取得回执但尚未结算写库
+            TransactionReceipt queuedReceipt = transactionTracker.findQueuedReceipt(transactionHash).orElse(null);
+            if (queuedReceipt != null) {
+                return convertToReceiptDTO(queuedReceipt);
+            }
 
-            // 2. 从区块链查询
-            BcosTransactionReceipt bcosReceipt = client.getTransactionReceipt(transactionHash, false);
+            // 3. 已跟踪的待处理交易，等待批量轮询结算
+            if (transactionTracker.isPending(transactionHash)) {
+                throw new BlockchainIntegrationException(ERROR_RECEIPT_PENDING);
+            }
+
+            // 4. 从区块链查询
+            BcosTransactionReceipt bcosReceipt = chainClientPool.read(c -> c.getTransactionReceipt(transactionHash, false));
 
             TransactionReceipt receipt = null;
             if (bcosReceipt != null && bcosReceipt.getTransactionReceipt() != null) {
@@ -243,20 +261,11 @@ public class TransactionService {
             }
 
             if (receipt == null) {
-                if (dbReceipt != null) {
-                    return convertToReceiptDTO(dbReceipt);
-                }
                 throw new BlockchainIntegrationException(ERROR_TX_NOT_FOUND);
             }
 
-            // 3. 保存到数据库
-            if (dbReceipt == null) {
-                dbReceipt = saveReceiptRecord(receipt);
-            } else {
-                updateReceiptRecord(dbReceipt, receipt);
-            }
-
-            return convertToReceiptDTO(dbReceipt);
+            // 5. 保存到数据库
+            return convertToReceiptDTO(saveReceiptRecord(receipt));
 
         } catch (BlockchainIntegrationException e) {
             throw e;
@@ -378,30 +387,6 @@ public class TransactionService {
         return receiptRepository.save(entity);
     }
 
-    private void updateReceiptRecord(TransactionReceiptEntity dbReceipt, TransactionReceipt receipt) {
-        try {
-            BigInteger blockNumber = receipt.getBlockNumber();
-            if (blockNumber != null) {
-                dbReceipt.setBlockNumber(blockNumber.longValue());
-            }
-        } catch (Exception e) {
-            log.warn("Failed to parse blockNumber");
-        }
-
-        try {
-            String gasUsed = receipt.getGasUsed();
-            if (gasUsed != null && !gasUsed.isEmpty()) {
-                dbReceipt.setGasUsed(Long.parseLong(gasUsed));
-            }
-        } catch (Exception e) {
-            log.warn("Failed to parse gasUsed");
-        }
-
-        dbReceipt.setStatus(receipt.getStatus());
-
-        receiptRepository.save(dbReceipt);
-    }
-
     private TransactionDetailDTO convertToDetailDTO(Transaction dbTransaction,
                                                    JsonTransactionResponse tx,
                                                    TransactionReceipt receipt) {
@@ -437,35 +422,39 @@ public class TransactionService {
         }
 
         if (receipt != null) {
-            TransactionReceiptDTO receiptDTO = new TransactionReceiptDTO();
-            receiptDTO.setTransactionHash(receipt.getTransactionHash());
+            dto.setReceipt(convertToReceiptDTO(receipt));
+        }
 
-            try {
-                BigInteger blockNumber = receipt.getBlockNumber();
-                if (blockNumber != null) {
-                    receiptDTO.setBlockNumber(blockNumber.longValue());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to parse blockNumber");
-            }
+        return dto;
+    }
 
-            try {
-                String gasUsed = receipt.getGasUsed();
-                if (gasUsed != null && !gasUsed.isEmpty()) {
-                    receiptDTO.setGasUsed(Long.parseLong(gasUsed));
-                }
-            } catch (Exception e) {
-                log.warn("Failed to parse gasUsed");
-            }
+    private TransactionReceiptDTO convertToReceiptDTO(TransactionReceipt receipt) {
+        TransactionReceiptDTO receiptDTO = new TransactionReceiptDTO();
+        receiptDTO.setTransactionHash(receipt.getTransactionHash());
 
-            // cumulativeGasUsed may not be available in FISCO BCOS SDK v3
-            // receiptDTO.setCumulativeGasUsed(...);
+        try {
+            BigInteger blockNumber = receipt.getBlockNumber();
+            if (blockNumber != null) {
+                receiptDTO.setBlockNumber(blockNumber.longValue());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to parse blockNumber");
+        }
 
-            receiptDTO.setStatus(receipt.getStatus());
-            dto.setReceipt(receiptDTO);
+        try {
+            String gasUsed = receipt.getGasUsed();
+            if (gasUsed != null && !gasUsed.isEmpty()) {
+                receiptDTO.setGasUsed(Long.parseLong(gasUsed));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to parse gasUsed");
         }
 
-        return dto;
+        // cumulativeGasUsed may not be available in FISCO BCOS SDK v3
+        // receiptDTO.setCumulativeGasUsed(...);
+
+        receiptDTO.setStatus(receipt.getStatus());
+        return receiptDTO;
     }
 
     private TransactionReceiptDTO convertToReceiptDTO(TransactionReceiptEntity entity) {
@@ -21,6 +21,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
 import com.fisco.app.dto.credit.CreditLimitAdjustRequestDTO;
 import com.fisco.app.dto.credit.CreditLimitAdjustResponse;
 import com.fisco.app.dto.credit.CreditLimitAvailableResponse;
@@ -40,6 +41,7 @@ import com.fisco.app.entity.credit.CreditLimitAdjustRequest;
 import com.fisco.app.entity.credit.CreditLimitUsage;
 import com.fisco.app.entity.credit.CreditLimitWarning;
 import com.fisco.app.entity.enterprise.Enterprise;
+import com.fisco.app.entity.system.DueEvent;
 import com.fisco.app.enums.CreditAdjustRequestStatus;
 import com.fisco.app.enums.CreditLimitStatus;
 import com.fisco.app.enums.CreditLimitType;
@@ -51,7 +53,9 @@ import com.fisco.app.repository.credit.CreditLimitRepository;
 import com.fisco.app.repository.credit.CreditLimitUsageRepository;
 import com.fisco.app.repository.credit.CreditLimitWarningRepository;
 import com.fisco.app.repository.enterprise.EnterpriseRepository;
+import com.fisco.app.service.blockchain.ChainTxResult;
 import com.fisco.app.service.blockchain.ContractService;
+import com.fisco.app.service.system.DueEventScheduler;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -73,6 +77,7 @@ public class CreditLimitService {
     private final CreditLimitWarningRepository warningRepository;
     private final EnterpriseRepository enterpriseRepository;
     private final ContractService contractService;
+    private final DueEventScheduler dueEventScheduler;
 
     // ==================== 额度管理 ====================
 
@@ -80,6 +85,7 @@ public class CreditLimitService {
      * 创建信用额度
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public CreditLimitDTO createCreditLimit(CreditLimitCreateRequest request, String operatorAddress) {
         log.info("==================== 创建信用额度开始 ====================");
         log.info("创建信息: enterpriseAddress={}, limitType={}, totalLimit={}元",
@@ -141,12 +147,13 @@ public class CreditLimitService {
             log.debug("保存额度到数据库");
             CreditLimit saved = creditLimitRepository.save(creditLimit);
             log.info("✓ 数据库保存成功: limitId={}", saved.getId());
+            dueEventScheduler.schedule(DueEvent.EventType.CREDIT_LIMIT_EXPIRY, saved.getId(), saved.getExpiryDate());
 
             // 6. 上链记录（可选）
             String txHash = null;
             try {
                 if (contractService != null) {
-                    txHash = contractService.recordCreditLimitOnChain(saved);
+                    txHash = ChainTxResult.txHashOf(contractService.recordCreditLimitOnChain(saved));
                     log.info("✓ 额度已上链: txHash={}", txHash);
                     saved.setTxHash(txHash);
                     saved = creditLimitRepository.save(saved);
@@ -295,6 +302,29 @@ public class CreditLimitService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 额度到期事件处理
+     * 由到期事件调度器在失效日期触发，生效中的额度标记为已失效；冻结中的额度在解冻时按失效日期处理
+     *
+     * @param creditLimitId 额度ID
+     * @return 失效日期被推迟、尚未到期时返回新的失效日期，否则返回 null
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public LocalDateTime onCreditLimitExpiryDue(@NonNull String creditLimitId) {
+        CreditLimit creditLimit = creditLimitRepository.findById(creditLimitId).orElse(null);
+        if (creditLimit == null || creditLimit.getExpiryDate() == null
+                || creditLimit.getStatus() != CreditLimitStatus.ACTIVE) {
+            return null;
+        }
+        if (creditLimit.getExpiryDate().isAfter(LocalDateTime.now())) {
+            return creditLimit.getExpiryDate();
+        }
+        creditLimit.setStatus(CreditLimitStatus.EXPIRED);
+        creditLimitRepository.save(creditLimit);
+        log.info("额度已到期失效: limitId={}, expiryDate={}", creditLimitId, creditLimit.getExpiryDate());
+        return null;
+    }
+
     /**
      * 检查额度是否充足
      */
@@ -460,6 +490,7 @@ public class CreditLimitService {
      * 冻结额度
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public CreditLimitFreezeResponse freezeCreditLimit(@NonNull String creditLimitId, @NonNull String reason, @NonNull String operatorAddress) {
         log.info("==================== 冻结额度开始 ====================");
         log.info("冻结信息: creditLimitId={}, reason={}", creditLimitId, reason);
@@ -484,7 +515,7 @@ public class CreditLimitService {
             String txHash = null;
             try {
                 if (contractService != null) {
-                    txHash = contractService.freezeCreditLimitOnChain(creditLimitId, reason);
+                    txHash = ChainTxResult.txHashOf(contractService.freezeCreditLimitOnChain(creditLimitId, reason));
                     if (txHash != null) {
                         saved.setTxHash(txHash);
                         creditLimitRepository.save(saved);
@@ -528,6 +559,7 @@ public class CreditLimitService {
      * 解冻额度
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public CreditLimitFreezeResponse unfreezeCreditLimit(@NonNull String creditLimitId, @NonNull String reason, @NonNull String operatorAddress) {
         log.info("==================== 解冻额度开始 ====================");
         log.info("解冻信息: creditLimitId={}, reason={}", creditLimitId, reason);
@@ -557,7 +589,7 @@ public class CreditLimitService {
             String txHash = null;
             try {
                 if (contractService != null) {
-                    txHash = contractService.unfreezeCreditLimitOnChain(creditLimitId, reason);
+                    txHash = ChainTxResult.txHashOf(contractService.unfreezeCreditLimitOnChain(creditLimitId, reason));
                     if (txHash != null) {
                         saved.setTxHash(txHash);
                         creditLimitRepository.save(saved);
@@ -667,6 +699,7 @@ public class CreditLimitService {
      * 审批额度调整申请
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public CreditLimitAdjustResponse approveAdjust(@NonNull String requestId,
                                                     @NonNull CreditAdjustRequestStatus approvalResult,
                                                     String approveReason, String rejectReason,
@@ -710,7 +743,7 @@ public class CreditLimitService {
                 // 上链记录额度调整
                 try {
                     if (contractService != null) {
-                        String txHash = contractService.recordCreditAdjustOnChain(updatedRequest);
+                        String txHash = ChainTxResult.txHashOf(contractService.recordCreditAdjustOnChain(updatedRequest));
                         if (txHash != null) {
                             savedCreditLimit.setTxHash(txHash);
                             creditLimitRepository.save(savedCreditLimit);
@@ -0,0 +1,210 @@
+package com.fisco.app.service.enterprise;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
+import com.fisco.app.entity.enterprise.Enterprise;
+import com.fisco.app.event.EnterpriseUpdatedEvent;
+import com.fisco.app.entity.system.CacheInvalidationLog;
+import com.fisco.app.repository.enterprise.EnterpriseRepository;
+import com.fisco.app.service.system.CacheInvalidationBus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 企业目录近端缓存
+ * 按企业ID、区块链地址、用户名三个维度索引企业快照，供企业有效性校验、
+ * 企业拦截器等热点路径使用，命中时不访问数据库
+ *
+ * 缓存策略：
+ * - 应用启动完成后全量预加载
+ * - 未命中时回源数据库并写入缓存（read-through）
+ * - 由 EnterpriseUpdatedEvent 在事务提交后按企业ID精确刷新，并经 CacheInvalidationBus 通知其他节点
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnterpriseDirectoryCache {
+
+    public static final String CACHE_NAME = "enterpriseDirectory";
+
+    private final EnterpriseRepository enterpriseRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<String, EnterpriseSnapshot> byId = new ConcurrentHashMap<>();
+    private final Map<String, String> idByAddress = new ConcurrentHashMap<>();
+    private final Map<String, String> idByUsername = new ConcurrentHashMap<>();
+
+    /**
+     * 失效代数，每次失效递增；回源加载期间若发生失效则丢弃加载结果，避免旧数据回填
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 注册跨节点失效处理：按企业ID失效，未指定ID时整体清空
+     */
+    @PostConstruct
+    public void registerInvalidationHandler() {
+        cacheInvalidationBus.registerHandler(CACHE_NAME, enterpriseId -> {
+            if (enterpriseId == null) {
+                evictAll();
+            } else {
+                evict(enterpriseId);
+            }
+        });
+    }
+
+    /**
+     * 应用启动完成后预加载全部企业
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        long startTime = System.currentTimeMillis();
+        evictAll();
+        long gen = generation.get();
+        List<Enterprise> enterprises = enterpriseRepository.findAll();
+        for (Enterprise enterprise : enterprises) {
+            putIfCurrent(EnterpriseSnapshot.fromEntity(enterprise), gen);
+        }
+        log.info("企业目录缓存预加载完成: count={}, 耗时={}ms",
+                byId.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 企业信息变更后（事务提交后）刷新对应快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnterpriseUpdated(EnterpriseUpdatedEvent event) {
+        String enterpriseId = event.getEnterpriseId();
+        if (enterpriseId == null) {
+            return;
+        }
+        evict(enterpriseId);
+        long gen = generation.get();
+        enterpriseRepository.findById(enterpriseId)
+                .ifPresent(enterprise -> putIfCurrent(EnterpriseSnapshot.fromEntity(enterprise), gen));
+        cacheInvalidationBus.broadcast(CACHE_NAME, CacheInvalidationLog.Scope.KEY, enterpriseId);
+        log.debug("企业目录缓存已刷新: enterpriseId={}", enterpriseId);
+    }
+
+    /**
+     * 根据企业ID获取快照
+     */
+    public Optional<EnterpriseSnapshot> getById(String enterpriseId) {
+        if (enterpriseId == null) {
+            return Optional.empty();
+        }
+        EnterpriseSnapshot snapshot = byId.get(enterpriseId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        return load(() -> enterpriseRepository.findById(enterpriseId));
+    }
+
+    /**
+     * 根据区块链地址获取快照
+     */
+    public Optional<EnterpriseSnapshot> getByAddress(String address) {
+        if (address == null) {
+            return Optional.empty();
+        }
+        EnterpriseSnapshot snapshot = lookup(idByAddress, address);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        return load(() -> enterpriseRepository.findByAddress(address));
+    }
+
+    /**
+     * 根据登录用户名获取快照
+     */
+    public Optional<EnterpriseSnapshot> getByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        EnterpriseSnapshot snapshot = lookup(idByUsername, username);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        return load(() -> enterpriseRepository.findByUsername(username));
+    }
+
+    /**
+     * 移除指定企业的快照及其全部索引
+     */
+    public synchronized void evict(String enterpriseId) {
+        generation.incrementAndGet();
+        EnterpriseSnapshot removed = byId.remove(enterpriseId);
+        if (removed != null) {
+            removeIndex(idByAddress, removed.getAddress(), enterpriseId);
+            removeIndex(idByUsername, removed.getUsername(), enterpriseId);
+        }
+    }
+
+    /**
+     * 清空缓存，下次访问时回源
+     */
+    public synchronized void evictAll() {
+        generation.incrementAndGet();
+        byId.clear();
+        idByAddress.clear();
+        idByUsername.clear();
+        log.debug("企业目录缓存已清空");
+    }
+
+    private EnterpriseSnapshot lookup(Map<String, String> index, String key) {
+        String id = index.get(normalize(key));
+        return id != null ? byId.get(id) : null;
+    }
+
+    private Optional<EnterpriseSnapshot> load(Supplier<Optional<Enterprise>> loader) {
+        long gen = generation.get();
+        Optional<EnterpriseSnapshot> loaded = loader.get().map(EnterpriseSnapshot::fromEntity);
+        loaded.ifPresent(snapshot -> putIfCurrent(snapshot, gen));
+        return loaded;
+    }
+
+    private synchronized void putIfCurrent(EnterpriseSnapshot snapshot, long gen) {
+        if (snapshot.getId() == null || generation.get() != gen) {
+            return;
+        }
+        EnterpriseSnapshot previous = byId.put(snapshot.getId(), snapshot);
+        if (previous != null) {
+            removeIndex(idByAddress, previous.getAddress(), previous.getId());
+            removeIndex(idByUsername, previous.getUsername(), previous.getId());
+        }
+        if (snapshot.getAddress() != null) {
+            idByAddress.put(normalize(snapshot.getAddress()), snapshot.getId());
+        }
+        if (snapshot.getUsername() != null) {
+            idByUsername.put(normalize(snapshot.getUsername()), snapshot.getId());
+        }
+    }
+
+    private void removeIndex(Map<String, String> index, String key, String enterpriseId) {
+        if (key != null) {
+            index.remove(normalize(key), enterpriseId);
+        }
+    }
+
+    /**
+     * 与 MySQL 默认排序规则保持一致，地址和用户名按大小写不敏感匹配
+     */
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
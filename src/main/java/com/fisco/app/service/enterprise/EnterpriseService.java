@@ -7,6 +7,8 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
 import com.fisco.app.entity.enterprise.Enterprise;
 import com.fisco.app.entity.enterprise.EnterpriseAuditLog;
 import com.fisco.app.entity.user.User;
@@ -37,6 +39,9 @@ public class EnterpriseService {
     private final com.fisco.app.repository.bill.BillRepository billRepository;
     private final com.fisco.app.repository.receivable.ReceivableRepository receivableRepository;
     private final com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository warehouseReceiptRepository;
+    private final EnterpriseDirectoryCache enterpriseDirectoryCache;
+    private final com.fisco.app.security.PasswordVerificationService passwordVerificationService;
+    private final com.fisco.app.event.EventPublisher eventPublisher;
 
     /**
      * 注册企业（完整版本，包含IP地址）
@@ -134,6 +139,7 @@ public class EnterpriseService {
             log.debug("保存企业信息到数据库");
             Enterprise saved = enterpriseRepository.save(enterprise);
             log.info("✓ 企业信息已保存到数据库: id={}, address={}", saved.getId(), saved.getAddress());
+            eventPublisher.publishEnterpriseUpdatedEvent(saved.getId(), saved.getName());
 
             long duration = System.currentTimeMillis() - startTime;
             log.info("✓✓✓ 企业注册成功: name={}, address={}, 耗时={}ms", saved.getName(), saved.getAddress(), duration);
@@ -234,6 +240,7 @@ public class EnterpriseService {
      * 更新企业状态
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void updateEnterpriseStatus(String address, Enterprise.EnterpriseStatus status, String updatedBy) {
         log.info("更新企业状态: address={}, status={}, updatedBy={}", address, status, updatedBy);
 
@@ -243,10 +250,11 @@ public class EnterpriseService {
         enterprise.setStatus(status);
         enterprise.setUpdatedBy(updatedBy);
         enterpriseRepository.save(enterprise);
+        eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
         // 调用区块链合约更新状态
         try {
-            String txHash = contractService.updateEnterpriseStatusOnChain(address, status);
+            String txHash = contractService.updateEnterpriseStatusOnChain(address, status).getTxHash();
             log.info("企业状态已上链更新: address={}, status={}, txHash={}", address, status, txHash);
         } catch (Exception e) {
             log.warn("企业状态上链更新失败，但数据库更新成功: address={}, status={}, error={}",
@@ -260,6 +268,7 @@ public class EnterpriseService {
      * @deprecated 使用 {@link #updateEnterpriseStatus(String, Enterprise.EnterpriseStatus, String)} 代替
      */
     @Deprecated
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void updateEnterpriseStatus(String address, Enterprise.EnterpriseStatus status) {
         updateEnterpriseStatus(address, status, "SYSTEM");
     }
@@ -268,6 +277,7 @@ public class EnterpriseService {
      * 更新信用评级（增强版，包含原因和历史记录）
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void updateCreditRating(String address, Integer creditRating, String reason, String updatedBy) {
         log.info("更新信用评级: address={}, rating={}, reason={}, updatedBy={}", address, creditRating, reason, updatedBy);
 
@@ -282,6 +292,7 @@ public class EnterpriseService {
         enterprise.setCreditRating(creditRating);
         enterprise.setUpdatedBy(updatedBy);
         enterpriseRepository.save(enterprise);
+        eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
         // 记录评级变更历史
         com.fisco.app.entity.enterprise.CreditRatingHistory history = new com.fisco.app.entity.enterprise.CreditRatingHistory();
@@ -297,7 +308,7 @@ public class EnterpriseService {
         // 调用区块链合约更新信用评级
         try {
             String txHash = contractService.updateCreditRatingOnChain(
-                address, creditRating, reason != null && !reason.isEmpty() ? reason : "管理员更新评级");
+                address, creditRating, reason != null && !reason.isEmpty() ? reason : "管理员更新评级").getTxHash();
             log.info("企业信用评级已上链更新: address={}, oldRating={}, newRating={}, txHash={}",
                 address, oldRating, creditRating, txHash);
 
@@ -318,6 +329,7 @@ public class EnterpriseService {
      * @deprecated 使用 {@link #updateCreditRating(String, Integer, String, String)} 代替
      */
     @Deprecated
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void updateCreditRating(String address, Integer creditRating, String updatedBy) {
         updateCreditRating(address, creditRating, null, updatedBy);
     }
@@ -326,6 +338,7 @@ public class EnterpriseService {
      * @deprecated 使用 {@link #updateCreditRating(String, Integer, String, String)} 代替
      */
     @Deprecated
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void updateCreditRating(String address, Integer creditRating) {
         updateCreditRating(address, creditRating, null, "SYSTEM");
     }
@@ -334,6 +347,7 @@ public class EnterpriseService {
      * 设置授信额度
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void setCreditLimit(String address, java.math.BigDecimal creditLimit, String updatedBy) {
         log.info("设置授信额度: address={}, limit={}, updatedBy={}", address, creditLimit, updatedBy);
 
@@ -343,10 +357,11 @@ public class EnterpriseService {
         enterprise.setCreditLimit(creditLimit);
         enterprise.setUpdatedBy(updatedBy);
         enterpriseRepository.save(enterprise);
+        eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
         // 调用区块链合约设置授信额度
         try {
-            String txHash = contractService.setCreditLimitOnChain(address, creditLimit);
+            String txHash = contractService.setCreditLimitOnChain(address, creditLimit).getTxHash();
             log.info("企业授信额度已上链设置: address={}, limit={}, txHash={}",
                 address, creditLimit, txHash);
         } catch (Exception e) {
@@ -362,6 +377,7 @@ public class EnterpriseService {
      * @deprecated 使用 {@link #setCreditLimit(String, java.math.BigDecimal, String)} 代替
      */
     @Deprecated
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void setCreditLimit(String address, java.math.BigDecimal creditLimit) {
         setCreditLimit(address, creditLimit, "SYSTEM");
     }
@@ -530,6 +546,7 @@ public class EnterpriseService {
      * @param address 企业地址（区块链地址，0x开头）
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void approveEnterprise(String address, String auditor) {
         log.info("审核企业通过: address={}, auditor={}", address, auditor);
         approveEnterprise(address, auditor, null, null);
@@ -539,6 +556,7 @@ public class EnterpriseService {
      * 审核企业（完整版，带审核理由和IP）
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void approveEnterprise(String address, String auditor, String reason, String ipAddress) {
         log.info("==================== 企业审核开始 ====================");
         log.info("审核信息: address={}, auditor={}, reason={}, ip={}",
@@ -556,7 +574,7 @@ public class EnterpriseService {
             log.debug("准备上链注册企业");
             String txHash = null;
             try {
-                txHash = contractService.registerEnterpriseOnChain(enterprise);
+                txHash = contractService.registerEnterpriseOnChain(enterprise).getTxHash();
                 log.info("✓ 企业已上链注册: address={}, txHash={}", address, txHash);
             } catch (Exception e) {
                 log.error("✗ 企业上链注册失败: address={}, error={}", address, e.getMessage(), e);
@@ -572,6 +590,7 @@ public class EnterpriseService {
 
             Enterprise saved = enterpriseRepository.save(enterprise);
             log.info("✓ 数据库更新成功: status={} -> ACTIVE", oldStatus);
+            eventPublisher.publishEnterpriseUpdatedEvent(saved.getId(), saved.getName());
 
             // 记录审核日志
             log.debug("记录审核日志到数据库");
@@ -636,6 +655,7 @@ public class EnterpriseService {
         // 删除企业记录
         enterpriseRepository.deleteById(enterpriseId);
         log.info("✓ 企业已删除: id={}, name={}, address={}", enterpriseId, enterpriseName, enterpriseAddress);
+        eventPublisher.publishEnterpriseUpdatedEvent(enterpriseId, enterpriseName);
 
         log.info("✓✓✓ 企业拒绝完成: address={}, auditor={}, reason={}, deletedUsers={}",
                  address, auditor, reason, users.size());
@@ -830,6 +850,7 @@ public class EnterpriseService {
             enterprise.setStatus(Enterprise.EnterpriseStatus.PENDING_DELETION);
             enterprise.setUpdatedBy(requester);
             enterpriseRepository.save(enterprise);
+            eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
             // 记录审核日志
             recordAuditLog(enterprise, requester, EnterpriseAuditLog.AuditAction.REQUEST_DELETE,
@@ -852,6 +873,7 @@ public class EnterpriseService {
      * 删除区块链记录、数据库企业记录和关联的员工记录
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void approveEnterpriseDeletion(String address, String auditor, String reason, String ipAddress) {
         log.info("==================== 企业注销审核通过开始 ====================");
         log.info("审核信息: address={}, auditor={}, reason={}", address, auditor, reason);
@@ -875,7 +897,7 @@ public class EnterpriseService {
             // 步骤1: 如果企业已上链，先从区块链删除
             try {
                 log.debug("准备从区块链删除企业: address={}", address);
-                txHash = contractService.removeEnterpriseFromChain(address);
+                txHash = contractService.removeEnterpriseFromChain(address).getTxHash();
                 log.info("✓ 企业已从区块链删除: address={}, txHash={}", address, txHash);
             } catch (Exception e) {
                 log.error("✗ 从区块链删除企业失败: address={}, error={}", address, e.getMessage(), e);
@@ -903,6 +925,7 @@ public class EnterpriseService {
             log.debug("准备删除企业记录: address={}", address);
             enterpriseRepository.delete(enterprise);
             log.info("✓ 已删除企业记录: address={}", address);
+            eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
             long duration = System.currentTimeMillis() - startTime;
             log.info("✓✓✓ 企业注销审核通过完成: address={}, txHash={}, deletedUsers={}, 耗时={}ms",
@@ -945,6 +968,7 @@ public class EnterpriseService {
             enterprise.setStatus(Enterprise.EnterpriseStatus.ACTIVE);
             enterprise.setUpdatedBy(auditor);
             enterpriseRepository.save(enterprise);
+            eventPublisher.publishEnterpriseUpdatedEvent(enterprise.getId(), enterprise.getName());
 
             // 记录审核日志
             recordAuditLog(enterprise, auditor, EnterpriseAuditLog.AuditAction.REJECT_DELETE,
@@ -1019,10 +1043,26 @@ public class EnterpriseService {
 
     /**
      * 验证企业是否有效（地址存在且状态为ACTIVE）
+     * 走企业目录缓存，命中时不访问数据库
      */
     public boolean isEnterpriseValid(String address) {
-        Optional<Enterprise> enterprise = enterpriseRepository.findByAddress(address);
-        return enterprise.isPresent() && enterprise.get().getStatus() == Enterprise.EnterpriseStatus.ACTIVE;
+        return enterpriseDirectoryCache.getByAddress(address)
+                .map(EnterpriseSnapshot::isActive)
+                .orElse(false);
+    }
+
+    /**
+     * 根据区块链地址获取企业快照（走企业目录缓存）
+     */
+    public Optional<EnterpriseSnapshot> findEnterpriseSnapshot(String address) {
+        return enterpriseDirectoryCache.getByAddress(address);
+    }
+
+    /**
+     * 根据企业ID获取企业快照（走企业目录缓存）
+     */
+    public Optional<EnterpriseSnapshot> findEnterpriseSnapshotById(String enterpriseId) {
+        return enterpriseDirectoryCache.getById(enterpriseId);
     }
 
     /**
@@ -1114,6 +1154,7 @@ public class EnterpriseService {
         if (saved == null) {
             throw new com.fisco.app.exception.BusinessException("保存企业信息失败");
         }
+        eventPublisher.publishEnterpriseUpdatedEvent(saved.getId(), saved.getName());
         log.info("企业信息更新成功: enterpriseId={}, updatedBy={}", saved.getId(), updatedBy);
         return saved;
     }
@@ -1133,18 +1174,31 @@ public class EnterpriseService {
             throw new com.fisco.app.exception.BusinessException("账户未设置密码，请联系管理员初始化");
         }
 
-        if (!com.fisco.app.security.PasswordUtil.matches(oldPassword, enterprise.getPassword())) {
+        if (!passwordVerificationService.verify("enterprise:" + enterprise.getId(), oldPassword,
+                enterprise.getPassword()).isMatched()) {
             throw new com.fisco.app.exception.BusinessException("原密码错误");
         }
 
         // 设置新密码
-        enterprise.setPassword(com.fisco.app.security.PasswordUtil.encode(newPassword));
+        enterprise.setPassword(passwordVerificationService.encode(newPassword));
         enterprise.setUpdatedBy(updatedBy);
         enterpriseRepository.save(enterprise);
 
         log.info("企业密码修改成功: address={}, updatedBy={}", address, updatedBy);
     }
 
+    /**
+     * 登录成功后按当前版本回写密码密文
+     */
+    @Transactional
+    public void upgradePasswordHash(String enterpriseId, String upgradedHash) {
+        enterpriseRepository.findById(enterpriseId).ifPresent(enterprise -> {
+            enterprise.setPassword(upgradedHash);
+            enterpriseRepository.save(enterprise);
+            log.info("企业密码密文已升级: enterpriseId={}", enterpriseId);
+        });
+    }
+
     /**
      * @deprecated 使用 {@link #changeEnterprisePassword(String, String, String, String)} 代替
      */
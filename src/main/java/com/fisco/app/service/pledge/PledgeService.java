@@ -3,7 +3,6 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +16,8 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.annotation.Idempotent;
 import com.fisco.app.dto.pledge.PledgeConfirmRequest;
 import com.fisco.app.dto.pledge.PledgeConfirmResponse;
 import com.fisco.app.dto.pledge.PledgeInitiateRequest;
@@ -33,6 +34,7 @@ import com.fisco.app.repository.pledge.PledgeRecordRepository;
 import com.fisco.app.repository.risk.FinancingRecordRepository;
 import com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository;
 import com.fisco.app.repository.warehouse.EwrEndorsementChainRepository;
+import com.fisco.app.service.blockchain.ChainTxResult;
 import com.fisco.app.service.blockchain.ContractService;
 import com.fisco.app.service.enterprise.EnterpriseService;
 
@@ -65,11 +67,15 @@ public class PledgeService {
     @Autowired
     private EnterpriseService enterpriseService;
 
+    @Autowired
+    private com.fisco.app.service.system.BusinessNumberAllocator numberAllocator;
+
     /**
      * 发起质押（货主）
      * 创建PLEDGE类型背书，仓单状态变为FROZEN
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
     public PledgeInitiateResponse initiatePledge(
             @NonNull PledgeInitiateRequest request,
             String ownerId,
@@ -176,6 +182,8 @@ public class PledgeService {
      * 拒绝：FROZEN → NORMAL
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.PLEDGE)
     public PledgeConfirmResponse confirmPledge(
             @NonNull PledgeConfirmRequest request,
             String confirmerId,
@@ -267,13 +275,13 @@ public class PledgeService {
 
             // 3. 上链质押
             log.info("开始质押上链, 仓单ID: {}", receipt.getId());
-            String txHash = contractService.pledgeReceiptOnChain(
+            ChainTxResult pledgeResult = contractService.pledgeReceiptOnChain(
                     receipt.getId(),
                     endorsement.getEndorseTo(),
                     financingAmount
             );
-
-            Long blockNumber = contractService.getBlockNumber(txHash);
+            String txHash = pledgeResult.getTxHash();
+            Long blockNumber = pledgeResult.getBlockNumber();
 
             log.info("质押上链成功, 仓单ID: {}, txHash: {}, blockNumber: {}",
                     receipt.getId(), txHash, blockNumber);
@@ -421,6 +429,8 @@ public class PledgeService {
      * 创建RELEASE背书，仓单状态恢复为NORMAL
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.PLEDGE)
     public Map<String, Object> releasePledge(
             @NonNull PledgeReleaseRequest request,
             String ownerId) {
@@ -469,9 +479,9 @@ public class PledgeService {
         try {
             // 7. 上链释放
             log.info("开始质押释放上链, 仓单ID: {}", receipt.getId());
-            String releaseTxHash = contractService.releaseReceiptOnChain(receipt.getId());
-
-            Long releaseBlockNumber = contractService.getBlockNumber(releaseTxHash);
+            ChainTxResult releaseResult = contractService.releaseReceiptOnChain(receipt.getId());
+            String releaseTxHash = releaseResult.getTxHash();
+            Long releaseBlockNumber = releaseResult.getBlockNumber();
 
             log.info("质押释放上链成功, 仓单ID: {}, txHash: {}, blockNumber: {}",
                     receipt.getId(), releaseTxHash, releaseBlockNumber);
@@ -614,19 +624,17 @@ public class PledgeService {
 
     /**
      * 生成背书编号
+     * 格式: PLG+yyyyMMdd+6位流水号
      */
     private String generateEndorsementNo() {
-        String dateStr = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequence = String.format("%06d", System.currentTimeMillis() % 1000000);
-        return "PLG" + dateStr + sequence;
+        return numberAllocator.next("PLG");
     }
 
     /**
      * 生成融资编号
+     * 格式: FIN+yyyyMMdd+6位流水号
      */
     private String generateFinancingNo() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "FIN" + timestamp + uuid;
+        return numberAllocator.next("FIN");
     }
 }
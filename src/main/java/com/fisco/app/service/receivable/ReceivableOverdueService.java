@@ -17,6 +17,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
 import com.fisco.app.dto.receivable.BadDebtQueryRequest;
 import com.fisco.app.dto.receivable.BadDebtQueryResponse;
 import com.fisco.app.dto.receivable.OverdueQueryRequest;
@@ -113,6 +114,7 @@ public class ReceivableOverdueService {
      * 创建催收记录
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public RemindResponse createRemindRecord(@org.springframework.lang.NonNull String receivableId, RemindRequest request, @org.springframework.lang.NonNull String operatorAddress) {
         log.info("创建催收记录: receivableId={}, request={}, operator={}", receivableId, request, operatorAddress);
 
@@ -144,7 +146,7 @@ public class ReceivableOverdueService {
                 request.getRemindType().name(),
                 operatorAddress,
                 request.getRemindContent()
-            );
+            ).getTxHash();
             if (txHash != null) {
                 savedRecord.setTxHash(txHash);
                 remindRecordRepository.save(savedRecord);
@@ -180,6 +182,7 @@ public class ReceivableOverdueService {
      * 计算罚息
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public PenaltyCalculateResponse calculatePenalty(@org.springframework.lang.NonNull String receivableId, PenaltyCalculateRequest request) {
         log.info("计算罚息: receivableId={}, request={}", receivableId, request);
 
@@ -241,7 +244,7 @@ public class ReceivableOverdueService {
                 record.getDailyRate(),
                 penaltyAmount,
                 totalPenalty
-            );
+            ).getTxHash();
             if (txHash != null) {
                 log.info("罚息记录已上链: penaltyRecordId={}, txHash={}", savedRecord.getId(), txHash);
             }
@@ -277,6 +280,7 @@ public class ReceivableOverdueService {
      * 认定坏账
      */
     @Transactional
+    @ChainOperation({ChainOperation.OperationClass.OTHER, ChainOperation.OperationClass.OTHER})
     public BadDebtRecord createBadDebt(@org.springframework.lang.NonNull String receivableId,
                                        BadDebtRecord.BadDebtType badDebtType,
                                        String badDebtReason) {
@@ -328,7 +332,7 @@ public class ReceivableOverdueService {
                 record.getTotalPenaltyAmount(),
                 record.getTotalLossAmount(),
                 badDebtReason
-            );
+            ).getTxHash();
             if (txHash != null) {
                 log.info("坏账记录已上链: badDebtRecordId={}, txHash={}", savedRecord.getId(), txHash);
             }
@@ -349,7 +353,7 @@ public class ReceivableOverdueService {
                 receivableId,
                 OVERDUE_LEVEL_BAD_DEBT,
                 receivable.getOverdueDays()
-            );
+            ).getTxHash();
             if (txHash != null) {
                 log.info("逾期状态已更新上链: receivableId={}, txHash={}", receivableId, txHash);
             }
@@ -578,6 +582,39 @@ public class ReceivableOverdueService {
         return overdueReceivables;
     }
 
+    /**
+     * 应收账款逾期事件处理
+     * 由到期事件调度器在到期满一天及每次逾期等级变化（第31、91、180天）时触发，
+     * 未结清的应收账款更新逾期天数和等级；拆分、合并审批中的应收账款次日再检查
+     *
+     * @param receivableId 应收账款ID
+     * @return 下一次检查时间，已结清、已终结或已到最高等级时返回 null
+     */
+    @Transactional
+    public LocalDateTime onReceivableOverdueDue(@org.springframework.lang.NonNull String receivableId) {
+        Receivable receivable = receivableRepository.findById(receivableId).orElse(null);
+        if (receivable == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (receivable.getStatus() == Receivable.ReceivableStatus.SPLITTING
+                || receivable.getStatus() == Receivable.ReceivableStatus.MERGING) {
+            return now.plusDays(1);
+        }
+        if (!isOutstanding(receivable)) {
+            return null;
+        }
+        int overdueDays = calculateOverdueDays(receivable.getDueDate(), now);
+        if (overdueDays > 0) {
+            updateOverdueInfo(receivable);
+            receivableRepository.save(receivable);
+            log.info("应收账款逾期状态更新: id={}, overdueDays={}, level={}",
+                receivableId, overdueDays, receivable.getOverdueLevel());
+        }
+        int nextDays = nextOverdueLevelDays(overdueDays);
+        return nextDays > 0 ? receivable.getDueDate().plusDays(nextDays) : null;
+    }
+
     /**
      * 计算逾期天数
      */
@@ -603,6 +640,29 @@ public class ReceivableOverdueService {
         }
     }
 
+    /**
+     * 下一个逾期等级的起始天数，已是坏账等级时返回 0
+     */
+    private int nextOverdueLevelDays(int overdueDays) {
+        if (overdueDays <= 0) {
+            return 1;
+        } else if (overdueDays <= 30) {
+            return 31;
+        } else if (overdueDays <= 90) {
+            return 91;
+        } else if (overdueDays <= 179) {
+            return 180;
+        }
+        return 0;
+    }
+
+    private boolean isOutstanding(Receivable receivable) {
+        Receivable.ReceivableStatus status = receivable.getStatus();
+        return status == Receivable.ReceivableStatus.CREATED
+            || status == Receivable.ReceivableStatus.CONFIRMED
+            || status == Receivable.ReceivableStatus.FINANCED;
+    }
+
     /**
      * 计算日利率
      */
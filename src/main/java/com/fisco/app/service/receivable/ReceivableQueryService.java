@@ -16,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -47,6 +46,7 @@ public class ReceivableQueryService {
      * @param userAddress 用户地址
      * @return 转让历史列表
      */
+    @Transactional(readOnly = true)
     public List<TransferHistoryResponse> getTransferHistory(
             @NonNull String receivableId,
             @NonNull String userAddress) {
@@ -78,6 +78,7 @@ public class ReceivableQueryService {
      * @param userAddress 用户地址
      * @return 融资记录列表
      */
+    @Transactional(readOnly = true)
     public List<FinanceRecordResponse> getFinanceRecords(
             @NonNull String receivableId,
             @NonNull String userAddress) {
@@ -140,6 +141,7 @@ public class ReceivableQueryService {
      * @param financierAddress 资金方地址（可选）
      * @return 统计数据
      */
+    @Transactional(readOnly = true)
     public ReceivableStatisticsResponse getStatistics(
             String supplierAddress,
             String coreEnterpriseAddress,
@@ -151,21 +153,21 @@ public class ReceivableQueryService {
         ReceivableStatisticsResponse statistics = new ReceivableStatisticsResponse();
         statistics.setGeneratedAt(LocalDateTime.now());
 
-        // 1. 查询符合条件的应收账款
-        List<Receivable> receivables = queryReceivables(
-                supplierAddress, coreEnterpriseAddress, financierAddress);
+        // 1. 按状态和账龄段分组汇总（一次分组查询）
+        ReceivableFilter filter = ReceivableFilter.of(supplierAddress, coreEnterpriseAddress, financierAddress);
+        List<AgingRow> rows = aggregateAging(filter, LocalDateTime.now());
 
         // 2. 基础统计
-        calculateBasicStatistics(statistics, receivables);
+        calculateBasicStatistics(statistics, rows, filter);
 
         // 3. 状态分布统计
-        calculateStatusDistribution(statistics, receivables);
+        calculateStatusDistribution(statistics, rows);
 
         // 4. 融资统计
-        calculateFinanceStatistics(statistics, receivables);
+        calculateFinanceStatistics(statistics, rows);
 
         // 5. 逾期统计
-        calculateOverdueStatistics(statistics, receivables);
+        calculateOverdueStatistics(statistics, rows);
 
         log.info("统计计算完成: totalCount={}, totalAmount={}, financedCount={}, overdueCount={}",
                 statistics.getTotalCount(), statistics.getTotalAmount(),
@@ -184,6 +186,7 @@ public class ReceivableQueryService {
      * @param financierAddress 资金方地址（可选）
      * @return 账龄分析数据
      */
+    @Transactional(readOnly = true)
     public AgedAnalysisResponse getAgedAnalysis(
             String supplierAddress,
             String coreEnterpriseAddress,
@@ -195,12 +198,12 @@ public class ReceivableQueryService {
         AgedAnalysisResponse analysis = new AgedAnalysisResponse();
         analysis.setAnalysisTime(LocalDateTime.now());
 
-        List<Receivable> receivables = queryReceivables(
-                supplierAddress, coreEnterpriseAddress, financierAddress);
+        ReceivableFilter filter = ReceivableFilter.of(supplierAddress, coreEnterpriseAddress, financierAddress);
+        List<AgingRow> rows = aggregateAging(filter, analysis.getAnalysisTime());
 
-        LocalDateTime now = LocalDateTime.now();
-        BigDecimal totalAmount = receivables.stream()
-                .map(Receivable::getAmount)
+        // 占比以全部应收账款金额为基数
+        BigDecimal totalAmount = rows.stream()
+                .map(row -> row.amount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // 初始化账龄段
@@ -209,29 +212,15 @@ public class ReceivableQueryService {
         AgedAnalysisResponse.AgedBucket overdue60 = new AgedAnalysisResponse.AgedBucket();
         AgedAnalysisResponse.AgedBucket overdue90 = new AgedAnalysisResponse.AgedBucket();
         AgedAnalysisResponse.AgedBucket overdue90Plus = new AgedAnalysisResponse.AgedBucket();
+        AgedAnalysisResponse.AgedBucket[] buckets = {current, current, overdue30, overdue60, overdue90, overdue90Plus};
 
-        // 分类统计
-        for (Receivable r : receivables) {
+        for (AgingRow row : rows) {
             // 已还款或已取消的不参与账龄分析
-            if (r.getStatus() == Receivable.ReceivableStatus.REPAID ||
-                r.getStatus() == Receivable.ReceivableStatus.CANCELLED) {
+            if (row.status == Receivable.ReceivableStatus.REPAID ||
+                row.status == Receivable.ReceivableStatus.CANCELLED) {
                 continue;
             }
-
-            long daysOverdue = ChronoUnit.DAYS.between(r.getDueDate(), now);
-
-            if (daysOverdue <= 0) {
-                // 未到期
-                incrementBucket(current, r);
-            } else if (daysOverdue <= 30) {
-                incrementBucket(overdue30, r);
-            } else if (daysOverdue <= 60) {
-                incrementBucket(overdue60, r);
-            } else if (daysOverdue <= 90) {
-                incrementBucket(overdue90, r);
-            } else {
-                incrementBucket(overdue90Plus, r);
-            }
+            addToBucket(buckets[row.bucket], row);
         }
 
         // 计算占比
@@ -338,22 +327,29 @@ public class ReceivableQueryService {
     }
 
     /**
-     * 查询应收账款（根据条件过滤）
+     * 按状态和账龄段分组汇总应收账款
      */
-    private List<Receivable> queryReceivables(
-            String supplierAddress,
-            String coreEnterpriseAddress,
-            String financierAddress) {
+    private List<AgingRow> aggregateAging(ReceivableFilter filter, LocalDateTime now) {
+        List<Object[]> result = receivableRepository.aggregateByStatusAndAgingBucket(
+                filter.supplierAddress, filter.coreEnterpriseAddress, filter.financierAddress, now);
+        List<AgingRow> rows = new ArrayList<>(result.size());
+        for (Object[] row : result) {
+            rows.add(new AgingRow(
+                    Receivable.ReceivableStatus.valueOf((String) row[0]),
+                    ((Number) row[1]).intValue(),
+                    ((Number) row[2]).longValue(),
+                    toBigDecimal(row[3]),
+                    ((Number) row[4]).longValue(),
+                    toBigDecimal(row[5])));
+        }
+        return rows;
+    }
 
-        if (supplierAddress != null) {
-            return receivableRepository.findBySupplierAddress(supplierAddress);
-        } else if (coreEnterpriseAddress != null) {
-            return receivableRepository.findByCoreEnterpriseAddress(coreEnterpriseAddress);
-        } else if (financierAddress != null) {
-            return receivableRepository.findByFinancierAddress(financierAddress);
-        } else {
-            return receivableRepository.findAll();
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
         }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
     }
 
     /**
@@ -361,32 +357,27 @@ public class ReceivableQueryService {
      */
     private void calculateBasicStatistics(
             ReceivableStatisticsResponse statistics,
-            List<Receivable> receivables) {
+            List<AgingRow> rows,
+            ReceivableFilter filter) {
 
-        statistics.setTotalCount((long) receivables.size());
+        statistics.setTotalCount(rows.stream().mapToLong(row -> row.count).sum());
 
-        BigDecimal totalAmount = receivables.stream()
-                .map(Receivable::getAmount)
+        BigDecimal totalAmount = rows.stream()
+                .map(row -> row.amount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         statistics.setTotalAmount(totalAmount);
 
-        // 计算已还金额（从还款记录表中聚合）
-        BigDecimal totalRepaid = BigDecimal.ZERO;
-        for (Receivable r : receivables) {
-            BigDecimal repaid = repaymentRecordRepository.totalRepaidAmountByReceivable(r.getId());
-            totalRepaid = totalRepaid.add(repaid);
-        }
+        // 计算已还金额（从还款记录表中按相同条件聚合）
+        BigDecimal totalRepaid = repaymentRecordRepository.totalRepaidAmountByReceivableFilter(
+                filter.supplierAddress, filter.coreEnterpriseAddress, filter.financierAddress);
         statistics.setTotalRepaidAmount(totalRepaid);
         statistics.setTotalOutstandingAmount(totalAmount.subtract(totalRepaid));
 
         // 平均融资金额
-        BigDecimal avgFinance = receivables.stream()
-                .filter(r -> r.getFinanceAmount() != null)
-                .map(Receivable::getFinanceAmount)
+        BigDecimal avgFinance = rows.stream()
+                .map(row -> row.financeAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long financedCount = receivables.stream()
-                .filter(r -> r.getFinanceAmount() != null)
-                .count();
+        long financedCount = rows.stream().mapToLong(row -> row.financeCount).sum();
         if (financedCount > 0) {
             statistics.setAvgFinanceAmount(avgFinance.divide(
                     BigDecimal.valueOf(financedCount), 2, RoundingMode.HALF_UP));
@@ -398,35 +389,31 @@ public class ReceivableQueryService {
      */
     private void calculateStatusDistribution(
             ReceivableStatisticsResponse statistics,
-            List<Receivable> receivables) {
-
-        Map<Receivable.ReceivableStatus, List<Receivable>> groupedByStatus =
-                receivables.stream()
-                        .collect(Collectors.groupingBy(Receivable::getStatus));
-
-        List<ReceivableStatisticsResponse.StatusStatistics> statusDistribution =
-                groupedByStatus.entrySet().stream()
-                        .map(entry -> {
-                            ReceivableStatisticsResponse.StatusStatistics stats =
-                                    new ReceivableStatisticsResponse.StatusStatistics();
-                            stats.setStatus(entry.getKey().name());
-                            stats.setStatusName(getStatusDisplayName(entry.getKey()));
-                            stats.setCount((long) entry.getValue().size());
-
-                            BigDecimal totalAmount = entry.getValue().stream()
-                                    .map(Receivable::getAmount)
-                                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                            stats.setTotalAmount(totalAmount);
-
-                            if (statistics.getTotalCount() > 0) {
-                                double percentage = (double) entry.getValue().size() /
-                                        statistics.getTotalCount() * 100;
-                                stats.setPercentage(Math.round(percentage * 100.0) / 100.0);
-                            }
-
-                            return stats;
-                        })
-                        .collect(Collectors.toList());
+            List<AgingRow> rows) {
+
+        Map<Receivable.ReceivableStatus, long[]> counts = new EnumMap<>(Receivable.ReceivableStatus.class);
+        Map<Receivable.ReceivableStatus, BigDecimal> amounts = new EnumMap<>(Receivable.ReceivableStatus.class);
+        for (AgingRow row : rows) {
+            counts.computeIfAbsent(row.status, status -> new long[1])[0] += row.count;
+            amounts.merge(row.status, row.amount, BigDecimal::add);
+        }
+
+        List<ReceivableStatisticsResponse.StatusStatistics> statusDistribution = new ArrayList<>();
+        for (Map.Entry<Receivable.ReceivableStatus, long[]> entry : counts.entrySet()) {
+            ReceivableStatisticsResponse.StatusStatistics stats =
+                    new ReceivableStatisticsResponse.StatusStatistics();
+            stats.setStatus(entry.getKey().name());
+            stats.setStatusName(getStatusDisplayName(entry.getKey()));
+            stats.setCount(entry.getValue()[0]);
+            stats.setTotalAmount(amounts.get(entry.getKey()));
+
+            if (statistics.getTotalCount() > 0) {
+                double percentage = (double) entry.getValue()[0] /
+                        statistics.getTotalCount() * 100;
+                stats.setPercentage(Math.round(percentage * 100.0) / 100.0);
+            }
+            statusDistribution.add(stats);
+        }
 
         statistics.setStatusDistribution(statusDistribution);
     }
@@ -436,19 +423,19 @@ public class ReceivableQueryService {
      */
     private void calculateFinanceStatistics(
             ReceivableStatisticsResponse statistics,
-            List<Receivable> receivables) {
-
-        List<Receivable> financed = receivables.stream()
-                .filter(r -> r.getStatus() == Receivable.ReceivableStatus.FINANCED ||
-                           r.getStatus() == Receivable.ReceivableStatus.REPAID)
-                .collect(Collectors.toList());
-
-        statistics.setFinancedCount((long) financed.size());
+            List<AgingRow> rows) {
+
+        long financedCount = 0;
+        BigDecimal financedAmount = BigDecimal.ZERO;
+        for (AgingRow row : rows) {
+            if (row.status == Receivable.ReceivableStatus.FINANCED ||
+                row.status == Receivable.ReceivableStatus.REPAID) {
+                financedCount += row.count;
+                financedAmount = financedAmount.add(row.financeAmount);
+            }
+        }
 
-        BigDecimal financedAmount = financed.stream()
-                .map(Receivable::getFinanceAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        statistics.setFinancedCount(financedCount);
         statistics.setFinancedAmount(financedAmount);
 
         statistics.setUnfinancedCount(
@@ -467,24 +454,24 @@ public class ReceivableQueryService {
 
     /**
      * 计算逾期统计
+     * 已过到期时间（账龄段1及以上）且未还款、未取消的计为逾期
      */
     private void calculateOverdueStatistics(
             ReceivableStatisticsResponse statistics,
-            List<Receivable> receivables) {
-
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Receivable> overdue = receivables.stream()
-                .filter(r -> r.getDueDate().isBefore(now) &&
-                           r.getStatus() != Receivable.ReceivableStatus.REPAID &&
-                           r.getStatus() != Receivable.ReceivableStatus.CANCELLED)
-                .collect(Collectors.toList());
-
-        statistics.setOverdueCount((long) overdue.size());
+            List<AgingRow> rows) {
+
+        long overdueCount = 0;
+        BigDecimal overdueAmount = BigDecimal.ZERO;
+        for (AgingRow row : rows) {
+            if (row.bucket > 0 &&
+                row.status != Receivable.ReceivableStatus.REPAID &&
+                row.status != Receivable.ReceivableStatus.CANCELLED) {
+                overdueCount += row.count;
+                overdueAmount = overdueAmount.add(row.amount);
+            }
+        }
 
-        BigDecimal overdueAmount = overdue.stream()
-                .map(Receivable::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        statistics.setOverdueCount(overdueCount);
         statistics.setOverdueAmount(overdueAmount);
 
         // 逾期率
@@ -497,13 +484,13 @@ public class ReceivableQueryService {
     }
 
     /**
-     * 增加账龄段计数
+     * 累加账龄段计数
      */
-    private void incrementBucket(AgedAnalysisResponse.AgedBucket bucket, Receivable receivable) {
-        bucket.setCount(bucket.getCount() == null ? 1 : bucket.getCount() + 1);
+    private void addToBucket(AgedAnalysisResponse.AgedBucket bucket, AgingRow row) {
+        bucket.setCount(bucket.getCount() == null ? row.count : bucket.getCount() + row.count);
         bucket.setAmount(bucket.getAmount() == null ?
-                receivable.getAmount() :
-                bucket.getAmount().add(receivable.getAmount()));
+                row.amount :
+                bucket.getAmount().add(row.amount));
     }
 
     /**
@@ -568,4 +555,50 @@ public class ReceivableQueryService {
             default: return transferType;
         }
     }
+
+    /**
+     * 统计过滤条件，按供应商、核心企业、资金方的优先级只取第一个非空条件
+     */
+    private static final class ReceivableFilter {
+        private final String supplierAddress;
+        private final String coreEnterpriseAddress;
+        private final String financierAddress;
+
+        private ReceivableFilter(String supplierAddress, String coreEnterpriseAddress, String financierAddress) {
+            this.supplierAddress = supplierAddress;
+            this.coreEnterpriseAddress = coreEnterpriseAddress;
+            this.financierAddress = financierAddress;
+        }
+
+        static ReceivableFilter of(String supplierAddress, String coreEnterpriseAddress, String financierAddress) {
+            if (supplierAddress != null) {
+                return new ReceivableFilter(supplierAddress, null, null);
+            } else if (coreEnterpriseAddress != null) {
+                return new ReceivableFilter(null, coreEnterpriseAddress, null);
+            }
+            return new ReceivableFilter(null, null, financierAddress);
+        }
+    }
+
+    /**
+     * 按状态和账龄段分组的汇总行
+     */
+    private static final class AgingRow {
+        private final Receivable.ReceivableStatus status;
+        private final int bucket;
+        private final long count;
+        private final BigDecimal amount;
+        private final long financeCount;
+        private final BigDecimal financeAmount;
+
+        AgingRow(Receivable.ReceivableStatus status, int bucket, long count, BigDecimal amount,
+                 long financeCount, BigDecimal financeAmount) {
+            this.status = status;
+            this.bucket = bucket;
+            this.count = count;
+            this.amount = amount;
+            this.financeCount = financeCount;
+            this.financeAmount = financeAmount;
+        }
+    }
 }
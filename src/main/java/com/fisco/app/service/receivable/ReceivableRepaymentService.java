@@ -1,5 +1,6 @@
 package com.fisco.app.service.receivable;
 
+import com.fisco.app.annotation.ChainOperation;
 import com.fisco.app.dto.receivable.RepaymentRecordResponse;
 import com.fisco.app.dto.receivable.RepayDetailRequest;
 import com.fisco.app.entity.receivable.Receivable;
@@ -48,6 +49,7 @@ public class ReceivableRepaymentService {
      * @return 还款记录响应
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public RepaymentRecordResponse repayDetail(@NonNull RepayDetailRequest request, @NonNull String payerAddress) {
         log.info("==================== 应收账款还款详情开始 ====================");
         log.info("还款基本信息: receivableId={}, type={}, amount={}",
@@ -156,7 +158,7 @@ public class ReceivableRepaymentService {
             // 7. 调用区块链合约
             try {
                 String txHash = contractService.repayReceivableOnChain(
-                        request.getReceivableId(), request.getRepaymentAmount());
+                        request.getReceivableId(), request.getRepaymentAmount()).getTxHash();
                 record.setTxHash(txHash);
                 record.setStatus(ReceivableRepaymentRecord.RepaymentStatus.CONFIRMED);
                 log.info("✓ 还款已上链: txHash={}", txHash);
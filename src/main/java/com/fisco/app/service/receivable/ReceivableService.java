@@ -10,12 +10,18 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.annotation.Idempotent;
 import com.fisco.app.dto.receivable.CreateReceivableRequest;
 import com.fisco.app.entity.receivable.Receivable;
+import com.fisco.app.entity.system.AssetLineage;
+import com.fisco.app.entity.system.DueEvent;
 import com.fisco.app.exception.BlockchainIntegrationException;
 import com.fisco.app.repository.receivable.ReceivableRepository;
 import com.fisco.app.service.blockchain.ContractService;
 import com.fisco.app.service.enterprise.EnterpriseService;
+import com.fisco.app.service.system.AssetLineageService;
+import com.fisco.app.service.system.DueEventScheduler;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +40,8 @@ public class ReceivableService {
     private final ReceivableRepository receivableRepository;
     private final EnterpriseService enterpriseService;
     private final ContractService contractService;
+    private final AssetLineageService lineageService;
+    private final DueEventScheduler dueEventScheduler;
 
     // ========== 敏感数据脱敏辅助方法 ==========
 
@@ -69,6 +77,8 @@ public class ReceivableService {
      * 创建应收账款
      */
     @Transactional(rollbackFor = Exception.class)
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.ISSUE)
     public Receivable createReceivable(CreateReceivableRequest request, String supplierAddress) {
         log.info("==================== 应收账款创建开始 ====================");
         // 敏感信息脱敏后记录到INFO级别
@@ -134,11 +144,13 @@ public class ReceivableService {
             log.debug("保存应收账款到数据库");
             Receivable saved = receivableRepository.save(receivable);
             log.info("✓ 数据库保存成功: receivableId={}", saved.getId());
+            // 到期满一天起计逾期
+            dueEventScheduler.schedule(DueEvent.EventType.RECEIVABLE_OVERDUE, saved.getId(), saved.getDueDate().plusDays(1));
 
             // 步骤2: 调用区块链合约
             log.debug("准备上链创建应收账款");
             try {
-                String txHash = contractService.createReceivableOnChain(saved);
+                String txHash = contractService.createReceivableOnChain(saved).getTxHash();
                 log.info("✓ 应收账款已上链: receivableId={}, txHash={}", saved.getId(), txHash);
 
                 // 步骤3: 更新 txHash
@@ -174,6 +186,8 @@ public class ReceivableService {
      * 核心企业确认应收账款
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void confirmReceivable(@NonNull String receivableId) {
         log.info("==================== 应收账款确认开始 ====================");
         log.info("应收账款ID: {}", receivableId);
@@ -197,7 +211,7 @@ public class ReceivableService {
             // 步骤1: 调用区块链合约
             log.debug("准备上链确认应收账款");
             try {
-                String txHash = contractService.confirmReceivableOnChain(receivableId);
+                String txHash = contractService.confirmReceivableOnChain(receivableId).getTxHash();
                 log.info("✓ 应收账款已上链确认: receivableId={}, txHash={}", receivableId, txHash);
 
                 // 步骤2: 更新数据库状态和交易哈希
@@ -231,6 +245,8 @@ public class ReceivableService {
      * 应收账款融资
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void financeReceivable(@NonNull String receivableId, String financierAddress,
                                    BigDecimal financeAmount, Integer financeRate) {
         log.info("应收账款融资: id={}, financier={}, amount={}, rate={}",
@@ -259,7 +275,7 @@ public class ReceivableService {
                 financierAddress,
                 financeAmount,
                 financeRate
-            );
+            ).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             receivable.setStatus(Receivable.ReceivableStatus.FINANCED);
@@ -286,6 +302,8 @@ public class ReceivableService {
      * 应收账款还款
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void repayReceivable(@NonNull String receivableId, BigDecimal amount) {
         log.info("应收账款还款: id={}, amount={}", receivableId, amount);
 
@@ -298,7 +316,7 @@ public class ReceivableService {
 
         // 步骤1: 调用区块链合约
         try {
-            String txHash = contractService.repayReceivableOnChain(receivableId, amount);
+            String txHash = contractService.repayReceivableOnChain(receivableId, amount).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             receivable.setStatus(Receivable.ReceivableStatus.REPAID);
@@ -320,6 +338,8 @@ public class ReceivableService {
      * 转让应收账款
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.ENDORSE)
     public void transferReceivable(@NonNull String receivableId, String newHolder) {
         log.info("转让应收账款: id={}, newHolder={}", receivableId, newHolder);
 
@@ -335,7 +355,7 @@ public class ReceivableService {
 
         // 步骤1: 调用区块链合约
         try {
-            String txHash = contractService.transferReceivableOnChain(receivableId, newHolder);
+            String txHash = contractService.transferReceivableOnChain(receivableId, newHolder).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             receivable.setCurrentHolder(newHolder);
@@ -422,6 +442,7 @@ public class ReceivableService {
      * 拆分应收账款
      */
     @Transactional
+    @Idempotent
     public com.fisco.app.dto.receivable.ReceivableSplitResponse splitReceivable(
             @NonNull @Valid com.fisco.app.dto.receivable.ReceivableSplitRequest request, @NonNull String applicantId) {
         log.info("==================== 应收账款拆分开始 ====================");
@@ -507,6 +528,8 @@ public class ReceivableService {
             }
 
             receivableRepository.saveAll(splitReceivables);
+            lineageService.recordSplit(AssetLineage.AssetType.RECEIVABLE, request.getReceivableId(),
+                    splitReceivables.stream().map(Receivable::getId).collect(java.util.stream.Collectors.toList()));
 
             // 8. 创建响应
             com.fisco.app.dto.receivable.ReceivableSplitResponse response = new com.fisco.app.dto.receivable.ReceivableSplitResponse();
@@ -537,6 +560,7 @@ public class ReceivableService {
      */
     @SuppressWarnings("null")
     @Transactional
+    @Idempotent
     public com.fisco.app.dto.receivable.ReceivableMergeResponse mergeReceivables(
             com.fisco.app.dto.receivable.ReceivableMergeRequest request, String applicantId) {
         log.info("==================== 应收账款合并开始 ====================");
@@ -621,6 +645,7 @@ public class ReceivableService {
             merged.setMergeCount(receivables.size());
 
             receivableRepository.save(merged);
+            lineageService.recordMerge(AssetLineage.AssetType.RECEIVABLE, ids, merged.getId());
 
             // 7. 创建响应
             com.fisco.app.dto.receivable.ReceivableMergeResponse response = new com.fisco.app.dto.receivable.ReceivableMergeResponse();
@@ -651,6 +676,7 @@ public class ReceivableService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public void approveSplit(@NonNull String receivableId, boolean approved, @NonNull String approverId, @NonNull String reason) {
         log.info("审批应收账款拆分: receivableId={}, approved={}", receivableId, approved);
 
@@ -671,6 +697,7 @@ public class ReceivableService {
 
             for (Receivable child : children) {
                 child.setStatus(Receivable.ReceivableStatus.CONFIRMED);
+                dueEventScheduler.schedule(DueEvent.EventType.RECEIVABLE_OVERDUE, child.getId(), child.getDueDate().plusDays(1));
             }
             receivableRepository.saveAll(children);
         } else {
@@ -679,6 +706,7 @@ public class ReceivableService {
 
             for (Receivable child : children) {
                 child.setStatus(Receivable.ReceivableStatus.CANCELLED);
+                lineageService.detach(AssetLineage.AssetType.RECEIVABLE, child.getId());
             }
             Iterable<Receivable> childrenToSave = children;
             receivableRepository.saveAll(childrenToSave);
@@ -692,6 +720,7 @@ public class ReceivableService {
      * 审批应收账款合并
      */
     @Transactional
+    @Idempotent
     public void approveMerge(@NonNull String mergedReceivableId, boolean approved, @NonNull String approverId, @NonNull String reason) {
         log.info("审批应收账款合并: mergedReceivableId={}, approved={}", mergedReceivableId, approved);
 
@@ -702,15 +731,21 @@ public class ReceivableService {
             throw new com.fisco.app.exception.BusinessException("应收账款状态不是合并中");
         }
 
-        // 查找所有源应收账款
-        java.util.List<Receivable> sources = receivableRepository.findAll().stream()
-                .filter(r -> mergedReceivableId.equals(r.getId()) || r.getStatus() == Receivable.ReceivableStatus.MERGING)
-                .collect(java.util.stream.Collectors.toList());
+        // 查找源应收账款：合并时已登记为合并后应收账款的直接父节点
+        java.util.List<String> sourceIds = lineageService.getParentIds(
+                AssetLineage.AssetType.RECEIVABLE, mergedReceivableId);
+        java.util.List<Receivable> sources = sourceIds.isEmpty()
+                // 溯源索引建立前提交的合并申请：按同一供应商、核心企业下合并中的应收账款查找
+                ? receivableRepository.findBySupplierAddressAndCoreEnterpriseAddressAndStatus(
+                        merged.getSupplierAddress(), merged.getCoreEnterpriseAddress(),
+                        Receivable.ReceivableStatus.MERGING)
+                : receivableRepository.findAllById(sourceIds);
 
         if (approved) {
             // 审批通过
             merged.setStatus(Receivable.ReceivableStatus.CONFIRMED);
             merged.setMergeTime(LocalDateTime.now());
+            dueEventScheduler.schedule(DueEvent.EventType.RECEIVABLE_OVERDUE, mergedReceivableId, merged.getDueDate().plusDays(1));
 
             // 标记源应收账款为已合并
             for (Receivable source : sources) {
@@ -731,6 +766,7 @@ public class ReceivableService {
                     receivableRepository.save(source);
                 }
             }
+            lineageService.detach(AssetLineage.AssetType.RECEIVABLE, mergedReceivableId);
         }
 
         receivableRepository.save(merged);
@@ -0,0 +1,356 @@
+package com.fisco.app.service.risk;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fisco.app.dto.risk.EnterpriseRiskProfile;
+import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.entity.credit.CreditLimit;
+import com.fisco.app.entity.credit.CreditLimitWarning;
+import com.fisco.app.entity.system.CacheInvalidationLog;
+import com.fisco.app.repository.bill.BillRepository;
+import com.fisco.app.repository.credit.CreditLimitRepository;
+import com.fisco.app.repository.credit.CreditLimitWarningRepository;
+import com.fisco.app.repository.receivable.ReceivableRepository;
+import com.fisco.app.service.system.CacheInvalidationBus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 企业风险画像缓存
+ * 按企业地址持有逾期笔数/金额、交易笔数/成功数、未处理信用预警等汇总指标，风险评估直接读取画像
+ *
+ * 维护策略：
+ * - 应用启动完成后以分组汇总查询一次性构建全部企业画像（全量扫描，sweep 同样可按需调用）
+ * - 票据、应收账款、信用额度预警写入时由 RiskProfileEntityListener 登记涉及的企业，
+ *   同一事务内去重，事务提交后仅按企业重算这些画像，并经 CacheInvalidationBus 通知其他节点
+ * - 未命中时按企业回源（只扫描该企业的索引范围）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnterpriseRiskProfileCache {
+
+    public static final String CACHE_NAME = "enterpriseRiskProfile";
+
+    /**
+     * 计入交易成功的票据状态
+     */
+    private static final Set<Bill.BillStatus> SUCCESS_STATUSES = EnumSet.of(Bill.BillStatus.ISSUED, Bill.BillStatus.SETTLED);
+
+    private static final BigDecimal CENTS = BigDecimal.valueOf(100);
+
+    private final ReceivableRepository receivableRepository;
+    private final BillRepository billRepository;
+    private final CreditLimitWarningRepository creditLimitWarningRepository;
+    private final CreditLimitRepository creditLimitRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 单个事务提交后立即重算的企业数上限，超出部分只失效、下次访问时回源
+     */
+    @Value("${app.risk-profile.max-eager-refresh:100}")
+    private int maxEagerRefresh;
+
+    private final Map<String, EnterpriseRiskProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * 失效代数，每次失效递增；回源或全量构建期间若发生失效则丢弃结果，避免旧数据回填
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 注册跨节点失效处理：按企业地址失效，未指定地址时整体清空
+     */
+    @PostConstruct
+    public void registerInvalidationHandler() {
+        cacheInvalidationBus.registerHandler(CACHE_NAME, address -> {
+            if (address == null) {
+                evictAll();
+            } else {
+                evict(address);
+            }
+        });
+    }
+
+    /**
+     * 应用启动完成后构建全部企业画像
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        sweep();
+    }
+
+    /**
+     * 获取企业风险画像，未命中时按企业回源
+     */
+    public EnterpriseRiskProfile get(String enterpriseAddress) {
+        String key = normalize(enterpriseAddress);
+        EnterpriseRiskProfile profile = profiles.get(key);
+        if (profile != null) {
+            return profile;
+        }
+        long gen = generation.get();
+        profile = compute(enterpriseAddress);
+        putIfCurrent(key, profile, gen);
+        return profile;
+    }
+
+    /**
+     * 全量构建所有有业务数据的企业画像
+     * 每张表一到两条分组汇总查询，与企业数量无关；构建期间若有画像被失效，则结果只返回不回填缓存
+     *
+     * @return 全部企业画像（无票据、逾期、预警的企业不在其中）
+     */
+    public Collection<EnterpriseRiskProfile> sweep() {
+        long startTime = System.currentTimeMillis();
+        long gen = generation.get();
+        Map<String, ProfileAccumulator> accumulators = new HashMap<>();
+
+        for (Object[] row : receivableRepository.aggregateOverdueBySupplier()) {
+            accumulator(accumulators, (String) row[0]).addOverdue(row[1], row[2]);
+        }
+        for (Object[] row : receivableRepository.aggregateOverdueByCoreEnterprise()) {
+            accumulator(accumulators, (String) row[0]).addOverdue(row[1], row[2]);
+        }
+        for (Object[] row : billRepository.aggregateByDrawerGroupByStatus()) {
+            accumulator(accumulators, (String) row[0]).addBills((Bill.BillStatus) row[1], row[2], row[3]);
+        }
+        for (Object[] row : billRepository.aggregateByDraweeGroupByStatus()) {
+            accumulator(accumulators, (String) row[0]).addBills((Bill.BillStatus) row[1], row[2], row[3]);
+        }
+        for (Object[] row : creditLimitWarningRepository.findAllUnresolvedWithEnterpriseAddress()) {
+            accumulator(accumulators, (String) row[0]).addWarning((CreditLimitWarning) row[1]);
+        }
+
+        Map<String, EnterpriseRiskProfile> built = new HashMap<>(accumulators.size() * 2);
+        accumulators.forEach((key, accumulator) -> built.put(key, accumulator.build()));
+        boolean replaced = replaceAllIfCurrent(built, gen);
+        log.info("企业风险画像全量构建完成: count={}, cached={}, 耗时={}ms",
+                built.size(), replaced, System.currentTimeMillis() - startTime);
+        return built.values();
+    }
+
+    /**
+     * 登记画像受影响的企业，事务提交后重算；无事务时立即重算
+     */
+    public void markChanged(String... enterpriseAddresses) {
+        PendingChanges pending = currentPending();
+        for (String address : enterpriseAddresses) {
+            if (address != null) {
+                pending.addresses.putIfAbsent(normalize(address), address);
+            }
+        }
+        if (!pending.bound) {
+            refresh(pending);
+        }
+    }
+
+    /**
+     * 登记信用额度预警变更，事务提交后按额度所属企业重算
+     */
+    public void markCreditLimitChanged(String creditLimitId) {
+        if (creditLimitId == null) {
+            return;
+        }
+        PendingChanges pending = currentPending();
+        pending.creditLimitIds.add(creditLimitId);
+        if (!pending.bound) {
+            refresh(pending);
+        }
+    }
+
+    /**
+     * 移除指定企业的画像
+     */
+    public synchronized void evict(String enterpriseAddress) {
+        generation.incrementAndGet();
+        profiles.remove(normalize(enterpriseAddress));
+    }
+
+    /**
+     * 清空缓存，下次访问时回源
+     */
+    public synchronized void evictAll() {
+        generation.incrementAndGet();
+        profiles.clear();
+        log.debug("企业风险画像缓存已清空");
+    }
+
+    /**
+     * 取当前事务的待重算集合，首次登记时绑定到事务并注册提交回调
+     */
+    private PendingChanges currentPending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingChanges(false);
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingChanges created = new PendingChanges(true);
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EnterpriseRiskProfileCache.this);
+                    if (status == STATUS_COMMITTED) {
+                        refresh(created);
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void refresh(PendingChanges pending) {
+        try {
+            if (!pending.creditLimitIds.isEmpty()) {
+                for (CreditLimit creditLimit : creditLimitRepository.findAllById(pending.creditLimitIds)) {
+                    if (creditLimit.getEnterpriseAddress() != null) {
+                        pending.addresses.putIfAbsent(normalize(creditLimit.getEnterpriseAddress()),
+                                creditLimit.getEnterpriseAddress());
+                    }
+                }
+            }
+            int refreshed = 0;
+            for (Map.Entry<String, String> entry : pending.addresses.entrySet()) {
+                evict(entry.getKey());
+                if (refreshed++ < maxEagerRefresh) {
+                    long gen = generation.get();
+                    putIfCurrent(entry.getKey(), compute(entry.getValue()), gen);
+                }
+                cacheInvalidationBus.broadcast(CACHE_NAME, CacheInvalidationLog.Scope.KEY, entry.getKey());
+            }
+            log.debug("企业风险画像已刷新: enterprises={}", pending.addresses.size());
+        } catch (Exception e) {
+            // 重算失败时保证旧画像不再被读取
+            pending.addresses.keySet().forEach(this::evict);
+            log.warn("企业风险画像刷新失败，已失效等待回源: enterprises={}, error={}",
+                    pending.addresses.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 按企业回源计算画像
+     */
+    private EnterpriseRiskProfile compute(String enterpriseAddress) {
+        ProfileAccumulator accumulator = new ProfileAccumulator(enterpriseAddress);
+        for (Object[] row : receivableRepository.aggregateOverdueByEnterprise(enterpriseAddress)) {
+            accumulator.addOverdue(row[0], row[1]);
+        }
+        for (Object[] row : billRepository.aggregateByEnterpriseGroupByStatus(enterpriseAddress)) {
+            accumulator.addBills((Bill.BillStatus) row[0], row[1], row[2]);
+        }
+        for (CreditLimitWarning warning : creditLimitWarningRepository.findUnresolvedWarningsByEnterpriseAddress(enterpriseAddress)) {
+            accumulator.addWarning(warning);
+        }
+        return accumulator.build();
+    }
+
+    private synchronized void putIfCurrent(String key, EnterpriseRiskProfile profile, long gen) {
+        if (generation.get() == gen) {
+            profiles.put(key, profile);
+        }
+    }
+
+    private synchronized boolean replaceAllIfCurrent(Map<String, EnterpriseRiskProfile> built, long gen) {
+        if (generation.get() != gen) {
+            return false;
+        }
+        profiles.clear();
+        profiles.putAll(built);
+        return true;
+    }
+
+    private static ProfileAccumulator accumulator(Map<String, ProfileAccumulator> accumulators, String address) {
+        return accumulators.computeIfAbsent(normalize(address), key -> new ProfileAccumulator(address));
+    }
+
+    /**
+     * 与 MySQL 默认排序规则保持一致，地址按大小写不敏感匹配
+     */
+    private static String normalize(String address) {
+        return address.toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(Object amount) {
+        if (amount instanceof BigDecimal) {
+            return ((BigDecimal) amount).multiply(CENTS).longValue();
+        }
+        return amount != null ? ((Number) amount).longValue() * 100 : 0L;
+    }
+
+    /**
+     * 单个事务内登记的变更
+     */
+    private static final class PendingChanges {
+        private final boolean bound;
+        private final Map<String, String> addresses = new LinkedHashMap<>();
+        private final Set<String> creditLimitIds = new HashSet<>();
+
+        PendingChanges(boolean bound) {
+            this.bound = bound;
+        }
+    }
+
+    /**
+     * 画像指标累加器
+     */
+    private static final class ProfileAccumulator {
+        private final String address;
+        private int overdueCount;
+        private long overdueAmount;
+        private int transactionCount;
+        private int successCount;
+        private long transactionAmount;
+        private final List<EnterpriseRiskProfile.WarningSummary> warnings = new ArrayList<>();
+
+        ProfileAccumulator(String address) {
+            this.address = address;
+        }
+
+        void addOverdue(Object count, Object amount) {
+            overdueCount += ((Number) count).intValue();
+            overdueAmount += toCents(amount);
+        }
+
+        void addBills(Bill.BillStatus status, Object count, Object faceValue) {
+            int bills = ((Number) count).intValue();
+            transactionCount += bills;
+            if (SUCCESS_STATUSES.contains(status)) {
+                successCount += bills;
+            }
+            transactionAmount += toCents(faceValue);
+        }
+
+        void addWarning(CreditLimitWarning warning) {
+            warnings.add(EnterpriseRiskProfile.WarningSummary.fromEntity(warning));
+        }
+
+        EnterpriseRiskProfile build() {
+            return EnterpriseRiskProfile.of(address, overdueCount, overdueAmount, transactionCount, successCount,
+                    transactionAmount, warnings);
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package com.fisco.app.service.risk;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,16 +15,14 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fisco.app.dto.risk.RiskAssessmentRequest;
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
+import com.fisco.app.dto.risk.EnterpriseRiskProfile;
 import com.fisco.app.dto.risk.RiskAssessmentResponse;
-import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.dto.risk.RiskMetricsSummary;
 import com.fisco.app.entity.credit.CreditLimitWarning;
-import com.fisco.app.entity.enterprise.Enterprise;
-import com.fisco.app.entity.receivable.Receivable;
 import com.fisco.app.entity.risk.RiskAssessment;
-import com.fisco.app.repository.bill.BillRepository;
 import com.fisco.app.repository.credit.CreditLimitWarningRepository;
-import com.fisco.app.repository.enterprise.EnterpriseRepository;
-import com.fisco.app.repository.receivable.ReceivableRepository;
+import com.fisco.app.service.enterprise.EnterpriseDirectoryCache;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -40,10 +37,9 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class RiskService {
 
-    private final ReceivableRepository receivableRepository;
-    private final BillRepository billRepository;
     private final CreditLimitWarningRepository creditLimitWarningRepository;
-    private final EnterpriseRepository enterpriseRepository;
+    private final EnterpriseDirectoryCache enterpriseDirectoryCache;
+    private final EnterpriseRiskProfileCache riskProfileCache;
     private final ObjectMapper objectMapper;
 
     /**
@@ -58,7 +54,7 @@ public class RiskService {
         LocalDateTime assessmentTime = request.getAssessmentTime() != null ? request.getAssessmentTime() : LocalDateTime.now();
 
         // 获取企业信息
-        Enterprise enterprise = enterpriseRepository.findByAddress(enterpriseAddress)
+        EnterpriseSnapshot enterprise = enterpriseDirectoryCache.getByAddress(enterpriseAddress)
                 .orElseThrow(() -> new com.fisco.app.exception.BusinessException("企业不存在"));
 
         // 创建评估响应
@@ -67,37 +63,9 @@ public class RiskService {
         response.setEnterpriseName(enterprise.getName());
         response.setAssessmentTime(assessmentTime);
 
-        // 1. 计算逾期风险指标
-        List<Receivable> overdueReceivables = receivableRepository.findAll().stream()
-                .filter(r -> enterpriseAddress.equals(r.getSupplierAddress()) || enterpriseAddress.equals(r.getCoreEnterpriseAddress()))
-                .filter(r -> r.getOverdueLevel() != null)
-                .collect(Collectors.toList());
-
-        response.setOverdueCount(overdueReceivables.size());
-        long overdueAmount = overdueReceivables.stream()
-                .filter(r -> r.getAmount() != null)
-                .mapToLong(r -> r.getAmount().multiply(BigDecimal.valueOf(100)).longValue())
-                .sum();
-        response.setOverdueAmount(overdueAmount);
-
-        // 2. 计算交易行为指标
-        List<Bill> bills = billRepository.findAll().stream()
-                .filter(b -> enterpriseAddress.equals(b.getDrawerAddress()) || enterpriseAddress.equals(b.getDraweeAddress()))
-                .collect(Collectors.toList());
-
-        response.setTransactionCount(bills.size());
-
-        int successCount = (int) bills.stream()
-                .filter(b -> b.getBillStatus() == Bill.BillStatus.ISSUED || b.getBillStatus() == Bill.BillStatus.SETTLED)
-                .count();
-        response.setTransactionSuccessRate(bills.size() > 0 ?
-                BigDecimal.valueOf(successCount).divide(BigDecimal.valueOf(bills.size()), 4, RoundingMode.HALF_UP) : BigDecimal.ONE);
-
-        long avgTransactionAmount = bills.stream()
-                .filter(b -> b.getFaceValue() != null)
-                .mapToLong(b -> b.getFaceValue().multiply(BigDecimal.valueOf(100)).longValue())
-                .sum();
-        response.setAverageTransactionAmount(bills.size() > 0 ? avgTransactionAmount / bills.size() : 0L);
+        // 1-2. 逾期与交易行为指标取自企业风险画像
+        EnterpriseRiskProfile profile = riskProfileCache.get(enterpriseAddress);
+        applyProfile(response, profile);
 
         // 3. 计算风险评分
         int riskScore = calculateRiskScore(response);
@@ -111,7 +79,7 @@ public class RiskService {
         response.setCreditScore(600 + riskScore * 4);
 
         // 6. 生成风险预警
-        List<RiskAssessmentResponse.RiskWarning> warnings = generateRiskWarnings(response, enterpriseAddress);
+        List<RiskAssessmentResponse.RiskWarning> warnings = generateRiskWarnings(response, profile);
         response.setWarningCount(warnings.size());
         response.setWarnings(warnings);
 
@@ -132,6 +100,17 @@ public class RiskService {
         return response;
     }
 
+    /**
+     * 将风险画像的汇总指标写入评估响应
+     */
+    private void applyProfile(RiskAssessmentResponse response, EnterpriseRiskProfile profile) {
+        response.setOverdueCount(profile.getOverdueCount());
+        response.setOverdueAmount(profile.getOverdueAmount());
+        response.setTransactionCount(profile.getTransactionCount());
+        response.setTransactionSuccessRate(profile.getTransactionSuccessRate());
+        response.setAverageTransactionAmount(profile.getAverageTransactionAmount());
+    }
+
     /**
      * 计算风险评分（0-100，分数越高风险越低）
      */
@@ -159,7 +138,7 @@ public class RiskService {
      * 生成风险预警
      */
     private List<RiskAssessmentResponse.RiskWarning> generateRiskWarnings(
-            RiskAssessmentResponse response, String enterpriseAddress) {
+            RiskAssessmentResponse response, EnterpriseRiskProfile profile) {
 
         List<RiskAssessmentResponse.RiskWarning> warnings = new ArrayList<>();
 
@@ -174,17 +153,8 @@ public class RiskService {
             warnings.add(warning);
         }
 
-        // 信用额度预警
-        List<CreditLimitWarning> creditWarnings = creditLimitWarningRepository.findAll().stream()
-                .filter(w -> {
-                    // Need to check if this warning belongs to the enterprise
-                    // For now, skip the enterprise filter or implement a proper join
-                    return true;
-                })
-                .filter(w -> Boolean.FALSE.equals(w.getIsResolved()))
-                .collect(Collectors.toList());
-
-        for (CreditLimitWarning cw : creditWarnings) {
+        // 信用额度预警（仅该企业名下额度的未处理预警）
+        for (EnterpriseRiskProfile.WarningSummary cw : profile.getUnresolvedWarnings()) {
             RiskAssessmentResponse.RiskWarning warning = new RiskAssessmentResponse.RiskWarning();
             warning.setWarningType("CREDIT_LIMIT");
             warning.setWarningLevel(cw.getWarningLevel().name());
@@ -305,29 +275,99 @@ public class RiskService {
 
     /**
      * 查询风险预警列表
+     * 指定企业时取自该企业的风险画像，否则返回全部未处理的信用额度预警
      */
     public List<Map<String, Object>> getActiveAlerts(String enterpriseAddress) {
         log.info("查询活跃风险预警: enterpriseAddress={}", enterpriseAddress);
 
         List<Map<String, Object>> alerts = new ArrayList<>();
 
-        // 查询信用额度预警
-        List<CreditLimitWarning> warnings = creditLimitWarningRepository.findAll().stream()
-                .filter(w -> Boolean.FALSE.equals(w.getIsResolved()))
-                .collect(Collectors.toList());
-
-        for (CreditLimitWarning warning : warnings) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("type", "CREDIT_LIMIT");
-            alert.put("level", warning.getWarningLevel().name());
-            alert.put("message", "信用额度使用率: " + warning.getCurrentUsageRate() + "%");
-            alert.put("createdAt", warning.getWarningDate());
-            alerts.add(alert);
+        if (enterpriseAddress != null && !enterpriseAddress.isEmpty()) {
+            for (EnterpriseRiskProfile.WarningSummary warning : riskProfileCache.get(enterpriseAddress).getUnresolvedWarnings()) {
+                alerts.add(toAlert(warning.getWarningLevel().name(), warning.getCurrentUsageRate(), warning.getWarningDate()));
+            }
+            return alerts;
+        }
+
+        for (CreditLimitWarning warning : creditLimitWarningRepository.findAllUnresolvedWarnings()) {
+            alerts.add(toAlert(warning.getWarningLevel().name(), warning.getCurrentUsageRate(), warning.getWarningDate()));
         }
 
         return alerts;
     }
 
+    private Map<String, Object> toAlert(String level, Double usageRate, LocalDateTime createdAt) {
+        Map<String, Object> alert = new HashMap<>();
+        alert.put("type", "CREDIT_LIMIT");
+        alert.put("level", level);
+        alert.put("message", "信用额度使用率: " + usageRate + "%");
+        alert.put("createdAt", createdAt);
+        return alert;
+    }
+
+    /**
+     * 全量风险扫描
+     * 重建全部企业风险画像并逐一评分，无票据、逾期、预警的企业不在结果中（评分恒为100）
+     *
+     * @return 企业地址 -> 风险评分
+     */
+    public Map<String, Integer> sweepPortfolio() {
+        long startTime = System.currentTimeMillis();
+        Map<String, Integer> scores = new HashMap<>();
+        for (EnterpriseRiskProfile profile : riskProfileCache.sweep()) {
+            RiskAssessmentResponse response = new RiskAssessmentResponse();
+            applyProfile(response, profile);
+            scores.put(profile.getEnterpriseAddress(), calculateRiskScore(response));
+        }
+        log.info("全量风险扫描完成: enterprises={}, 耗时={}ms", scores.size(), System.currentTimeMillis() - startTime);
+        return scores;
+    }
+
+    /**
+     * 查询风险指标
+     * 指定企业时只统计该企业，否则对全部企业做一次全量风险扫描
+     */
+    public RiskMetricsSummary getRiskMetrics(String enterpriseAddress) {
+        Map<String, Integer> scores;
+        long activeAlerts;
+        if (enterpriseAddress != null && !enterpriseAddress.isEmpty()) {
+            EnterpriseRiskProfile profile = riskProfileCache.get(enterpriseAddress);
+            RiskAssessmentResponse response = new RiskAssessmentResponse();
+            applyProfile(response, profile);
+            scores = new HashMap<>();
+            scores.put(profile.getEnterpriseAddress(), calculateRiskScore(response));
+            activeAlerts = profile.getUnresolvedWarnings().size();
+        } else {
+            scores = sweepPortfolio();
+            activeAlerts = creditLimitWarningRepository.countByIsResolvedFalse();
+        }
+
+        Map<RiskAssessmentResponse.RiskLevel, Long> distribution = countByRiskLevel(scores);
+        RiskMetricsSummary metrics = new RiskMetricsSummary();
+        metrics.setTotalEnterprisesAssessed((long) scores.size());
+        metrics.setHighRiskEnterprises(distribution.get(RiskAssessmentResponse.RiskLevel.HIGH)
+                + distribution.get(RiskAssessmentResponse.RiskLevel.VERY_HIGH));
+        metrics.setMediumRiskEnterprises(distribution.get(RiskAssessmentResponse.RiskLevel.MEDIUM));
+        metrics.setLowRiskEnterprises(distribution.get(RiskAssessmentResponse.RiskLevel.LOW)
+                + distribution.get(RiskAssessmentResponse.RiskLevel.VERY_LOW));
+        metrics.setActiveAlerts(activeAlerts);
+        double averageRiskScore = scores.values().stream().mapToInt(Integer::intValue).average().orElse(100);
+        metrics.setAverageRiskScore(averageRiskScore);
+        metrics.setAverageCreditScore(600 + averageRiskScore * 4);
+        return metrics;
+    }
+
+    private Map<RiskAssessmentResponse.RiskLevel, Long> countByRiskLevel(Map<String, Integer> scores) {
+        Map<RiskAssessmentResponse.RiskLevel, Long> distribution = new EnumMap<>(RiskAssessmentResponse.RiskLevel.class);
+        for (RiskAssessmentResponse.RiskLevel level : RiskAssessmentResponse.RiskLevel.values()) {
+            distribution.put(level, 0L);
+        }
+        for (Integer score : scores.values()) {
+            distribution.merge(RiskAssessmentResponse.RiskLevel.fromScore(score), 1L, Long::sum);
+        }
+        return distribution;
+    }
+
     /**
      * 生成风险报告
      */
@@ -337,16 +377,12 @@ public class RiskService {
         Map<String, Object> report = new HashMap<>();
 
         // 统计各风险等级企业数量
-        Map<String, Integer> riskLevelDistribution = new HashMap<>();
-        riskLevelDistribution.put("HIGH", 0);
-        riskLevelDistribution.put("MEDIUM", 0);
-        riskLevelDistribution.put("LOW", 0);
+        Map<String, Long> riskLevelDistribution = new HashMap<>();
+        countByRiskLevel(sweepPortfolio()).forEach((level, count) -> riskLevelDistribution.put(level.name(), count));
 
         // 统计预警数量
         long totalAlerts = creditLimitWarningRepository.count();
-        long activeAlerts = creditLimitWarningRepository.findAll().stream()
-                .filter(w -> Boolean.FALSE.equals(w.getIsResolved()))
-                .count();
+        long activeAlerts = creditLimitWarningRepository.countByIsResolvedFalse();
 
         report.put("reportPeriod", startDate.toLocalDate() + " 至 " + endDate.toLocalDate());
         report.put("reportGeneratedAt", LocalDateTime.now());
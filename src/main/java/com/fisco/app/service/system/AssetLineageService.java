@@ -0,0 +1,122 @@
+package com.fisco.app.service.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fisco.app.dto.system.AssetLineageNode;
+import com.fisco.app.entity.system.AssetLineage;
+import com.fisco.app.repository.system.AssetLineageRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 资产溯源服务
+ * 在票据、应收账款、电子仓单拆分与合并时维护闭包表，
+ * 溯源校验和祖先/后代树查询各只需一次索引查询，不再逐级回溯父ID
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetLineageService {
+
+    private final AssetLineageRepository lineageRepository;
+
+    /**
+     * 登记拆分：一个父资产生成多个子资产
+     * 必须在写入子资产的同一事务中调用，随业务数据一起提交或回滚
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSplit(AssetLineage.AssetType assetType, String parentId, Collection<String> childIds) {
+        String type = assetType.name();
+        lineageRepository.insertSelf(type, parentId);
+        for (String childId : childIds) {
+            lineageRepository.insertSelf(type, childId);
+            lineageRepository.linkClosure(type, parentId, childId);
+        }
+        log.debug("登记拆分溯源: type={}, parentId={}, childCount={}", assetType, parentId, childIds.size());
+    }
+
+    /**
+     * 登记合并：多个源资产合并为一个资产
+     * 必须在写入合并资产的同一事务中调用
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMerge(AssetLineage.AssetType assetType, Collection<String> sourceIds, String mergedId) {
+        String type = assetType.name();
+        lineageRepository.insertSelf(type, mergedId);
+        for (String sourceId : sourceIds) {
+            lineageRepository.insertSelf(type, sourceId);
+            lineageRepository.linkClosure(type, sourceId, mergedId);
+        }
+        log.debug("登记合并溯源: type={}, mergedId={}, sourceCount={}", assetType, mergedId, sourceIds.size());
+    }
+
+    /**
+     * 撤销尚无后代的资产的溯源关系（拆分/合并申请被拒绝时调用）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void detach(AssetLineage.AssetType assetType, String assetId) {
+        lineageRepository.deleteAncestorLinks(assetType.name(), assetId);
+    }
+
+    /**
+     * 查询直接父资产ID（合并资产对应全部源资产）
+     */
+    @Transactional(readOnly = true)
+    public List<String> getParentIds(AssetLineage.AssetType assetType, String assetId) {
+        return lineageRepository.findParentIds(assetType, assetId);
+    }
+
+    /**
+     * 判断 ancestorId 是否为 descendantId 的祖先
+     */
+    @Transactional(readOnly = true)
+    public boolean isAncestor(AssetLineage.AssetType assetType, String ancestorId, String descendantId) {
+        return lineageRepository.existsByAssetTypeAndAncestorIdAndDescendantIdAndDepthGreaterThan(
+                assetType, ancestorId, descendantId, 0);
+    }
+
+    /**
+     * 查询完整祖先树，按层级由近及远排序
+     */
+    @Transactional(readOnly = true)
+    public List<AssetLineageNode> getAncestors(AssetLineage.AssetType assetType, String assetId) {
+        return toNodes(lineageRepository.findAncestorTree(assetType.name(), assetId));
+    }
+
+    /**
+     * 查询完整后代树，按层级由近及远排序，父节点只列出子树内的节点
+     */
+    @Transactional(readOnly = true)
+    public List<AssetLineageNode> getDescendants(AssetLineage.AssetType assetType, String assetId) {
+        return toNodes(lineageRepository.findDescendantTree(assetType.name(), assetId));
+    }
+
+    /**
+     * 行格式 [asset_id, depth, parent_id]，同一资产的多行合并为一个节点
+     */
+    private List<AssetLineageNode> toNodes(List<Object[]> rows) {
+        Map<String, AssetLineageNode> nodes = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String assetId = (String) row[0];
+            AssetLineageNode node = nodes.computeIfAbsent(assetId, id -> {
+                AssetLineageNode created = new AssetLineageNode();
+                created.setAssetId(id);
+                created.setDepth(((Number) row[1]).intValue());
+                return created;
+            });
+            if (row[2] != null) {
+                node.getParentIds().add((String) row[2]);
+            }
+        }
+        return new ArrayList<>(nodes.values());
+    }
+}
@@ -0,0 +1,50 @@
+package com.fisco.app.service.system;
+
+import java.util.Collection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量实体写入
+ * 用于拆分、合并等一次生成大量新实体的场景
+ *
+ * 新实体的主键（UUID）在应用侧生成，JpaRepository.save 会将其视为已存在实体并先 SELECT 再 merge；
+ * 这里直接 persist，配合 hibernate.jdbc.batch_size / order_inserts 按批次发送 INSERT
+ */
+@Slf4j
+@Component
+public class BulkEntityWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    /**
+     * 批量插入新实体，必须在调用方事务内执行
+     * 每满一个批次 flush 一次，实体保持托管状态，调用方可继续使用
+     *
+     * @param entities 尚未持久化的新实体
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void insertAll(Collection<T> entities) {
+        int count = 0;
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+            }
+        }
+        entityManager.flush();
+        log.debug("批量插入完成: count={}", count);
+    }
+}
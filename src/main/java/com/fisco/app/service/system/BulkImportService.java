@@ -0,0 +1,817 @@
+package com.fisco.app.service.system;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.dto.bill.IssueBillRequest;
+import com.fisco.app.dto.enterprise.EnterpriseSnapshot;
+import com.fisco.app.dto.warehouse.ElectronicWarehouseReceiptCreateRequest;
+import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.entity.system.ImportJob;
+import com.fisco.app.entity.system.ImportJobRow;
+import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
+import com.fisco.app.exception.BusinessException;
+import com.fisco.app.repository.bill.BillRepository;
+import com.fisco.app.repository.system.ImportJobRepository;
+import com.fisco.app.repository.system.ImportJobRowRepository;
+import com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository;
+import com.fisco.app.security.PermissionChecker;
+import com.fisco.app.service.blockchain.ChainAdmissionControl;
+import com.fisco.app.service.blockchain.ContractService;
+import com.fisco.app.service.enterprise.EnterpriseDirectoryCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 票据、电子仓单批量导入
+ * 上传文件先落盘为临时文件，随即返回任务ID，由后台线程逐行流式读取并按块处理：
+ *
+ * - 解析与 Bean Validation 逐行完成，失败行记录原因后跳过
+ * - 企业按地址在任务内只解析一次（走企业目录缓存），重复ID每块一次查询
+ * - 通过校验的行经 BulkEntityWriter 按 JDBC 批次插入，逐行结果以 JDBC 批处理写入 import_job_row
+ * - 票据入库后提交上链，全局信号量限制同时在途的上链交易数；仓单创建为草稿，按原流程审核后上链
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    private static final String INSERT_ROW_SQL = "INSERT INTO import_job_row "
+            + "(job_id, row_no, business_key, entity_id, status, message, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, NOW(), NOW())";
+    private static final String UPDATE_ROW_SQL = "UPDATE import_job_row SET status = ?, message = ?, tx_hash = ?, "
+            + "updated_at = NOW() WHERE job_id = ? AND row_no = ?";
+    private static final String UPDATE_BILL_CHAIN_SQL = "UPDATE bill SET blockchain_status = ?, "
+            + "blockchain_tx_hash = ?, blockchain_time = ?, updated_at = ? WHERE bill_id = ?";
+    private static final String UPDATE_JOB_SQL = "UPDATE import_job SET status = ?, total_rows = ?, created_rows = ?, "
+            + "failed_rows = ?, chain_succeeded = ?, chain_failed = ?, error_message = ?, finished_at = ?, "
+            + "updated_at = NOW() WHERE id = ?";
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobRowRepository importJobRowRepository;
+    private final BillRepository billRepository;
+    private final ElectronicWarehouseReceiptRepository receiptRepository;
+    private final EnterpriseDirectoryCache enterpriseDirectoryCache;
+    private final BulkEntityWriter bulkEntityWriter;
+    private final BusinessNumberAllocator numberAllocator;
+    private final ObjectProvider<ContractService> contractServiceProvider;
+    private final ChainAdmissionControl chainAdmissionControl;
+    private final PermissionChecker permissionChecker;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk-import.job-threads:2}")
+    private int jobThreads;
+
+    @Value("${app.bulk-import.job-queue-capacity:20}")
+    private int jobQueueCapacity;
+
+    @Value("${app.bulk-import.chain-window:16}")
+    private int chainWindow;
+
+    private ThreadPoolExecutor jobExecutor;
+    private ThreadPoolExecutor chainExecutor;
+    private Semaphore chainPermits;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, jobQueueCapacity)),
+                new CustomizableThreadFactory("bulk-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // 在途任务数由 chainPermits 限制，队列不会超过窗口大小
+        chainExecutor = new ThreadPoolExecutor(chainWindow, chainWindow, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("bulk-import-chain-"));
+        chainPermits = new Semaphore(chainWindow);
+        log.info("批量导入线程池已初始化: jobThreads={}, chainWindow={}, chunkSize={}",
+                jobThreads, chainWindow, chunkSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        chainExecutor.shutdown();
+    }
+
+    /**
+     * 提交票据批量开立任务
+     *
+     * @param file 导入文件，字段与 IssueBillRequest 一致
+     * @param format 文件格式
+     * @param issuerAddress 出票人地址
+     * @return 已创建的导入任务
+     */
+    public ImportJob submitBillImport(MultipartFile file, ExportFormat format, String issuerAddress) {
+        EnterpriseSnapshot issuer = enterpriseDirectoryCache.getByAddress(issuerAddress)
+                .filter(EnterpriseSnapshot::isActive)
+                .orElseThrow(() -> new BusinessException(400, "出票人不存在或未激活"));
+        return submit(ImportJob.JobType.BILL, file, format, issuerAddress,
+                (job, path) -> runJob(job, path, format, IssueBillRequest.class,
+                        context -> rows -> processBillChunk(context, issuer, rows)));
+    }
+
+    /**
+     * 提交电子仓单批量创建任务
+     *
+     * @param file 导入文件，字段与 ElectronicWarehouseReceiptCreateRequest 一致
+     * @param format 文件格式
+     * @param authentication 提交人认证信息，用于逐个货主企业校验创建权限
+     * @return 已创建的导入任务
+     */
+    public ImportJob submitReceiptImport(MultipartFile file, ExportFormat format, Authentication authentication) {
+        return submit(ImportJob.JobType.WAREHOUSE_RECEIPT, file, format, authentication.getName(),
+                (job, path) -> runJob(job, path, format, ElectronicWarehouseReceiptCreateRequest.class,
+                        context -> rows -> processReceiptChunk(context, authentication, rows)));
+    }
+
+    /**
+     * 查询导入任务，只有提交人可以查看
+     */
+    public ImportJob getJob(String jobId, String requester) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new BusinessException(404, "导入任务不存在"));
+        if (requester == null || !requester.equals(job.getCreatedBy())) {
+            throw new BusinessException(403, "无权查看该导入任务");
+        }
+        return job;
+    }
+
+    /**
+     * 分页查询导入任务的逐行结果
+     */
+    public Page<ImportJobRow> getJobRows(String jobId, ImportJobRow.RowStatus status, int page, int size,
+                                         String requester) {
+        getJob(jobId, requester);
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE));
+        return status != null
+                ? importJobRowRepository.findByJobIdAndStatusOrderByRowNo(jobId, status, pageable)
+                : importJobRowRepository.findByJobIdOrderByRowNo(jobId, pageable);
+    }
+
+    // ==================== 任务调度 ====================
+
+    private ImportJob submit(ImportJob.JobType jobType, MultipartFile file, ExportFormat format, String operator,
+                             JobRunner runner) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(400, "导入文件不能为空");
+        }
+        Path path;
+        try {
+            path = Files.createTempFile("bulk-import-", "." + format.getExtension());
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new BusinessException(500, "导入文件保存失败: " + e.getMessage(), e);
+        }
+
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setJobType(jobType);
+        job.setStatus(ImportJob.JobStatus.PENDING);
+        job.setFileName(file.getOriginalFilename());
+        job.setFileFormat(format.name());
+        job.setCreatedBy(operator);
+        ImportJob saved = importJobRepository.save(job);
+
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    runner.run(saved, path);
+                } finally {
+                    deleteQuietly(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(path);
+            saved.setStatus(ImportJob.JobStatus.FAILED);
+            saved.setErrorMessage("导入任务排队已满");
+            saved.setFinishedAt(LocalDateTime.now());
+            importJobRepository.save(saved);
+            throw new BusinessException(503, "导入任务过多，请稍后重试");
+        }
+        log.info("批量导入任务已提交: jobId={}, type={}, file={}, size={}",
+                saved.getId(), jobType, file.getOriginalFilename(), file.getSize());
+        return saved;
+    }
+
+    private <R> void runJob(ImportJob job, Path path, ExportFormat format, Class<R> requestType,
+                            Function<JobContext, Consumer<List<ParsedRow<R>>>> processorFactory) {
+        JobContext context = new JobContext(job.getId());
+        long startTime = System.currentTimeMillis();
+        updateJob(context, ImportJob.JobStatus.RUNNING, null, null);
+        String errorMessage = null;
+        try {
+            Consumer<List<ParsedRow<R>>> processor = processorFactory.apply(context);
+            readRows(path, format, requestType, chunk -> {
+                processor.accept(chunk);
+                updateJob(context, ImportJob.JobStatus.RUNNING, null, null);
+            });
+        } catch (Exception e) {
+            log.error("批量导入任务失败: jobId={}, error={}", job.getId(), e.getMessage(), e);
+            errorMessage = e.getMessage() != null ? truncate(e.getMessage()) : e.getClass().getSimpleName();
+        }
+        // 已提交的上链交易无论任务是否失败都需等待结果落库
+        awaitChain(context);
+        updateJob(context, errorMessage == null ? ImportJob.JobStatus.COMPLETED : ImportJob.JobStatus.FAILED,
+                errorMessage, LocalDateTime.now());
+        log.info("批量导入任务结束: jobId={}, total={}, created={}, failed={}, chainSucceeded={}, chainFailed={}, duration={}ms",
+                job.getId(), context.total.get(), context.created.get(), context.failed.get(),
+                context.chainSucceeded.get(), context.chainFailed.get(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 等待本任务提交的上链交易全部返回，期间定期刷新任务进度
+     */
+    private void awaitChain(JobContext context) {
+        int phase = context.chainInFlight.arrive();
+        while (true) {
+            try {
+                context.chainInFlight.awaitAdvanceInterruptibly(phase, 2, TimeUnit.SECONDS);
+                return;
+            } catch (TimeoutException e) {
+                updateJob(context, ImportJob.JobStatus.RUNNING, null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void updateJob(JobContext context, ImportJob.JobStatus status, String errorMessage,
+                           LocalDateTime finishedAt) {
+        jdbcTemplate.update(UPDATE_JOB_SQL, status.name(), context.total.get(), context.created.get(),
+                context.failed.get(), context.chainSucceeded.get(), context.chainFailed.get(), errorMessage,
+                finishedAt != null ? Timestamp.valueOf(finishedAt) : null, context.jobId);
+    }
+
+    // ==================== 文件解析 ====================
+
+    private <R> void readRows(Path path, ExportFormat format, Class<R> requestType,
+                              Consumer<List<ParsedRow<R>>> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String[] header = null;
+            if (format == ExportFormat.CSV) {
+                String headerLine = readCsvRecord(reader);
+                if (headerLine == null) {
+                    return;
+                }
+                header = parseCsvLine(stripBom(headerLine));
+            }
+
+            List<ParsedRow<R>> chunk = new ArrayList<>(chunkSize);
+            long rowNo = 0;
+            String line;
+            while ((line = header != null ? readCsvRecord(reader) : reader.readLine()) != null) {
+                if (rowNo == 0 && header == null) {
+                    line = stripBom(line);
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                chunk.add(parseRow(++rowNo, line, header, requestType));
+                if (chunk.size() >= chunkSize) {
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+        }
+    }
+
+    private <R> ParsedRow<R> parseRow(long rowNo, String line, String[] header, Class<R> requestType) {
+        ParsedRow<R> row = new ParsedRow<>(rowNo);
+        try {
+            R request;
+            if (header != null) {
+                String[] cells = parseCsvLine(line);
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < header.length && i < cells.length; i++) {
+                    if (!cells[i].isEmpty()) {
+                        values.put(header[i], cells[i]);
+                    }
+                }
+                request = objectMapper.convertValue(values, requestType);
+            } else {
+                request = objectMapper.readValue(line, requestType);
+            }
+            row.request = request;
+            Set<ConstraintViolation<R>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                row.error = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+            }
+        } catch (Exception e) {
+            row.error = "解析失败: " + e.getMessage();
+        }
+        return row;
+    }
+
+    /**
+     * 读取一条CSV记录（不含行尾），引号内的换行属于单元格内容，不结束记录
+     *
+     * @return 记录文本，已到文件末尾时返回 null
+     */
+    static String readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder();
+        boolean quoted = false;
+        for (; c >= 0; c = reader.read()) {
+            if (c == '"') {
+                // 引号内的 "" 切换两次，状态不变
+                quoted = !quoted;
+            } else if (!quoted && (c == '\n' || c == '\r')) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            }
+            record.append((char) c);
+        }
+        return record.toString();
+    }
+
+    /**
+     * 解析一条CSV记录，支持双引号转义和单元格内换行
+     * 未加引号的单元格去除首尾空白，加引号的单元格只去除引号外的空白；
+     * 导出时为防公式注入添加的单引号前缀在这里去除
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                if (!wasQuoted && cell.toString().trim().isEmpty()) {
+                    // 丢弃开头引号之前的空白
+                    cell.setLength(0);
+                }
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                cells.add(unguard(wasQuoted ? cell.toString() : cell.toString().trim()));
+                cell.setLength(0);
+                wasQuoted = false;
+            } else if (!wasQuoted || !Character.isWhitespace(c)) {
+                cell.append(c);
+            }
+        }
+        cells.add(unguard(wasQuoted ? cell.toString() : cell.toString().trim()));
+        return cells.toArray(new String[0]);
+    }
+
+    private static String unguard(String value) {
+        if (!value.isEmpty() && value.charAt(0) == '\''
+                && StreamingExportService.isFormulaLike(value.substring(1))) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // ==================== 票据 ====================
+
+    private void processBillChunk(JobContext context, EnterpriseSnapshot issuer,
+                                  List<ParsedRow<IssueBillRequest>> rows) {
+        Set<String> existing = new HashSet<>(billRepository.findExistingBillIds(
+                validKeys(rows, IssueBillRequest::getId)));
+        ContractService contractService = contractServiceProvider.getIfAvailable();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ParsedRow<IssueBillRequest> row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            IssueBillRequest request = row.request;
+            row.businessKey = request.getId();
+            if (existing.contains(request.getId())) {
+                row.error = "票据ID已存在";
+                continue;
+            }
+            if (!context.seenKeys.add(request.getId())) {
+                row.error = "文件内票据ID重复";
+                continue;
+            }
+            EnterpriseSnapshot acceptor = context.enterprise(request.getAcceptorAddress());
+            if (acceptor == null) {
+                row.error = "承兑人不存在或未激活";
+                continue;
+            }
+            EnterpriseSnapshot beneficiary = context.enterprise(request.getBeneficiaryAddress());
+            if (beneficiary == null) {
+                row.error = "受益人不存在或未激活";
+                continue;
+            }
+            if (request.getDueDate().isBefore(request.getIssueDate())) {
+                row.error = "到期日期必须晚于出票日期";
+                continue;
+            }
+
+            Bill bill = new Bill();
+            bill.setBillId(request.getId());
+            bill.setBillNo(numberAllocator.next("BILL"));
+            bill.setBillType(request.getBillType());
+            bill.setFaceValue(request.getAmount());
+            bill.setCurrency(request.getCurrency() != null ? request.getCurrency() : "CNY");
+            bill.setIssueDate(request.getIssueDate());
+            bill.setDueDate(request.getDueDate());
+            bill.setDrawerId(issuer.getId());
+            bill.setDrawerName(issuer.getName());
+            bill.setDrawerAddress(issuer.getAddress());
+            bill.setDraweeId(acceptor.getId());
+            bill.setDraweeName(acceptor.getName());
+            bill.setDraweeAddress(acceptor.getAddress());
+            bill.setPayeeId(beneficiary.getId());
+            bill.setPayeeName(beneficiary.getName());
+            bill.setPayeeAddress(beneficiary.getAddress());
+            bill.setCurrentHolderId(beneficiary.getId());
+            bill.setCurrentHolderName(beneficiary.getName());
+            bill.setCurrentHolderAddress(beneficiary.getAddress());
+            bill.setGoodsDescription(request.getDescription());
+            bill.setBillStatus(Bill.BillStatus.ISSUED);
+            bill.setBlockchainStatus(contractService != null
+                    ? Bill.BlockchainStatus.PENDING : Bill.BlockchainStatus.NOT_ONCHAIN);
+            bill.setCreatedBy(issuer.getAddress());
+            bill.setUpdatedBy(issuer.getAddress());
+            bill.setCreatedAt(now);
+            bill.setUpdatedAt(now);
+            row.entity = bill;
+            row.entityId = bill.getBillId();
+        }
+
+        insertChunk(context, rows);
+
+        // 区块链未启用时票据保持未上链状态，行结果停留在 CREATED
+        if (contractService != null) {
+            for (ParsedRow<IssueBillRequest> row : rows) {
+                if (row.error == null) {
+                    submitBillOnChain(context, contractService, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在全局窗口内提交上链，窗口占满时阻塞读取线程，对文件读取形成背压
+     */
+    private void submitBillOnChain(JobContext context, ContractService contractService,
+                                   ParsedRow<IssueBillRequest> row) {
+        Bill bill = (Bill) row.entity;
+        try {
+            // 按出票企业的开立限速提交，批量任务不挤占其他企业的上链额度
+            chainAdmissionControl.await(bill.getDrawerAddress(), ChainOperation.OperationClass.ISSUE);
+            chainPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markChainResult(context, row, null, "上链提交被中断");
+            return;
+        }
+        context.chainInFlight.register();
+        try {
+            chainExecutor.execute(() -> {
+                try {
+                    String txHash = contractService.issueBillOnChain(bill).getTxHash();
+                    markChainResult(context, row, txHash, null);
+                } catch (Exception e) {
+                    log.warn("批量导入票据上链失败: jobId={}, billId={}, error={}",
+                            context.jobId, bill.getBillId(), e.getMessage());
+                    markChainResult(context, row, null, "上链失败: " + e.getMessage());
+                } finally {
+                    chainPermits.release();
+                    context.chainInFlight.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            chainPermits.release();
+            context.chainInFlight.arriveAndDeregister();
+            markChainResult(context, row, null, "上链线程池已关闭");
+        }
+    }
+
+    private void markChainResult(JobContext context, ParsedRow<?> row, String txHash, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (error == null) {
+                jdbcTemplate.update(UPDATE_BILL_CHAIN_SQL, Bill.BlockchainStatus.ONCHAIN.name(), txHash,
+                        Timestamp.valueOf(now), Timestamp.valueOf(now), row.entityId);
+                jdbcTemplate.update(UPDATE_ROW_SQL, ImportJobRow.RowStatus.ONCHAIN.name(), null, txHash,
+                        context.jobId, row.rowNo);
+                context.chainSucceeded.incrementAndGet();
+            } else {
+                jdbcTemplate.update(UPDATE_BILL_CHAIN_SQL, Bill.BlockchainStatus.FAILED.name(), null,
+                        null, Timestamp.valueOf(now), row.entityId);
+                jdbcTemplate.update(UPDATE_ROW_SQL, ImportJobRow.RowStatus.CHAIN_FAILED.name(), truncate(error),
+                        null, context.jobId, row.rowNo);
+                context.chainFailed.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.error("批量导入上链结果写入失败: jobId={}, rowNo={}, error={}", context.jobId, row.rowNo, e.getMessage());
+        }
+    }
+
+    // ==================== 电子仓单 ====================
+
+    private void processReceiptChunk(JobContext context, Authentication authentication,
+                                     List<ParsedRow<ElectronicWarehouseReceiptCreateRequest>> rows) {
+        Set<String> existing = new HashSet<>(receiptRepository.findExistingReceiptNos(
+                validKeys(rows, ElectronicWarehouseReceiptCreateRequest::getReceiptNo)));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ParsedRow<ElectronicWarehouseReceiptCreateRequest> row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            ElectronicWarehouseReceiptCreateRequest request = row.request;
+            row.businessKey = request.getReceiptNo();
+            String denied = context.ownerPermissions.computeIfAbsent(request.getOwnerId(), ownerId -> {
+                try {
+                    permissionChecker.checkCreateReceiptPermission(authentication, ownerId, null);
+                    return "";
+                } catch (BusinessException e) {
+                    return e.getMessage();
+                }
+            });
+            if (!denied.isEmpty()) {
+                row.error = denied;
+                continue;
+            }
+            if (existing.contains(request.getReceiptNo())) {
+                row.error = "仓单编号已存在";
+                continue;
+            }
+            if (!context.seenKeys.add(request.getReceiptNo())) {
+                row.error = "文件内仓单编号重复";
+                continue;
+            }
+            EnterpriseSnapshot warehouse = context.enterprise(request.getWarehouseAddress());
+            if (warehouse == null) {
+                row.error = "仓储企业不存在或未激活";
+                continue;
+            }
+            EnterpriseSnapshot owner = context.enterprise(request.getOwnerAddress());
+            if (owner == null) {
+                row.error = "货主企业不存在或未激活";
+                continue;
+            }
+            if (!request.getExpiryDate().isAfter(request.getStorageDate())) {
+                row.error = "有效期必须晚于入库时间";
+                continue;
+            }
+
+            String operator = request.getOwnerOperatorId() != null ? request.getOwnerOperatorId() : "system";
+            ElectronicWarehouseReceipt receipt = new ElectronicWarehouseReceipt();
+            receipt.setId(UUID.randomUUID().toString());
+            receipt.setReceiptNo(request.getReceiptNo());
+            receipt.setWarehouseId(request.getWarehouseId());
+            receipt.setWarehouseAddress(request.getWarehouseAddress());
+            receipt.setWarehouseName(request.getWarehouseName() != null ? request.getWarehouseName() : warehouse.getName());
+            receipt.setOwnerId(request.getOwnerId());
+            receipt.setOwnerAddress(request.getOwnerAddress());
+            receipt.setOwnerName(request.getOwnerName() != null ? request.getOwnerName() : owner.getName());
+            receipt.setHolderAddress(request.getHolderAddress());
+            receipt.setCurrentHolder(receipt.getOwnerName() != null ? receipt.getOwnerName() : request.getOwnerId());
+            receipt.setGoodsName(request.getGoodsName());
+            receipt.setUnit(request.getUnit());
+            receipt.setQuantity(request.getQuantity());
+            receipt.setUnitPrice(request.getUnitPrice());
+            BigDecimal totalValue = request.getQuantity().multiply(request.getUnitPrice());
+            receipt.setTotalValue(totalValue);
+            receipt.setMarketPrice(request.getMarketPrice());
+            receipt.setWarehouseLocation(request.getWarehouseLocation());
+            receipt.setStorageLocation(request.getStorageLocation());
+            receipt.setStorageDate(request.getStorageDate());
+            receipt.setExpiryDate(request.getExpiryDate());
+            receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.DRAFT);
+            receipt.setBatchNo(request.getBatchNo());
+            receipt.setOwnerOperatorId(request.getOwnerOperatorId());
+            receipt.setOwnerOperatorName(request.getOwnerOperatorName());
+            receipt.setWarehouseOperatorId(request.getWarehouseOperatorId());
+            receipt.setWarehouseOperatorName(request.getWarehouseOperatorName());
+            receipt.setRemarks(request.getRemarks());
+            receipt.setCreatedBy(operator);
+            receipt.setUpdatedBy(operator);
+            receipt.setCreatedAt(now);
+            receipt.setUpdatedAt(now);
+            row.entity = receipt;
+            row.entityId = receipt.getId();
+        }
+
+        insertChunk(context, rows);
+    }
+
+    // ==================== 公共步骤 ====================
+
+    private static <R> List<String> validKeys(List<ParsedRow<R>> rows, Function<R, String> key) {
+        List<String> keys = new ArrayList<>();
+        for (ParsedRow<R> row : rows) {
+            if (row.error == null) {
+                keys.add(key.apply(row.request));
+            }
+        }
+        return keys.isEmpty() ? Collections.singletonList("") : keys;
+    }
+
+    /**
+     * 在一个事务内批量插入本块实体并写入逐行结果；插入失败时本块待插入行全部记为失败
+     */
+    private <R> void insertChunk(JobContext context, List<ParsedRow<R>> rows) {
+        List<Object> entities = new ArrayList<>();
+        for (ParsedRow<R> row : rows) {
+            if (row.error == null && row.entity != null) {
+                entities.add(row.entity);
+            }
+        }
+        if (!entities.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> bulkEntityWriter.insertAll(entities));
+            } catch (Exception e) {
+                log.error("批量导入入库失败: jobId={}, size={}, error={}", context.jobId, entities.size(), e.getMessage());
+                String message = "入库失败: " + e.getMessage();
+                for (ParsedRow<R> row : rows) {
+                    if (row.error == null) {
+                        row.error = message;
+                        row.entityId = null;
+                    }
+                }
+            }
+        }
+
+        List<Object[]> results = new ArrayList<>(rows.size());
+        for (ParsedRow<R> row : rows) {
+            context.total.incrementAndGet();
+            if (row.error == null) {
+                context.created.incrementAndGet();
+                results.add(new Object[] {context.jobId, row.rowNo, row.businessKey, row.entityId,
+                        ImportJobRow.RowStatus.CREATED.name(), null});
+            } else {
+                context.failed.incrementAndGet();
+                results.add(new Object[] {context.jobId, row.rowNo, row.businessKey, null,
+                        ImportJobRow.RowStatus.INVALID.name(), truncate(row.error)});
+            }
+            // 已入库实体不再需要，仅保留上链所需的票据
+            if (!(row.entity instanceof Bill) || row.error != null) {
+                row.entity = null;
+            }
+            row.request = null;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ROW_SQL, results);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: path={}, error={}", path, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobRunner {
+        void run(ImportJob job, Path path);
+    }
+
+    /**
+     * 单个导入任务的运行状态
+     */
+    private final class JobContext {
+        private final String jobId;
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong chainSucceeded = new AtomicLong();
+        private final AtomicLong chainFailed = new AtomicLong();
+
+        /**
+         * 本任务在途的上链交易，任务线程自身占一个参与方
+         */
+        private final Phaser chainInFlight = new Phaser(1);
+
+        /**
+         * 企业地址 -> 有效企业快照，任务内每个地址只解析一次
+         */
+        private final Map<String, Optional<EnterpriseSnapshot>> enterprises = new HashMap<>();
+
+        /**
+         * 货主企业ID -> 权限校验失败原因（空串表示通过）
+         */
+        private final Map<String, String> ownerPermissions = new HashMap<>();
+
+        /**
+         * 文件内已出现的业务键
+         */
+        private final Set<String> seenKeys = new HashSet<>();
+
+        JobContext(String jobId) {
+            this.jobId = jobId;
+        }
+
+        EnterpriseSnapshot enterprise(String address) {
+            return enterprises.computeIfAbsent(address, key -> enterpriseDirectoryCache.getByAddress(key)
+                    .filter(EnterpriseSnapshot::isActive))
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * 文件中的一行
+     */
+    private static final class ParsedRow<R> {
+        private final long rowNo;
+        private R request;
+        private String businessKey;
+        private String error;
+        private Object entity;
+        private String entityId;
+
+        ParsedRow(long rowNo) {
+            this.rowNo = rowNo;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.fisco.app.service.system;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fisco.app.exception.BusinessException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 业务编号分配器（号段模式）
+ * 按"前缀+日期"从 number_segment 表租用一段连续序号，在内存中用原子计数器发放，
+ * 当前号段剩余不足时异步预取下一段，正常情况下发放编号不访问数据库
+ *
+ * 同一节点内编号严格递增；多节点之间各自持有不同号段，编号唯一但不保证全局递增
+ *
+ * 租用号段只对已存在的号段行加锁推进：当日首次租用时先在独立短事务中 INSERT IGNORE 创建号段行，
+ * 避免对不存在的行加锁读取产生间隙锁，多节点同时租用当日首段时互相死锁
+ */
+@Slf4j
+@Service
+public class BusinessNumberAllocator {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String CREATE_SQL = "INSERT IGNORE INTO number_segment "
+            + "(segment_key, max_value, created_at, updated_at) VALUES (?, 0, NOW(), NOW())";
+
+    private static final String ADVANCE_SQL = "UPDATE number_segment "
+            + "SET max_value = max_value + ?, updated_at = NOW() WHERE segment_key = ?";
+
+    private static final String SELECT_SQL = "SELECT max_value FROM number_segment WHERE segment_key = ?";
+
+    /**
+     * 锁等待超时或死锁时的最大重试次数
+     */
+    private static final int MAX_LOCK_RETRIES = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+    private final Executor prefetchExecutor;
+
+    /**
+     * 前缀 -> 当日号段缓冲
+     */
+    private final Map<String, SegmentBuffer> buffers = new ConcurrentHashMap<>();
+
+    @Value("${app.number-allocator.step:1000}")
+    private int step;
+
+    @Value("${app.number-allocator.prefetch-ratio:0.2}")
+    private double prefetchRatio;
+
+    @Value("${app.number-allocator.sequence-width:6}")
+    private int sequenceWidth;
+
+    public BusinessNumberAllocator(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("asyncTaskExecutor") Executor prefetchExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * 生成业务编号
+     * 格式: 前缀 + yyyyMMdd + 定长流水号，如 END20250209000001
+     *
+     * @param prefix 编号前缀
+     * @return 业务编号
+     */
+    public String next(String prefix) {
+        LocalDate today = LocalDate.now();
+        return prefix + today.format(DATE_FORMAT) + formatSequence(nextSequence(prefix, today));
+    }
+
+    /**
+     * 获取指定前缀在指定日期下的下一个流水号，供需要自定义编号格式的场景使用
+     *
+     * @param prefix 编号前缀
+     * @param date 日期
+     * @return 从1开始的流水号
+     */
+    public long nextSequence(String prefix, LocalDate date) {
+        SegmentBuffer buffer = bufferFor(prefix, date);
+        while (true) {
+            Segment segment = buffer.current;
+            if (segment != null) {
+                long value = segment.cursor.getAndIncrement();
+                if (value <= segment.max) {
+                    if (segment.max - value < (long) (step * prefetchRatio)) {
+                        prefetch(buffer);
+                    }
+                    return value;
+                }
+            }
+            switchSegment(buffer, segment);
+        }
+    }
+
+    /**
+     * 按配置宽度补零格式化流水号，超出宽度时保留全部位数
+     */
+    public String formatSequence(long sequence) {
+        return String.format("%0" + sequenceWidth + "d", sequence);
+    }
+
+    private SegmentBuffer bufferFor(String prefix, LocalDate date) {
+        String segmentKey = prefix + ":" + date.format(DATE_FORMAT);
+        SegmentBuffer buffer = buffers.get(prefix);
+        if (buffer == null || !buffer.segmentKey.equals(segmentKey)) {
+            // 跨日后替换为新日期的号段缓冲，旧缓冲不再使用
+            buffer = buffers.compute(prefix, (k, existing) ->
+                    existing != null && existing.segmentKey.equals(segmentKey) ? existing : new SegmentBuffer(segmentKey));
+        }
+        return buffer;
+    }
+
+    /**
+     * 当前号段耗尽时切换到预取号段，没有预取号段则同步租用
+     */
+    private void switchSegment(SegmentBuffer buffer, Segment exhausted) {
+        synchronized (buffer) {
+            if (buffer.current != exhausted) {
+                return;
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (buffer.next == null && buffer.loading && System.nanoTime() < deadline) {
+                try {
+                    buffer.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BusinessException(503, "业务编号分配被中断");
+                }
+            }
+            if (buffer.next != null) {
+                buffer.current = buffer.next;
+                buffer.next = null;
+            } else {
+                buffer.current = lease(buffer.segmentKey);
+            }
+        }
+    }
+
+    private void prefetch(SegmentBuffer buffer) {
+        synchronized (buffer) {
+            if (buffer.next != null || buffer.loading) {
+                return;
+            }
+            buffer.loading = true;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                Segment segment = null;
+                try {
+                    segment = lease(buffer.segmentKey);
+                } catch (Exception e) {
+                    log.warn("预取业务编号号段失败，将在号段耗尽时同步租用: key={}, error={}",
+                            buffer.segmentKey, e.getMessage());
+                } finally {
+                    synchronized (buffer) {
+                        if (segment != null) {
+                            buffer.next = segment;
+                        }
+                        buffer.loading = false;
+                        buffer.notifyAll();
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // 线程池拒绝时放弃预取，号段耗尽后同步租用
+            synchronized (buffer) {
+                buffer.loading = false;
+                buffer.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 在独立事务中租用下一段序号：UPDATE 推进已租出的最大序号（行锁），同一事务内读回推进后的值
+     */
+    private Segment lease(String segmentKey) {
+        int lockFailures = 0;
+        boolean created = false;
+        while (true) {
+            try {
+                Segment segment = requiresNewTemplate.execute(status -> {
+                    if (jdbcTemplate.update(ADVANCE_SQL, step, segmentKey) == 0) {
+                        return null;
+                    }
+                    Long max = jdbcTemplate.queryForObject(SELECT_SQL, Long.class, segmentKey);
+                    return new Segment(max - step + 1, max);
+                });
+                if (segment != null) {
+                    log.debug("租用业务编号号段: key={}, range=[{}, {}]",
+                            segmentKey, segment.cursor.get(), segment.max);
+                    return segment;
+                }
+                if (created) {
+                    throw new BusinessException(503, "业务编号号段创建失败: " + segmentKey);
+                }
+                // 当日首次租用：单条语句的短事务创建号段行，其他节点同时创建时忽略
+                requiresNewTemplate.executeWithoutResult(status -> jdbcTemplate.update(CREATE_SQL, segmentKey));
+                created = true;
+            } catch (PessimisticLockingFailureException e) {
+                // 锁等待超时或死锁被回滚，整段重试
+                if (++lockFailures >= MAX_LOCK_RETRIES) {
+                    throw new BusinessException(503, "业务编号号段租用失败: " + segmentKey);
+                }
+                log.warn("租用业务编号号段锁冲突，重试: key={}, attempt={}, error={}",
+                        segmentKey, lockFailures, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 一段已租用的序号区间 [start, max]
+     */
+    private static class Segment {
+        private final AtomicLong cursor;
+        private final long max;
+
+        Segment(long start, long max) {
+            this.cursor = new AtomicLong(start);
+            this.max = max;
+        }
+    }
+
+    /**
+     * 双号段缓冲：当前号段 + 预取号段
+     */
+    private static class SegmentBuffer {
+        private final String segmentKey;
+        private volatile Segment current;
+        private volatile Segment next;
+        private volatile boolean loading;
+
+        SegmentBuffer(String segmentKey) {
+            this.segmentKey = segmentKey;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.fisco.app.service.system;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fisco.app.config.CacheKeyIndex;
+import com.fisco.app.entity.system.CacheInvalidationLog;
+import com.fisco.app.repository.system.CacheInvalidationLogRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 跨节点缓存失效总线
+ * 每个实例各自持有 Caffeine 本地缓存，失效操作先在本地执行，再写入 cache_invalidation_log；
+ * 其他实例按自增ID高水位定时轮询该表并在本地重放，无需引入额外中间件
+ *
+ * 自增ID在插入时分配、按提交顺序可见，较小的ID可能晚于较大的ID提交；高水位以下尚未出现的ID记为空洞，
+ * 后续轮询从最小空洞处重新扫描，空洞在 gap-timeout-ms 内出现则补充重放，超时（回滚或插入失败留下的空号）后放弃
+ *
+ * 适用于 CacheManager 管理的全部缓存（enterpriseAccess、userRole、userRoles、blockchainStats 及后续新增缓存），
+ * 非 Spring Cache 的本地缓存可通过 {@link #registerHandler} 接入
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    private static final int POLL_BATCH_SIZE = 500;
+
+    /**
+     * 一次跳跃最多登记的空洞数，超出部分视为已失效的空号
+     */
+    private static final int MAX_GAPS_PER_JUMP = 1000;
+
+    private final CacheInvalidationLogRepository logRepository;
+    private final CacheManager cacheManager;
+    private final CacheKeyIndex cacheKeyIndex;
+    private final TransactionTemplate requiresNewTemplate;
+
+    /**
+     * 非 Spring Cache 的本地缓存失效处理器，参数为缓存键
+     */
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.node-id:}")
+    private String nodeId;
+
+    @Value("${app.cache.invalidation.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.cache.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    /**
+     * 已重放的最大日志ID
+     */
+    private volatile long highWaterMark;
+
+    /**
+     * 高水位以下尚未读到的日志ID -> 放弃等待的时间，仅由轮询线程访问
+     */
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    public CacheInvalidationBus(CacheInvalidationLogRepository logRepository, CacheManager cacheManager,
+                                CacheKeyIndex cacheKeyIndex, PlatformTransactionManager transactionManager) {
+        this.logRepository = logRepository;
+        this.cacheManager = cacheManager;
+        this.cacheKeyIndex = cacheKeyIndex;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isEmpty()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        if (enabled) {
+            // 启动时本地缓存为空，历史失效记录无需重放
+            highWaterMark = logRepository.findMaxId();
+        }
+        log.info("缓存失效总线已初始化: enabled={}, nodeId={}, highWaterMark={}", enabled, nodeId, highWaterMark);
+    }
+
+    /**
+     * 注册非 Spring Cache 的本地缓存失效处理器
+     */
+    public void registerHandler(String cacheName, Consumer<String> handler) {
+        handlers.put(cacheName, handler);
+    }
+
+    /**
+     * 失效单个缓存键（本地执行并广播）
+     */
+    public void evict(String cacheName, String key) {
+        applyLocally(cacheName, CacheInvalidationLog.Scope.KEY, key);
+        broadcast(cacheName, CacheInvalidationLog.Scope.KEY, key);
+    }
+
+    /**
+     * 失效标签下的全部缓存键（本地执行并广播）
+     */
+    public int evictTag(String cacheName, String tag) {
+        int evicted = applyLocally(cacheName, CacheInvalidationLog.Scope.TAG, tag);
+        broadcast(cacheName, CacheInvalidationLog.Scope.TAG, tag);
+        return evicted;
+    }
+
+    /**
+     * 清空整个缓存（本地执行并广播）
+     */
+    public void clear(String cacheName) {
+        applyLocally(cacheName, CacheInvalidationLog.Scope.ALL, null);
+        broadcast(cacheName, CacheInvalidationLog.Scope.ALL, null);
+    }
+
+    /**
+     * 仅向其他节点广播失效（本地已自行处理时使用）
+     */
+    public void broadcast(String cacheName, CacheInvalidationLog.Scope scope, String target) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // 调用方可能处于事务提交后的回调中，使用独立事务保证日志落库
+            requiresNewTemplate.executeWithoutResult(status -> {
+                CacheInvalidationLog entry = new CacheInvalidationLog();
+                entry.setCacheName(cacheName);
+                entry.setScope(scope);
+                entry.setTarget(target);
+                entry.setOriginNode(nodeId);
+                logRepository.save(entry);
+            });
+        } catch (Exception e) {
+            log.error("缓存失效广播失败，其他节点将依赖TTL过期: cache={}, scope={}, target={}, error={}",
+                    cacheName, scope, target, e.getMessage());
+        }
+    }
+
+    /**
+     * 轮询其他节点的失效记录并在本地重放
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            long cursor = gaps.isEmpty() ? highWaterMark : Math.min(gaps.firstKey() - 1, highWaterMark);
+            List<CacheInvalidationLog> entries;
+            do {
+                entries = logRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, POLL_BATCH_SIZE));
+                for (CacheInvalidationLog entry : entries) {
+                    long id = entry.getId();
+                    cursor = id;
+                    if (id <= highWaterMark) {
+                        // 高水位以下只重放空洞中晚提交的记录，其余已重放过
+                        if (gaps.remove(id) == null) {
+                            continue;
+                        }
+                    } else {
+                        recordGaps(highWaterMark, id, now + gapTimeoutMs);
+                        highWaterMark = id;
+                    }
+                    if (!nodeId.equals(entry.getOriginNode())) {
+                        applyLocally(entry.getCacheName(), entry.getScope(), entry.getTarget());
+                    }
+                }
+            } while (entries.size() == POLL_BATCH_SIZE);
+            expireGaps(now);
+        } catch (Exception e) {
+            log.warn("缓存失效日志轮询失败: highWaterMark={}, error={}", highWaterMark, e.getMessage());
+        }
+    }
+
+    /**
+     * 登记 (from, to) 之间尚未读到的日志ID
+     */
+    private void recordGaps(long from, long to, long deadline) {
+        long missing = to - from - 1;
+        if (missing <= 0) {
+            return;
+        }
+        if (missing > MAX_GAPS_PER_JUMP) {
+            log.warn("缓存失效日志ID跳跃过大，仅等待最近的空洞: from={}, to={}", from, to);
+        }
+        for (long id = Math.max(from + 1, to - MAX_GAPS_PER_JUMP); id < to; id++) {
+            gaps.put(id, deadline);
+        }
+    }
+
+    private void expireGaps(long now) {
+        Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 清理过期的失效记录
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer deleted = requiresNewTemplate.execute(status ->
+                    logRepository.deleteByCreatedAtBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+            log.debug("已清理过期缓存失效记录: count={}", deleted);
+        } catch (Exception e) {
+            log.warn("清理缓存失效记录失败: error={}", e.getMessage());
+        }
+    }
+
+    private int applyLocally(String cacheName, CacheInvalidationLog.Scope scope, String target) {
+        Consumer<String> handler = handlers.get(cacheName);
+        if (handler != null) {
+            if (scope == CacheInvalidationLog.Scope.KEY) {
+                handler.accept(target);
+                return 1;
+            }
+            // 自定义缓存不支持标签，按整体失效处理
+            handler.accept(null);
+            return 0;
+        }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return 0;
+        }
+        switch (scope) {
+            case KEY:
+                cache.evict(target);
+                return 1;
+            case TAG:
+                int evicted = 0;
+                for (Object key : cacheKeyIndex.keysFor(cacheName, target)) {
+                    cache.evict(key);
+                    evicted++;
+                }
+                return evicted;
+            default:
+                cache.clear();
+                return 0;
+        }
+    }
+}
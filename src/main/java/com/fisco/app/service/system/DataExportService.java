@@ -0,0 +1,197 @@
+package com.fisco.app.service.system;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fisco.app.entity.bill.Bill;
+import com.fisco.app.entity.receivable.Receivable;
+import com.fisco.app.entity.system.AuditLog;
+import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
+import com.fisco.app.exception.BusinessException;
+import com.fisco.app.repository.bill.BillRepository;
+import com.fisco.app.repository.receivable.ReceivableRepository;
+import com.fisco.app.repository.system.AuditLogRepository;
+import com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository;
+import com.fisco.app.service.system.StreamingExportService.Column;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 业务数据全量导出
+ * 票据、应收账款、电子仓单、审计日志的导出列定义与查询条件，实际写出由 StreamingExportService 完成
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataExportService {
+
+    private static final List<Column<Bill>> BILL_COLUMNS = Arrays.asList(
+            Column.of("billId", "票据ID", Bill::getBillId),
+            Column.of("billNo", "票据编号", Bill::getBillNo),
+            Column.of("billType", "票据类型", Bill::getBillType),
+            Column.of("faceValue", "票面金额", Bill::getFaceValue),
+            Column.of("currency", "币种", Bill::getCurrency),
+            Column.of("issueDate", "出票日期", Bill::getIssueDate),
+            Column.of("dueDate", "到期日期", Bill::getDueDate),
+            Column.of("drawerName", "出票人", Bill::getDrawerName),
+            Column.of("drawerAddress", "出票人地址", Bill::getDrawerAddress),
+            Column.of("draweeName", "付款人", Bill::getDraweeName),
+            Column.of("draweeAddress", "付款人地址", Bill::getDraweeAddress),
+            Column.of("payeeName", "收款人", Bill::getPayeeName),
+            Column.of("payeeAddress", "收款人地址", Bill::getPayeeAddress),
+            Column.of("currentHolderId", "当前持票人ID", Bill::getCurrentHolderId),
+            Column.of("currentHolderName", "当前持票人", Bill::getCurrentHolderName),
+            Column.of("billStatus", "票据状态", Bill::getBillStatus),
+            Column.of("blockchainStatus", "上链状态", Bill::getBlockchainStatus),
+            Column.of("blockchainTxHash", "交易哈希", Bill::getBlockchainTxHash),
+            Column.of("parentBillId", "父票据ID", Bill::getParentBillId),
+            Column.of("dishonored", "是否拒付", Bill::getDishonored),
+            Column.of("createdAt", "创建时间", Bill::getCreatedAt),
+            Column.of("updatedAt", "更新时间", Bill::getUpdatedAt));
+
+    private static final List<Column<Receivable>> RECEIVABLE_COLUMNS = Arrays.asList(
+            Column.of("id", "应收账款ID", Receivable::getId),
+            Column.of("supplierAddress", "供应商地址", Receivable::getSupplierAddress),
+            Column.of("coreEnterpriseAddress", "核心企业地址", Receivable::getCoreEnterpriseAddress),
+            Column.of("amount", "金额", Receivable::getAmount),
+            Column.of("currency", "币种", Receivable::getCurrency),
+            Column.of("issueDate", "出具日期", Receivable::getIssueDate),
+            Column.of("dueDate", "到期日期", Receivable::getDueDate),
+            Column.of("status", "状态", Receivable::getStatus),
+            Column.of("currentHolder", "当前持有人", Receivable::getCurrentHolder),
+            Column.of("financierAddress", "资金方地址", Receivable::getFinancierAddress),
+            Column.of("financeAmount", "融资金额", Receivable::getFinanceAmount),
+            Column.of("financeRate", "融资利率", Receivable::getFinanceRate),
+            Column.of("financeDate", "融资日期", Receivable::getFinanceDate),
+            Column.of("overdueLevel", "逾期等级", Receivable::getOverdueLevel),
+            Column.of("overdueDays", "逾期天数", Receivable::getOverdueDays),
+            Column.of("penaltyAmount", "罚息金额", Receivable::getPenaltyAmount),
+            Column.of("parentReceivableId", "父应收账款ID", Receivable::getParentReceivableId),
+            Column.of("txHash", "交易哈希", Receivable::getTxHash),
+            Column.of("createdAt", "创建时间", Receivable::getCreatedAt),
+            Column.of("updatedAt", "更新时间", Receivable::getUpdatedAt));
+
+    private static final List<Column<ElectronicWarehouseReceipt>> RECEIPT_COLUMNS = Arrays.asList(
+            Column.of("id", "仓单ID", ElectronicWarehouseReceipt::getId),
+            Column.of("receiptNo", "仓单编号", ElectronicWarehouseReceipt::getReceiptNo),
+            Column.of("warehouseId", "仓储企业ID", ElectronicWarehouseReceipt::getWarehouseId),
+            Column.of("warehouseName", "仓储企业", ElectronicWarehouseReceipt::getWarehouseName),
+            Column.of("ownerId", "货主企业ID", ElectronicWarehouseReceipt::getOwnerId),
+            Column.of("ownerName", "货主企业", ElectronicWarehouseReceipt::getOwnerName),
+            Column.of("holderAddress", "持单人地址", ElectronicWarehouseReceipt::getHolderAddress),
+            Column.of("goodsName", "货物名称", ElectronicWarehouseReceipt::getGoodsName),
+            Column.of("goodsType", "货物类型", ElectronicWarehouseReceipt::getGoodsType),
+            Column.of("unit", "单位", ElectronicWarehouseReceipt::getUnit),
+            Column.of("quantity", "数量", ElectronicWarehouseReceipt::getQuantity),
+            Column.of("unitPrice", "单价", ElectronicWarehouseReceipt::getUnitPrice),
+            Column.of("totalValue", "总价值", ElectronicWarehouseReceipt::getTotalValue),
+            Column.of("storageDate", "入库日期", ElectronicWarehouseReceipt::getStorageDate),
+            Column.of("expiryDate", "到期日期", ElectronicWarehouseReceipt::getExpiryDate),
+            Column.of("receiptStatus", "仓单状态", ElectronicWarehouseReceipt::getReceiptStatus),
+            Column.of("parentReceiptId", "父仓单ID", ElectronicWarehouseReceipt::getParentReceiptId),
+            Column.of("isFinanced", "是否已融资", ElectronicWarehouseReceipt::getIsFinanced),
+            Column.of("financeAmount", "融资金额", ElectronicWarehouseReceipt::getFinanceAmount),
+            Column.of("endorsementCount", "背书次数", ElectronicWarehouseReceipt::getEndorsementCount),
+            Column.of("blockchainStatus", "上链状态", ElectronicWarehouseReceipt::getBlockchainStatus),
+            Column.of("txHash", "交易哈希", ElectronicWarehouseReceipt::getTxHash),
+            Column.of("blockNumber", "区块高度", ElectronicWarehouseReceipt::getBlockNumber),
+            Column.of("createdAt", "创建时间", ElectronicWarehouseReceipt::getCreatedAt),
+            Column.of("updatedAt", "更新时间", ElectronicWarehouseReceipt::getUpdatedAt));
+
+    private static final List<Column<AuditLog>> AUDIT_LOG_COLUMNS = Arrays.asList(
+            Column.of("id", "日志ID", AuditLog::getId),
+            Column.of("userAddress", "用户地址", AuditLog::getUserAddress),
+            Column.of("userName", "用户名", AuditLog::getUserName),
+            Column.of("module", "模块", AuditLog::getModule),
+            Column.of("actionType", "操作类型", AuditLog::getActionType),
+            Column.of("actionDesc", "操作描述", AuditLog::getActionDesc),
+            Column.of("entityType", "实体类型", AuditLog::getEntityType),
+            Column.of("entityId", "实体ID", AuditLog::getEntityId),
+            Column.of("requestMethod", "请求方法", AuditLog::getRequestMethod),
+            Column.of("requestUrl", "请求URL", AuditLog::getRequestUrl),
+            Column.of("requestIp", "请求IP", AuditLog::getRequestIp),
+            Column.of("result", "结果", AuditLog::getResult),
+            Column.of("errorMessage", "错误信息", AuditLog::getErrorMessage),
+            Column.of("duration", "耗时(ms)", AuditLog::getDuration),
+            Column.of("txHash", "交易哈希", AuditLog::getTxHash),
+            Column.of("isSuccess", "是否成功", AuditLog::getIsSuccess),
+            Column.of("createdAt", "创建时间", AuditLog::getCreatedAt));
+
+    /**
+     * 审计日志单次导出的最大时间跨度（天）
+     */
+    private static final int AUDIT_LOG_MAX_RANGE_DAYS = 366;
+
+    private final StreamingExportService streamingExportService;
+    private final BillRepository billRepository;
+    private final ReceivableRepository receivableRepository;
+    private final ElectronicWarehouseReceiptRepository receiptRepository;
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * 导出票据
+     */
+    public ResponseEntity<StreamingResponseBody> exportBills(ExportFormat format, boolean gzip,
+                                                             Bill.BillStatus status, String holderId,
+                                                             LocalDateTime startDate, LocalDateTime endDate) {
+        log.info("导出票据: format={}, status={}, holderId={}, startDate={}, endDate={}",
+                format, status, holderId, startDate, endDate);
+        return streamingExportService.export("bills", format, gzip, BILL_COLUMNS,
+                () -> billRepository.streamForExport(status, holderId, startDate, endDate));
+    }
+
+    /**
+     * 导出应收账款
+     */
+    public ResponseEntity<StreamingResponseBody> exportReceivables(ExportFormat format, boolean gzip,
+                                                                   Receivable.ReceivableStatus status,
+                                                                   String supplierAddress, String coreEnterpriseAddress,
+                                                                   LocalDateTime startDate, LocalDateTime endDate) {
+        log.info("导出应收账款: format={}, status={}, supplierAddress={}, coreEnterpriseAddress={}",
+                format, status, supplierAddress, coreEnterpriseAddress);
+        return streamingExportService.export("receivables", format, gzip, RECEIVABLE_COLUMNS,
+                () -> receivableRepository.streamForExport(status, supplierAddress, coreEnterpriseAddress,
+                        startDate, endDate));
+    }
+
+    /**
+     * 导出电子仓单
+     */
+    public ResponseEntity<StreamingResponseBody> exportWarehouseReceipts(ExportFormat format, boolean gzip,
+                                                                         ElectronicWarehouseReceipt.ReceiptStatus status,
+                                                                         String ownerId, String warehouseId,
+                                                                         LocalDateTime startDate,
+                                                                         LocalDateTime endDate) {
+        log.info("导出电子仓单: format={}, status={}, ownerId={}, warehouseId={}", format, status, ownerId, warehouseId);
+        return streamingExportService.export("warehouse_receipts", format, gzip, RECEIPT_COLUMNS,
+                () -> receiptRepository.streamForExport(status, ownerId, warehouseId, startDate, endDate));
+    }
+
+    /**
+     * 导出审计日志
+     * 必须限定时间范围（默认最近30天），查询只扫描范围内的月分区
+     */
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(ExportFormat format, boolean gzip,
+                                                                 LocalDateTime startDate, LocalDateTime endDate,
+                                                                 String module, String actionType,
+                                                                 String userAddress) {
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusDays(30);
+        if (start.isAfter(end)) {
+            throw new BusinessException(400, "开始时间不能晚于结束时间");
+        }
+        if (start.plusDays(AUDIT_LOG_MAX_RANGE_DAYS).isBefore(end)) {
+            throw new BusinessException(400, "审计日志单次导出时间跨度不能超过" + AUDIT_LOG_MAX_RANGE_DAYS + "天");
+        }
+        log.info("导出审计日志: format={}, startDate={}, endDate={}, module={}, actionType={}",
+                format, start, end, module, actionType);
+        return streamingExportService.export("audit_logs", format, gzip, AUDIT_LOG_COLUMNS,
+                () -> auditLogRepository.streamForExport(start, end, module, actionType, userAddress));
+    }
+}
@@ -0,0 +1,293 @@
+package com.fisco.app.service.system;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fisco.app.entity.system.DueEvent;
+import com.fisco.app.repository.system.DueEventRepository;
+import com.fisco.app.service.bill.BillService;
+import com.fisco.app.service.credit.CreditLimitService;
+import com.fisco.app.service.receivable.ReceivableOverdueService;
+import com.fisco.app.service.warehouse.ElectronicWarehouseReceiptService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 到期事件调度器
+ * 票据到期、仓单过期、应收账款逾期、信用额度到期在业务对象创建或改期时登记，
+ * 持久化到 due_event 表并放入分层时间轮，到期时交给对应业务服务处理，不再依赖查询时全表扫描
+ *
+ * 多节点部署时每个节点都会恢复并推进自己的时间轮，触发前先把行从 PENDING 原子更新为 RUNNING，
+ * 只有认领成功的节点执行处理，其余节点跳过；认领后节点宕机的行超过 running-timeout-ms 后重置为 PENDING 重新触发。
+ * 事件只在登记它的节点上放入时间轮，因此每个节点每隔 sync-interval-ms 把 sync-horizon-ms 内到期的 PENDING 行
+ * 同步进自己的时间轮，登记节点下线后事件仍会由其他节点触发
+ *
+ * 处理方法返回下一次到期时间（如尚未到期、逾期等级将变化）时按该时间改期，返回 null 表示处理完毕；
+ * 处理失败按 retry-delay-ms 重置为 PENDING 重试，超过 max-attempts 次标记 FAILED。
+ * 应用启动时从 PENDING 行恢复时间轮，停机期间已到期的事件立即处理
+ */
+@Slf4j
+@Service
+public class DueEventScheduler {
+
+    private final DueEventRepository dueEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * 到期事件处理线程：按到期顺序逐个处理，避免停机积压的事件集中占满公共异步线程池
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "due-event");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ObjectProvider<BillService> billService;
+    private final ObjectProvider<ElectronicWarehouseReceiptService> receiptService;
+    private final ObjectProvider<ReceivableOverdueService> overdueService;
+    private final ObjectProvider<CreditLimitService> creditLimitService;
+
+    /**
+     * 时间轮中各事件对应的到期时间，处理时据此校验事件未被改期
+     */
+    private final Map<EventKey, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+
+    private final TimingWheel<EventKey> wheel;
+
+    @Value("${app.due-events.retry-delay-ms:60000}")
+    private long retryDelayMs;
+
+    @Value("${app.due-events.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.due-events.running-timeout-ms:600000}")
+    private long runningTimeoutMs;
+
+    @Value("${app.due-events.sync-horizon-ms:120000}")
+    private long syncHorizonMs;
+
+    public DueEventScheduler(DueEventRepository dueEventRepository,
+                             TransactionTemplate transactionTemplate,
+                             ObjectProvider<BillService> billService,
+                             ObjectProvider<ElectronicWarehouseReceiptService> receiptService,
+                             ObjectProvider<ReceivableOverdueService> overdueService,
+                             ObjectProvider<CreditLimitService> creditLimitService,
+                             @Value("${app.due-events.tick-ms:1000}") long tickMs,
+                             @Value("${app.due-events.wheel-size:60}") int wheelSize) {
+        this.dueEventRepository = dueEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.billService = billService;
+        this.receiptService = receiptService;
+        this.overdueService = overdueService;
+        this.creditLimitService = creditLimitService;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * 登记或改期到期事件；在事务中调用时随事务提交写入并在提交后放入时间轮
+     *
+     * @param type 事件类型
+     * @param targetId 业务对象ID
+     * @param dueAt 到期时间
+     */
+    public void schedule(DueEvent.EventType type, String targetId, LocalDateTime dueAt) {
+        if (targetId == null || dueAt == null) {
+            return;
+        }
+        LocalDateTime due = dueAt.truncatedTo(ChronoUnit.SECONDS);
+        EventKey key = new EventKey(type, targetId);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            dueEventRepository.upsertPending(type.name(), targetId, due);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(key, due);
+                }
+            });
+        } else {
+            transactionTemplate.executeWithoutResult(status ->
+                    dueEventRepository.upsertPending(type.name(), targetId, due));
+            enqueue(key, due);
+        }
+    }
+
+    /**
+     * 启动时从 PENDING 行恢复时间轮
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        resetStaleRunning();
+        List<DueEvent> pending = dueEventRepository.findByStatus(DueEvent.Status.PENDING);
+        for (DueEvent event : pending) {
+            enqueue(new EventKey(event.getEventType(), event.getTargetId()), event.getDueAt());
+        }
+        log.info("Due event scheduler recovered: pending={}", pending.size());
+    }
+
+    /**
+     * 推进时间轮，处理到期事件
+     */
+    @Scheduled(fixedDelayString = "${app.due-events.tick-ms:1000}")
+    public void tick() {
+        for (EventKey key : wheel.advance(System.currentTimeMillis())) {
+            dispatch(key);
+        }
+    }
+
+    /**
+     * 认领后超时未完成的事件重置为待触发并重新放入时间轮
+     */
+    @Scheduled(fixedDelayString = "${app.due-events.running-timeout-ms:600000}",
+            initialDelayString = "${app.due-events.running-timeout-ms:600000}")
+    public void reclaim() {
+        if (resetStaleRunning() > 0) {
+            sync();
+        }
+    }
+
+    /**
+     * 把即将到期的 PENDING 行（含其他节点登记、改期的事件）同步进本节点时间轮；
+     * 多个节点同时触发时由认领更新保证只处理一次
+     */
+    @Scheduled(fixedDelayString = "${app.due-events.sync-interval-ms:60000}",
+            initialDelayString = "${app.due-events.sync-interval-ms:60000}")
+    public void sync() {
+        LocalDateTime horizon = LocalDateTime.now().plus(syncHorizonMs, ChronoUnit.MILLIS);
+        int added = 0;
+        for (DueEvent event : dueEventRepository.findByStatusAndDueAtLessThanEqual(DueEvent.Status.PENDING, horizon)) {
+            EventKey key = new EventKey(event.getEventType(), event.getTargetId());
+            if (!event.getDueAt().equals(scheduled.get(key))) {
+                enqueue(key, event.getDueAt());
+                added++;
+            }
+        }
+        if (added > 0) {
+            log.debug("Due events synced: added={}", added);
+        }
+    }
+
+    /**
+     * 时间轮中待触发的事件数
+     */
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(EventKey key, LocalDateTime dueAt) {
+        scheduled.put(key, dueAt);
+        if (!wheel.add(key, dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            dispatch(key);
+        }
+    }
+
+    private void dispatch(EventKey key) {
+        LocalDateTime dueAt = scheduled.remove(key);
+        if (dueAt == null) {
+            return;
+        }
+        executor.execute(() -> fire(key, dueAt));
+    }
+
+    private int resetStaleRunning() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(runningTimeoutMs, ChronoUnit.MILLIS);
+        Integer reset = transactionTemplate.execute(status -> dueEventRepository.resetStaleRunning(staleBefore));
+        if (reset != null && reset > 0) {
+            log.warn("Due events reset from RUNNING: count={}", reset);
+        }
+        return reset != null ? reset : 0;
+    }
+
+    private void fire(EventKey key, LocalDateTime dueAt) {
+        String type = key.type.name();
+        Integer claimed = transactionTemplate.execute(status ->
+                dueEventRepository.claim(type, key.targetId, dueAt));
+        if (claimed == null || claimed == 0) {
+            // 已被其他节点认领、已处理或已改期
+            log.debug("Due event skipped: type={}, targetId={}, dueAt={}", type, key.targetId, dueAt);
+            return;
+        }
+        try {
+            LocalDateTime next = handle(key);
+            if (next != null && next.isAfter(dueAt)) {
+                schedule(key.type, key.targetId, next);
+            } else {
+                transactionTemplate.executeWithoutResult(status ->
+                        dueEventRepository.markDone(type, key.targetId, dueAt));
+            }
+        } catch (Exception e) {
+            log.error("Due event failed: type={}, targetId={}, dueAt={}", type, key.targetId, dueAt, e);
+            LocalDateTime retryAt = LocalDateTime.now().plus(retryDelayMs, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.SECONDS);
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                    dueEventRepository.markFailed(type, key.targetId, dueAt, error, retryAt, maxAttempts));
+            dueEventRepository.findByEventTypeAndTargetId(key.type, key.targetId)
+                    .filter(event -> event.getStatus() == DueEvent.Status.PENDING)
+                    .ifPresent(event -> enqueue(key, event.getDueAt()));
+        }
+    }
+
+    private LocalDateTime handle(EventKey key) {
+        switch (key.type) {
+            case BILL_MATURITY:
+                return billService.getObject().onBillMaturityDue(key.targetId);
+            case RECEIPT_EXPIRY:
+                return receiptService.getObject().onReceiptExpiryDue(key.targetId);
+            case RECEIVABLE_OVERDUE:
+                return overdueService.getObject().onReceivableOverdueDue(key.targetId);
+            case CREDIT_LIMIT_EXPIRY:
+                return creditLimitService.getObject().onCreditLimitExpiryDue(key.targetId);
+            default:
+                return null;
+        }
+    }
+
+    private static final class EventKey {
+
+        private final DueEvent.EventType type;
+        private final String targetId;
+
+        private EventKey(DueEvent.EventType type, String targetId) {
+            this.type = type;
+            this.targetId = targetId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EventKey)) {
+                return false;
+            }
+            EventKey other = (EventKey) o;
+            return type == other.type && targetId.equals(other.targetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + targetId.hashCode();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.fisco.app.service.system;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 数据导出格式
+ */
+public enum ExportFormat {
+
+    /**
+     * 逗号分隔，首行为列标题
+     */
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8")),
+
+    /**
+     * 每行一个JSON对象
+     */
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,196 @@
+package com.fisco.app.service.system;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 幂等请求记录
+ * 首次请求插入 IN_PROGRESS 记录占用幂等键，执行成功后写入结果并标记 COMPLETED，执行失败时删除记录允许重试；
+ * 插入冲突即说明是重试请求，由调用方按已有记录返回首次结果
+ *
+ * IN_PROGRESS 记录是有期限的占用：首次请求所在节点宕机或结果写入失败时记录无法完成，
+ * 超过 lease-minutes 后相同参数的重试请求可以通过条件更新重新占用并执行。
+ * 但发送合约交易前记录会先标记为已提交上链（markSubmitted），已提交的记录不会被重新占用或释放，
+ * 重试请求一律返回 409 并附交易哈希，由人工或对账核对链上结果，保证重试不会重复上链
+ *
+ * 记录读写均在独立事务中进行，不随业务事务回滚，其他节点也能立即看到占用
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    private static final String INSERT_SQL = "INSERT IGNORE INTO idempotency_record "
+            + "(scope, idempotency_key, operation, request_hash, status, created_at) "
+            + "VALUES (?, ?, ?, ?, 'IN_PROGRESS', NOW())";
+
+    private static final String SELECT_SQL = "SELECT operation, request_hash, status, response_body, "
+            + "submitted_at IS NOT NULL AS submitted, tx_hash "
+            + "FROM idempotency_record WHERE scope = ? AND idempotency_key = ?";
+
+    private static final String RECLAIM_SQL = "UPDATE idempotency_record SET created_at = NOW() "
+            + "WHERE scope = ? AND idempotency_key = ? AND operation = ? AND request_hash = ? "
+            + "AND status = 'IN_PROGRESS' AND submitted_at IS NULL AND created_at < NOW() - INTERVAL ? MINUTE";
+
+    private static final String MARK_SUBMITTED_SQL = "UPDATE idempotency_record "
+            + "SET submitted_at = COALESCE(submitted_at, NOW()) "
+            + "WHERE scope = ? AND idempotency_key = ? AND status = 'IN_PROGRESS'";
+
+    private static final String CLEAR_SUBMITTED_SQL = "UPDATE idempotency_record SET submitted_at = NULL "
+            + "WHERE scope = ? AND idempotency_key = ? AND status = 'IN_PROGRESS' AND tx_hash IS NULL";
+
+    private static final String RECORD_TX_HASH_SQL = "UPDATE idempotency_record "
+            + "SET tx_hash = COALESCE(tx_hash, ?) WHERE scope = ? AND idempotency_key = ?";
+
+    private static final String COMPLETE_SQL = "UPDATE idempotency_record "
+            + "SET status = 'COMPLETED', response_body = ?, completed_at = NOW() "
+            + "WHERE scope = ? AND idempotency_key = ?";
+
+    private static final String RELEASE_SQL = "DELETE FROM idempotency_record "
+            + "WHERE scope = ? AND idempotency_key = ? AND status = 'IN_PROGRESS' AND submitted_at IS NULL";
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_record "
+            + "WHERE created_at < NOW() - INTERVAL ? HOUR LIMIT 1000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+
+    @Value("${app.idempotency.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${app.idempotency.lease-minutes:5}")
+    private int leaseMinutes;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 占用幂等键
+     *
+     * @return 占用成功（含重新占用过期的 IN_PROGRESS 记录）返回空；键已被占用时返回已有记录
+     */
+    public Optional<IdempotencyRecord> begin(String scope, String key, String operation, String requestHash) {
+        Integer inserted = requiresNewTemplate.execute(status ->
+                jdbcTemplate.update(INSERT_SQL, scope, key, operation, requestHash));
+        if (inserted != null && inserted > 0) {
+            return Optional.empty();
+        }
+        Integer reclaimed = requiresNewTemplate.execute(status ->
+                jdbcTemplate.update(RECLAIM_SQL, scope, key, operation, requestHash, leaseMinutes));
+        if (reclaimed != null && reclaimed > 0) {
+            log.warn("Idempotency key lease expired, reclaimed: operation={}, key={}", operation, key);
+            return Optional.empty();
+        }
+        List<IdempotencyRecord> records = requiresNewTemplate.execute(status ->
+                jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new IdempotencyRecord(
+                        rs.getString("operation"),
+                        rs.getString("request_hash"),
+                        rs.getString("status"),
+                        rs.getString("response_body"),
+                        rs.getBoolean("submitted"),
+                        rs.getString("tx_hash")), scope, key));
+        if (records == null || records.isEmpty()) {
+            // 并发失败释放后记录已删除，按新请求重新占用
+            return begin(scope, key, operation, requestHash);
+        }
+        return Optional.of(records.get(0));
+    }
+
+    /**
+     * 记录执行结果
+     */
+    public void complete(String scope, String key, String responseBody) {
+        requiresNewTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(COMPLETE_SQL, responseBody, scope, key));
+    }
+
+    /**
+     * 即将发送合约交易：标记记录已提交上链，此后不再释放或被重新占用
+     * 标记失败时抛出异常，调用方不应继续发送交易
+     */
+    public void markSubmitted(String scope, String key) {
+        requiresNewTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(MARK_SUBMITTED_SQL, scope, key));
+    }
+
+    /**
+     * 交易被合约回滚（链上状态未变化）且此前没有其他交易时撤销上链标记，执行失败后允许重试
+     */
+    public void clearSubmitted(String scope, String key) {
+        requiresNewTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(CLEAR_SUBMITTED_SQL, scope, key));
+    }
+
+    /**
+     * 记录首笔上链交易哈希，供重试请求和对账核对
+     */
+    public void recordTxHash(String scope, String key, String txHash) {
+        requiresNewTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(RECORD_TX_HASH_SQL, txHash, scope, key));
+    }
+
+    /**
+     * 执行失败，释放幂等键；已提交上链的记录不释放
+     */
+    public void release(String scope, String key) {
+        requiresNewTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(RELEASE_SQL, scope, key));
+    }
+
+    /**
+     * 定时清理超过保留期的记录
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purge() {
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, retentionHours);
+            total += deleted;
+        } while (deleted >= 1000);
+        if (total > 0) {
+            log.info("Idempotency records purged: count={}", total);
+        }
+    }
+
+    /**
+     * 已有的幂等记录
+     */
+    @Getter
+    public static final class IdempotencyRecord {
+
+        private final String operation;
+        private final String requestHash;
+        private final String status;
+        private final String responseBody;
+        private final boolean submitted;
+        private final String txHash;
+
+        private IdempotencyRecord(String operation, String requestHash, String status, String responseBody,
+                                  boolean submitted, String txHash) {
+            this.operation = operation;
+            this.requestHash = requestHash;
+            this.status = status;
+            this.responseBody = responseBody;
+            this.submitted = submitted;
+            this.txHash = txHash;
+        }
+
+        public boolean isCompleted() {
+            return "COMPLETED".equals(status);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.fisco.app.service.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 追加型日志表分区维护
+ * 日志表按月做 RANGE COLUMNS 分区（见 V31 迁移），本服务负责：
+ *
+ * - 按 app.log-partition.months-ahead 提前拆分 pmax，创建未来月份分区
+ * - 整月超出保留期的分区直接 DROP PARTITION；开启归档时先 EXCHANGE 到独立归档表再删除空分区
+ *
+ * 删除分区只修改元数据，不产生逐行删除的锁和 undo；
+ * 多节点部署时通过 MySQL 命名锁保证同一时刻只有一个节点执行分区 DDL
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogPartitionMaintenanceService {
+
+    public static final String AUDIT_LOG = "audit_log";
+    public static final String PERMISSION_AUDIT_LOG = "permission_audit_log";
+    public static final String USER_ACTIVITY = "user_activity";
+    public static final String NOTIFICATION_SEND_LOG = "notification_send_log";
+    public static final String ENTERPRISE_AUDIT_LOG = "enterprise_audit_log";
+
+    /**
+     * 受维护的分区表
+     */
+    private static final List<String> TABLES = Collections.unmodifiableList(Arrays.asList(
+            AUDIT_LOG, PERMISSION_AUDIT_LOG, USER_ACTIVITY, NOTIFICATION_SEND_LOG, ENTERPRISE_AUDIT_LOG));
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final String LOCK_NAME = "log_partition_maintenance";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION "
+            + "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+
+    @Value("${app.log-partition.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.log-partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.log-partition.default-retention-months:12}")
+    private int defaultRetentionMonths;
+
+    @Value("${app.log-partition.archive:false}")
+    private boolean archive;
+
+    /**
+     * 启动后立即补齐未来分区，避免新月份数据全部落入 pmax
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    /**
+     * 每日维护：创建未来分区、清理过期分区
+     */
+    @Scheduled(cron = "${app.log-partition.cron:0 30 2 * * ?}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            withLock(connection -> {
+                for (String table : TABLES) {
+                    try {
+                        List<PartitionInfo> partitions = listPartitions(connection, table);
+                        if (partitions.isEmpty()) {
+                            log.warn("日志表未分区，跳过分区维护: table={}", table);
+                            continue;
+                        }
+                        createFuturePartitions(connection, table, partitions);
+                        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths(table));
+                        dropPartitions(connection, table, listPartitions(connection, table), cutoff);
+                    } catch (SQLException e) {
+                        log.error("日志表分区维护失败: table={}, error={}", table, e.getMessage());
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("日志表分区维护失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 删除指定时间之前的整月分区
+     * 只删除上界不晚于 before 的分区，跨越 before 的当月分区保留到整月过期
+     *
+     * @param table 日志表名
+     * @param before 截止时间
+     * @return 删除的分区数；表未分区时返回 -1
+     */
+    public int dropPartitionsBefore(String table, LocalDateTime before) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("不受分区维护的表: " + table);
+        }
+        Integer dropped = withLock(connection -> {
+            List<PartitionInfo> partitions = listPartitions(connection, table);
+            if (partitions.isEmpty()) {
+                return -1;
+            }
+            return dropPartitions(connection, table, partitions, before.toLocalDate());
+        });
+        return dropped != null ? dropped : 0;
+    }
+
+    private int retentionMonths(String table) {
+        return environment.getProperty("app.log-partition.retention-months." + table,
+                Integer.class, defaultRetentionMonths);
+    }
+
+    /**
+     * 拆分 pmax，补齐到当前月之后 monthsAhead 个月
+     */
+    private void createFuturePartitions(Connection connection, String table, List<PartitionInfo> partitions)
+            throws SQLException {
+        LocalDate lastBound = null;
+        boolean hasMax = false;
+        for (PartitionInfo partition : partitions) {
+            if (partition.upperBound == null) {
+                hasMax = true;
+            } else if (lastBound == null || partition.upperBound.isAfter(lastBound)) {
+                lastBound = partition.upperBound;
+            }
+        }
+        LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+        if (lastBound == null) {
+            lastBound = LocalDate.now().withDayOfMonth(1);
+        }
+        if (!lastBound.isBefore(target)) {
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = lastBound; month.isBefore(target); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1) + "')");
+        }
+        String sql;
+        if (hasMax) {
+            definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+            sql = "ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION
+                    + " INTO (" + String.join(", ", definitions) + ")";
+        } else {
+            sql = "ALTER TABLE " + table + " ADD PARTITION (" + String.join(", ", definitions) + ")";
+        }
+        execute(connection, sql);
+        log.info("已创建日志表未来分区: table={}, count={}, until={}", table,
+                hasMax ? definitions.size() - 1 : definitions.size(), target);
+    }
+
+    /**
+     * 删除上界不晚于 cutoff 的分区（其中数据全部早于 cutoff）
+     */
+    private int dropPartitions(Connection connection, String table, List<PartitionInfo> partitions, LocalDate cutoff)
+            throws SQLException {
+        List<String> expired = new ArrayList<>();
+        for (PartitionInfo partition : partitions) {
+            if (partition.upperBound != null && !partition.upperBound.isAfter(cutoff)) {
+                expired.add(partition.name);
+            }
+        }
+        // MySQL 不允许删除分区表的全部分区
+        if (expired.isEmpty() || expired.size() == partitions.size()) {
+            return 0;
+        }
+        if (archive) {
+            for (String partition : expired) {
+                archivePartition(connection, table, partition);
+            }
+        }
+        execute(connection, "ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+        log.info("已删除过期日志分区: table={}, partitions={}, archived={}", table, expired, archive);
+        return expired.size();
+    }
+
+    /**
+     * 将分区数据交换到同结构的非分区归档表，交换后原分区为空
+     */
+    private void archivePartition(Connection connection, String table, String partition) throws SQLException {
+        String archiveTable = table + "_archive_" + partition;
+        execute(connection, "CREATE TABLE IF NOT EXISTS " + archiveTable + " LIKE " + table);
+        if (!listPartitions(connection, archiveTable).isEmpty()) {
+            execute(connection, "ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+        }
+        execute(connection, "ALTER TABLE " + table + " EXCHANGE PARTITION " + partition
+                + " WITH TABLE " + archiveTable);
+        log.info("日志分区已归档: table={}, partition={}, archiveTable={}", table, partition, archiveTable);
+    }
+
+    private List<PartitionInfo> listPartitions(Connection connection, String table) throws SQLException {
+        List<PartitionInfo> partitions = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(PARTITIONS_SQL)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (name == null) {
+                        // 非分区表在 information_schema 中也有一行，分区名为空
+                        continue;
+                    }
+                    partitions.add(new PartitionInfo(name, parseBound(rs.getString(2))));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 解析 RANGE COLUMNS 分区上界，如 '2026-11-01 00:00:00'；MAXVALUE 返回 null
+     */
+    private static LocalDate parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description)) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        return LocalDate.parse(value.substring(0, 10));
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        log.debug("执行分区DDL: {}", sql);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * 在同一连接上持有 MySQL 命名锁执行分区操作，其他节点获取不到锁时直接跳过
+     */
+    private <T> T withLock(ConnectionCallback<T> action) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                ps.setString(1, LOCK_NAME);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        log.info("其他节点正在执行日志分区维护，本次跳过");
+                        return null;
+                    }
+                }
+            }
+            try {
+                return action.doInConnection(connection);
+            } finally {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    ps.setString(1, LOCK_NAME);
+                    ps.executeQuery().close();
+                }
+            }
+        });
+    }
+
+    /**
+     * 分区名及其上界（MAXVALUE 分区上界为 null）
+     */
+    private static final class PartitionInfo {
+        private final String name;
+        private final LocalDate upperBound;
+
+        PartitionInfo(String name, LocalDate upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.fisco.app.service.system;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 权限放行事件汇总器
+ * 放行事件按 (用户, 权限类型, 目标资源, 分钟) 在内存中计数，定时批量累加到 permission_access_rollup
+ *
+ * 计数表采用双缓冲：每次刷新先换入新表，再写出上一轮换出的表，
+ * 保证换出时正在累加的请求线程已完成写入
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionAccessAggregator {
+
+    private static final String UPSERT_SQL = "INSERT INTO permission_access_rollup "
+            + "(username, enterprise_id, permission_type, target_resource, bucket_start, grant_count, sample_rate, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW()) "
+            + "ON DUPLICATE KEY UPDATE grant_count = grant_count + VALUES(grant_count), updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.audit.access-granted.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${app.audit.access-granted.batch-size:500}")
+    private int batchSize;
+
+    private volatile Map<RollupKey, LongAdder> current = new ConcurrentHashMap<>();
+    private Map<RollupKey, LongAdder> pending;
+
+    /**
+     * 记录一次放行事件（按采样率计入）
+     */
+    public void record(String username, String enterpriseId, String permissionType, String targetResource) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        RollupKey key = new RollupKey(username, enterpriseId, permissionType,
+                targetResource != null ? targetResource : "",
+                LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        current.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 当前采样率
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 定时刷新汇总计数
+     */
+    @Scheduled(fixedDelayString = "${app.audit.access-granted.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<RollupKey, LongAdder> swapped = current;
+        current = new ConcurrentHashMap<>();
+        Map<RollupKey, LongAdder> toWrite = pending;
+        pending = swapped;
+        write(toWrite);
+    }
+
+    @PreDestroy
+    public synchronized void flushAll() {
+        write(pending);
+        pending = null;
+        Map<RollupKey, LongAdder> remaining = current;
+        current = new ConcurrentHashMap<>();
+        write(remaining);
+    }
+
+    private void write(Map<RollupKey, LongAdder> counters) {
+        if (counters == null || counters.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(counters.size());
+        for (Map.Entry<RollupKey, LongAdder> entry : counters.entrySet()) {
+            RollupKey key = entry.getKey();
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                rows.add(new Object[] {key.username, key.enterpriseId, key.permissionType, key.targetResource,
+                        Timestamp.valueOf(key.bucketStart), count, sampleRate});
+            }
+        }
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(from + batchSize, rows.size())));
+            }
+            log.debug("权限放行汇总已写入: rows={}", rows.size());
+        } catch (Exception e) {
+            log.error("权限放行汇总写入失败，丢弃本批计数: rows={}, error={}", rows.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 汇总键
+     */
+    private static final class RollupKey {
+        private final String username;
+        private final String enterpriseId;
+        private final String permissionType;
+        private final String targetResource;
+        private final LocalDateTime bucketStart;
+        private final int hash;
+
+        RollupKey(String username, String enterpriseId, String permissionType, String targetResource,
+                  LocalDateTime bucketStart) {
+            this.username = username;
+            this.enterpriseId = enterpriseId;
+            this.permissionType = permissionType;
+            this.targetResource = targetResource;
+            this.bucketStart = bucketStart;
+            this.hash = Objects.hash(username, permissionType, targetResource, bucketStart);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return Objects.equals(username, other.username)
+                    && Objects.equals(permissionType, other.permissionType)
+                    && Objects.equals(targetResource, other.targetResource)
+                    && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.fisco.app.service.system;
 
+import com.fisco.app.entity.system.PermissionAccessRollup;
 import com.fisco.app.entity.system.PermissionAuditLog;
+import com.fisco.app.repository.system.PermissionAccessRollupRepository;
 import com.fisco.app.repository.system.PermissionAuditLogRepository;
 import com.fisco.app.security.UserAuthentication;
 import org.springframework.security.core.Authentication;
@@ -24,6 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * 权限审计日志服务
  * 异步记录权限检查和访问控制事件
+ *
+ * 两级审计：
+ * - 拒绝事件逐条写入 permission_audit_log，保留请求明细
+ * - 放行事件交由 PermissionAccessAggregator 按分钟汇总计数，按 app.audit.access-granted.sample-rate 采样
  */
 @Slf4j
 @Service
@@ -31,6 +37,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class PermissionAuditService {
 
     private final PermissionAuditLogRepository auditLogRepository;
+    private final PermissionAccessRollupRepository rollupRepository;
+    private final PermissionAccessAggregator accessAggregator;
 
     /**
      * 异步记录权限审计日志
@@ -49,6 +57,7 @@ public class PermissionAuditService {
 
     /**
      * 记录权限检查成功
+     * 仅在内存中按 (用户, 权限类型, 目标资源, 分钟) 计数，不逐条落库
      */
     public void logAccessGranted(Authentication authentication, String permissionType,
                                 String targetResource, String operation,
@@ -58,22 +67,7 @@ public class PermissionAuditService {
         }
 
         UserAuthentication userAuth = (UserAuthentication) authentication;
-
-        PermissionAuditLog auditLog = new PermissionAuditLog();
-        auditLog.setUsername(userAuth.getName());
-        auditLog.setEnterpriseId(userAuth.getEnterpriseId());
-        auditLog.setUserRole(userAuth.getRole());
-        auditLog.setLoginType(userAuth.getLoginType());
-        auditLog.setPermissionType(permissionType);
-        auditLog.setTargetResource(targetResource);
-        auditLog.setOperation(operation);
-        auditLog.setAccessGranted(true);
-        auditLog.setIpAddress(getClientIp(request));
-        auditLog.setUserAgent(request != null ? request.getHeader("User-Agent") : null);
-        auditLog.setRequestMethod(request != null ? request.getMethod() : null);
-        auditLog.setRequestUri(request != null ? request.getRequestURI() : null);
-
-        logPermissionCheck(auditLog);
+        accessAggregator.record(userAuth.getName(), userAuth.getEnterpriseId(), permissionType, targetResource);
     }
 
     /**
@@ -145,6 +139,17 @@ public class PermissionAuditService {
         return auditLogRepository.findByCreatedAtBetween(start, end);
     }
 
+    /**
+     * 查询权限放行汇总
+     * 条件为空时不过滤，时间范围按统计分钟起始时间 [start, end) 匹配
+     */
+    public List<PermissionAccessRollup> getAccessRollups(String username, String enterpriseId,
+                                                         String permissionType, String targetResource,
+                                                         LocalDateTime start, LocalDateTime end) {
+        return rollupRepository.findByConditions(username, enterpriseId, permissionType, targetResource,
+                start, end);
+    }
+
     /**
      * 获取客户端IP地址
      */
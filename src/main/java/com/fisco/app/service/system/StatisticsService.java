@@ -13,6 +13,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.fisco.app.dto.risk.RiskStatisticsDTO;
 import com.fisco.app.dto.statistics.BusinessStatisticsDTO;
@@ -47,6 +48,7 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Api(tags = "统计分析服务")
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class StatisticsService {
 
     private final BillRepository billRepository;
@@ -0,0 +1,291 @@
+package com.fisco.app.service.system;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 流式数据导出
+ * 在只读事务内从数据库游标逐行读取实体，边读边写入响应流，每行写出后立即从持久化上下文中分离，
+ * 内存占用与导出行数无关
+ *
+ * 数据源由调用方以 Stream 查询提供，查询需设置 fetchSize 为 Integer.MIN_VALUE，
+ * 使 MySQL 驱动逐行读取而不是一次性加载整个结果集
+ */
+@Slf4j
+@Service
+public class StreamingExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    /**
+     * 表格软件会按公式解析的文本首字符，导出时加单引号前缀，导入时去除
+     * 制表符、回车开头的单元格在部分软件中去掉空白后仍按公式解析
+     */
+    static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * 去掉开头的单引号后以公式字符开头的文本导出时加单引号前缀，导入时去掉一个，
+     * 本身以单引号加公式字符开头的文本也能原样还原
+     */
+    static boolean isFormulaLike(String text) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) == '\'') {
+            i++;
+        }
+        return i < text.length() && FORMULA_PREFIXES.indexOf(text.charAt(i)) >= 0;
+    }
+
+    private final TransactionTemplate readOnlyTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.flush-rows:1000}")
+    private int flushRows;
+
+    public StreamingExportService(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 构造流式导出响应
+     *
+     * @param name 导出文件名前缀
+     * @param format 导出格式
+     * @param gzip 是否gzip压缩
+     * @param columns 导出列
+     * @param source 数据源，在响应写出时于只读事务内调用
+     * @return 下载响应
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, boolean gzip,
+                                                            List<Column<T>> columns, Supplier<Stream<T>> source) {
+        String fileName = name + "_" + LocalDateTime.now().format(FILE_TIME_FORMAT) + "." + format.getExtension()
+                + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> write(name, out, format, gzip, columns, source);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString())
+                .contentType(gzip ? GZIP : format.getMediaType())
+                .body(body);
+    }
+
+    private <T> void write(String name, OutputStream out, ExportFormat format, boolean gzip,
+                           List<Column<T>> columns, Supplier<Stream<T>> source) throws IOException {
+        long startTime = System.currentTimeMillis();
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter<T> rowWriter = format == ExportFormat.CSV
+                ? new CsvRowWriter<>(writer, columns)
+                : new NdjsonRowWriter<>(objectMapper.getFactory().createGenerator(writer), columns);
+
+        Long rows;
+        try {
+            rows = readOnlyTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<T> stream = source.get()) {
+                    rowWriter.begin();
+                    Iterator<T> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        T row = iterator.next();
+                        rowWriter.write(row);
+                        entityManager.detach(row);
+                        if (++count % flushRows == 0) {
+                            writer.flush();
+                        }
+                    }
+                    rowWriter.end();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            // 客户端断开等写出失败，结束游标读取
+            log.warn("数据导出中断: name={}, error={}", name, e.getCause().getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        log.info("数据导出完成: name={}, format={}, gzip={}, rows={}, duration={}ms",
+                name, format, gzip, rows, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 导出列
+     */
+    public static final class Column<T> {
+        private final String key;
+        private final String title;
+        private final Function<T, Object> getter;
+
+        private Column(String key, String title, Function<T, Object> getter) {
+            this.key = key;
+            this.title = title;
+            this.getter = getter;
+        }
+
+        /**
+         * @param key NDJSON字段名
+         * @param title CSV列标题
+         * @param getter 取值函数
+         */
+        public static <T> Column<T> of(String key, String title, Function<T, Object> getter) {
+            return new Column<>(key, title, getter);
+        }
+    }
+
+    interface RowWriter<T> {
+        void begin() throws IOException;
+
+        void write(T row) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    static final class CsvRowWriter<T> implements RowWriter<T> {
+        private final Writer writer;
+        private final List<Column<T>> columns;
+
+        CsvRowWriter(Writer writer, List<Column<T>> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            // UTF-8 BOM，便于 Excel 正确识别中文
+            writer.write('\uFEFF');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(columns.get(i).title);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(columns.get(i).getter.apply(row));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void end() {
+        }
+
+        private void writeCell(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text;
+            if (value instanceof LocalDateTime) {
+                text = ((LocalDateTime) value).format(DATE_TIME_FORMAT);
+            } else if (value instanceof BigDecimal) {
+                text = ((BigDecimal) value).toPlainString();
+            } else if (value instanceof Enum) {
+                text = ((Enum<?>) value).name();
+            } else {
+                text = value.toString();
+            }
+            if (value instanceof String && isFormulaLike(text)) {
+                // 防止表格软件将文本单元格解析为公式
+                text = "'" + text;
+            }
+            // 首尾空白的单元格加引号，导入时只去除引号外的空白
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0 || (!text.isEmpty() && (Character.isWhitespace(text.charAt(0))
+                    || Character.isWhitespace(text.charAt(text.length() - 1))))) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+
+    private static final class NdjsonRowWriter<T> implements RowWriter<T> {
+        private final JsonGenerator generator;
+        private final List<Column<T>> columns;
+        private boolean empty = true;
+
+        NdjsonRowWriter(JsonGenerator generator, List<Column<T>> columns) {
+            this.generator = generator;
+            this.columns = columns;
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+            // 底层 Writer 由导出流程统一刷新，不随生成器关闭
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeFieldName(column.key);
+                generator.writeObject(column.getter.apply(row));
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void end() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
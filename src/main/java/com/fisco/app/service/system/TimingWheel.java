@@ -0,0 +1,162 @@
+package com.fisco.app.service.system;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分层时间轮
+ * 第 0 层每格 tickMs、共 wheelSize 格，上一层每格等于下一层一整圈，超出当前最高层范围时按需增加一层；
+ * 登记、取消都是 O(1)，推进时只处理到期的格子，高层格子到期时把其中的任务重新登记到低层
+ *
+ * 同一 key 重复登记时覆盖之前的到期时间（旧任务惰性作废）；方法均为 synchronized，业务线程登记、定时线程推进
+ *
+ * @param <K> 任务键
+ */
+public class TimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Level<K>> levels = new ArrayList<>();
+    private final Map<K, Task<K>> tasks = new HashMap<>();
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        levels.add(new Level<>(tickMs, wheelSize, startMs - startMs % tickMs));
+    }
+
+    /**
+     * 登记任务，返回 false 表示已到期（到期时间落在当前格内），调用方应立即处理
+     */
+    public synchronized boolean add(K key, long expirationMs) {
+        Task<K> previous = tasks.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        Task<K> task = new Task<>(key, expirationMs);
+        if (!place(task)) {
+            return false;
+        }
+        tasks.put(key, task);
+        return true;
+    }
+
+    /**
+     * 取消任务
+     */
+    public synchronized void cancel(K key) {
+        Task<K> task = tasks.remove(key);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    /**
+     * 推进到 nowMs，返回期间到期的任务键
+     */
+    public synchronized List<K> advance(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        Level<K> lowest = levels.get(0);
+        while (lowest.currentTime + tickMs <= nowMs) {
+            long time = lowest.currentTime + tickMs;
+            for (Level<K> level : levels) {
+                level.currentTime = time - time % level.tickMs;
+            }
+            // 从高层到低层依次处理当前格：高层任务下沉到低层，最终落入第 0 层当前格或直接到期
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level<K> level = levels.get(i);
+                for (Task<K> task : level.take(level.currentTime)) {
+                    if (task.cancelled) {
+                        continue;
+                    }
+                    if (!place(task)) {
+                        tasks.remove(task.key);
+                        expired.add(task.key);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 当前登记的任务数
+     */
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    /**
+     * 放入能容纳该到期时间的最低一层，到期时间落在第 0 层当前格内时返回 false
+     */
+    private boolean place(Task<K> task) {
+        Level<K> lowest = levels.get(0);
+        if (task.expirationMs < lowest.currentTime + tickMs) {
+            return false;
+        }
+        int index = 0;
+        while (true) {
+            Level<K> level = levels.get(index);
+            if (task.expirationMs < level.currentTime + level.interval) {
+                level.put(task);
+                return true;
+            }
+            if (index == levels.size() - 1) {
+                long overflowTick = level.interval;
+                levels.add(new Level<>(overflowTick, wheelSize,
+                        lowest.currentTime - lowest.currentTime % overflowTick));
+            }
+            index++;
+        }
+    }
+
+    private static final class Level<K> {
+
+        private final long tickMs;
+        private final long interval;
+        private final List<List<Task<K>>> buckets;
+        private long currentTime;
+
+        private Level(long tickMs, int wheelSize, long currentTime) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            this.currentTime = currentTime;
+        }
+
+        private void put(Task<K> task) {
+            buckets.get(indexOf(task.expirationMs)).add(task);
+        }
+
+        private List<Task<K>> take(long time) {
+            int index = indexOf(time);
+            List<Task<K>> bucket = buckets.get(index);
+            if (bucket.isEmpty()) {
+                return bucket;
+            }
+            buckets.set(index, new ArrayList<>());
+            return bucket;
+        }
+
+        private int indexOf(long time) {
+            return (int) ((time / tickMs) % buckets.size());
+        }
+    }
+
+    private static final class Task<K> {
+
+        private final K key;
+        private final long expirationMs;
+        private boolean cancelled;
+
+        private Task(K key, long expirationMs) {
+            this.key = key;
+            this.expirationMs = expirationMs;
+        }
+    }
+}
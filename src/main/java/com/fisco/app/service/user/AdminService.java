@@ -15,6 +15,7 @@ import com.fisco.app.entity.user.Admin;
 import com.fisco.app.exception.BusinessException;
 import com.fisco.app.repository.user.AdminRepository;
 import com.fisco.app.security.PasswordUtil;
+import com.fisco.app.security.PasswordVerificationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AdminService {
 
     private final AdminRepository adminRepository;
+    private final PasswordVerificationService passwordVerificationService;
 
     /**
      * 创建管理员
@@ -100,8 +102,10 @@ public class AdminService {
             throw new BusinessException("账户已被禁用，请联系管理员");
         }
 
-        // 验证密码
-        if (!PasswordUtil.matches(password, admin.getPassword())) {
+        // 验证密码（在独立线程池中执行，并按账号/IP限制失败次数）
+        PasswordVerificationService.VerificationResult result =
+                passwordVerificationService.verify("admin:" + username, password, admin.getPassword());
+        if (!result.isMatched()) {
             admin.incrementFailedAttempts();
             adminRepository.save(admin);
             log.warn("管理员登录失败: username={}, failedAttempts={}",
@@ -109,6 +113,13 @@ public class AdminService {
             throw new BusinessException("用户名或密码错误");
         }
 
+        // 密文版本低于当前配置时回写新密文
+        if (result.getUpgradedHash() != null) {
+            admin.setPassword(result.getUpgradedHash());
+            adminRepository.save(admin);
+            log.info("管理员密码密文已升级: username={}", username);
+        }
+
         return admin;
     }
 
@@ -173,12 +184,13 @@ public class AdminService {
         Admin admin = getAdminById(adminId);
 
         // 验证旧密码
-        if (!PasswordUtil.matches(oldPassword, admin.getPassword())) {
+        if (!passwordVerificationService.verify("admin:" + admin.getUsername(), oldPassword, admin.getPassword())
+                .isMatched()) {
             throw new BusinessException("原密码错误");
         }
 
         // 设置新密码
-        admin.setPassword(PasswordUtil.encode(newPassword));
+        admin.setPassword(passwordVerificationService.encode(newPassword));
         admin.setUpdatedBy(updatedBy);
         adminRepository.save(admin);
         log.info("修改管理员密码成功: adminId={}, updatedBy={}", adminId, updatedBy);
@@ -0,0 +1,301 @@
+package com.fisco.app.service.user;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fisco.app.entity.user.User;
+import com.fisco.app.entity.user.UserActivity;
+import com.fisco.app.event.UserUpdatedEvent;
+import com.fisco.app.repository.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户活动日志写入管道
+ * 请求线程只负责入队，由后台写入线程批量补全用户名、解析User-Agent并批量插入 user_activity
+ *
+ * - 队列有界，写满时丢弃新记录并计数，不阻塞业务请求
+ * - 用户名、真实姓名按用户ID缓存，未命中时按批次一次查询
+ * - User-Agent 解析结果按原始字符串缓存
+ * - user_activity 主键为自增列，Hibernate 无法对其批量插入，因此直接使用 JDBC 批处理
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserActivityIngestor {
+
+    private static final String INSERT_SQL = "INSERT INTO user_activity (user_id, username, real_name, activity_type, "
+            + "description, module, result, request_method, request_url, ip_address, user_agent, browser, os, device, "
+            + "location, failure_reason, duration, extra_data, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    @Value("${app.user-activity.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.user-activity.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.user-activity.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<UserActivity> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 用户ID -> {用户名, 真实姓名}
+     */
+    private final Cache<String, String[]> userNames = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * User-Agent -> {浏览器, 操作系统, 设备类型}
+     */
+    private final Cache<String, String[]> userAgents = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .build();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::runWriter, "user-activity-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("用户活动日志写入管道已启动: queueCapacity={}, batchSize={}", queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // 停机前写入剩余记录
+        List<UserActivity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * 提交一条活动记录，队列已满时丢弃
+     *
+     * @return 是否成功入队
+     */
+    public boolean submit(UserActivity activity) {
+        if (queue.offer(activity)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            log.warn("用户活动日志队列已满，丢弃记录: dropped={}", count);
+        }
+        return false;
+    }
+
+    /**
+     * 用户信息变更后清除缓存的用户名
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        if (event.getUserId() != null) {
+            userNames.invalidate(event.getUserId());
+        }
+    }
+
+    /**
+     * 当前排队数量
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 累计丢弃数量
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void runWriter() {
+        List<UserActivity> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                UserActivity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("用户活动日志批量写入失败，丢弃本批记录: size={}, error={}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<UserActivity> batch) {
+        fillUserNames(batch);
+        for (UserActivity activity : batch) {
+            if (activity.getUserAgent() != null && activity.getBrowser() == null) {
+                String[] parsed = userAgents.get(activity.getUserAgent(), UserActivityIngestor::parseUserAgent);
+                activity.setBrowser(parsed[0]);
+                activity.setOs(parsed[1]);
+                activity.setDevice(parsed[2]);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+        log.debug("用户活动日志批量写入: size={}", batch.size());
+    }
+
+    private void fillUserNames(List<UserActivity> batch) {
+        Set<String> missing = new HashSet<>();
+        for (UserActivity activity : batch) {
+            if (activity.getUsername() == null && userNames.getIfPresent(activity.getUserId()) == null) {
+                missing.add(activity.getUserId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                userNames.put(user.getId(), new String[] {user.getUsername(), user.getRealName()});
+            }
+        }
+        for (UserActivity activity : batch) {
+            if (activity.getUsername() != null) {
+                continue;
+            }
+            String[] names = userNames.getIfPresent(activity.getUserId());
+            if (names != null) {
+                activity.setUsername(names[0]);
+                activity.setRealName(names[1]);
+            } else {
+                log.warn("用户不存在，仍然记录活动: userId={}", activity.getUserId());
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, UserActivity activity) throws SQLException {
+        ps.setString(1, activity.getUserId());
+        ps.setString(2, activity.getUsername());
+        ps.setString(3, activity.getRealName());
+        ps.setString(4, activity.getActivityType().name());
+        ps.setString(5, activity.getDescription());
+        ps.setString(6, activity.getModule());
+        ps.setString(7, activity.getResult() != null
+                ? activity.getResult().name() : UserActivity.ActivityResult.SUCCESS.name());
+        ps.setString(8, activity.getRequestMethod());
+        ps.setString(9, activity.getRequestUrl());
+        ps.setString(10, activity.getIpAddress());
+        ps.setString(11, activity.getUserAgent());
+        ps.setString(12, activity.getBrowser());
+        ps.setString(13, activity.getOs());
+        ps.setString(14, activity.getDevice());
+        ps.setString(15, activity.getLocation());
+        ps.setString(16, activity.getFailureReason());
+        if (activity.getDuration() != null) {
+            ps.setLong(17, activity.getDuration());
+        } else {
+            ps.setNull(17, Types.BIGINT);
+        }
+        ps.setString(18, activity.getExtraData());
+        ps.setTimestamp(19, Timestamp.valueOf(activity.getCreatedAt()));
+    }
+
+    /**
+     * 解析User-Agent获取浏览器、操作系统和设备类型
+     */
+    private static String[] parseUserAgent(String userAgent) {
+        String ua = userAgent.toLowerCase(Locale.ROOT);
+
+        // 解析浏览器
+        String browser;
+        if (ua.contains("chrome")) {
+            browser = "Chrome";
+        } else if (ua.contains("firefox")) {
+            browser = "Firefox";
+        } else if (ua.contains("safari") && !ua.contains("chrome")) {
+            browser = "Safari";
+        } else if (ua.contains("edge")) {
+            browser = "Edge";
+        } else if (ua.contains("opera")) {
+            browser = "Opera";
+        } else {
+            browser = "Unknown";
+        }
+
+        // 解析操作系统
+        String os;
+        if (ua.contains("windows nt 10.0")) {
+            os = "Windows 10";
+        } else if (ua.contains("windows nt 6.3")) {
+            os = "Windows 8.1";
+        } else if (ua.contains("windows nt 6.2")) {
+            os = "Windows 8";
+        } else if (ua.contains("windows nt 6.1")) {
+            os = "Windows 7";
+        } else if (ua.contains("windows nt 6.0")) {
+            os = "Windows Vista";
+        } else if (ua.contains("windows nt 5.1")) {
+            os = "Windows XP";
+        } else if (ua.contains("windows")) {
+            os = "Windows";
+        } else if (ua.contains("mac os x")) {
+            os = "macOS";
+        } else if (ua.contains("linux")) {
+            os = "Linux";
+        } else if (ua.contains("android")) {
+            os = "Android";
+        } else if (ua.contains("iphone") || ua.contains("ipad")) {
+            os = "iOS";
+        } else {
+            os = "Unknown";
+        }
+
+        // 解析设备类型
+        String device;
+        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
+            device = "Mobile";
+        } else if (ua.contains("tablet") || ua.contains("ipad")) {
+            device = "Tablet";
+        } else {
+            device = "PC";
+        }
+
+        return new String[] {browser, os, device};
+    }
+}
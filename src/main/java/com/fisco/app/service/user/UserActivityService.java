@@ -12,14 +12,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fisco.app.dto.user.UserActivityDTO;
 import com.fisco.app.dto.user.UserActivityQueryRequest;
-import com.fisco.app.entity.user.User;
 import com.fisco.app.entity.user.UserActivity;
 import com.fisco.app.repository.user.UserActivityRepository;
-import com.fisco.app.repository.user.UserRepository;
+import com.fisco.app.service.system.LogPartitionMaintenanceService;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -35,12 +34,14 @@ import lombok.extern.slf4j.Slf4j;
 public class UserActivityService {
 
     private final UserActivityRepository userActivityRepository;
-    private final UserRepository userRepository;
+    private final UserActivityIngestor userActivityIngestor;
+    private final LogPartitionMaintenanceService logPartitionMaintenanceService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 记录用户活动
+     * 仅在内存中组装记录并提交到写入管道，用户名补全、User-Agent解析和入库由 UserActivityIngestor 异步批量完成
      */
-    @Transactional
     public UserActivity recordActivity(@NonNull String userId,
                                        @NonNull UserActivity.ActivityType activityType,
                                        @NonNull String description,
@@ -54,18 +55,8 @@ public class UserActivityService {
         log.debug("记录用户活动: userId={}, activityType={}, description={}",
                   userId, activityType, description);
 
-        // 查询用户信息
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            log.warn("用户不存在，仍然记录活动: userId={}", userId);
-        }
-
         UserActivity activity = new UserActivity();
         activity.setUserId(userId);
-        if (user != null) {
-            activity.setUsername(user.getUsername());
-            activity.setRealName(user.getRealName());
-        }
         activity.setActivityType(activityType);
         activity.setDescription(description);
         activity.setModule(module);
@@ -75,22 +66,15 @@ public class UserActivityService {
         activity.setFailureReason(failureReason);
         activity.setDuration(duration);
         activity.setExtraData(extraData);
+        activity.setCreatedAt(LocalDateTime.now());
 
-        // 解析User-Agent获取浏览器和操作系统信息
-        if (userAgent != null) {
-            parseUserAgent(activity, userAgent);
-        }
-
-        UserActivity saved = userActivityRepository.save(activity);
-        log.debug("用户活动记录成功: activityId={}", saved.getId());
-
-        return saved;
+        userActivityIngestor.submit(activity);
+        return activity;
     }
 
     /**
      * 记录登录活动
      */
-    @Transactional
     public void recordLoginActivity(@NonNull String userId,
                                     String ipAddress,
                                     String userAgent,
@@ -107,7 +91,6 @@ public class UserActivityService {
     /**
      * 记录登出活动
      */
-    @Transactional
     public void recordLogoutActivity(@NonNull String userId,
                                      String ipAddress,
                                      String userAgent) {
@@ -229,69 +212,16 @@ public class UserActivityService {
 
     /**
      * 删除旧的活动日志
+     * user_activity 按月分区，直接删除 beforeDate 之前的整月分区；
+     * beforeDate 所在月份的数据随该分区整月过期后删除。表未分区时退回范围删除
      */
-    @Transactional
     public void cleanupOldActivities(LocalDateTime beforeDate) {
         log.info("删除旧的活动日志: beforeDate={}", beforeDate);
-        userActivityRepository.deleteOldActivities(beforeDate);
-        log.info("旧活动日志删除完成");
-    }
-
-    /**
-     * 解析User-Agent获取浏览器和操作系统信息
-     */
-    private void parseUserAgent(UserActivity activity, String userAgent) {
-        String ua = userAgent.toLowerCase();
-
-        // 解析浏览器
-        if (ua.contains("chrome")) {
-            activity.setBrowser("Chrome");
-        } else if (ua.contains("firefox")) {
-            activity.setBrowser("Firefox");
-        } else if (ua.contains("safari") && !ua.contains("chrome")) {
-            activity.setBrowser("Safari");
-        } else if (ua.contains("edge")) {
-            activity.setBrowser("Edge");
-        } else if (ua.contains("opera")) {
-            activity.setBrowser("Opera");
-        } else {
-            activity.setBrowser("Unknown");
-        }
-
-        // 解析操作系统
-        if (ua.contains("windows nt 10.0")) {
-            activity.setOs("Windows 10");
-        } else if (ua.contains("windows nt 6.3")) {
-            activity.setOs("Windows 8.1");
-        } else if (ua.contains("windows nt 6.2")) {
-            activity.setOs("Windows 8");
-        } else if (ua.contains("windows nt 6.1")) {
-            activity.setOs("Windows 7");
-        } else if (ua.contains("windows nt 6.0")) {
-            activity.setOs("Windows Vista");
-        } else if (ua.contains("windows nt 5.1")) {
-            activity.setOs("Windows XP");
-        } else if (ua.contains("windows")) {
-            activity.setOs("Windows");
-        } else if (ua.contains("mac os x")) {
-            activity.setOs("macOS");
-        } else if (ua.contains("linux")) {
-            activity.setOs("Linux");
-        } else if (ua.contains("android")) {
-            activity.setOs("Android");
-        } else if (ua.contains("iphone") || ua.contains("ipad")) {
-            activity.setOs("iOS");
-        } else {
-            activity.setOs("Unknown");
-        }
-
-        // 解析设备类型
-        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
-            activity.setDevice("Mobile");
-        } else if (ua.contains("tablet") || ua.contains("ipad")) {
-            activity.setDevice("Tablet");
-        } else {
-            activity.setDevice("PC");
+        int dropped = logPartitionMaintenanceService.dropPartitionsBefore(
+                LogPartitionMaintenanceService.USER_ACTIVITY, beforeDate);
+        if (dropped < 0) {
+            transactionTemplate.executeWithoutResult(status -> userActivityRepository.deleteOldActivities(beforeDate));
         }
+        log.info("旧活动日志删除完成: droppedPartitions={}", Math.max(dropped, 0));
     }
 }
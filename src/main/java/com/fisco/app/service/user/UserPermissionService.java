@@ -1,13 +1,16 @@
 package com.fisco.app.service.user;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.fisco.app.dto.user.SetUserPermissionsRequest;
 import com.fisco.app.dto.user.UserPermissionDTO;
@@ -15,6 +18,7 @@ import com.fisco.app.entity.user.UserPermission;
 import com.fisco.app.exception.BusinessException;
 import com.fisco.app.repository.user.UserPermissionRepository;
 import com.fisco.app.repository.user.UserRepository;
+import com.fisco.app.service.system.CacheInvalidationBus;
 
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +26,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * 用户权限Service
+ *
+ * 权限判定基于编译后的用户权限快照（UserPermissionSnapshot），快照缓存在 userPermissionSnapshot 中，
+ * 权限写操作提交后经 CacheInvalidationBus 失效，下次判定时重建
  */
 @Slf4j
 @Service
@@ -29,8 +36,12 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserPermissionService {
 
+    public static final String SNAPSHOT_CACHE = "userPermissionSnapshot";
+
     private final UserPermissionRepository userPermissionRepository;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * 设置用户权限（替换模式）
@@ -71,6 +82,7 @@ public class UserPermissionService {
         // 批量保存
         List<UserPermission> savedPermissions = userPermissionRepository.saveAll(newPermissions);
 
+        evictSnapshotAfterCommit(userId);
         log.info("用户权限设置成功: userId={}, permissionsCount={}", userId, savedPermissions.size());
 
         return savedPermissions.stream()
@@ -109,6 +121,7 @@ public class UserPermissionService {
         userPermission.setCreatedBy(operator);
 
         UserPermission saved = userPermissionRepository.save(userPermission);
+        evictSnapshotAfterCommit(userId);
 
         log.info("用户权限添加成功: userId={}, permissionId={}", userId, saved.getId());
 
@@ -134,12 +147,7 @@ public class UserPermissionService {
     public List<UserPermissionDTO> getValidUserPermissions(@NonNull String userId) {
         log.debug("获取用户有效权限: userId={}", userId);
 
-        List<UserPermission> permissions = userPermissionRepository
-                .findValidPermissionsByUserId(userId, LocalDateTime.now());
-
-        return permissions.stream()
-                .map(UserPermissionDTO::fromEntity)
-                .collect(Collectors.toList());
+        return snapshot(userId).validPermissions();
     }
 
     /**
@@ -148,14 +156,14 @@ public class UserPermissionService {
     public boolean checkPermission(@NonNull String userId,
                                    @NonNull UserPermission.ResourceType resourceType,
                                    @NonNull UserPermission.Operation operation) {
-        return userPermissionRepository.hasPermission(userId, resourceType, operation, LocalDateTime.now());
+        return snapshot(userId).has(resourceType, operation);
     }
 
     /**
      * 检查用户是否拥有指定权限代码
      */
     public boolean checkPermissionByCode(@NonNull String userId, @NonNull String permissionCode) {
-        return userPermissionRepository.hasPermissionByCode(userId, permissionCode, LocalDateTime.now());
+        return snapshot(userId).hasCode(permissionCode);
     }
 
     /**
@@ -173,6 +181,7 @@ public class UserPermissionService {
         }
 
         userPermissionRepository.delete(permission);
+        evictSnapshotAfterCommit(userId);
 
         log.info("用户权限删除成功: permissionId={}", permissionId);
     }
@@ -185,6 +194,7 @@ public class UserPermissionService {
         log.info("清除用户所有权限: userId={}, operator={}", userId, operator);
 
         userPermissionRepository.deleteByUserId(userId);
+        evictSnapshotAfterCommit(userId);
 
         log.info("用户权限清除成功: userId={}", userId);
     }
@@ -211,6 +221,7 @@ public class UserPermissionService {
         permission.setUpdatedBy(operator);
 
         userPermissionRepository.save(permission);
+        evictSnapshotAfterCommit(userId);
 
         log.info("用户权限{}成功: permissionId={}", enabled ? "启用" : "禁用", permissionId);
     }
@@ -226,6 +237,44 @@ public class UserPermissionService {
      * 统计用户有效权限数量
      */
     public Long countValidUserPermissions(@NonNull String userId) {
-        return userPermissionRepository.countValidPermissionsByUserId(userId, LocalDateTime.now());
+        return snapshot(userId).countValid();
+    }
+
+    /**
+     * 获取用户权限快照，未命中时从数据库编译
+     */
+    private UserPermissionSnapshot snapshot(String userId) {
+        Cache cache = cacheManager.getCache(SNAPSHOT_CACHE);
+        if (cache == null) {
+            return UserPermissionSnapshot.compile(userPermissionRepository.findByUserId(userId));
+        }
+        UserPermissionSnapshot snapshot = cache.get(userId, UserPermissionSnapshot.class);
+        if (snapshot == null) {
+            snapshot = UserPermissionSnapshot.compile(userPermissionRepository.findByUserId(userId));
+            cache.put(userId, snapshot);
+            log.debug("用户权限快照已编译: userId={}", userId);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 事务提交后失效用户权限快照（含其他节点）
+     * 提交前先在本地失效一次，提交后再失效，避免并发读取把旧数据重新写回缓存
+     */
+    private void evictSnapshotAfterCommit(String userId) {
+        Cache cache = cacheManager.getCache(SNAPSHOT_CACHE);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheInvalidationBus.evict(SNAPSHOT_CACHE, userId);
+                }
+            });
+        } else {
+            cacheInvalidationBus.evict(SNAPSHOT_CACHE, userId);
+        }
     }
 }
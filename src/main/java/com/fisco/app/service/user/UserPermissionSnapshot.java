@@ -0,0 +1,164 @@
+package com.fisco.app.service.user;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fisco.app.dto.user.UserPermissionDTO;
+import com.fisco.app.entity.user.UserPermission;
+
+/**
+ * 用户权限快照
+ * 将用户的启用权限编译为紧凑结构，权限判定只做位运算和数组扫描，不访问数据库、不分配对象
+ *
+ * - 永久授权：ResourceType × Operation 位图
+ * - 限时授权：按过期时间降序排列的 (单元格, 过期时间) 数组，扫描到已过期项即停止
+ * - 权限代码：代码 -> 过期时间（永久授权为 Long.MAX_VALUE）
+ *
+ * 快照不可变，由 UserPermissionService 缓存并在权限变更后失效重建
+ */
+public final class UserPermissionSnapshot {
+
+    private static final int OPERATION_COUNT = UserPermission.Operation.values().length;
+    private static final int CELL_COUNT = UserPermission.ResourceType.values().length * OPERATION_COUNT;
+    private static final long PERMANENT = Long.MAX_VALUE;
+
+    private final long[] permanentBits;
+    private final int[] boundedCells;
+    private final long[] boundedExpiries;
+    private final Map<String, Long> codeExpiries;
+    private final List<UserPermissionDTO> permissions;
+    private final long[] permissionExpiries;
+
+    private UserPermissionSnapshot(long[] permanentBits, int[] boundedCells, long[] boundedExpiries,
+                                   Map<String, Long> codeExpiries, List<UserPermissionDTO> permissions,
+                                   long[] permissionExpiries) {
+        this.permanentBits = permanentBits;
+        this.boundedCells = boundedCells;
+        this.boundedExpiries = boundedExpiries;
+        this.codeExpiries = codeExpiries;
+        this.permissions = permissions;
+        this.permissionExpiries = permissionExpiries;
+    }
+
+    /**
+     * 编译用户权限，仅保留启用且在编译时尚未过期的权限
+     */
+    public static UserPermissionSnapshot compile(List<UserPermission> entities) {
+        long now = System.currentTimeMillis();
+        long[] bits = new long[(CELL_COUNT + 63) / 64];
+        List<long[]> bounded = new ArrayList<>();
+        Map<String, Long> codes = new HashMap<>();
+        List<UserPermission> valid = new ArrayList<>();
+
+        for (UserPermission permission : entities) {
+            if (!Boolean.TRUE.equals(permission.getIsEnabled())) {
+                continue;
+            }
+            long expiry = toMillis(permission.getExpireAt());
+            if (expiry <= now) {
+                continue;
+            }
+            valid.add(permission);
+            if (permission.getPermissionCode() != null) {
+                codes.merge(permission.getPermissionCode(), expiry, Math::max);
+            }
+            if (permission.getResourceType() == null || permission.getOperation() == null) {
+                continue;
+            }
+            int cell = cell(permission.getResourceType(), permission.getOperation());
+            if (expiry == PERMANENT) {
+                bits[cell >>> 6] |= 1L << cell;
+            } else {
+                bounded.add(new long[] {cell, expiry});
+            }
+        }
+
+        // 限时授权按过期时间降序，判定时遇到已过期项即可停止
+        bounded.sort((a, b) -> Long.compare(b[1], a[1]));
+        int[] boundedCells = new int[bounded.size()];
+        long[] boundedExpiries = new long[bounded.size()];
+        for (int i = 0; i < bounded.size(); i++) {
+            boundedCells[i] = (int) bounded.get(i)[0];
+            boundedExpiries[i] = bounded.get(i)[1];
+        }
+
+        List<UserPermissionDTO> dtos = new ArrayList<>(valid.size());
+        long[] permissionExpiries = new long[valid.size()];
+        for (int i = 0; i < valid.size(); i++) {
+            dtos.add(UserPermissionDTO.fromEntity(valid.get(i)));
+            permissionExpiries[i] = toMillis(valid.get(i).getExpireAt());
+        }
+
+        return new UserPermissionSnapshot(bits, boundedCells, boundedExpiries, codes,
+                Collections.unmodifiableList(dtos), permissionExpiries);
+    }
+
+    /**
+     * 是否拥有指定资源的操作权限
+     */
+    public boolean has(UserPermission.ResourceType resourceType, UserPermission.Operation operation) {
+        int cell = cell(resourceType, operation);
+        if ((permanentBits[cell >>> 6] & (1L << cell)) != 0) {
+            return true;
+        }
+        if (boundedCells.length == 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < boundedCells.length && boundedExpiries[i] > now; i++) {
+            if (boundedCells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否拥有指定权限代码
+     */
+    public boolean hasCode(String permissionCode) {
+        Long expiry = codeExpiries.get(permissionCode);
+        return expiry != null && (expiry == PERMANENT || expiry > System.currentTimeMillis());
+    }
+
+    /**
+     * 当前仍有效的权限列表
+     */
+    public List<UserPermissionDTO> validPermissions() {
+        long now = System.currentTimeMillis();
+        List<UserPermissionDTO> result = new ArrayList<>(permissions.size());
+        for (int i = 0; i < permissions.size(); i++) {
+            if (permissionExpiries[i] > now) {
+                result.add(permissions.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前仍有效的权限数量
+     */
+    public long countValid() {
+        long now = System.currentTimeMillis();
+        long count = 0;
+        for (long expiry : permissionExpiries) {
+            if (expiry > now) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int cell(UserPermission.ResourceType resourceType, UserPermission.Operation operation) {
+        return resourceType.ordinal() * OPERATION_COUNT + operation.ordinal();
+    }
+
+    private static long toMillis(LocalDateTime expireAt) {
+        return expireAt == null ? PERMANENT : expireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.fisco.app.entity.enterprise.Enterprise;
 import com.fisco.app.entity.user.User;
+import com.fisco.app.event.EventPublisher;
 import com.fisco.app.exception.BusinessException;
 import com.fisco.app.repository.user.UserRepository;
 import com.fisco.app.security.PasswordUtil;
+import com.fisco.app.security.PasswordVerificationService;
 import com.fisco.app.security.PermissionChecker;
 import com.fisco.app.service.enterprise.EnterpriseService;
 
@@ -35,6 +37,8 @@ public class UserService {
     private final EnterpriseService enterpriseService;
     private final PermissionChecker permissionChecker;
     private final InvitationCodeService invitationCodeService;
+    private final EventPublisher eventPublisher;
+    private final PasswordVerificationService passwordVerificationService;
 
     /**
      * 创建用户
@@ -256,6 +260,8 @@ public class UserService {
         user.setStatus(User.UserStatus.ACTIVE);
         user.setUpdatedBy(approver);
         userRepository.save(user);
+        eventPublisher.publishUserUpdatedEvent(user.getUsername(), user.getEnterpriseId(),
+                user.getEnterpriseId(), user.getId());
 
         log.info("用户审核通过: userId={}, username={}, enterpriseId={}",
                  userId, user.getUsername(), user.getEnterpriseId());
@@ -284,6 +290,8 @@ public class UserService {
         user.setRegistrationRemarks(reason != null ? reason : "企业拒绝了注册申请");
         user.setUpdatedBy(approver);
         userRepository.save(user);
+        eventPublisher.publishUserUpdatedEvent(user.getUsername(), user.getEnterpriseId(),
+                user.getEnterpriseId(), user.getId());
 
         log.info("用户注册已拒绝: userId={}, username={}, reason={}, enterpriseId={}",
                  userId, user.getUsername(), reason, user.getEnterpriseId());
@@ -337,6 +345,8 @@ public class UserService {
 
         User saved = userRepository.save(user);
         log.info("用户信息更新成功: userId={}", userId);
+        eventPublisher.publishUserUpdatedEvent(saved.getUsername(), saved.getEnterpriseId(),
+                saved.getEnterpriseId(), saved.getId());
 
         saved.setPassword(null);
         return saved;
@@ -352,12 +362,13 @@ public class UserService {
         User user = getUserById(userId);
 
         // 验证旧密码
-        if (!PasswordUtil.matches(oldPassword, user.getPassword())) {
+        if (!passwordVerificationService.verify("user:" + user.getUsername(), oldPassword, user.getPassword())
+                .isMatched()) {
             throw new BusinessException("原密码错误");
         }
 
         // 加密新密码
-        String encodedPassword = PasswordUtil.encode(newPassword);
+        String encodedPassword = passwordVerificationService.encode(newPassword);
         user.setPassword(encodedPassword);
         user.setPasswordChangedAt(LocalDateTime.now());
         user.setUpdatedBy(user.getUsername());
@@ -396,6 +407,8 @@ public class UserService {
         user.setUpdatedBy(operator);
 
         userRepository.save(user);
+        eventPublisher.publishUserUpdatedEvent(user.getUsername(), user.getEnterpriseId(),
+                user.getEnterpriseId(), user.getId());
         log.info("用户状态设置成功: userId={}, status={}", userId, status);
     }
 
@@ -422,12 +435,11 @@ public class UserService {
     public void deleteUser(@NonNull String userId) {
         log.info("删除用户: userId={}", userId);
 
-        if (!userRepository.existsById(userId)) {
-            throw new BusinessException.UserNotFoundException(userId);
-        }
+        User user = getUserById(userId);
 
         userRepository.deleteById(userId);
         log.info("用户删除成功: userId={}", userId);
+        eventPublisher.publishUserDeletedEvent(user.getUsername(), userId, user.getEnterpriseId());
     }
 
     /**
@@ -463,11 +475,20 @@ public class UserService {
             throw new BusinessException("账户已被禁用，请联系管理员");
         }
 
-        // 验证密码
-        if (!PasswordUtil.matches(password, user.getPassword())) {
+        // 验证密码（在独立线程池中执行，并按账号/IP限制失败次数）
+        PasswordVerificationService.VerificationResult result =
+                passwordVerificationService.verify("user:" + username, password, user.getPassword());
+        if (!result.isMatched()) {
             throw new BusinessException("用户名或密码错误");
         }
 
+        // 密文版本低于当前配置时回写新密文
+        if (result.getUpgradedHash() != null) {
+            user.setPassword(result.getUpgradedHash());
+            userRepository.save(user);
+            log.info("用户密码密文已升级: username={}", username);
+        }
+
         log.info("用户登录验证成功: username={}", username);
         return user;
     }
@@ -20,6 +20,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
+import com.fisco.app.annotation.Idempotent;
 import com.fisco.app.aspect.RequireOnChain;
 import com.fisco.app.dto.receivable.SplitApplicationRequest;
 import com.fisco.app.dto.receivable.SplitApplicationResponse;
@@ -45,6 +47,7 @@ import com.fisco.app.dto.warehouse.ReceiptFreezeRequest;
 import com.fisco.app.dto.warehouse.ReceiptFreezeResponse;
 import com.fisco.app.dto.warehouse.ReceiptUnfreezeRequest;
 import com.fisco.app.dto.warehouse.ReceiptUnfreezeResponse;
+import com.fisco.app.entity.system.DueEvent;
 import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
 import com.fisco.app.entity.warehouse.ReceiptCancelApplication;
 import com.fisco.app.entity.warehouse.ReceiptFreezeApplication;
@@ -54,6 +57,7 @@ import com.fisco.app.repository.warehouse.ReceiptFreezeApplicationRepository;
 import com.fisco.app.repository.warehouse.ReceiptSplitApplicationRepository;
 import com.fisco.app.security.PermissionChecker;
 import com.fisco.app.security.UserAuthentication;
+import com.fisco.app.service.blockchain.ChainTxResult;
 import com.fisco.app.service.blockchain.ContractService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -77,6 +81,18 @@ public class ElectronicWarehouseReceiptService {
     @Autowired
     private ReceiptFreezeApplicationRepository freezeApplicationRepository;
 
+    @Autowired
+    private com.fisco.app.service.system.BulkEntityWriter bulkEntityWriter;
+
+    @Autowired
+    private com.fisco.app.service.system.BusinessNumberAllocator numberAllocator;
+
+    @Autowired
+    private com.fisco.app.service.system.AssetLineageService lineageService;
+
+    @Autowired
+    private com.fisco.app.service.system.DueEventScheduler dueEventScheduler;
+
     @Value("${app.admin.enabled:false}")
     private boolean adminFreezeOnly; // 是否只有管理员可以冻结
 
@@ -84,6 +100,7 @@ public class ElectronicWarehouseReceiptService {
      * 创建仓单
      */
     @Transactional
+    @Idempotent
     public ElectronicWarehouseReceiptResponse createReceipt(ElectronicWarehouseReceiptCreateRequest request) {
         log.info("创建仓单, 仓储企业: {}, 货主企业: {}", request.getWarehouseId(), request.getOwnerId());
 
@@ -162,6 +179,7 @@ public class ElectronicWarehouseReceiptService {
         // 4. 保存仓单
         ElectronicWarehouseReceipt saved = repository.save(receipt);
         log.info("仓单创建成功, ID: {}, 编号: {}, 状态: {}", saved.getId(), saved.getReceiptNo(), saved.getReceiptStatus());
+        dueEventScheduler.schedule(DueEvent.EventType.RECEIPT_EXPIRY, saved.getId(), saved.getExpiryDate());
 
         return ElectronicWarehouseReceiptResponse.fromEntity(saved);
     }
@@ -170,6 +188,7 @@ public class ElectronicWarehouseReceiptService {
      * 更新仓单
      */
     @Transactional
+    @Idempotent
     public ElectronicWarehouseReceiptResponse updateReceipt(@NonNull String id, ElectronicWarehouseReceiptUpdateRequest request) {
         log.info("更新仓单, ID: {}", id);
 
@@ -218,6 +237,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public ElectronicWarehouseReceiptResponse updateReceiptWithHistory(
             @NonNull String id,
             com.fisco.app.dto.warehouse.UpdateReceiptRequest request,
@@ -322,6 +342,9 @@ public class ElectronicWarehouseReceiptService {
 
         // 保存仓单
         ElectronicWarehouseReceipt updated = repository.save(receipt);
+        if (request.getExpiryDate() != null) {
+            dueEventScheduler.schedule(DueEvent.EventType.RECEIPT_EXPIRY, updated.getId(), updated.getExpiryDate());
+        }
 
         // ==================== 第5步：记录变更后的值 ====================
         java.util.Map<String, Object> afterValue = new java.util.HashMap<>();
@@ -503,6 +526,41 @@ public class ElectronicWarehouseReceiptService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * 仓单过期事件处理
+     * 由到期事件调度器在有效期截止时触发：正常状态的仓单标记为已过期；
+     * 质押、冻结、拆分中等处理中的仓单次日再检查，已终结的仓单不再处理
+     *
+     * @param id 仓单ID
+     * @return 需要再次检查时返回下一次检查时间，否则返回 null
+     */
+    @Transactional
+    public LocalDateTime onReceiptExpiryDue(@NonNull String id) {
+        ElectronicWarehouseReceipt receipt = repository.findById(id).orElse(null);
+        if (receipt == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (receipt.getExpiryDate().isAfter(now)) {
+            return receipt.getExpiryDate();
+        }
+        switch (receipt.getReceiptStatus()) {
+            case NORMAL:
+                receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.EXPIRED);
+                repository.save(receipt);
+                log.info("仓单已过期: id={}, receiptNo={}, expiryDate={}", id, receipt.getReceiptNo(), receipt.getExpiryDate());
+                return null;
+            case SPLIT:
+            case MERGED:
+            case CANCELLED:
+            case EXPIRED:
+            case DELIVERED:
+                return null;
+            default:
+                return now.plusDays(1);
+        }
+    }
+
     /**
      * 更新仓单状态
      */
@@ -544,6 +602,7 @@ public class ElectronicWarehouseReceiptService {
      * 软删除仓单
      */
     @Transactional
+    @Idempotent
     public void deleteReceipt(@NonNull String id) {
         log.info("删除仓单, ID: {}", id);
 
@@ -605,6 +664,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @RequireOnChain(value = "提货", allowFailed = false)
     @Transactional
+    @Idempotent
     public ElectronicWarehouseReceiptResponse updateActualDeliveryDate(@NonNull String id, DeliveryUpdateRequest request) {
         log.info("更新实际提货时间, ID: {}, 提货时间: {}", id, request.getActualDeliveryDate());
 
@@ -677,6 +737,8 @@ public class ElectronicWarehouseReceiptService {
      * 状态流转：DRAFT → PENDING_ONCHAIN → NORMAL / ONCHAIN_FAILED
      */
     @Transactional
+    @Idempotent
+    @ChainOperation({ChainOperation.OperationClass.ISSUE, ChainOperation.OperationClass.OTHER})
     public ReceiptApprovalResponse approveReceipt(ReceiptApprovalRequest request, String approverId, String approverName) {
         // 参数提取和null检查
         String receiptId = request.getReceiptId();
@@ -725,15 +787,16 @@ public class ElectronicWarehouseReceiptService {
                 log.info("开始将仓单上链, ID: {}", receiptId);
 
                 // 步骤1: 创建仓单（合约状态：Created）
-                String txHash1 = contractService.createReceiptOnChain(receipt);
+                String txHash1 = contractService.createReceiptOnChain(receipt).getTxHash();
                 log.info("仓单创建上链成功, ID: {}, txHash: {}", receiptId, txHash1);
 
                 // 步骤2: 验证仓单（合约状态：Created → Verified）
-                String txHash2 = contractService.verifyReceiptOnChain(receiptId);
+                ChainTxResult verifyResult = contractService.verifyReceiptOnChain(receiptId);
+                String txHash2 = verifyResult.getTxHash();
                 log.info("仓单验证上链成功, ID: {}, txHash: {}", receiptId, txHash2);
 
-                // 步骤3: 获取区块号（使用验证交易的哈希）
-                Long blockNumber = contractService.getBlockNumber(txHash2);
+                // 步骤3: 区块号取自验证交易的回执
+                Long blockNumber = verifyResult.getBlockNumber();
 
                 // 步骤4: 更新状态为 NORMAL，同时更新区块链信息
                 receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.NORMAL);
@@ -811,6 +874,8 @@ public class ElectronicWarehouseReceiptService {
      * @throws RuntimeException 如果重试失败
      */
     @Transactional
+    @Idempotent
+    @ChainOperation({ChainOperation.OperationClass.ISSUE, ChainOperation.OperationClass.OTHER})
     public String retryReceiptOnChain(@NonNull String receiptId) {
         log.info("重试仓单上链, ID: {}", receiptId);
 
@@ -830,15 +895,16 @@ public class ElectronicWarehouseReceiptService {
             log.info("开始重试上链, ID: {}", receiptId);
 
             // 步骤1: 创建仓单
-            String txHash1 = contractService.createReceiptOnChain(receipt);
+            String txHash1 = contractService.createReceiptOnChain(receipt).getTxHash();
             log.info("仓单创建上链成功, ID: {}, txHash: {}", receiptId, txHash1);
 
             // 步骤2: 验证仓单
-            String txHash2 = contractService.verifyReceiptOnChain(receiptId);
+            ChainTxResult verifyResult = contractService.verifyReceiptOnChain(receiptId);
+            String txHash2 = verifyResult.getTxHash();
             log.info("仓单验证上链成功, ID: {}, txHash: {}", receiptId, txHash2);
 
-            // 步骤3: 获取区块号
-            Long blockNumber = contractService.getBlockNumber(txHash2);
+            // 步骤3: 区块号取自验证交易的回执
+            Long blockNumber = verifyResult.getBlockNumber();
 
             // 步骤4: 更新状态为 NORMAL，同时更新区块链信息
             receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.NORMAL);
@@ -903,6 +969,7 @@ public class ElectronicWarehouseReceiptService {
      * @return 回滚后的仓单信息
      */
     @Transactional
+    @Idempotent
     public ElectronicWarehouseReceiptResponse rollbackToDraft(@NonNull String receiptId, String reason) {
         log.info("回滚仓单到草稿状态, ID: {}, 原因: {}", receiptId, reason);
 
@@ -990,6 +1057,7 @@ public class ElectronicWarehouseReceiptService {
      * @return 冻结响应
      */
     @Transactional
+    @Idempotent
     public ReceiptFreezeResponse freezeReceipt(ReceiptFreezeRequest request, String operatorId, String operatorName) {
         log.info("冻结仓单, ID: {}, 操作方类型: {}, 冻结原因: {}",
                 request.getReceiptId(), request.getOperatorType(), request.getFreezeReason());
@@ -1073,6 +1141,7 @@ public class ElectronicWarehouseReceiptService {
      * @return 解冻响应
      */
     @Transactional
+    @Idempotent
     public ReceiptUnfreezeResponse unfreezeReceipt(ReceiptUnfreezeRequest request, String operatorId, String operatorName) {
         log.info("解冻仓单, ID: {}, 目标状态: {}, 解冻原因: {}",
                 request.getReceiptId(), request.getTargetStatus(), request.getUnfreezeReason());
@@ -1245,6 +1314,7 @@ public class ElectronicWarehouseReceiptService {
      * @return 申请响应
      */
     @Transactional
+    @Idempotent
     public FreezeApplicationResponse submitFreezeApplication(
             FreezeApplicationSubmitRequest request,
             String applicantId,
@@ -1319,6 +1389,8 @@ public class ElectronicWarehouseReceiptService {
      * @return 审核响应
      */
     @Transactional
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public FreezeApplicationReviewResponse reviewFreezeApplication(
             FreezeApplicationReviewRequest request,
             String reviewerId,
@@ -1374,14 +1446,13 @@ public class ElectronicWarehouseReceiptService {
             // 5.3 冻结仓单并上链
             try {
                 // 上链冻结
-                String txHash = contractService.freezeReceiptOnChain(
+                ChainTxResult freezeResult = contractService.freezeReceiptOnChain(
                         receipt.getId(),
                         application.getFreezeReason(),
                         application.getReferenceNo()
                 );
-
-                // 获取区块号
-                Long blockNumber = contractService.getBlockNumber(txHash);
+                String txHash = freezeResult.getTxHash();
+                Long blockNumber = freezeResult.getBlockNumber();
 
                 // 更新申请的上链信息
                 application.setFreezeTxHash(txHash);
@@ -1548,6 +1619,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public SplitApplicationResponse submitSplitApplication(
             SplitApplicationRequest request,
             String applicantId,
@@ -1632,6 +1704,8 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.SPLIT_MERGE)
     public SplitApprovalResponse approveSplitApplication(
             SplitApprovalRequest request,
             String reviewerId,
@@ -1760,23 +1834,25 @@ public class ElectronicWarehouseReceiptService {
                     .toBigInteger());
             }
 
-            // ==================== 第5步：保存所有子仓单 ====================
+            // ==================== 第5步：批量保存所有子仓单 ====================
+            bulkEntityWriter.insertAll(childReceipts);
+            lineageService.recordSplit(com.fisco.app.entity.system.AssetLineage.AssetType.WAREHOUSE_RECEIPT,
+                parentReceipt.getId(), childIds);
             for (ElectronicWarehouseReceipt child : childReceipts) {
-                repository.save(child);
-                log.debug("保存子仓单: id={}, receiptNo={}", child.getId(), child.getReceiptNo());
+                dueEventScheduler.schedule(DueEvent.EventType.RECEIPT_EXPIRY, child.getId(), child.getExpiryDate());
             }
+            log.debug("批量保存子仓单: count={}", childReceipts.size());
 
             // ==================== 第6步：上链操作 ====================
-            String txHash = contractService.splitReceiptOnChain(
+            ChainTxResult splitResult = contractService.splitReceiptOnChain(
                 parentReceipt.getId(),
                 childIds,
                 splits.size()
             );
+            String txHash = splitResult.getTxHash();
+            Long blockNumber = splitResult.getBlockNumber();
 
-            log.info("拆分上链成功: txHash={}", txHash);
-
-            // 获取区块号
-            Long blockNumber = contractService.getBlockNumber(txHash);
+            log.info("拆分上链成功: txHash={}, blockNumber={}", txHash, blockNumber);
 
             // ==================== 第7步：更新所有仓单的区块链信息 ====================
             // 父仓单
@@ -1789,14 +1865,9 @@ public class ElectronicWarehouseReceiptService {
             parentReceipt.setBlockchainTimestamp(java.time.LocalDateTime.now());
             repository.save(parentReceipt);
 
-            // 子仓单
-            for (ElectronicWarehouseReceipt child : childReceipts) {
-                child.setTxHash(txHash);
-                child.setBlockNumber(blockNumber);
-                child.setBlockchainStatus(ElectronicWarehouseReceipt.BlockchainStatus.SYNCED);
-                child.setBlockchainTimestamp(java.time.LocalDateTime.now());
-                repository.save(child);
-            }
+            // 子仓单：一条 UPDATE 写入全部子仓单的上链结果
+            repository.updateBlockchainInfo(childIds, txHash, blockNumber,
+                ElectronicWarehouseReceipt.BlockchainStatus.SYNCED, java.time.LocalDateTime.now());
 
             // ==================== 第8步：更新申请状态 ====================
             application.setRequestStatus("APPROVED");
@@ -2097,6 +2168,7 @@ public class ElectronicWarehouseReceiptService {
 
     /**
      * 生成子仓单编号
+     * 父仓单编号唯一且每个仓单只能拆分一次，"父编号-序号"天然不会冲突，无需号段分配
      */
     private String generateChildReceiptNo(String parentReceiptNo, int index) {
         return parentReceiptNo + "-" + String.format("%02d", index);
@@ -2109,6 +2181,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public CancelApplicationResponse submitCancelApplication(
             CancelApplicationRequest request,
             String applicantId,
@@ -2190,6 +2263,8 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public CancelApprovalResponse approveCancelApplication(
             CancelApprovalRequest request,
             String reviewerId,
@@ -2287,13 +2362,14 @@ public class ElectronicWarehouseReceiptService {
             String txHash = null;
             Long blockNumber = null;
             try {
-                txHash = contractService.cancelReceiptOnChain(
+                ChainTxResult cancelResult = contractService.cancelReceiptOnChain(
                     receipt.getId(),
                     application.getCancelReason()
                 );
 
-                if (txHash != null) {
-                    blockNumber = contractService.getBlockNumber(txHash);
+                if (cancelResult != null) {
+                    txHash = cancelResult.getTxHash();
+                    blockNumber = cancelResult.getBlockNumber();
                     receipt.setTxHash(txHash);
                     receipt.setBlockNumber(blockNumber);
                     receipt.setBlockchainStatus(ElectronicWarehouseReceipt.BlockchainStatus.SYNCED);
@@ -2465,6 +2541,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public com.fisco.app.dto.warehouse.ReceiptMergeResponse submitMergeApplication(
             com.fisco.app.dto.warehouse.MergeReceiptsRequest request,
             String applicantId,
@@ -2611,6 +2688,7 @@ public class ElectronicWarehouseReceiptService {
      */
     @Transactional
     @SuppressWarnings("null")
+    @Idempotent
     public com.fisco.app.dto.warehouse.ReceiptMergeResponse approveMergeApplication(
             com.fisco.app.dto.warehouse.MergeApprovalRequest request,
             String reviewerId,
@@ -2637,10 +2715,16 @@ public class ElectronicWarehouseReceiptService {
             throw new com.fisco.app.exception.BusinessException("源仓单ID列表格式错误");
         }
 
+        // 一次查询加载全部源仓单，并按申请中的顺序排列
+        java.util.Map<String, ElectronicWarehouseReceipt> loadedReceipts = repository.findAllById(sourceReceiptIds)
+            .stream()
+            .collect(java.util.stream.Collectors.toMap(ElectronicWarehouseReceipt::getId, r -> r));
         java.util.List<ElectronicWarehouseReceipt> sourceReceipts = new java.util.ArrayList<>();
         for (String receiptId : sourceReceiptIds) {
-            ElectronicWarehouseReceipt receipt = repository.findById(receiptId)
-                .orElseThrow(() -> new com.fisco.app.exception.BusinessException("源仓单不存在: " + receiptId));
+            ElectronicWarehouseReceipt receipt = loadedReceipts.get(receiptId);
+            if (receipt == null) {
+                throw new com.fisco.app.exception.BusinessException("源仓单不存在: " + receiptId);
+            }
             sourceReceipts.add(receipt);
         }
 
@@ -2706,9 +2790,9 @@ public class ElectronicWarehouseReceiptService {
 
         try {
             // ==================== 第1步：更新源仓单状态为MERGING ====================
+            // 源仓单均为当前事务中的托管实体，状态变更在提交时按批次统一写入
             for (ElectronicWarehouseReceipt receipt : sourceReceipts) {
                 receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.MERGING);
-                repository.save(receipt);
                 log.info("源仓单状态更新为MERGING: receiptId={}", receipt.getId());
             }
 
@@ -2758,8 +2842,14 @@ public class ElectronicWarehouseReceiptService {
             mergedReceipt.setCreatedBy(reviewerId);
             mergedReceipt.setUpdatedBy(reviewerId);
 
-            // 保存合并仓单
-            ElectronicWarehouseReceipt savedMergedReceipt = repository.save(mergedReceipt);
+            // 保存合并仓单（新实体直接插入，避免按主键先查询）
+            bulkEntityWriter.insertAll(java.util.Collections.singletonList(mergedReceipt));
+            ElectronicWarehouseReceipt savedMergedReceipt = mergedReceipt;
+            dueEventScheduler.schedule(DueEvent.EventType.RECEIPT_EXPIRY, savedMergedReceipt.getId(),
+                savedMergedReceipt.getExpiryDate());
+            lineageService.recordMerge(com.fisco.app.entity.system.AssetLineage.AssetType.WAREHOUSE_RECEIPT,
+                sourceReceipts.stream().map(ElectronicWarehouseReceipt::getId).collect(Collectors.toList()),
+                savedMergedReceipt.getId());
 
             log.info("合并仓单创建成功: mergedReceiptId={}, receiptNo={}, mergeCount={}",
                 savedMergedReceipt.getId(), savedMergedReceipt.getReceiptNo(), sourceReceipts.size());
@@ -2767,7 +2857,6 @@ public class ElectronicWarehouseReceiptService {
             // ==================== 第3步：更新源仓单状态为MERGED ====================
             for (ElectronicWarehouseReceipt receipt : sourceReceipts) {
                 receipt.setReceiptStatus(ElectronicWarehouseReceipt.ReceiptStatus.MERGED);
-                repository.save(receipt);
                 log.info("源仓单状态更新为MERGED: receiptId={}", receipt.getId());
             }
 
@@ -2801,20 +2890,13 @@ public class ElectronicWarehouseReceiptService {
 
     /**
      * 生成合并仓单编号
-     */
-    private String generateMergeReceiptInfo(int sourceCount) {
-        // 格式: MERGE-YYYYMMDD-序号
-        String dateStr = java.time.LocalDateTime.now().format(
-            java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomStr = java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "MERGE-" + dateStr + "-" + randomStr;
-    }
-
-    /**
-     * 生成合并仓单编号
+     * 格式: MERGE-YYYYMMDD-序号（号段分配，保证唯一）
      */
     private String generateMergeReceiptNo(int sourceCount) {
-        return generateMergeReceiptInfo(sourceCount);
+        java.time.LocalDate today = java.time.LocalDate.now();
+        long sequence = numberAllocator.nextSequence("MERGE", today);
+        return "MERGE-" + today.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE)
+            + "-" + numberAllocator.formatSequence(sequence);
     }
 
     /**
@@ -11,6 +11,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
 import com.fisco.app.dto.endorsement.EwrEndorsementChainResponse;
 import com.fisco.app.dto.endorsement.EwrEndorsementConfirmRequest;
 import com.fisco.app.dto.endorsement.EwrEndorsementCreateRequest;
@@ -18,6 +19,7 @@ import com.fisco.app.entity.warehouse.ElectronicWarehouseReceipt;
 import com.fisco.app.entity.warehouse.EwrEndorsementChain;
 import com.fisco.app.repository.warehouse.ElectronicWarehouseReceiptRepository;
 import com.fisco.app.repository.warehouse.EwrEndorsementChainRepository;
+import com.fisco.app.service.blockchain.ChainTxResult;
 import com.fisco.app.service.blockchain.ContractService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +40,9 @@ public class EwrEndorsementChainService {
     @Autowired
     private ContractService contractService;
 
+    @Autowired
+    private com.fisco.app.service.system.BusinessNumberAllocator numberAllocator;
+
     /**
      * 创建背书请求
      */
@@ -102,6 +107,7 @@ public class EwrEndorsementChainService {
      * 确认背书
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.ENDORSE)
     public EwrEndorsementChainResponse confirmEndorsement(EwrEndorsementConfirmRequest request, String confirmerId, String confirmerName) {
         log.info("确认背书, ID: {}, 状态: {}", request.getId(), request.getConfirmStatus());
 
@@ -148,13 +154,13 @@ public class EwrEndorsementChainService {
                 log.info("开始上链背书信息, 仓单ID: {}, 新持单人: {}",
                          endorsement.getReceiptId(), endorsement.getEndorseTo());
 
-                String txHash = contractService.transferReceiptOnChain(
+                ChainTxResult transferResult = contractService.transferReceiptOnChain(
                     endorsement.getReceiptId(),
                     endorsement.getEndorseTo(),
                     endorsement.getTransferPrice()
                 );
-
-                Long blockNumber = contractService.getBlockNumber(txHash);
+                String txHash = transferResult.getTxHash();
+                Long blockNumber = transferResult.getBlockNumber();
 
                 // 更新背书记录的区块链信息
                 endorsement.setTxHash(txHash);
@@ -284,13 +290,10 @@ public class EwrEndorsementChainService {
 
     /**
      * 生成背书编号
-     * 格式: END+yyyyMMdd+6位流水号
+     * 格式: END+yyyyMMdd+6位流水号（号段分配，保证唯一）
      */
     private String generateEndorsementNo() {
-        String dateStr = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        // 简化实现: 实际项目中应该使用数据库序列或Redis分布式锁
-        String sequence = String.format("%06d", System.currentTimeMillis() % 1000000);
-        return "END" + dateStr + sequence;
+        return numberAllocator.next("END");
     }
 
     /**
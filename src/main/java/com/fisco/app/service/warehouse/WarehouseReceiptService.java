@@ -4,6 +4,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fisco.app.annotation.ChainOperation;
 import com.fisco.app.dto.warehouse.CreateWarehouseReceiptRequest;
 import com.fisco.app.dto.warehouse.ReleaseReceiptRequest;
 import com.fisco.app.dto.warehouse.ReleaseReceiptResponse;
@@ -38,6 +39,7 @@ public class WarehouseReceiptService {
      * 创建仓单
      */
     @Transactional(rollbackFor = Exception.class)
+    @ChainOperation(ChainOperation.OperationClass.ISSUE)
     public WarehouseReceipt createReceipt(CreateWarehouseReceiptRequest request, String ownerAddress) {
         log.info("创建仓单: id={}, goods={}", request.getId(), request.getGoods().getGoodsName());
 
@@ -91,7 +93,7 @@ public class WarehouseReceiptService {
 
         // 步骤2: 调用区块链合约
         try {
-            String txHash = contractService.createReceiptOnChain(saved);
+            String txHash = contractService.createReceiptOnChain(saved).getTxHash();
 
             // 步骤3: 更新 txHash
             saved.setTxHash(txHash);
@@ -113,6 +115,7 @@ public class WarehouseReceiptService {
      * 验证仓单
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.OTHER)
     public void verifyReceipt(@NonNull String receiptId) {
         log.info("验证仓单: id={}", receiptId);
 
@@ -125,7 +128,7 @@ public class WarehouseReceiptService {
 
         // 步骤1: 调用区块链合约
         try {
-            String txHash = contractService.verifyReceiptOnChain(receiptId);
+            String txHash = contractService.verifyReceiptOnChain(receiptId).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             receipt.setStatus(WarehouseReceipt.ReceiptStatus.VERIFIED);
@@ -147,6 +150,7 @@ public class WarehouseReceiptService {
      * 质押仓单
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.PLEDGE)
     public void pledgeReceipt(@NonNull String receiptId, String financialInstitutionAddress,
                                java.math.BigDecimal pledgeAmount) {
         log.info("质押仓单: id={}, institution={}, amount={}",
@@ -174,7 +178,7 @@ public class WarehouseReceiptService {
                 receiptId,
                 financialInstitutionAddress,
                 pledgeAmount
-            );
+            ).getTxHash();
 
             // 步骤2: 更新数据库状态和交易哈希
             receipt.setStatus(WarehouseReceipt.ReceiptStatus.PLEDGED);
@@ -198,6 +202,7 @@ public class WarehouseReceiptService {
      * 释放仓单
      */
     @Transactional
+    @ChainOperation(ChainOperation.OperationClass.PLEDGE)
     public ReleaseReceiptResponse releaseReceipt(@NonNull String receiptId, ReleaseReceiptRequest request) {
         log.info("释放仓单: receiptId={}, releaseType={}", receiptId, request.getReleaseType());
 
@@ -214,7 +219,7 @@ public class WarehouseReceiptService {
 
         // 步骤2: 调用区块链合约
         try {
-            String txHash = contractService.releaseReceiptOnChain(receiptId);
+            String txHash = contractService.releaseReceiptOnChain(receiptId).getTxHash();
 
             // 步骤3: 创建释放记录
             ReleaseRecord releaseRecord = new ReleaseRecord();
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.fisco.app.dto.warehouse.WarehouseReceiptStatisticsDTO;
 import com.fisco.app.dto.warehouse.WarehouseReceiptStatisticsDTO.EnterpriseStatistics;
@@ -36,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 public class WarehouseReceiptStatisticsService {
 
     @Autowired
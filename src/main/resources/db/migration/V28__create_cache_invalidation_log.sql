@@ -0,0 +1,16 @@
+-- ============================================================
+-- 跨节点缓存失效日志表
+-- Version: V28
+-- Description: 多实例部署时的缓存失效总线，各实例按自增ID高水位轮询，
+--              在本地执行缓存失效；记录仅短期保留
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS cache_invalidation_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_name VARCHAR(64) NOT NULL COMMENT '缓存名称',
+    scope VARCHAR(10) NOT NULL COMMENT '失效范围: KEY/TAG/ALL',
+    target VARCHAR(255) COMMENT '缓存键或标签',
+    origin_node VARCHAR(64) NOT NULL COMMENT '发起节点ID',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_cache_inv_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='缓存失效日志表';
@@ -0,0 +1,13 @@
+-- ============================================================
+-- 业务编号号段表
+-- Version: V29
+-- Description: 按"前缀+日期"记录已租出的最大序号，
+--              各实例按号段租用后在内存中发放背书编号、融资编号等
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS number_segment (
+    segment_key VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '号段键（前缀:yyyyMMdd）',
+    max_value BIGINT NOT NULL COMMENT '已租出的最大序号',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='业务编号号段表';
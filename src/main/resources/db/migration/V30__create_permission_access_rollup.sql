@@ -0,0 +1,22 @@
+-- ============================================================
+-- 权限访问放行汇总表
+-- Version: V30
+-- Description: 权限放行事件按 (用户, 权限类型, 目标资源, 分钟) 汇总计数，
+--              替代逐条写入 permission_audit_log；拒绝事件仍逐条记录
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS permission_access_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(100) NOT NULL COMMENT '用户名',
+    enterprise_id VARCHAR(36) COMMENT '用户所属企业ID',
+    permission_type VARCHAR(50) NOT NULL COMMENT '权限类型',
+    target_resource VARCHAR(255) NOT NULL DEFAULT '' COMMENT '目标资源',
+    bucket_start DATETIME NOT NULL COMMENT '统计分钟起始时间',
+    grant_count BIGINT NOT NULL DEFAULT 0 COMMENT '采样计入的放行次数',
+    sample_rate DOUBLE NOT NULL DEFAULT 1 COMMENT '采样率',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME COMMENT '更新时间',
+    UNIQUE KEY uk_access_rollup (username, permission_type, target_resource, bucket_start),
+    INDEX idx_rollup_enterprise (enterprise_id),
+    INDEX idx_rollup_bucket (bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='权限访问放行汇总表';
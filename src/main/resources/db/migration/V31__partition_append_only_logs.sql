@@ -0,0 +1,131 @@
+-- ============================================================
+-- 追加型日志表按月分区
+-- Version: V31
+-- Description: audit_log、permission_audit_log、user_activity、notification_send_log、
+--              enterprise_audit_log 按创建时间做 RANGE COLUMNS 月分区，
+--              过期数据由 LogPartitionMaintenanceService 按分区整体删除或归档，不再执行范围 DELETE
+--
+-- 说明:
+--   1. MySQL 分区表的主键必须包含分区列，因此主键改为 (id, 分区列)；
+--      自增主键仍以 id 为首列，满足 AUTO_INCREMENT 的索引要求
+--   2. TIMESTAMP 列不支持 RANGE COLUMNS 分区，created_at 统一改为 DATETIME
+--   3. enterprise_audit_log 没有 created_at 列，按写入时填充的 audit_time 分区
+--   4. 历史数据全部落入 p_history，之后的月份分区由维护任务按 app.log-partition.months-ahead 提前创建
+--   5. 分区改造会重建整表，数据量大的环境应在维护窗口执行
+-- ============================================================
+
+-- ------------------------------------------------------------
+-- permission_audit_log / enterprise_audit_log 此前由 JPA 自动建表，这里补充建表语句
+-- ------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS permission_audit_log (
+    id VARCHAR(36) NOT NULL COMMENT '日志ID',
+    username VARCHAR(100) NOT NULL COMMENT '用户名',
+    enterprise_id VARCHAR(36) COMMENT '用户所属企业ID',
+    user_role VARCHAR(50) COMMENT '用户角色',
+    login_type VARCHAR(20) COMMENT '登录类型',
+    permission_type VARCHAR(50) NOT NULL COMMENT '权限类型',
+    target_resource VARCHAR(255) COMMENT '目标资源',
+    operation VARCHAR(100) COMMENT '操作',
+    access_granted BIT NOT NULL COMMENT '是否放行',
+    denial_reason TEXT COMMENT '拒绝原因',
+    ip_address VARCHAR(50) COMMENT 'IP地址',
+    user_agent VARCHAR(500) COMMENT '用户代理',
+    request_method VARCHAR(10) COMMENT '请求方法',
+    request_uri VARCHAR(500) COMMENT '请求URI',
+    details TEXT COMMENT '详细信息',
+    created_at DATETIME NOT NULL COMMENT '创建时间',
+    updated_at DATETIME COMMENT '更新时间',
+    PRIMARY KEY (id),
+    INDEX idx_username (username),
+    INDEX idx_enterprise_id (enterprise_id),
+    INDEX idx_permission_type (permission_type),
+    INDEX idx_access_granted (access_granted),
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='权限审计日志表';
+
+CREATE TABLE IF NOT EXISTS enterprise_audit_log (
+    id BIGINT AUTO_INCREMENT NOT NULL COMMENT '日志ID',
+    enterprise_address VARCHAR(64) NOT NULL COMMENT '企业地址',
+    enterprise_name VARCHAR(255) COMMENT '企业名称',
+    auditor VARCHAR(100) NOT NULL COMMENT '审核人',
+    action VARCHAR(20) NOT NULL COMMENT '审核动作',
+    reason TEXT COMMENT '审核原因',
+    audit_time DATETIME NOT NULL COMMENT '审核时间',
+    ip_address VARCHAR(50) COMMENT 'IP地址',
+    tx_hash VARCHAR(128) COMMENT '交易哈希',
+    remarks TEXT COMMENT '备注',
+    PRIMARY KEY (id),
+    INDEX idx_audit_enterprise (enterprise_address),
+    INDEX idx_audit_auditor (auditor),
+    INDEX idx_audit_time (audit_time),
+    INDEX idx_audit_action (action)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='企业审核日志表';
+
+-- ------------------------------------------------------------
+-- 主键加入分区列
+-- ------------------------------------------------------------
+ALTER TABLE audit_log
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE permission_audit_log
+    MODIFY created_at DATETIME NOT NULL COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE user_activity
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE notification_send_log
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE enterprise_audit_log
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, audit_time);
+
+-- ------------------------------------------------------------
+-- 月分区：分区名 pYYYYMM 存放该月数据，pmax 兜底
+-- ------------------------------------------------------------
+ALTER TABLE audit_log PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE permission_audit_log PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE user_activity PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE notification_send_log PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE enterprise_audit_log PARTITION BY RANGE COLUMNS (audit_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
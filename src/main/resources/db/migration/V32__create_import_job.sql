@@ -0,0 +1,40 @@
+-- ============================================================
+-- 批量导入任务表
+-- Version: V32
+-- Description: 票据、电子仓单文件批量导入的任务进度与逐行结果
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id VARCHAR(36) NOT NULL PRIMARY KEY COMMENT '任务ID',
+    job_type VARCHAR(32) NOT NULL COMMENT '导入类型: BILL, WAREHOUSE_RECEIPT',
+    status VARCHAR(20) NOT NULL COMMENT '任务状态: PENDING, RUNNING, COMPLETED, FAILED',
+    file_name VARCHAR(255) COMMENT '文件名',
+    file_format VARCHAR(10) COMMENT '文件格式',
+    total_rows BIGINT NOT NULL DEFAULT 0 COMMENT '已读取行数',
+    created_rows BIGINT NOT NULL DEFAULT 0 COMMENT '成功入库行数',
+    failed_rows BIGINT NOT NULL DEFAULT 0 COMMENT '校验或入库失败行数',
+    chain_succeeded BIGINT NOT NULL DEFAULT 0 COMMENT '上链成功行数',
+    chain_failed BIGINT NOT NULL DEFAULT 0 COMMENT '上链失败行数',
+    error_message TEXT COMMENT '任务级错误信息',
+    created_by VARCHAR(100) COMMENT '提交人',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME COMMENT '更新时间',
+    finished_at DATETIME COMMENT '完成时间',
+    INDEX idx_import_job_creator (created_by),
+    INDEX idx_import_job_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='批量导入任务表';
+
+CREATE TABLE IF NOT EXISTS import_job_row (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id VARCHAR(36) NOT NULL COMMENT '任务ID',
+    row_no BIGINT NOT NULL COMMENT '文件行号（数据行从1开始）',
+    business_key VARCHAR(100) COMMENT '业务键（票据ID/仓单编号）',
+    entity_id VARCHAR(36) COMMENT '创建的实体ID',
+    status VARCHAR(20) NOT NULL COMMENT '行状态: INVALID, CREATED, ONCHAIN, CHAIN_FAILED',
+    message VARCHAR(1000) COMMENT '失败原因',
+    tx_hash VARCHAR(100) COMMENT '上链交易哈希',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME COMMENT '更新时间',
+    UNIQUE KEY uk_import_job_row (job_id, row_no),
+    INDEX idx_import_job_row_status (job_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='批量导入逐行结果表';
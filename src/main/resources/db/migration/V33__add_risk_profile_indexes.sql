@@ -0,0 +1,18 @@
+-- ============================================================
+-- 企业风险画像查询索引
+-- Version: V33
+-- Description: 风险画像按企业地址汇总票据与逾期应收账款，为出票人/付款人地址、
+--              供应商/核心企业地址添加复合索引，单企业重算只扫描该企业的记录
+-- ============================================================
+
+-- 出票人地址和票据状态复合索引
+CREATE INDEX idx_drawer_address_status ON bill(drawer_address, bill_status) COMMENT '出票人地址和状态复合索引';
+
+-- 付款人地址和票据状态复合索引
+CREATE INDEX idx_drawee_address_status ON bill(drawee_address, bill_status) COMMENT '付款人地址和状态复合索引';
+
+-- 供应商地址和逾期等级复合索引
+CREATE INDEX idx_supplier_overdue ON receivable(supplier_address, overdue_level) COMMENT '供应商和逾期等级复合索引';
+
+-- 核心企业地址和逾期等级复合索引
+CREATE INDEX idx_core_enterprise_overdue ON receivable(core_enterprise_address, overdue_level) COMMENT '核心企业和逾期等级复合索引';
@@ -0,0 +1,65 @@
+-- ============================================================
+-- 资产溯源闭包表
+-- Version: V34
+-- Description: 票据、应收账款、电子仓单拆分/合并的祖先-后代闭包表，
+--              祖先树、后代树各一次索引查询取出；并由现有父ID字段回填历史关系
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS asset_lineage (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    asset_type VARCHAR(20) NOT NULL COMMENT '资产类型: BILL, RECEIVABLE, WAREHOUSE_RECEIPT',
+    ancestor_id VARCHAR(36) NOT NULL COMMENT '祖先资产ID',
+    descendant_id VARCHAR(36) NOT NULL COMMENT '后代资产ID',
+    depth INT NOT NULL COMMENT '层级距离（0表示自身，合并取最短路径）',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    UNIQUE KEY uk_asset_lineage (asset_type, ancestor_id, descendant_id),
+    INDEX idx_asset_lineage_descendant (asset_type, descendant_id, depth)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='资产溯源闭包表';
+
+-- 票据：parent_bill_id 指向拆分前的原票据
+INSERT IGNORE INTO asset_lineage (asset_type, ancestor_id, descendant_id, depth, created_at)
+WITH RECURSIVE edges (parent_id, child_id) AS (
+    SELECT parent_bill_id, bill_id FROM bill WHERE parent_bill_id IS NOT NULL
+), nodes (asset_id) AS (
+    SELECT parent_id FROM edges UNION SELECT child_id FROM edges
+), closure (ancestor_id, descendant_id, depth) AS (
+    SELECT asset_id, asset_id, 0 FROM nodes
+    UNION ALL
+    SELECT c.ancestor_id, e.child_id, c.depth + 1 FROM closure c JOIN edges e ON e.parent_id = c.descendant_id
+)
+SELECT 'BILL', ancestor_id, descendant_id, MIN(depth), NOW() FROM closure GROUP BY ancestor_id, descendant_id;
+
+-- 应收账款：拆分子项的 parent_receivable_id 指向原应收账款；
+-- 已合并（MERGED）源应收账款的 parent_receivable_id 指向合并后的应收账款，方向相反
+INSERT IGNORE INTO asset_lineage (asset_type, ancestor_id, descendant_id, depth, created_at)
+WITH RECURSIVE edges (parent_id, child_id) AS (
+    SELECT parent_receivable_id, id FROM receivable
+    WHERE parent_receivable_id IS NOT NULL AND status <> 'MERGED'
+    UNION ALL
+    SELECT id, parent_receivable_id FROM receivable
+    WHERE parent_receivable_id IS NOT NULL AND status = 'MERGED'
+), nodes (asset_id) AS (
+    SELECT parent_id FROM edges UNION SELECT child_id FROM edges
+), closure (ancestor_id, descendant_id, depth) AS (
+    SELECT asset_id, asset_id, 0 FROM nodes
+    UNION ALL
+    SELECT c.ancestor_id, e.child_id, c.depth + 1 FROM closure c JOIN edges e ON e.parent_id = c.descendant_id
+)
+SELECT 'RECEIVABLE', ancestor_id, descendant_id, MIN(depth), NOW() FROM closure GROUP BY ancestor_id, descendant_id;
+
+-- 电子仓单：拆分子仓单的 parent_receipt_id，以及合并仓单 source_receipt_ids（JSON数组）中的源仓单
+INSERT IGNORE INTO asset_lineage (asset_type, ancestor_id, descendant_id, depth, created_at)
+WITH RECURSIVE edges (parent_id, child_id) AS (
+    SELECT parent_receipt_id, id FROM electronic_warehouse_receipt WHERE parent_receipt_id IS NOT NULL
+    UNION ALL
+    SELECT s.source_id, r.id FROM electronic_warehouse_receipt r,
+        JSON_TABLE(r.source_receipt_ids, '$[*]' COLUMNS (source_id VARCHAR(36) PATH '$')) s
+    WHERE r.source_receipt_ids IS NOT NULL AND JSON_VALID(r.source_receipt_ids)
+), nodes (asset_id) AS (
+    SELECT parent_id FROM edges UNION SELECT child_id FROM edges
+), closure (ancestor_id, descendant_id, depth) AS (
+    SELECT asset_id, asset_id, 0 FROM nodes
+    UNION ALL
+    SELECT c.ancestor_id, e.child_id, c.depth + 1 FROM closure c JOIN edges e ON e.parent_id = c.descendant_id
+)
+SELECT 'WAREHOUSE_RECEIPT', ancestor_id, descendant_id, MIN(depth), NOW() FROM closure GROUP BY ancestor_id, descendant_id;
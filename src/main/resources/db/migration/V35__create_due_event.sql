@@ -0,0 +1,39 @@
+-- ============================================================
+-- 到期事件表
+-- Version: V35
+-- Description: 票据到期、仓单过期、应收账款逾期、信用额度到期事件，由时间轮调度器按到期时间触发，
+--              应用重启后从 PENDING 行恢复；并由现有业务数据回填待触发事件
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS due_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL COMMENT '事件类型: BILL_MATURITY, RECEIPT_EXPIRY, RECEIVABLE_OVERDUE, CREDIT_LIMIT_EXPIRY',
+    target_id VARCHAR(36) NOT NULL COMMENT '业务对象ID',
+    due_at DATETIME NOT NULL COMMENT '到期时间',
+    status VARCHAR(16) NOT NULL COMMENT '状态: PENDING, DONE, FAILED',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失败重试次数',
+    last_error VARCHAR(500) COMMENT '最近一次处理失败原因',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_due_event_target (event_type, target_id),
+    INDEX idx_due_event_status_due (status, due_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='到期事件表';
+
+-- 已贴现票据：到期日触发到期还款
+INSERT IGNORE INTO due_event (event_type, target_id, due_at, status, attempts, updated_at)
+SELECT 'BILL_MATURITY', bill_id, due_date, 'PENDING', 0, NOW()
+FROM bill WHERE bill_status = 'DISCOUNTED';
+
+-- 正常状态的电子仓单：有效期截止时标记过期
+INSERT IGNORE INTO due_event (event_type, target_id, due_at, status, attempts, updated_at)
+SELECT 'RECEIPT_EXPIRY', id, expiry_date, 'PENDING', 0, NOW()
+FROM electronic_warehouse_receipt WHERE receipt_status = 'NORMAL';
+
+-- 未结清的应收账款：到期满一天起计逾期，之后在逾期等级变化时再次触发
+INSERT IGNORE INTO due_event (event_type, target_id, due_at, status, attempts, updated_at)
+SELECT 'RECEIVABLE_OVERDUE', id, DATE_ADD(due_date, INTERVAL 1 DAY), 'PENDING', 0, NOW()
+FROM receivable WHERE status IN ('CREATED', 'CONFIRMED', 'FINANCED');
+
+-- 生效中的信用额度：到期日标记失效
+INSERT IGNORE INTO due_event (event_type, target_id, due_at, status, attempts, updated_at)
+SELECT 'CREDIT_LIMIT_EXPIRY', id, expiry_date, 'PENDING', 0, NOW()
+FROM credit_limit WHERE status = 'ACTIVE' AND expiry_date IS NOT NULL;
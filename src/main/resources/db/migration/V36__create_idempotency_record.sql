@@ -0,0 +1,20 @@
+-- ============================================================
+-- 幂等请求记录表
+-- Version: V36
+-- Description: 客户端通过 Idempotency-Key 请求头提交的变更操作记录，重试请求直接返回首次结果，
+--              不再重复调用合约上链；超过保留期的记录定时清理
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    scope VARCHAR(100) NOT NULL COMMENT '调用方（用户名），不同用户的同名键互不影响',
+    idempotency_key VARCHAR(64) NOT NULL COMMENT '客户端提供的幂等键',
+    operation VARCHAR(200) NOT NULL COMMENT '操作（类名.方法名）',
+    request_hash CHAR(64) NOT NULL COMMENT '请求参数摘要，同一键携带不同参数时拒绝',
+    status VARCHAR(16) NOT NULL COMMENT '状态: IN_PROGRESS, COMPLETED',
+    response_body LONGTEXT COMMENT '首次执行结果（JSON）',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    completed_at DATETIME COMMENT '完成时间',
+    UNIQUE KEY uk_idempotency_scope_key (scope, idempotency_key),
+    INDEX idx_idempotency_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='幂等请求记录表';
@@ -0,0 +1,8 @@
+-- ============================================================
+-- 到期事件认领状态
+-- Version: V37
+-- Description: 多节点部署时触发前先将事件认领为 RUNNING，按状态和更新时间查找超时未完成的事件
+-- ============================================================
+
+ALTER TABLE due_event
+    MODIFY COLUMN status VARCHAR(16) NOT NULL COMMENT '状态: PENDING, RUNNING, DONE, FAILED';
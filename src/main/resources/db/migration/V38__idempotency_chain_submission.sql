@@ -0,0 +1,10 @@
+-- ============================================================
+-- 幂等记录上链提交标记
+-- Version: V38
+-- Description: 发送合约交易前标记记录已提交上链，发送后记录交易哈希；
+--              已提交上链的 IN_PROGRESS 记录不再因占用过期或执行失败而释放，避免重试重复上链
+-- ============================================================
+
+ALTER TABLE idempotency_record
+    ADD COLUMN submitted_at DATETIME NULL COMMENT '首次提交上链交易的时间，为空表示尚未提交' AFTER response_body,
+    ADD COLUMN tx_hash VARCHAR(66) NULL COMMENT '首笔上链交易哈希' AFTER submitted_at;
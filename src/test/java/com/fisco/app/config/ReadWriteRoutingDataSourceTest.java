@@ -0,0 +1,174 @@
+package com.fisco.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+/**
+ * 读写分离路由测试
+ * 主库和副本各为一个 H2 内存库，node 表中写入各自的名称，按查询结果判断事务实际路由到的库
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private DruidDataSource primary;
+    private DruidDataSource replica;
+    private StubRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTemplate;
+    private TransactionTemplate readOnlyTemplate;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primary = pool("primary");
+        replica = pool("replica-0");
+        Map<String, DruidDataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica);
+        routing = new StubRoutingDataSource(primary, replicas, 5);
+        routing.lags.put("replica-0", 0L);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    @DisplayName("只读事务路由到副本")
+    public void testReadOnlyRoutesToReplica() {
+        assertEquals("replica-0", readOnlyTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("写事务和非事务访问走主库")
+    public void testWritesStayOnPrimary() {
+        writeTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO item (name) VALUES ('written')"));
+
+        assertEquals("primary", writeTemplate.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+        assertEquals(1, count(primary));
+        assertEquals(0, count(replica));
+    }
+
+    @Test
+    @DisplayName("副本延迟超过阈值时只读事务回退到主库，恢复后重新路由到副本")
+    public void testLaggingReplicaFallsBackToPrimary() {
+        routing.lags.put("replica-0", 30L);
+        routing.checkReplicaLag();
+        assertEquals("primary", readOnlyTemplate.execute(status -> currentNode()));
+
+        routing.lags.put("replica-0", 1L);
+        routing.checkReplicaLag();
+        assertEquals("replica-0", readOnlyTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("副本复制中断时只读事务回退到主库")
+    public void testBrokenReplicationFallsBackToPrimary() {
+        routing.lags.put("replica-0", StubRoutingDataSource.REPLICATION_STOPPED);
+        routing.checkReplicaLag();
+
+        assertEquals("primary", readOnlyTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("副本无法连接时只读事务回退到主库")
+    public void testUnavailableReplicaFallsBackToPrimary() {
+        replica.close();
+        routing.checkReplicaLag();
+
+        assertEquals("primary", readOnlyTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("无权查询复制状态时延迟未知，只读事务回退到主库，授权后恢复")
+    public void testMissingReplicationPrivilegeFallsBackToPrimary() {
+        routing.accessDenied = true;
+        routing.checkReplicaLag();
+        routing.checkReplicaLag();
+        assertEquals("primary", readOnlyTemplate.execute(status -> currentNode()));
+
+        routing.accessDenied = false;
+        routing.checkReplicaLag();
+        assertEquals("replica-0", readOnlyTemplate.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static int count(DruidDataSource dataSource) {
+        Integer count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM item", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static DruidDataSource pool(String name) throws SQLException {
+        DruidDataSource pool = new DruidDataSource();
+        pool.setName(name);
+        pool.setUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setDriverClassName("org.h2.Driver");
+        pool.init();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE item (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(32))");
+        return pool;
+    }
+
+    /**
+     * H2 不支持 SHOW SLAVE STATUS：先在副本上执行一条查询验证可连接，再返回预设的复制延迟
+     */
+    private static final class StubRoutingDataSource extends ReadWriteRoutingDataSource {
+
+        private static final long REPLICATION_STOPPED = Long.MIN_VALUE;
+
+        private final Map<String, Long> lags = new ConcurrentHashMap<>();
+        private volatile boolean accessDenied;
+
+        private StubRoutingDataSource(DruidDataSource primary, Map<String, DruidDataSource> replicas,
+                                      long maxLagSeconds) {
+            super(primary, replicas, maxLagSeconds);
+        }
+
+        @Override
+        protected List<Map<String, Object>> queryReplicaStatus(JdbcTemplate replica) {
+            String name = replica.queryForObject("SELECT name FROM node", String.class);
+            if (accessDenied) {
+                throw new UncategorizedSQLException("SHOW SLAVE STATUS", "SHOW SLAVE STATUS",
+                        new SQLException("Access denied; you need (at least one of) the SUPER, "
+                                + "REPLICATION CLIENT privilege(s) for this operation", "42000", 1227));
+            }
+            Long lag = lags.get(name);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Seconds_Behind_Master", lag == null || lag == REPLICATION_STOPPED ? null : lag);
+            return Collections.singletonList(row);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.fisco.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 单飞加载缓存测试
+ */
+public class SingleFlightCacheTest {
+
+    private SingleFlightCache cache;
+    private ExecutorService callers;
+
+    @BeforeEach
+    public void setUp() {
+        CacheSpecProperties properties = new CacheSpecProperties();
+        properties.getRefreshAhead().put("fresh", refreshAhead(Duration.ofMinutes(1)));
+        properties.getRefreshAhead().put("stale", refreshAhead(Duration.ZERO));
+        cache = new SingleFlightCache(properties);
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        cache.close();
+    }
+
+    @Test
+    @DisplayName("同一键的并发请求共享一次加载")
+    public void testConcurrentCallsCoalesce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.get("report", "2024", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return new Object();
+            })));
+        }
+        // 等其余 7 个请求都加入在途加载后再放行
+        waitUntil(() -> coalesced("report") == 7);
+        release.countDown();
+
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("report").getLoads());
+        assertEquals(0, cache.stats().get("report").getInFlight());
+    }
+
+    @Test
+    @DisplayName("加载失败时等待中的请求收到同一异常，之后的请求重新加载")
+    public void testFailurePropagatesAndRetries() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = callers.submit(() -> cache.get("report", "k", () -> {
+            await(release);
+            throw new IllegalStateException("boom");
+        }));
+        waitUntil(() -> cache.stats().get("report") != null && cache.stats().get("report").getInFlight() == 1);
+        Future<Object> follower = callers.submit(() -> cache.get("report", "k", () -> "unused"));
+        waitUntil(() -> coalesced("report") == 1);
+        release.countDown();
+
+        assertTrue(causeOf(leader) instanceof IllegalStateException);
+        assertTrue(causeOf(follower) instanceof IllegalStateException);
+        assertEquals(1L, cache.stats().get("report").getFailures());
+        assertEquals("ok", cache.get("report", "k", () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("未配置软过期的区域不保留结果")
+    public void testUnconfiguredRegionDoesNotRetain() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("report", "k", loads::incrementAndGet);
+        cache.get("report", "k", loads::incrementAndGet);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("软过期内直接返回保留的结果")
+    public void testFreshHit() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, (int) cache.get("fresh", "k", loads::incrementAndGet));
+        assertEquals(1, (int) cache.get("fresh", "k", loads::incrementAndGet));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("fresh").getHits());
+    }
+
+    @Test
+    @DisplayName("软过期后先返回旧值，并在后台刷新一次")
+    public void testStaleWhileRefresh() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, (int) cache.get("stale", "k", loads::incrementAndGet));
+
+        assertEquals(1, (int) cache.get("stale", "k", loads::incrementAndGet));
+        waitUntil(() -> loads.get() == 2 && cache.stats().get("stale").getInFlight() == 0);
+
+        assertEquals(2, (int) cache.get("stale", "k", loads::incrementAndGet));
+        assertTrue(cache.stats().get("stale").getStaleHits() >= 2);
+        assertTrue(cache.stats().get("stale").getRefreshes() >= 1);
+    }
+
+    private long coalesced(String region) {
+        SingleFlightCache.RegionStats stats = cache.stats().get(region);
+        return stats == null ? 0 : stats.getCoalesced();
+    }
+
+    private static CacheSpecProperties.RefreshAhead refreshAhead(Duration softTtl) {
+        CacheSpecProperties.RefreshAhead spec = new CacheSpecProperties.RefreshAhead();
+        spec.setSoftTtl(softTtl);
+        spec.setHardTtl(Duration.ofMinutes(5));
+        return spec;
+    }
+
+    private static Throwable causeOf(Future<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return null;
+        } catch (java.util.concurrent.ExecutionException e) {
+            return e.getCause();
+        } catch (java.util.concurrent.TimeoutException e) {
+            throw new AssertionError("请求未完成", e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("等待条件超时");
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.fisco.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BlockNumber;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.fisco.app.service.blockchain.BlockService;
+import com.fisco.app.service.blockchain.ChainClientPool;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 线程模式对比基准
+ * 分别按 app.threads.mode=platform 和 virtual 创建 AsyncConfig 的执行器，模拟 N 个并发请求，比较全部完成的耗时：
+ * - Tomcat 请求：platform 模式为与 Tomcat 默认 max-threads 相同的 200 线程池，virtual 模式为 Tomcat 定制器设置的执行器；
+ *   每个请求调用 BlockService 计算区块统计，采样区块经 chainIoExecutor 并发读取，链客户端为固定延迟的桩；
+ * - 异步任务：asyncTaskExecutor 执行链上读取，任务数不超过平台线程池的队列容量；
+ * - JDBC：Tomcat 请求执行 H2 内存库的 SLEEP 存储过程，连接池上限与 druid max-active 相同量级。
+ *
+ * 耗时受机器负载影响，只输出结果不做断言。默认构建不运行，需要 JDK 21+：mvn test -P benchmark
+ */
+@Slf4j
+@Tag("benchmark")
+public class ThreadModeBenchmarkTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int ASYNC_TASKS = 100;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long CHAIN_LATENCY_MS = 20;
+    private static final long JDBC_LATENCY_MS = 5;
+    private static final int JDBC_POOL_SIZE = 50;
+
+    @Test
+    @DisplayName("Tomcat 请求 + chainIoExecutor：区块统计")
+    public void benchmarkBlockStatistics() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.isAvailable(), "需要 JDK 21+");
+        long[] elapsed = new long[2];
+        String[] modes = {"platform", "virtual"};
+        for (int i = 0; i < modes.length; i++) {
+            AsyncConfig config = asyncConfig(modes[i]);
+            ExecutorService chainIoExecutor = config.chainIoExecutor();
+            BlockService blockService = new BlockService(stubChainClientPool(), chainIoExecutor);
+            try {
+                elapsed[i] = run(tomcatExecutor(config), REQUESTS, blockService::calculateBlockchainStatistics);
+            } finally {
+                chainIoExecutor.shutdown();
+                config.shutdownVirtualExecutors();
+            }
+        }
+        report("tomcat+chain-io", REQUESTS, elapsed);
+    }
+
+    @Test
+    @DisplayName("asyncTaskExecutor：链上读取")
+    public void benchmarkAsyncTasks() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.isAvailable(), "需要 JDK 21+");
+        BlockService blockService = new BlockService(stubChainClientPool(), null);
+        long[] elapsed = new long[2];
+        String[] modes = {"platform", "virtual"};
+        for (int i = 0; i < modes.length; i++) {
+            AsyncConfig config = asyncConfig(modes[i]);
+            Executor executor = config.asyncTaskExecutor();
+            try {
+                elapsed[i] = run(executor, ASYNC_TASKS, blockService::getLatestBlockNumber);
+            } finally {
+                if (executor instanceof ThreadPoolTaskExecutor) {
+                    ((ThreadPoolTaskExecutor) executor).shutdown();
+                }
+                config.shutdownVirtualExecutors();
+            }
+        }
+        report("async", ASYNC_TASKS, elapsed);
+    }
+
+    @Test
+    @DisplayName("Tomcat 请求：JDBC 阻塞查询")
+    public void benchmarkJdbcQueries() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.isAvailable(), "需要 JDK 21+");
+        DruidDataSource dataSource = new DruidDataSource();
+        try {
+            dataSource.setUrl("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setPassword("");
+            dataSource.setDriverClassName("org.h2.Driver");
+            dataSource.setMaxActive(JDBC_POOL_SIZE);
+            dataSource.setMaxWait(60_000);
+            dataSource.init();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep\"");
+
+            long[] elapsed = new long[2];
+            String[] modes = {"platform", "virtual"};
+            for (int i = 0; i < modes.length; i++) {
+                AsyncConfig config = asyncConfig(modes[i]);
+                try {
+                    elapsed[i] = run(tomcatExecutor(config), REQUESTS, () -> {
+                        jdbcTemplate.execute("CALL SLEEP(" + JDBC_LATENCY_MS + ")");
+                        return Boolean.TRUE;
+                    });
+                } finally {
+                    config.shutdownVirtualExecutors();
+                }
+            }
+            // 并发上限由连接池决定，两种模式耗时应接近；虚拟线程只减少等待连接的线程开销
+            report("jdbc", REQUESTS, elapsed);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private static AsyncConfig asyncConfig(String mode) {
+        AsyncConfig config = new AsyncConfig();
+        ReflectionTestUtils.setField(config, "mode", mode);
+        ReflectionTestUtils.setField(config, "asyncCoreSize", 5);
+        ReflectionTestUtils.setField(config, "asyncMaxSize", 10);
+        ReflectionTestUtils.setField(config, "asyncQueueCapacity", 100);
+        ReflectionTestUtils.setField(config, "chainIoSize", 8);
+        return config;
+    }
+
+    /**
+     * Tomcat 请求执行器：经定制器设置了执行器时使用该执行器，否则与 Tomcat 默认线程池同样大小
+     */
+    private static Executor tomcatExecutor(AsyncConfig config) {
+        Http11NioProtocol protocol = new Http11NioProtocol();
+        config.virtualThreadTomcatCustomizer().customize(protocol);
+        if (protocol.getExecutor() != null) {
+            return protocol.getExecutor();
+        }
+        return new ThreadPoolExecutor(TOMCAT_MAX_THREADS, TOMCAT_MAX_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("http-platform-"));
+    }
+
+    /**
+     * 链客户端桩：每次 RPC 阻塞固定延迟，区块高度固定，采样区块为空
+     */
+    private static ChainClientPool stubChainClientPool() {
+        BlockNumber blockNumber = new BlockNumber();
+        blockNumber.setResult("0x3e8");
+        Client client = (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[] {Client.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "stub-client";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "getBlockNumber":
+                            sleep(CHAIN_LATENCY_MS);
+                            return blockNumber;
+                        case "getBlockByNumber":
+                            sleep(CHAIN_LATENCY_MS);
+                            return new BcosBlock();
+                        default:
+                            sleep(CHAIN_LATENCY_MS);
+                            return null;
+                    }
+                });
+        return new ChainClientPool(client, Collections.emptyList(), 3, 1000, 30_000, 5);
+    }
+
+    private static long run(Executor executor, int count, Supplier<?> task) throws Exception {
+        try {
+            // 预热
+            submitAll(executor, Math.min(count, TOMCAT_MAX_THREADS), task);
+            long start = System.nanoTime();
+            assertEquals(count, submitAll(executor, count, task));
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            if (executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdown();
+            }
+        }
+    }
+
+    private static int submitAll(Executor executor, int count, Supplier<?> task) throws InterruptedException {
+        AtomicInteger completed = new AtomicInteger();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                try {
+                    assertNotNull(task.get());
+                    completed.incrementAndGet();
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        if (!done.await(5, TimeUnit.MINUTES)) {
+            throw new AssertionError("基准任务未在 5 分钟内完成");
+        }
+        if (!errors.isEmpty()) {
+            throw new AssertionError("基准任务失败", errors.get(0));
+        }
+        return completed.get();
+    }
+
+    private static void report(String path, int count, long[] elapsed) {
+        log.info("线程模式基准: path={}, tasks={}, platform={} ms ({} req/s), virtual={} ms ({} req/s)",
+                path, count, elapsed[0], throughput(count, elapsed[0]), elapsed[1], throughput(count, elapsed[1]));
+    }
+
+    private static long throughput(int count, long elapsedMs) {
+        return count * 1000L / Math.max(1, elapsedMs);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
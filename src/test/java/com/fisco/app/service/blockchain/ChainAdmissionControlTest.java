@@ -0,0 +1,158 @@
+package com.fisco.app.service.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fisco.app.annotation.ChainOperation.OperationClass;
+import com.fisco.app.config.ChainAdmissionProperties;
+import com.fisco.app.exception.BusinessException;
+
+/**
+ * 上链准入控制测试
+ * 令牌桶直接传入时间，不依赖真实时钟
+ */
+public class ChainAdmissionControlTest {
+
+    private static final long T0 = 1_000_000_000L;
+
+    @Test
+    @DisplayName("令牌桶允许 burst 个突发请求，之后返回距下一个令牌的等待时间")
+    public void testBurstThenWait() {
+        ChainAdmissionControl.TokenBucket bucket =
+                new ChainAdmissionControl.TokenBucket(new ChainAdmissionProperties.Limit(10, 3), T0);
+
+        assertEquals(0L, bucket.tryAcquire(T0));
+        assertEquals(0L, bucket.tryAcquire(T0));
+        assertEquals(0L, bucket.tryAcquire(T0));
+        assertEquals(100L, bucket.tryAcquire(T0));
+        assertEquals(50L, bucket.tryAcquire(T0 + millis(50)));
+    }
+
+    @Test
+    @DisplayName("令牌按速率补充，空闲再久也不超过 burst")
+    public void testRefillCappedAtBurst() {
+        ChainAdmissionControl.TokenBucket bucket =
+                new ChainAdmissionControl.TokenBucket(new ChainAdmissionProperties.Limit(10, 2), T0);
+        bucket.tryAcquire(T0);
+        bucket.tryAcquire(T0);
+
+        assertEquals(0L, bucket.tryAcquire(T0 + millis(100)));
+        assertEquals(100L, bucket.tryAcquire(T0 + millis(100)));
+
+        long idle = T0 + TimeUnit.HOURS.toNanos(1);
+        assertEquals(0L, bucket.tryAcquire(idle));
+        assertEquals(0L, bucket.tryAcquire(idle));
+        assertEquals(100L, bucket.tryAcquire(idle));
+    }
+
+    @Test
+    @DisplayName("时间回退（并发线程先取时间后拿锁）不会扣减令牌")
+    public void testClockGoingBackwards() {
+        ChainAdmissionControl.TokenBucket bucket =
+                new ChainAdmissionControl.TokenBucket(new ChainAdmissionProperties.Limit(10, 1), T0);
+        assertEquals(0L, bucket.tryAcquire(T0 + millis(100)));
+
+        assertEquals(100L, bucket.tryAcquire(T0));
+        assertEquals(0L, bucket.tryAcquire(T0 + millis(200)));
+    }
+
+    @Test
+    @DisplayName("补充速率为 0 时令牌用完后不再放行")
+    public void testZeroRate() {
+        ChainAdmissionControl.TokenBucket bucket =
+                new ChainAdmissionControl.TokenBucket(new ChainAdmissionProperties.Limit(0, 1), T0);
+
+        assertEquals(0L, bucket.tryAcquire(T0));
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(T0 + TimeUnit.HOURS.toNanos(1)));
+    }
+
+    @Test
+    @DisplayName("归还的令牌可再次取得，且不超过 burst")
+    public void testRelease() {
+        ChainAdmissionControl.TokenBucket bucket =
+                new ChainAdmissionControl.TokenBucket(new ChainAdmissionProperties.Limit(0, 1), T0);
+        bucket.release();
+        assertEquals(0L, bucket.tryAcquire(T0));
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(T0));
+
+        bucket.release();
+        assertEquals(0L, bucket.tryAcquire(T0));
+    }
+
+    @Test
+    @DisplayName("一次申请多个类别时任一类别不足则整体拒绝，并归还已取得的令牌")
+    public void testAdmitAllOrNothing() {
+        ChainAdmissionProperties properties = new ChainAdmissionProperties();
+        properties.getLimits().put(OperationClass.ISSUE, new ChainAdmissionProperties.Limit(0.001, 2));
+        properties.getLimits().put(OperationClass.OTHER, new ChainAdmissionProperties.Limit(0.001, 1));
+        ChainAdmissionControl control = new ChainAdmissionControl(properties);
+
+        control.admit("0xa", OperationClass.ISSUE, OperationClass.OTHER);
+
+        BusinessException rejected = assertThrows(BusinessException.class,
+                () -> control.admit("0xa", OperationClass.ISSUE, OperationClass.OTHER));
+        assertEquals(Integer.valueOf(429), rejected.getCode());
+
+        // 被拒绝的申请已归还 ISSUE 令牌
+        control.admit("0xa", OperationClass.ISSUE);
+        assertThrows(BusinessException.class, () -> control.admit("0xa", OperationClass.ISSUE));
+        assertEquals(2L, control.getAdmittedCount());
+        assertEquals(2L, control.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("不同企业各自一个令牌桶")
+    public void testBucketsPerEnterprise() {
+        ChainAdmissionProperties properties = new ChainAdmissionProperties();
+        properties.getLimits().put(OperationClass.ISSUE, new ChainAdmissionProperties.Limit(0.001, 1));
+        ChainAdmissionControl control = new ChainAdmissionControl(properties);
+
+        control.admit("0xa", OperationClass.ISSUE);
+        assertThrows(BusinessException.class, () -> control.admit("0xa", OperationClass.ISSUE));
+        control.admit("0xb", OperationClass.ISSUE);
+    }
+
+    @Test
+    @DisplayName("关闭准入控制时不限速")
+    public void testDisabled() {
+        ChainAdmissionProperties properties = new ChainAdmissionProperties();
+        properties.setEnabled(false);
+        properties.getLimits().put(OperationClass.ISSUE, new ChainAdmissionProperties.Limit(0, 1));
+        ChainAdmissionControl control = new ChainAdmissionControl(properties);
+
+        for (int i = 0; i < 10; i++) {
+            control.admit("0xa", OperationClass.ISSUE);
+        }
+        assertEquals(0L, control.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("开启准入控制时补充速率为 0 启动失败")
+    public void testZeroRateRejectedAtStartup() {
+        ChainAdmissionProperties properties = new ChainAdmissionProperties();
+        properties.getLimits().put(OperationClass.PLEDGE, new ChainAdmissionProperties.Limit(0, 5));
+
+        assertThrows(IllegalStateException.class, () -> new ChainAdmissionControl(properties));
+    }
+
+    @Test
+    @DisplayName("操作对同一类别需要的令牌数超过 burst 时启动失败")
+    public void testOperationExceedingBurstRejected() {
+        ChainAdmissionProperties properties = new ChainAdmissionProperties();
+        properties.getLimits().put(OperationClass.OTHER, new ChainAdmissionProperties.Limit(10, 1));
+        ChainAdmissionControl control = new ChainAdmissionControl(properties);
+
+        control.checkOperation("Service.single", OperationClass.ISSUE, OperationClass.OTHER);
+        assertThrows(IllegalStateException.class,
+                () -> control.checkOperation("Service.createBadDebt", OperationClass.OTHER, OperationClass.OTHER));
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
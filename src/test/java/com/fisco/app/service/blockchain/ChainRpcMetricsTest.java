@@ -0,0 +1,57 @@
+package com.fisco.app.service.blockchain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fisco.app.service.blockchain.ChainRpcMetrics.OperationStats;
+import com.fisco.app.service.blockchain.ChainRpcMetrics.RpcType;
+
+/**
+ * 业务操作链上 RPC 计数测试
+ */
+public class ChainRpcMetricsTest {
+
+    @Test
+    @DisplayName("业务操作内记录的 RPC 按类型累计，并计算平均每次调用的 RPC 数")
+    public void testRecordWithinOperation() {
+        ChainRpcMetrics metrics = new ChainRpcMetrics();
+        for (int i = 0; i < 2; i++) {
+            metrics.begin("BillService.issueBill");
+            metrics.record(RpcType.TRANSACTION, 1);
+            metrics.record(RpcType.READ, 2);
+            metrics.end();
+        }
+        metrics.begin("BillService.issueBill");
+        metrics.record(RpcType.RECEIPT, 1);
+        metrics.end();
+
+        OperationStats stats = metrics.stats().get("BillService.issueBill");
+        assertEquals(3L, stats.getInvocations());
+        assertEquals(2L, stats.getTransactions());
+        assertEquals(1L, stats.getReceiptLookups());
+        assertEquals(4L, stats.getReads());
+        assertEquals(7.0 / 3, stats.getRpcsPerInvocation(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("业务操作之外的 RPC 不计入")
+    public void testRecordOutsideOperationIgnored() {
+        ChainRpcMetrics metrics = new ChainRpcMetrics();
+        metrics.record(RpcType.READ, 1);
+        assertTrue(metrics.stats().isEmpty());
+
+        metrics.begin("PledgeService.applyPledge");
+        metrics.end();
+        metrics.record(RpcType.TRANSACTION, 1);
+
+        Map<String, OperationStats> stats = metrics.stats();
+        assertEquals(1L, stats.get("PledgeService.applyPledge").getInvocations());
+        assertEquals(0L, stats.get("PledgeService.applyPledge").getTransactions());
+        assertEquals(0.0, stats.get("PledgeService.applyPledge").getRpcsPerInvocation(), 1e-9);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fisco.app.service.system;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 批量导入 CSV 解析测试
+ * 导出的 CSV 重新导入时应还原为原始单元格
+ */
+public class BulkImportServiceTest {
+
+    private static final List<StreamingExportService.Column<String[]>> COLUMNS = Arrays.asList(
+            StreamingExportService.Column.of("a", "列A", row -> row[0]),
+            StreamingExportService.Column.of("b", "列B", row -> row[1]),
+            StreamingExportService.Column.of("c", "列C", row -> row[2]));
+
+    @Test
+    @DisplayName("导出的引号、逗号、公式前缀在导入时还原")
+    public void testRoundTrip() throws Exception {
+        assertRoundTrip(new String[][] {
+                {"plain", "a,b", "say \"hi\""},
+                {"=SUM(A1)", "+86 10", "-1"},
+                {"@cmd", "\tx", "'quoted"},
+                {"", "中文", "=\"a,b\""},
+        });
+    }
+
+    @Test
+    @DisplayName("单元格内换行（LF、CRLF、CR）在导入时还原")
+    public void testMultilineRoundTrip() throws Exception {
+        assertRoundTrip(new String[][] {
+                {"line1\nline2", "a\r\nb", "c\rd"},
+                {"\"q\"\n,", "\n", "tail"},
+        });
+    }
+
+    @Test
+    @DisplayName("本身以单引号开头的单元格在导入时原样还原")
+    public void testLeadingQuoteRoundTrip() throws Exception {
+        assertRoundTrip(new String[][] {
+                {"'=x", "''+1", "'"},
+                {"'abc", "''", "'-'"},
+        });
+    }
+
+    @Test
+    @DisplayName("加引号的单元格保留首尾空白")
+    public void testWhitespaceRoundTrip() throws Exception {
+        assertRoundTrip(new String[][] {
+                {" a", "b ", " \t "},
+        });
+    }
+
+    @Test
+    @DisplayName("未加引号的单元格去除首尾空白，加引号的只去除引号外的空白，缺失的末尾单元格为空串")
+    public void testTrimAndEmptyCells() {
+        assertArrayEquals(new String[] {"a", "b", ""}, BulkImportService.parseCsvLine(" a , b ,"));
+        assertArrayEquals(new String[] {" a ", "b"}, BulkImportService.parseCsvLine(" \" a \" ,b"));
+        assertArrayEquals(new String[] {""}, BulkImportService.parseCsvLine(""));
+    }
+
+    @Test
+    @DisplayName("按记录读取时引号内的换行不结束记录")
+    public void testReadCsvRecord() throws Exception {
+        BufferedReader reader = new BufferedReader(new StringReader("a,\"b\r\nc\"\r\nd\re\n\"\"\"\"\nf"));
+        assertEquals("a,\"b\r\nc\"", BulkImportService.readCsvRecord(reader));
+        assertEquals("d", BulkImportService.readCsvRecord(reader));
+        assertEquals("e", BulkImportService.readCsvRecord(reader));
+        assertEquals("\"\"\"\"", BulkImportService.readCsvRecord(reader));
+        assertEquals("f", BulkImportService.readCsvRecord(reader));
+        assertNull(BulkImportService.readCsvRecord(reader));
+    }
+
+    @Test
+    @DisplayName("只去除首行开头的 BOM")
+    public void testStripBom() {
+        assertEquals("id", BulkImportService.stripBom("\uFEFFid"));
+        assertEquals("id", BulkImportService.stripBom("id"));
+        assertEquals("", BulkImportService.stripBom(""));
+    }
+
+    private static void assertRoundTrip(String[][] rows) throws Exception {
+        BufferedReader reader = new BufferedReader(new StringReader(export(rows)));
+        assertArrayEquals(new String[] {"列A", "列B", "列C"},
+                BulkImportService.parseCsvLine(BulkImportService.stripBom(BulkImportService.readCsvRecord(reader))));
+        List<String[]> imported = new ArrayList<>();
+        String record;
+        while ((record = BulkImportService.readCsvRecord(reader)) != null) {
+            imported.add(BulkImportService.parseCsvLine(record));
+        }
+        assertEquals(rows.length, imported.size());
+        for (int i = 0; i < rows.length; i++) {
+            assertArrayEquals(rows[i], imported.get(i));
+        }
+    }
+
+    private static String export(String[][] rows) throws Exception {
+        StringWriter out = new StringWriter();
+        StreamingExportService.CsvRowWriter<String[]> writer =
+                new StreamingExportService.CsvRowWriter<>(out, COLUMNS);
+        writer.begin();
+        for (String[] row : rows) {
+            writer.write(row);
+        }
+        writer.end();
+        return out.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.fisco.app.service.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 流式导出 CSV 编码测试
+ */
+public class StreamingExportServiceTest {
+
+    private static final List<StreamingExportService.Column<Object[]>> COLUMNS = Arrays.asList(
+            StreamingExportService.Column.of("a", "列A", row -> row[0]),
+            StreamingExportService.Column.of("b", "列B", row -> row[1]));
+
+    @Test
+    @DisplayName("首行写出 UTF-8 BOM 和列标题，行以 CRLF 结尾")
+    public void testBomAndHeader() throws Exception {
+        assertEquals("\uFEFF列A,列B\r\n", csv());
+    }
+
+    @Test
+    @DisplayName("含逗号、双引号、换行的单元格加引号，内部双引号加倍")
+    public void testQuoting() throws Exception {
+        assertEquals("\uFEFF列A,列B\r\n"
+                        + "\"a,b\",\"say \"\"hi\"\"\"\r\n"
+                        + "\"line1\nline2\",plain\r\n",
+                csv(new Object[] {"a,b", "say \"hi\""},
+                        new Object[] {"line1\nline2", "plain"}));
+    }
+
+    @Test
+    @DisplayName("以公式字符开头的文本加单引号前缀，数值不加")
+    public void testFormulaGuard() throws Exception {
+        assertEquals("\uFEFF列A,列B\r\n"
+                        + "'=SUM(A1),'+1\r\n"
+                        + "'-2,'@cmd\r\n"
+                        + "'\tx,\"'\rx\"\r\n"
+                        + "-3.50,\r\n",
+                csv(new Object[] {"=SUM(A1)", "+1"},
+                        new Object[] {"-2", "@cmd"},
+                        new Object[] {"\tx", "\rx"},
+                        new Object[] {new BigDecimal("-3.50"), null}));
+    }
+
+    @Test
+    @DisplayName("时间和枚举按固定格式写出")
+    public void testValueFormatting() throws Exception {
+        assertEquals("\uFEFF列A,列B\r\n2024-01-02 03:04:05,CSV\r\n",
+                csv(new Object[] {LocalDateTime.of(2024, 1, 2, 3, 4, 5), ExportFormat.CSV}));
+    }
+
+    static String csv(Object[]... rows) throws Exception {
+        StringWriter out = new StringWriter();
+        StreamingExportService.CsvRowWriter<Object[]> writer =
+                new StreamingExportService.CsvRowWriter<>(out, COLUMNS);
+        writer.begin();
+        for (Object[] row : rows) {
+            writer.write(row);
+        }
+        writer.end();
+        return out.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.fisco.app.service.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 分层时间轮测试
+ * 第 0 层每格 10ms、共 4 格（覆盖 40ms），更远的到期时间进入按需增加的上层
+ */
+public class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    @DisplayName("任务在到期时间所在的格子推进时到期，按到期时间先后返回")
+    public void testExpiresInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        assertTrue(wheel.add("c", 35));
+        assertTrue(wheel.add("a", 15));
+        assertTrue(wheel.add("b", 25));
+
+        assertEquals(Collections.emptyList(), wheel.advance(9));
+        assertEquals(Collections.singletonList("a"), wheel.advance(10));
+        assertEquals(Collections.singletonList("b"), wheel.advance(20));
+        assertEquals(Collections.singletonList("c"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("一次推进多格时按格子顺序返回期间到期的全部任务")
+    public void testAdvanceAcrossManyTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        wheel.add("late", 38);
+        wheel.add("early", 12);
+        wheel.add("middle", 21);
+
+        assertEquals(Arrays.asList("early", "middle", "late"), wheel.advance(100));
+    }
+
+    @Test
+    @DisplayName("超出第 0 层范围的任务逐层下沉，不提前到期")
+    public void testCascadeAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        // 第 1 层每格 40ms（覆盖 160ms），第 2 层每格 160ms（覆盖 640ms），第 3 层每格 640ms
+        assertTrue(wheel.add("level1", 130));
+        assertTrue(wheel.add("level3", 1000));
+
+        List<String> expired = new ArrayList<>();
+        for (long now = 0; now < 130; now += TICK_MS) {
+            expired.addAll(wheel.advance(now));
+        }
+        assertEquals(Collections.emptyList(), expired);
+        assertEquals(Collections.singletonList("level1"), wheel.advance(130));
+
+        for (long now = 140; now < 1000; now += TICK_MS) {
+            expired.addAll(wheel.advance(now));
+        }
+        assertEquals(Collections.emptyList(), expired);
+        assertEquals(Collections.singletonList("level3"), wheel.advance(1000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("到期时间落在当前格内的任务不登记，由调用方立即处理")
+    public void testAlreadyDue() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 100);
+        assertFalse(wheel.add("past", 50));
+        assertFalse(wheel.add("current", 105));
+        assertTrue(wheel.add("next", 110));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("取消的任务不再到期")
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        wheel.add("kept", 20);
+        wheel.add("cancelled", 20);
+        wheel.add("cascaded", 300);
+
+        wheel.cancel("cancelled");
+        wheel.cancel("cascaded");
+        assertEquals(1, wheel.size());
+
+        assertEquals(Collections.singletonList("kept"), wheel.advance(1000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("同一键重复登记时按新的到期时间触发，旧时间不再触发")
+    public void testReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        wheel.add("bill", 20);
+        wheel.add("bill", 200);
+        assertEquals(1, wheel.size());
+
+        assertEquals(Collections.emptyList(), wheel.advance(190));
+        assertEquals(Collections.singletonList("bill"), wheel.advance(200));
+
+        // 提前改期
+        wheel.add("receipt", 500);
+        wheel.add("receipt", 230);
+        assertEquals(Collections.singletonList("receipt"), wheel.advance(230));
+        assertEquals(Collections.emptyList(), wheel.advance(600));
+    }
+}
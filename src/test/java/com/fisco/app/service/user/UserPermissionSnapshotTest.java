@@ -0,0 +1,103 @@
+package com.fisco.app.service.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fisco.app.entity.user.UserPermission;
+import com.fisco.app.entity.user.UserPermission.Operation;
+import com.fisco.app.entity.user.UserPermission.ResourceType;
+
+/**
+ * 用户权限快照测试
+ */
+public class UserPermissionSnapshotTest {
+
+    @Test
+    @DisplayName("永久授权只命中对应的资源和操作，位图跨越多个 long")
+    public void testPermanentBits() {
+        UserPermissionSnapshot snapshot = UserPermissionSnapshot.compile(Arrays.asList(
+                permission("bill:create", ResourceType.BILL, Operation.CREATE, null),
+                permission("system:manage", ResourceType.SYSTEM, Operation.MANAGE, null)));
+
+        assertTrue(snapshot.has(ResourceType.BILL, Operation.CREATE));
+        assertTrue(snapshot.has(ResourceType.SYSTEM, Operation.MANAGE));
+        assertFalse(snapshot.has(ResourceType.BILL, Operation.READ));
+        assertFalse(snapshot.has(ResourceType.RECEIVABLE, Operation.CREATE));
+        assertFalse(snapshot.has(ResourceType.SYSTEM, Operation.IMPORT));
+        assertTrue(snapshot.hasCode("system:manage"));
+        assertFalse(snapshot.hasCode("bill:delete"));
+    }
+
+    @Test
+    @DisplayName("停用和编译时已过期的权限不生效")
+    public void testDisabledAndExpiredSkipped() {
+        UserPermission disabled = permission("bill:read", ResourceType.BILL, Operation.READ, null);
+        disabled.setIsEnabled(false);
+        UserPermission expired = permission("bill:update", ResourceType.BILL, Operation.UPDATE,
+                LocalDateTime.now().minusMinutes(1));
+
+        UserPermissionSnapshot snapshot = UserPermissionSnapshot.compile(Arrays.asList(disabled, expired));
+
+        assertFalse(snapshot.has(ResourceType.BILL, Operation.READ));
+        assertFalse(snapshot.has(ResourceType.BILL, Operation.UPDATE));
+        assertFalse(snapshot.hasCode("bill:update"));
+        assertEquals(0, snapshot.countValid());
+        assertEquals(Collections.emptyList(), snapshot.validPermissions());
+    }
+
+    @Test
+    @DisplayName("限时授权在过期前生效，过期后自动失效")
+    public void testBoundedExpiry() throws Exception {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(200_000_000L);
+        UserPermissionSnapshot snapshot = UserPermissionSnapshot.compile(Arrays.asList(
+                permission("pledge:approve", ResourceType.PLEDGE, Operation.APPROVE, soon),
+                permission("pledge:read", ResourceType.PLEDGE, Operation.READ, LocalDateTime.now().plusDays(1))));
+
+        assertTrue(snapshot.has(ResourceType.PLEDGE, Operation.APPROVE));
+        assertTrue(snapshot.hasCode("pledge:approve"));
+        assertEquals(2, snapshot.countValid());
+
+        Thread.sleep(300);
+
+        assertFalse(snapshot.has(ResourceType.PLEDGE, Operation.APPROVE));
+        assertFalse(snapshot.hasCode("pledge:approve"));
+        assertTrue(snapshot.has(ResourceType.PLEDGE, Operation.READ));
+        assertEquals(1, snapshot.countValid());
+        assertEquals(1, snapshot.validPermissions().size());
+        assertEquals("pledge:read", snapshot.validPermissions().get(0).getPermissionCode());
+    }
+
+    @Test
+    @DisplayName("同一权限代码取最晚的过期时间")
+    public void testCodeTakesLatestExpiry() throws Exception {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(100_000_000L);
+        UserPermissionSnapshot snapshot = UserPermissionSnapshot.compile(Arrays.asList(
+                permission("audit:read", ResourceType.AUDIT, Operation.READ, soon),
+                permission("audit:read", null, null, null)));
+
+        Thread.sleep(200);
+
+        assertTrue(snapshot.hasCode("audit:read"));
+        // 没有资源类型的授权只参与权限代码判定
+        assertFalse(snapshot.has(ResourceType.AUDIT, Operation.READ));
+    }
+
+    private static UserPermission permission(String code, ResourceType resourceType, Operation operation,
+                                             LocalDateTime expireAt) {
+        UserPermission permission = new UserPermission();
+        permission.setPermissionCode(code);
+        permission.setResourceType(resourceType);
+        permission.setOperation(operation);
+        permission.setExpireAt(expireAt);
+        permission.setIsEnabled(true);
+        return permission;
+    }
+}